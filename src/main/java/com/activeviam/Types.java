@@ -13,12 +13,14 @@ package com.activeviam;
 public enum Types {
 
 	DOUBLE,
-	INTEGER;
+	INTEGER,
+	FLOAT;
 	
 	public static int getSize(Types type) {
 		return switch(type) {
 			case DOUBLE -> 8;
 			case INTEGER -> 4;
+			case FLOAT -> 4;
 		};
 	}
 }
@@ -0,0 +1,316 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.MemoryAllocator;
+import com.activeviam.vector.DoubleFixedBlockVector;
+import com.activeviam.vector.EmptyVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.IntegerFixedBlockVector;
+import com.activeviam.vector.SegmentDoubleVector;
+import com.activeviam.vector.SegmentIntegerVector;
+import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link IVectorAllocator} packing short vectors next to each other in large blocks, instead of allocating one
+ * block per vector.
+ * <p>
+ * Vectors are placed one after the other in the current block, and a new block is allocated when the next vector
+ * does not fit. Vectors longer than half a block get a block of their own, not to waste the end of the current
+ * one.
+ * <p>
+ * The blocks are shared by the vectors, so they are only freed all together, when this allocator is
+ * {@link #release() released}. Releasing one of the vectors does not free its block.
+ *
+ * @author ActiveViam
+ * @param <B> the type of the blocks holding the vectors
+ */
+public abstract class ABlockPackingVectorAllocator<B extends IBlock> implements IVectorAllocator {
+
+	/** Default capacity of the blocks, in number of components. */
+	public static final int DEFAULT_BLOCK_CAPACITY = 1 << 16;
+
+	/** The capacity of the blocks, in number of components. */
+	protected final int blockCapacity;
+
+	/** All the blocks allocated so far. */
+	protected final List<B> blocks = new ArrayList<>();
+
+	/** The block in which the next short vectors are packed. */
+	protected B currentBlock;
+
+	/** The position of the next vector in {@link #currentBlock}. */
+	protected int nextPosition;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param blockCapacity the capacity of the blocks, in number of components
+	 */
+	protected ABlockPackingVectorAllocator(final int blockCapacity) {
+		if (blockCapacity <= 0) {
+			throw new IllegalArgumentException("The capacity of the blocks must be positive, got " + blockCapacity);
+		}
+		this.blockCapacity = blockCapacity;
+	}
+
+	@Override
+	public synchronized IVector allocateNewVector(final int length) {
+		if (length == 0) {
+			return EmptyVector.emptyVector(getComponentType());
+		}
+		if (length > this.blockCapacity / 2) {
+			final B block = allocateBlock(length);
+			this.blocks.add(block);
+			return createVector(block, 0, length);
+		}
+		if (this.currentBlock == null || this.nextPosition > this.blockCapacity - length) {
+			this.currentBlock = allocateBlock(this.blockCapacity);
+			this.blocks.add(this.currentBlock);
+			this.nextPosition = 0;
+		}
+		final IVector vector = createVector(this.currentBlock, this.nextPosition, length);
+		this.nextPosition += length;
+		return vector;
+	}
+
+	@Override
+	public IVector copy(final IVector toCopy) {
+		if (toCopy == null) {
+			return null;
+		}
+		final IVector clone = allocateNewVector(toCopy.size());
+		clone.copyFrom(toCopy);
+		return clone;
+	}
+
+	@Override
+	public void reallocateVector(final IVector vector) {
+	}
+
+	/**
+	 * Frees all the blocks of this allocator. None of the vectors it allocated can be used afterwards.
+	 */
+	@Override
+	public synchronized void release() {
+		for (final B block : this.blocks) {
+			discard(block);
+		}
+		this.blocks.clear();
+		this.currentBlock = null;
+		this.nextPosition = 0;
+	}
+
+	/**
+	 * Gets the number of blocks allocated by this allocator.
+	 *
+	 * @return the number of blocks
+	 */
+	public synchronized int getBlockCount() {
+		return this.blocks.size();
+	}
+
+	/**
+	 * Allocates a new block.
+	 *
+	 * @param capacity the block capacity, in number of components
+	 * @return the newly allocated block
+	 */
+	protected abstract B allocateBlock(int capacity);
+
+	/**
+	 * Creates a new vector on a range of a block.
+	 *
+	 * @param block the block on which to create the vector
+	 * @param position the position of the first component of the vector in the block
+	 * @param length the length of the vector, in number of components
+	 * @return the newly created vector
+	 */
+	protected abstract IVector createVector(B block, int position, int length);
+
+	/**
+	 * Hands a block back to the underlying memory allocator.
+	 *
+	 * @param block the block to free
+	 */
+	protected void discard(final B block) {
+	}
+
+	/**
+	 * Packs off-heap vectors of doubles in direct memory blocks.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PackedDirectDoubleVectorAllocator extends ABlockPackingVectorAllocator<DirectDoubleVectorBlock> {
+
+		/** The allocator of the direct memory of the blocks. */
+		protected final MemoryAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the direct memory of the blocks
+		 * @param blockCapacity the capacity of the blocks, in number of components
+		 */
+		public PackedDirectDoubleVectorAllocator(final MemoryAllocator allocator, final int blockCapacity) {
+			super(blockCapacity);
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.DOUBLE;
+		}
+
+		@Override
+		protected DirectDoubleVectorBlock allocateBlock(final int capacity) {
+			return new DirectDoubleVectorBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final DirectDoubleVectorBlock block, final int position, final int length) {
+			// The block is shared with the other packed vectors, it is only freed by this allocator
+			return new DoubleFixedBlockVector(block, position, length, false);
+		}
+
+		@Override
+		protected void discard(final DirectDoubleVectorBlock block) {
+			block.close();
+		}
+
+	}
+
+	/**
+	 * Packs off-heap vectors of ints in direct memory blocks.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PackedDirectIntegerVectorAllocator extends ABlockPackingVectorAllocator<DirectIntegerVectorBlock> {
+
+		/** The allocator of the direct memory of the blocks. */
+		protected final MemoryAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the direct memory of the blocks
+		 * @param blockCapacity the capacity of the blocks, in number of components
+		 */
+		public PackedDirectIntegerVectorAllocator(final MemoryAllocator allocator, final int blockCapacity) {
+			super(blockCapacity);
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.INTEGER;
+		}
+
+		@Override
+		protected DirectIntegerVectorBlock allocateBlock(final int capacity) {
+			return new DirectIntegerVectorBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final DirectIntegerVectorBlock block, final int position, final int length) {
+			// The block is shared with the other packed vectors, it is only freed by this allocator
+			return new IntegerFixedBlockVector(block, position, length, false);
+		}
+
+		@Override
+		protected void discard(final DirectIntegerVectorBlock block) {
+			block.close();
+		}
+
+	}
+
+	/**
+	 * Packs vectors of doubles in memory segment blocks.
+	 * <p>
+	 * The memory of the blocks belongs to the segment allocator, and is only freed with it.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PackedSegmentDoubleVectorAllocator extends ABlockPackingVectorAllocator<SegmentDoubleBlock> {
+
+		/** The allocator of the segments of the blocks. */
+		protected final SegmentAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the segments of the blocks
+		 * @param blockCapacity the capacity of the blocks, in number of components
+		 */
+		public PackedSegmentDoubleVectorAllocator(final SegmentAllocator allocator, final int blockCapacity) {
+			super(blockCapacity);
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.DOUBLE;
+		}
+
+		@Override
+		protected SegmentDoubleBlock allocateBlock(final int capacity) {
+			return new SegmentDoubleBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final SegmentDoubleBlock block, final int position, final int length) {
+			return new SegmentDoubleVector(block, position, length);
+		}
+
+	}
+
+	/**
+	 * Packs vectors of ints in memory segment blocks.
+	 * <p>
+	 * The memory of the blocks belongs to the segment allocator, and is only freed with it.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PackedSegmentIntegerVectorAllocator extends ABlockPackingVectorAllocator<SegmentIntegerBlock> {
+
+		/** The allocator of the segments of the blocks. */
+		protected final SegmentAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the segments of the blocks
+		 * @param blockCapacity the capacity of the blocks, in number of components
+		 */
+		public PackedSegmentIntegerVectorAllocator(final SegmentAllocator allocator, final int blockCapacity) {
+			super(blockCapacity);
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.INTEGER;
+		}
+
+		@Override
+		protected SegmentIntegerBlock allocateBlock(final int capacity) {
+			return new SegmentIntegerBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final SegmentIntegerBlock block, final int position, final int length) {
+			return new SegmentIntegerVector(block, position, length);
+		}
+
+	}
+
+}
@@ -8,9 +8,11 @@
 package com.activeviam.chunk;
 
 import com.activeviam.Types;
-import com.activeviam.UnsafeUtil;
 import com.activeviam.allocator.AllocationType;
 import com.activeviam.allocator.MemoryAllocator;
+import java.lang.foreign.MemoryAddress;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.MemorySession;
 
 /**
  * A block that can store vectors using direct memory allocated an {@link MemoryAllocator}.
@@ -19,9 +21,22 @@ import com.activeviam.allocator.MemoryAllocator;
  */
 public abstract class ADirectVectorBlock extends AbstractDirectChunk implements IBlock {
 
-	protected static final sun.misc.Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+	/** The view of a closed block, empty so that any access to it throws. */
+	private static final MemorySegment CLOSED = MemorySegment.ofAddress(MemoryAddress.NULL, 0, MemorySession.global());
+
 	private final Types type;
 
+	/**
+	 * A view of the direct memory of this block, through which all the components are read and
+	 * written.
+	 * <p>
+	 *   The view belongs to an implicit session, only closed once the view is unreachable, so that
+	 *   releasing a block does not pay the thread handshake of closing a shared session. It is replaced
+	 *   by an empty view when the block is closed.
+	 * </p>
+	 */
+	protected MemorySegment segment;
+
 	/**
 	 * Constructor.
 	 *
@@ -29,6 +44,20 @@ public abstract class ADirectVectorBlock extends AbstractDirectChunk implements
 	protected ADirectVectorBlock(final MemoryAllocator allocator, final int capacity, Types type) {
 		super(allocator, capacity, getBlockSizeInBytes(type, capacity));
 		this.type = type;
+		this.segment = MemorySegment.ofAddress(
+				MemoryAddress.ofLong(this.ptr),
+				getBlockSizeInBytes(type, capacity),
+				MemorySession.openImplicit());
+	}
+
+	/**
+	 * Replaces the segment view by an empty one before freeing the memory: any later access through the
+	 * block throws an {@link IndexOutOfBoundsException}.
+	 */
+	@Override
+	public void close() {
+		super.close();
+		this.segment = CLOSED;
 	}
 
 	/**
@@ -43,6 +72,7 @@ public abstract class ADirectVectorBlock extends AbstractDirectChunk implements
 			case DOUBLE:
 				return capacity << 3;
 			case INTEGER:
+			case FLOAT:
 				return capacity << 2;
 			default:
 				throw new IllegalStateException(
@@ -59,6 +89,19 @@ public abstract class ADirectVectorBlock extends AbstractDirectChunk implements
 		return this.ptr;
 	}
 
+	/**
+	 * Gets a view of the direct memory of this block, e.g. to read it with the Vector API.
+	 * <p>
+	 *   The view is bound to the lifecycle of the block: it must not be kept beyond the operation it is
+	 *   fetched for, as it still maps the freed memory once the block is closed.
+	 * </p>
+	 *
+	 * @return a segment over the whole block
+	 */
+	public MemorySegment getSegment() {
+		return this.segment;
+	}
+
 	/////////////////////////////////////////////////////////////////////////////////////
 	// Unused methods from ADirectChunk
 	/////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,853 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.MemoryAllocator;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayIntegerVector;
+import com.activeviam.vector.DoubleFixedBlockVector;
+import com.activeviam.vector.EmptyVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.IntegerFixedBlockVector;
+import com.activeviam.vector.SegmentDoubleVector;
+import com.activeviam.vector.SegmentIntegerVector;
+import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An {@link IVectorAllocator} recycling the underlying data of the vectors it allocated once they are released
+ * through {@link #releaseVector(IVector)}.
+ * <p>
+ * Released data is kept in free lists of the releasing thread, one per size class, so that a loop allocating and
+ * releasing vectors of the same size neither allocates nor contends with the other threads once warm. The free lists
+ * are bounded: data released beyond {@link #MAX_POOLED_PER_CLASS} items or {@link #MAX_SIZE_CLASSES} classes goes to
+ * overflow free lists shared by all the threads, with the same bounds, and beyond them is handed back to the
+ * underlying memory allocator. The threads poll their own free lists first, then the shared ones, so that the data
+ * of vectors released by another thread than the one that allocated them flows back to the allocating thread.
+ * <p>
+ * Vectors allocated from a pool start zeroed, like the ones of the other allocators.
+ *
+ * @author ActiveViam
+ * @param <S> the type of the storage backing the vectors, array or block
+ */
+public abstract class APooledVectorAllocator<S> implements IVectorAllocator {
+
+	/** Maximum number of released items kept for each size class. */
+	public static final int MAX_POOLED_PER_CLASS = 32;
+
+	/** Maximum number of size classes kept by the pool. */
+	public static final int MAX_SIZE_CLASSES = 16;
+
+	/** The free lists of each thread, only locked by {@link #release()} besides their thread. */
+	private final ThreadLocal<FreeLists<S>> localFreeLists = ThreadLocal.withInitial(this::registerFreeLists);
+
+	/** The free lists of all the threads, drained by {@link #release()}. */
+	private final Queue<FreeLists<S>> threadFreeLists = new ConcurrentLinkedQueue<>();
+
+	/** The free lists shared by all the threads, receiving what overflows the free lists of the threads. */
+	private final FreeLists<S> sharedFreeLists = new FreeLists<>();
+
+	/**
+	 * Constructor.
+	 */
+	protected APooledVectorAllocator() {
+	}
+
+	@Override
+	public IVector allocateNewVector(final int length) {
+		if (length == 0) {
+			return EmptyVector.emptyVector(getComponentType());
+		}
+		S storage = poll(length);
+		if (storage == null) {
+			storage = allocateStorage(sizeClass(length));
+		} else {
+			clear(storage, length);
+		}
+		return createVector(storage, length);
+	}
+
+	@Override
+	public IVector copy(final IVector toCopy) {
+		if (toCopy == null) {
+			return null;
+		}
+		final int length = toCopy.size();
+		if (length == 0) {
+			return EmptyVector.emptyVector(getComponentType());
+		}
+		S storage = poll(length);
+		if (storage == null) {
+			storage = allocateStorage(sizeClass(length));
+		}
+		// No need to clear recycled data, it is fully overwritten
+		final IVector clone = createVector(storage, length);
+		copyInto(toCopy, clone);
+		return clone;
+	}
+
+	@Override
+	public void reallocateVector(final IVector vector) {
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void releaseVector(final IVector vector) {
+		if (!(vector instanceof IPooledVector) || ((IPooledVector<?>) vector).getPool() != this) {
+			return;
+		}
+		final S storage = ((IPooledVector<S>) vector).getStorage();
+		final int sizeClass = sizeClass(vector.size());
+		if (!this.localFreeLists.get().push(sizeClass, storage) && !this.sharedFreeLists.push(sizeClass, storage)) {
+			discard(storage);
+		}
+	}
+
+	/**
+	 * Discards the free lists of the pool, of all the threads, handing their content back to the underlying memory
+	 * allocator.
+	 */
+	@Override
+	public void release() {
+		for (final FreeLists<S> freeLists : this.threadFreeLists) {
+			freeLists.drain(this);
+		}
+		this.sharedFreeLists.drain(this);
+	}
+
+	/**
+	 * Polls a released storage from the free list of the size class of a length, of the current thread first.
+	 *
+	 * @param length the length of the vector to allocate
+	 * @return the storage, {@code null} if none was released
+	 */
+	protected S poll(final int length) {
+		final int sizeClass = sizeClass(length);
+		final S storage = this.localFreeLists.get().poll(sizeClass);
+		return storage != null ? storage : this.sharedFreeLists.poll(sizeClass);
+	}
+
+	/**
+	 * Creates the free lists of a thread.
+	 *
+	 * @return the free lists, registered to be drained by {@link #release()}
+	 */
+	private FreeLists<S> registerFreeLists() {
+		final FreeLists<S> freeLists = new FreeLists<>();
+		this.threadFreeLists.add(freeLists);
+		return freeLists;
+	}
+
+	/**
+	 * Gets the size class of the vectors of a given length, that is the capacity of the storage allocated for them.
+	 * <p>
+	 * Vectors can only share storage with the vectors of the same size class.
+	 *
+	 * @param length the length of the vector, in number of components
+	 * @return the capacity of the storage, greater than or equal to {@code length}
+	 */
+	protected abstract int sizeClass(int length);
+
+	/**
+	 * Allocates a new storage.
+	 *
+	 * @param capacity the capacity of the storage, in number of components
+	 * @return the allocated storage
+	 */
+	protected abstract S allocateStorage(int capacity);
+
+	/**
+	 * Creates a vector over the start of a storage.
+	 *
+	 * @param storage the storage holding the components
+	 * @param length the length of the vector
+	 * @return the created vector, implementing {@link IPooledVector}
+	 */
+	protected abstract IVector createVector(S storage, int length);
+
+	/**
+	 * Resets the first components of a recycled storage to 0.
+	 *
+	 * @param storage the storage to clear
+	 * @param length the number of components to clear
+	 */
+	protected abstract void clear(S storage, int length);
+
+	/**
+	 * Copies a vector into a vector allocated by this pool.
+	 *
+	 * @param source the vector to copy
+	 * @param clone the vector receiving the copy
+	 */
+	protected void copyInto(final IVector source, final IVector clone) {
+		clone.copyFrom(source);
+	}
+
+	/**
+	 * Hands a storage that will not be pooled back to the underlying memory allocator.
+	 *
+	 * @param storage the storage to discard
+	 */
+	protected void discard(final S storage) {
+	}
+
+	/**
+	 * Gets the smallest power of two greater than or equal to a length, used as size class by the pools of blocks
+	 * that can hold vectors shorter than their capacity.
+	 *
+	 * @param length a positive length
+	 * @return the power of two size class
+	 */
+	protected static int powerOfTwoSizeClass(final int length) {
+		if (length <= 1) {
+			return 1;
+		}
+		final int sizeClass = Integer.highestOneBit(length - 1) << 1;
+		// Past 2^30, the length is its own class
+		return sizeClass > 0 ? sizeClass : length;
+	}
+
+	/**
+	 * A vector allocated by a pool.
+	 *
+	 * @param <S> the type of the storage backing the vector
+	 */
+	protected interface IPooledVector<S> {
+
+		/**
+		 * @return the pool that allocated this vector
+		 */
+		APooledVectorAllocator<S> getPool();
+
+		/**
+		 * @return the storage holding the components of this vector
+		 */
+		S getStorage();
+
+	}
+
+	/**
+	 * Free lists of a pool, looked up by size class without boxing, and guarded by their own lock.
+	 * <p>
+	 * The lock of the free lists of a thread is only taken by another thread in {@link #release()}, so that it is
+	 * never contended in the loops of that thread.
+	 *
+	 * @param <S> the type of the pooled storage
+	 */
+	private static final class FreeLists<S> {
+
+		private final int[] sizeClasses = new int[MAX_SIZE_CLASSES];
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private final ArrayDeque<S>[] lists = new ArrayDeque[MAX_SIZE_CLASSES];
+
+		private int count;
+
+		/**
+		 * @param sizeClass the size class of the storage
+		 * @param storage the released storage
+		 * @return {@code true} if the storage was added to these free lists, {@code false} if they are full
+		 */
+		synchronized boolean push(final int sizeClass, final S storage) {
+			final ArrayDeque<S> free = get(sizeClass, true);
+			if (free == null) {
+				return false;
+			}
+			for (final S pooled : free) {
+				if (pooled == storage) {
+					throw new IllegalStateException("Cannot release twice the same vector");
+				}
+			}
+			if (free.size() == MAX_POOLED_PER_CLASS) {
+				return false;
+			}
+			free.push(storage);
+			return true;
+		}
+
+		/**
+		 * @param sizeClass the size class of the storage
+		 * @return a released storage, {@code null} if there is none
+		 */
+		synchronized S poll(final int sizeClass) {
+			final ArrayDeque<S> free = get(sizeClass, false);
+			return free == null ? null : free.poll();
+		}
+
+		/**
+		 * Hands all the storage of these free lists back to the underlying memory allocator.
+		 *
+		 * @param pool the pool owning these free lists
+		 */
+		synchronized void drain(final APooledVectorAllocator<S> pool) {
+			for (int i = 0; i < this.count; ++i) {
+				final ArrayDeque<S> free = this.lists[i];
+				while (!free.isEmpty()) {
+					pool.discard(free.pop());
+				}
+			}
+		}
+
+		/**
+		 * @param sizeClass the size class of the list
+		 * @param create whether to create the list if it does not exist yet
+		 * @return the free list, {@code null} if it does not exist and cannot be created
+		 */
+		ArrayDeque<S> get(final int sizeClass, final boolean create) {
+			for (int i = 0; i < this.count; ++i) {
+				if (this.sizeClasses[i] == sizeClass) {
+					return this.lists[i];
+				}
+			}
+			if (!create || this.count == MAX_SIZE_CLASSES) {
+				return null;
+			}
+			this.sizeClasses[this.count] = sizeClass;
+			final ArrayDeque<S> free = new ArrayDeque<>();
+			this.lists[this.count++] = free;
+			return free;
+		}
+
+	}
+
+	/**
+	 * A pool of on-heap vectors of doubles. The arrays are recycled between vectors of the exact same length.
+	 * <p>
+	 * The allocated vectors are {@link com.activeviam.vector.ITransientVector transient}, and can be released with
+	 * {@link com.activeviam.vector.ITransientVector#release()}.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledArrayDoubleVectorAllocator extends APooledVectorAllocator<double[]> {
+
+		@Override
+		public Types getComponentType() {
+			return Types.DOUBLE;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return length;
+		}
+
+		@Override
+		protected double[] allocateStorage(final int capacity) {
+			return new double[capacity];
+		}
+
+		@Override
+		protected IVector createVector(final double[] storage, final int length) {
+			return new PooledArrayDoubleVector(this, storage);
+		}
+
+		@Override
+		protected void clear(final double[] storage, final int length) {
+			Arrays.fill(storage, 0d);
+		}
+
+		@Override
+		protected void copyInto(final IVector source, final IVector clone) {
+			source.copyTo(((ArrayDoubleVector) clone).getUnderlying());
+		}
+
+	}
+
+	/**
+	 * A pool of on-heap vectors of ints. The arrays are recycled between vectors of the exact same length.
+	 * <p>
+	 * The allocated vectors are {@link com.activeviam.vector.ITransientVector transient}, and can be released with
+	 * {@link com.activeviam.vector.ITransientVector#release()}.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledArrayIntegerVectorAllocator extends APooledVectorAllocator<int[]> {
+
+		@Override
+		public Types getComponentType() {
+			return Types.INTEGER;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return length;
+		}
+
+		@Override
+		protected int[] allocateStorage(final int capacity) {
+			return new int[capacity];
+		}
+
+		@Override
+		protected IVector createVector(final int[] storage, final int length) {
+			return new PooledArrayIntegerVector(this, storage);
+		}
+
+		@Override
+		protected void clear(final int[] storage, final int length) {
+			Arrays.fill(storage, 0);
+		}
+
+		@Override
+		protected void copyInto(final IVector source, final IVector clone) {
+			source.copyTo(((ArrayIntegerVector) clone).getUnderlying());
+		}
+
+	}
+
+	/**
+	 * A pool of off-heap vectors of doubles, allocated in blocks whose capacity is a power of two.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledDirectDoubleVectorAllocator extends APooledVectorAllocator<DirectDoubleVectorBlock> {
+
+		/** The allocator of the direct memory of the blocks. */
+		protected final MemoryAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the direct memory of the blocks
+		 */
+		public PooledDirectDoubleVectorAllocator(final MemoryAllocator allocator) {
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.DOUBLE;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return powerOfTwoSizeClass(length);
+		}
+
+		@Override
+		protected DirectDoubleVectorBlock allocateStorage(final int capacity) {
+			return new DirectDoubleVectorBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final DirectDoubleVectorBlock storage, final int length) {
+			return new PooledDoubleFixedBlockVector(this, storage, length);
+		}
+
+		@Override
+		protected void clear(final DirectDoubleVectorBlock storage, final int length) {
+			storage.fillDouble(0, length, 0d);
+		}
+
+		@Override
+		protected void discard(final DirectDoubleVectorBlock storage) {
+			storage.close();
+		}
+
+	}
+
+	/**
+	 * A pool of off-heap vectors of ints, allocated in blocks whose capacity is a power of two.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledDirectIntegerVectorAllocator extends APooledVectorAllocator<DirectIntegerVectorBlock> {
+
+		/** The allocator of the direct memory of the blocks. */
+		protected final MemoryAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the direct memory of the blocks
+		 */
+		public PooledDirectIntegerVectorAllocator(final MemoryAllocator allocator) {
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.INTEGER;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return powerOfTwoSizeClass(length);
+		}
+
+		@Override
+		protected DirectIntegerVectorBlock allocateStorage(final int capacity) {
+			return new DirectIntegerVectorBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final DirectIntegerVectorBlock storage, final int length) {
+			return new PooledIntegerFixedBlockVector(this, storage, length);
+		}
+
+		@Override
+		protected void clear(final DirectIntegerVectorBlock storage, final int length) {
+			storage.fillInt(0, length, 0);
+		}
+
+		@Override
+		protected void discard(final DirectIntegerVectorBlock storage) {
+			storage.close();
+		}
+
+	}
+
+	/**
+	 * A pool of memory segment vectors of doubles, allocated in blocks whose capacity is a power of two.
+	 * <p>
+	 * The memory of the blocks belongs to the segment allocator: blocks that are not pooled are only freed with it.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledSegmentDoubleVectorAllocator extends APooledVectorAllocator<SegmentDoubleBlock> {
+
+		/** The allocator of the segments of the blocks. */
+		protected final SegmentAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the segments of the blocks
+		 */
+		public PooledSegmentDoubleVectorAllocator(final SegmentAllocator allocator) {
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.DOUBLE;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return powerOfTwoSizeClass(length);
+		}
+
+		@Override
+		protected SegmentDoubleBlock allocateStorage(final int capacity) {
+			return new SegmentDoubleBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final SegmentDoubleBlock storage, final int length) {
+			return new PooledSegmentDoubleVector(this, storage, length);
+		}
+
+		@Override
+		protected void clear(final SegmentDoubleBlock storage, final int length) {
+			storage.getSegment().asSlice(0, (long) length << 3).fill((byte) 0);
+		}
+
+	}
+
+	/**
+	 * A pool of memory segment vectors of ints, allocated in blocks whose capacity is a power of two.
+	 * <p>
+	 * The memory of the blocks belongs to the segment allocator: blocks that are not pooled are only freed with it.
+	 *
+	 * @author ActiveViam
+	 */
+	public static class PooledSegmentIntegerVectorAllocator extends APooledVectorAllocator<SegmentIntegerBlock> {
+
+		/** The allocator of the segments of the blocks. */
+		protected final SegmentAllocator allocator;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param allocator the allocator of the segments of the blocks
+		 */
+		public PooledSegmentIntegerVectorAllocator(final SegmentAllocator allocator) {
+			this.allocator = allocator;
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.INTEGER;
+		}
+
+		@Override
+		protected int sizeClass(final int length) {
+			return powerOfTwoSizeClass(length);
+		}
+
+		@Override
+		protected SegmentIntegerBlock allocateStorage(final int capacity) {
+			return new SegmentIntegerBlock(this.allocator, capacity);
+		}
+
+		@Override
+		protected IVector createVector(final SegmentIntegerBlock storage, final int length) {
+			return new PooledSegmentIntegerVector(this, storage, length);
+		}
+
+		@Override
+		protected void clear(final SegmentIntegerBlock storage, final int length) {
+			storage.getSegment().asSlice(0, (long) length << 2).fill((byte) 0);
+		}
+
+	}
+
+	/**
+	 * An on-heap vector of doubles released to its pool by {@link #release()}.
+	 */
+	protected static class PooledArrayDoubleVector extends ArrayDoubleVector implements IPooledVector<double[]> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<double[]> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param underlying the array of the vector
+		 */
+		protected PooledArrayDoubleVector(final APooledVectorAllocator<double[]> pool, final double[] underlying) {
+			super(underlying);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<double[]> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public double[] getStorage() {
+			return this.underlying;
+		}
+
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+	/**
+	 * An on-heap vector of ints released to its pool by {@link #release()}.
+	 */
+	protected static class PooledArrayIntegerVector extends ArrayIntegerVector implements IPooledVector<int[]> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<int[]> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param underlying the array of the vector
+		 */
+		protected PooledArrayIntegerVector(final APooledVectorAllocator<int[]> pool, final int[] underlying) {
+			super(underlying);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<int[]> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public int[] getStorage() {
+			return this.underlying;
+		}
+
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+	/**
+	 * An off-heap vector of doubles starting a pooled block, released to its pool by {@link #release()}.
+	 */
+	protected static class PooledDoubleFixedBlockVector extends DoubleFixedBlockVector
+			implements IPooledVector<DirectDoubleVectorBlock> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<DirectDoubleVectorBlock> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param block the block of the vector
+		 * @param length the length of the vector
+		 */
+		protected PooledDoubleFixedBlockVector(
+				final APooledVectorAllocator<DirectDoubleVectorBlock> pool,
+				final DirectDoubleVectorBlock block,
+				final int length) {
+			super(block, 0, length);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<DirectDoubleVectorBlock> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public DirectDoubleVectorBlock getStorage() {
+			return (DirectDoubleVectorBlock) getBlock();
+		}
+
+		/**
+		 * Hands the block back to the pool instead of freeing it.
+		 */
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+	/**
+	 * An off-heap vector of ints starting a pooled block, released to its pool by {@link #release()}.
+	 */
+	protected static class PooledIntegerFixedBlockVector extends IntegerFixedBlockVector
+			implements IPooledVector<DirectIntegerVectorBlock> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<DirectIntegerVectorBlock> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param block the block of the vector
+		 * @param length the length of the vector
+		 */
+		protected PooledIntegerFixedBlockVector(
+				final APooledVectorAllocator<DirectIntegerVectorBlock> pool,
+				final DirectIntegerVectorBlock block,
+				final int length) {
+			super(block, 0, length);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<DirectIntegerVectorBlock> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public DirectIntegerVectorBlock getStorage() {
+			return (DirectIntegerVectorBlock) getBlock();
+		}
+
+		/**
+		 * Hands the block back to the pool instead of freeing it.
+		 */
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+	/**
+	 * A memory segment vector of doubles starting a pooled block, released to its pool by {@link #release()}.
+	 */
+	protected static class PooledSegmentDoubleVector extends SegmentDoubleVector
+			implements IPooledVector<SegmentDoubleBlock> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<SegmentDoubleBlock> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param block the block of the vector
+		 * @param length the length of the vector
+		 */
+		protected PooledSegmentDoubleVector(
+				final APooledVectorAllocator<SegmentDoubleBlock> pool,
+				final SegmentDoubleBlock block,
+				final int length) {
+			super(block, 0, length);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<SegmentDoubleBlock> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public SegmentDoubleBlock getStorage() {
+			return (SegmentDoubleBlock) getBlock();
+		}
+
+		/**
+		 * Hands the block back to the pool.
+		 */
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+	/**
+	 * A memory segment vector of ints starting a pooled block, released to its pool by {@link #release()}.
+	 */
+	protected static class PooledSegmentIntegerVector extends SegmentIntegerVector
+			implements IPooledVector<SegmentIntegerBlock> {
+
+		/** The pool that allocated this vector. */
+		protected final APooledVectorAllocator<SegmentIntegerBlock> pool;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pool the pool that allocated this vector
+		 * @param block the block of the vector
+		 * @param length the length of the vector
+		 */
+		protected PooledSegmentIntegerVector(
+				final APooledVectorAllocator<SegmentIntegerBlock> pool,
+				final SegmentIntegerBlock block,
+				final int length) {
+			super(block, 0, length);
+			this.pool = pool;
+		}
+
+		@Override
+		public APooledVectorAllocator<SegmentIntegerBlock> getPool() {
+			return this.pool;
+		}
+
+		@Override
+		public SegmentIntegerBlock getStorage() {
+			return (SegmentIntegerBlock) getBlock();
+		}
+
+		/**
+		 * Hands the block back to the pool.
+		 */
+		@Override
+		public void release() {
+			this.pool.releaseVector(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels filling, scaling, translating and widening a range of a block, shared by the blocks based on a
+ * {@link MemorySegment}, whether the segment was allocated by a {@link java.lang.foreign.SegmentAllocator}
+ * or is a view of direct memory.
+ * <p>
+ *   The range is checked against the segment once, before the loop, so that the accesses of the loop
+ *   can be compiled without bounds checks.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+final class BlockKernelUtil {
+
+	private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+	private BlockKernelUtil() {}
+
+	/**
+	 * Checks that a range of components lies within a segment.
+	 *
+	 * @param segment the segment
+	 * @param position the position of the first component
+	 * @param length the number of components
+	 * @param order the order of the size of a component
+	 * @return the offset, in bytes, of the first component
+	 */
+	private static long checkRange(
+			final MemorySegment segment,
+			final int position,
+			final int length,
+			final int order) {
+		final long offset = (long) position << order;
+		Objects.checkFromIndexSize(offset, (long) length << order, segment.byteSize());
+		return offset;
+	}
+
+	/**
+	 * Widens ints to doubles, each vector of ints filling two vectors of doubles.
+	 *
+	 * @param segment the segment of the ints
+	 * @param position the position of the first int
+	 * @param destination the array receiving the doubles, as many as its length
+	 */
+	static void widenInts(final MemorySegment segment, final int position, final double[] destination) {
+		final int length = destination.length;
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromMemorySegment(INT_SPECIES, segment, offset + ((long) i << 2), ORDER);
+			((DoubleVector) v.convert(VectorOperators.I2D, 0)).intoArray(destination, i);
+			((DoubleVector) v.convert(VectorOperators.I2D, 1)).intoArray(destination, i + DOUBLE_SPECIES.length());
+		}
+		for (; i < length; ++i) {
+			destination[i] = segment.get(ValueLayout.JAVA_INT, offset + ((long) i << 2));
+		}
+	}
+
+	/**
+	 * Widens floats to doubles, each vector of floats filling two vectors of doubles.
+	 *
+	 * @param segment the segment of the floats
+	 * @param position the position of the first float
+	 * @param destination the array receiving the doubles, as many as its length
+	 */
+	static void widenFloats(final MemorySegment segment, final int position, final double[] destination) {
+		final int length = destination.length;
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v =
+					FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, offset + ((long) i << 2), ORDER);
+			((DoubleVector) v.convert(VectorOperators.F2D, 0)).intoArray(destination, i);
+			((DoubleVector) v.convert(VectorOperators.F2D, 1)).intoArray(destination, i + DOUBLE_SPECIES.length());
+		}
+		for (; i < length; ++i) {
+			destination[i] = segment.get(ValueLayout.JAVA_FLOAT, offset + ((long) i << 2));
+		}
+	}
+
+	static void fill(final MemorySegment segment, final int position, final int length, final double value) {
+		final long offset = checkRange(segment, position, length, 3);
+		final DoubleVector v = DoubleVector.broadcast(DOUBLE_SPECIES, value);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			v.intoMemorySegment(segment, offset + ((long) i << 3), ORDER);
+		}
+		for (; i < length; ++i) {
+			segment.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), value);
+		}
+	}
+
+	static void scale(final MemorySegment segment, final int position, final int length, final double value) {
+		final long offset = checkRange(segment, position, length, 3);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long o = offset + ((long) i << 3);
+			DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, o, ORDER)
+					.mul(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 3);
+			segment.set(ValueLayout.JAVA_DOUBLE, o, value * segment.get(ValueLayout.JAVA_DOUBLE, o));
+		}
+	}
+
+	static void translate(final MemorySegment segment, final int position, final int length, final double value) {
+		final long offset = checkRange(segment, position, length, 3);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long o = offset + ((long) i << 3);
+			DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, o, ORDER)
+					.add(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 3);
+			segment.set(ValueLayout.JAVA_DOUBLE, o, value + segment.get(ValueLayout.JAVA_DOUBLE, o));
+		}
+	}
+
+	static void fill(final MemorySegment segment, final int position, final int length, final int value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final IntVector v = IntVector.broadcast(INT_SPECIES, value);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			v.intoMemorySegment(segment, offset + ((long) i << 2), ORDER);
+		}
+		for (; i < length; ++i) {
+			segment.set(ValueLayout.JAVA_INT, offset + ((long) i << 2), value);
+		}
+	}
+
+	static void scale(final MemorySegment segment, final int position, final int length, final int value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final long o = offset + ((long) i << 2);
+			IntVector.fromMemorySegment(INT_SPECIES, segment, o, ORDER)
+					.mul(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 2);
+			segment.set(ValueLayout.JAVA_INT, o, value * segment.get(ValueLayout.JAVA_INT, o));
+		}
+	}
+
+	static void translate(final MemorySegment segment, final int position, final int length, final int value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final long o = offset + ((long) i << 2);
+			IntVector.fromMemorySegment(INT_SPECIES, segment, o, ORDER)
+					.add(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 2);
+			segment.set(ValueLayout.JAVA_INT, o, value + segment.get(ValueLayout.JAVA_INT, o));
+		}
+	}
+
+	static void fill(final MemorySegment segment, final int position, final int length, final float value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final FloatVector v = FloatVector.broadcast(FLOAT_SPECIES, value);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			v.intoMemorySegment(segment, offset + ((long) i << 2), ORDER);
+		}
+		for (; i < length; ++i) {
+			segment.set(ValueLayout.JAVA_FLOAT, offset + ((long) i << 2), value);
+		}
+	}
+
+	static void scale(final MemorySegment segment, final int position, final int length, final float value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long o = offset + ((long) i << 2);
+			FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, o, ORDER)
+					.mul(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 2);
+			segment.set(ValueLayout.JAVA_FLOAT, o, value * segment.get(ValueLayout.JAVA_FLOAT, o));
+		}
+	}
+
+	static void translate(final MemorySegment segment, final int position, final int length, final float value) {
+		final long offset = checkRange(segment, position, length, 2);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long o = offset + ((long) i << 2);
+			FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, o, ORDER)
+					.add(value)
+					.intoMemorySegment(segment, o, ORDER);
+		}
+		for (; i < length; ++i) {
+			final long o = offset + ((long) i << 2);
+			segment.set(ValueLayout.JAVA_FLOAT, o, value + segment.get(ValueLayout.JAVA_FLOAT, o));
+		}
+	}
+
+}
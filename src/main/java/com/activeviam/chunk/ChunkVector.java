@@ -10,6 +10,8 @@ package com.activeviam.chunk;
 import com.activeviam.Types;
 import com.activeviam.allocator.AllocationType;
 import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayIntegerVector;
 import com.activeviam.vector.IVector;
 import com.activeviam.vector.VectorFinalizer;
 import java.lang.ref.WeakReference;
@@ -26,6 +28,8 @@ public class ChunkVector implements IVectorChunk {
 	private final IVector[] vectors;
 	private final Runnable destroyAction;
 	private final Types type;
+	/** The dictionary deduplicating the written vectors, {@code null} if they are not deduplicated */
+	private final VectorDictionary dictionary;
 
 	/**
 	 * Constructor.
@@ -35,7 +39,22 @@ public class ChunkVector implements IVectorChunk {
 	 * @param allocator the allocator to use to allocate new vectors
 	 */
 	public ChunkVector(int size, Types type, IChunkAllocator allocator) {
+		this(size, type, allocator, null);
+	}
+
+	/**
+	 * Constructor of a chunk storing each distinct vector once in a dictionary, possibly shared with other chunks.
+	 * <p>
+	 * The read vectors are then shared, and must be modified through {@link #readVectorForUpdate(int)}.
+	 *
+	 * @param size the size of the chunk
+	 * @param type the vector type
+	 * @param allocator the allocator to use to allocate new vectors
+	 * @param dictionary the dictionary storing the written vectors, or {@code null} not to deduplicate them
+	 */
+	public ChunkVector(int size, Types type, IChunkAllocator allocator, VectorDictionary dictionary) {
 		this.type = type;
+		this.dictionary = dictionary;
 		this.allocator = allocator;
 		this.vectors = new IVector[size];
 		if (allocator.isTransient()) {
@@ -99,6 +118,14 @@ public class ChunkVector implements IVectorChunk {
 
 	@Override
 	public void writeVector(final int position, final IVector vector) {
+		if (this.dictionary != null) {
+			final IVector vectorToWrite = vector == null ? null : this.dictionary.acquire(vector);
+			if (!isNull(position)) {
+				this.dictionary.release(this.vectors[position]);
+			}
+			this.vectors[position] = vectorToWrite;
+			return;
+		}
 		// If the allocator is transient, no need to count the references: they
 		// will never be released.
 		IVector vectorToWrite = vector;
@@ -119,6 +146,26 @@ public class ChunkVector implements IVectorChunk {
 		this.vectors[position] = vectorToWrite;
 	}
 
+	/**
+	 * Reads the vector at the given position to modify it.
+	 * <p>
+	 * When this chunk deduplicates its vectors, the stored vector is copied first if it is shared, so that the
+	 * modifications do not affect the other positions holding the same vector.
+	 *
+	 * @param position the position of the vector
+	 * @return the vector, that can be modified in place
+	 */
+	@Override
+	public IVector readVectorForUpdate(final int position) {
+		final IVector vector = this.vectors[position];
+		if (this.dictionary == null || vector == null) {
+			return vector;
+		}
+		final IVector mutable = this.dictionary.mutable(vector);
+		this.vectors[position] = mutable;
+		return mutable;
+	}
+
 	/**
 	 * Writes a value that does not implement {@link IVector} at the given position in this chunk.
 	 * <p>
@@ -132,15 +179,25 @@ public class ChunkVector implements IVectorChunk {
 	protected void writeNotVector(final int position, final Object value) throws IllegalArgumentException {
 
 		// It wasn't a vector. This must be an array.
+		// The dictionary copies the vectors it does not hold yet: wrapping the array is enough, while a vector
+		// allocated here would never be freed
 		final IVector vector;
 		if (value instanceof double[] && getComponentType() == Types.DOUBLE) {
 			final double[] v = ((double[]) value);
-			vector = allocateVector(v.length);
-			vector.copyFrom(v);
+			if (this.dictionary != null) {
+				vector = new ArrayDoubleVector(v);
+			} else {
+				vector = allocateVector(v.length);
+				vector.copyFrom(v);
+			}
 		} else if (value instanceof int[] && getComponentType() == Types.INTEGER) {
 			final int[] v = ((int[]) value);
-			vector = allocateVector(v.length);
-			vector.copyFrom(v);
+			if (this.dictionary != null) {
+				vector = new ArrayIntegerVector(v);
+			} else {
+				vector = allocateVector(v.length);
+				vector.copyFrom(v);
+			}
 		} else {
 			throw new IllegalArgumentException(
 					"The object " + value + " is of an unexpected type, and cannot be converted to an IVector["
@@ -171,6 +228,13 @@ public class ChunkVector implements IVectorChunk {
 
 	@Override
 	public void close() {
+		if (this.dictionary != null) {
+			for (final IVector vector : this.vectors) {
+				if (vector != null) {
+					this.dictionary.release(vector);
+				}
+			}
+		}
 		this.destroyAction.run();
 	}
 }
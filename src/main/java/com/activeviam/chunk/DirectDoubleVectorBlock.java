@@ -14,6 +14,11 @@ import com.activeviam.heap.MaxHeapDoubleWithIndices;
 import com.activeviam.heap.MinHeapDouble;
 import com.activeviam.heap.MinHeapDoubleWithIndices;
 import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.RadixSortUtil;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * @author ActiveViam
@@ -26,68 +31,49 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 
 	@Override
 	public void transfer(final int position, final double[] dest) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
-		final int lgth = dest.length;
-		long ptr = getAddress() + (position << 3);
-		for (int i = 0; i < lgth; ++i, ptr += 8) {
-			dest[i] = UNSAFE.getDouble(ptr);
-		}
+		MemorySegment.copy(this.segment, ValueLayout.JAVA_DOUBLE, (long) position << 3, dest, 0, dest.length);
 	}
 
 	@Override
 	public double readDouble(final int position) {
-		return UNSAFE.getDouble(getAddress() + (position << 3));
+		return this.segment.get(ValueLayout.JAVA_DOUBLE, (long) position << 3);
 	}
 
 	@Override
 	public void write(final int position, final double[] src) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
-		final int lgth = src.length;
-		long ptr = getAddress() + (position << 3);
-		for (int i = 0; i < lgth; ++i, ptr += 8) {
-			UNSAFE.putDouble(ptr, src[i]);
-		}
-
+		MemorySegment.copy(src, 0, this.segment, ValueLayout.JAVA_DOUBLE, (long) position << 3, src.length);
 	}
 
 	@Override
 	public void write(final int position, final float[] src) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
 		final int lgth = src.length;
-		long ptr = getAddress() + (position << 3);
-		for (int i = 0; i < lgth; ++i, ptr += 8) {
-			UNSAFE.putDouble(ptr, src[i]);
+		final long offset = (long) position << 3;
+		for (int i = 0; i < lgth; ++i) {
+			this.segment.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), src[i]);
 		}
 	}
 
 	@Override
 	public void write(final int position, final long[] src) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
 		final int lgth = src.length;
-		long ptr = getAddress() + (position << 3);
-		for (int i = 0; i < lgth; ++i, ptr += 8) {
-			UNSAFE.putDouble(ptr, src[i]);
+		final long offset = (long) position << 3;
+		for (int i = 0; i < lgth; ++i) {
+			this.segment.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), src[i]);
 		}
 	}
 
 	@Override
 	public void write(final int position, final int[] src) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
 		final int lgth = src.length;
-		long ptr = getAddress() + (position << 3);
-		for (int i = 0; i < lgth; ++i, ptr += 8) {
-			UNSAFE.putDouble(ptr, src[i]);
+		final long offset = (long) position << 3;
+		for (int i = 0; i < lgth; ++i) {
+			this.segment.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), src[i]);
 		}
 	}
 
 	@Override
 	public void writeDouble(final int position, final double v) {
-		UNSAFE.putDouble(getAddress() + (position << 3), v);
+		this.segment.set(ValueLayout.JAVA_DOUBLE, (long) position << 3, v);
 	}
 
 	@Override
@@ -97,8 +83,9 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 
 	@Override
 	public void addDouble(final int position, final double addedValue) {
-		final long ptr = getAddress() + (position << 3);
-		UNSAFE.putDouble(ptr, UNSAFE.getDouble(ptr) + addedValue);
+		final long offset = (long) position << 3;
+		final double value = this.segment.get(ValueLayout.JAVA_DOUBLE, offset);
+		this.segment.set(ValueLayout.JAVA_DOUBLE, offset, value + addedValue);
 	}
 
 	@Override
@@ -108,123 +95,72 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 
 	@Override
 	public void fillDouble(final int position, final int lgth, final double v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v);
-		}
+		BlockKernelUtil.fill(this.segment, position, lgth, v);
 	}
 
 	@Override
 	public void fillFloat(final int position, final int lgth, final float v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v);
-		}
+		fillDouble(position, lgth, v);
 	}
 
 	@Override
 	public void fillLong(final int position, final int lgth, final long v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v);
-		}
+		fillDouble(position, lgth, v);
 	}
 
 	@Override
 	public void fillInt(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v);
-		}
+		fillDouble(position, lgth, v);
 	}
 
 	@Override
 	public void scale(final int position, final int lgth, final double v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v * UNSAFE.getDouble(ptr));
-		}
+		BlockKernelUtil.scale(this.segment, position, lgth, v);
 	}
 
 	@Override
 	public void scale(final int position, final int lgth, final float v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v * UNSAFE.getDouble(ptr));
-		}
+		scale(position, lgth, (double) v);
 	}
 
 	@Override
 	public void scale(final int position, final int lgth, final long v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v * UNSAFE.getDouble(ptr));
-		}
+		scale(position, lgth, (double) v);
 	}
 
 	@Override
 	public void scale(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v * UNSAFE.getDouble(ptr));
-		}
+		scale(position, lgth, (double) v);
 	}
 
 	@Override
 	public void translate(final int position, final int lgth, final double v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v + UNSAFE.getDouble(ptr));
-		}
+		BlockKernelUtil.translate(this.segment, position, lgth, v);
 	}
 
 	@Override
 	public void translate(final int position, final int lgth, final float v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v + UNSAFE.getDouble(ptr));
-		}
+		translate(position, lgth, (double) v);
 	}
 
 	@Override
 	public void translate(final int position, final int lgth, final long v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v + UNSAFE.getDouble(ptr));
-		}
+		translate(position, lgth, (double) v);
 	}
 
 	@Override
 	public void translate(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			UNSAFE.putDouble(ptr, v + UNSAFE.getDouble(ptr));
-		}
+		translate(position, lgth, (double) v);
 	}
 
 	@Override
-	public int hashCode(final int position, final int lgth) {
-		int result = 1;
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-		for (; ptr < end; ptr += 8) {
-			long bits = Double.doubleToLongBits(UNSAFE.getDouble(ptr));
-			result = 31 * result + (int) (bits ^ (bits >>> 32));
-		}
+	public void sort(final int position, final int lgth) {
+		RadixSortUtil.sortDoubles(this.segment, (long) position << 3, lgth);
+	}
 
-		return result;
+	@Override
+	public int hashCode(final int position, final int lgth) {
+		return VectorHashUtil.hashCode(VectorHashUtil.hashDoubles(this.segment, (long) position << 3, lgth));
 	}
 
 	@Override
@@ -241,22 +177,7 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 	 * @return the heap
 	 */
 	protected MinHeapDouble topKMinHeapDouble(final int position, final int lgth, final int k) {
-		final MinHeapDouble h = new MinHeapDouble(k);
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final double item = UNSAFE.getDouble(ptr);
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.topKDouble(this.segment, (long) position << 3, lgth, k);
 	}
 
 	/**
@@ -271,25 +192,7 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 			final int position,
 			final int lgth,
 			final int k) {
-
-		final MinHeapDoubleWithIndices h = new MinHeapDoubleWithIndices(k);
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-
-		int i = 0;
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final double item = UNSAFE.getDouble(ptr);
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i);
-			}
-			i++;
-		}
-
-		return h;
+		return TopKUtil.topKDoubleWithIndices(this.segment, (long) position << 3, lgth, k);
 	}
 
 	@Override
@@ -306,22 +209,7 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 	 * @return the heap
 	 */
 	protected MaxHeapDouble bottomKMaxHeapDouble(final int position, final int lgth, final int k) {
-		final MaxHeapDouble h = new MaxHeapDouble(k);
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final double item = UNSAFE.getDouble(ptr);
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomKDouble(this.segment, (long) position << 3, lgth, k);
 	}
 
 	/**
@@ -336,25 +224,7 @@ public class DirectDoubleVectorBlock extends ADirectVectorBlock {
 			final int position,
 			final int lgth,
 			final int k) {
-
-		final MaxHeapDoubleWithIndices h = new MaxHeapDoubleWithIndices(k);
-		long ptr = getAddress() + (position << 3);
-		final long end = ptr + (lgth << 3);
-
-		int i = 0;
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final double item = UNSAFE.getDouble(ptr);
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i);
-			}
-			i++;
-		}
-
-		return h;
+		return TopKUtil.bottomKDoubleWithIndices(this.segment, (long) position << 3, lgth, k);
 	}
 
 	@Override
@@ -0,0 +1,256 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.MemoryAllocator;
+import com.activeviam.heap.MaxHeapDouble;
+import com.activeviam.heap.MaxHeapDoubleWithIndices;
+import com.activeviam.heap.MinHeapDouble;
+import com.activeviam.heap.MinHeapDoubleWithIndices;
+import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Direct memory block of floats.
+ * <p>
+ * The components are stored in single precision, and widened to doubles when read as doubles.
+ *
+ * @author ActiveViam
+ */
+public class DirectFloatVectorBlock extends ADirectVectorBlock {
+
+	public DirectFloatVectorBlock(final MemoryAllocator allocator, final int capacity) {
+		super(allocator, capacity, Types.FLOAT);
+	}
+
+	@Override
+	public void transfer(final int position, final double[] dest) {
+		BlockKernelUtil.widenFloats(this.segment, position, dest);
+	}
+
+	@Override
+	public void transfer(final int position, final float[] dest) {
+		MemorySegment.copy(this.segment, ValueLayout.JAVA_FLOAT, (long) position << 2, dest, 0, dest.length);
+	}
+
+	@Override
+	public double readDouble(final int position) {
+		return readFloat(position);
+	}
+
+	@Override
+	public float readFloat(final int position) {
+		return this.segment.get(ValueLayout.JAVA_FLOAT, (long) position << 2);
+	}
+
+	@Override
+	public void write(final int position, final double[] src) {
+		final int lgth = src.length;
+		final long offset = (long) position << 2;
+		for (int i = 0; i < lgth; ++i) {
+			this.segment.set(ValueLayout.JAVA_FLOAT, offset + ((long) i << 2), (float) src[i]);
+		}
+	}
+
+	@Override
+	public void write(final int position, final float[] src) {
+		MemorySegment.copy(src, 0, this.segment, ValueLayout.JAVA_FLOAT, (long) position << 2, src.length);
+	}
+
+	@Override
+	public void writeDouble(final int position, final double v) {
+		writeFloat(position, (float) v);
+	}
+
+	@Override
+	public void writeFloat(final int position, final float v) {
+		this.segment.set(ValueLayout.JAVA_FLOAT, (long) position << 2, v);
+	}
+
+	@Override
+	public void addDouble(final int position, final double addedValue) {
+		addFloat(position, (float) addedValue);
+	}
+
+	@Override
+	public void addFloat(final int position, final float addedValue) {
+		final long offset = (long) position << 2;
+		final float value = this.segment.get(ValueLayout.JAVA_FLOAT, offset);
+		this.segment.set(ValueLayout.JAVA_FLOAT, offset, value + addedValue);
+	}
+
+	@Override
+	public void fillFloat(final int position, final int lgth, final float v) {
+		BlockKernelUtil.fill(this.segment, position, lgth, v);
+	}
+
+	@Override
+	public void fillDouble(final int position, final int lgth, final double v) {
+		fillFloat(position, lgth, (float) v);
+	}
+
+	@Override
+	public void scale(final int position, final int lgth, final float v) {
+		BlockKernelUtil.scale(this.segment, position, lgth, v);
+	}
+
+	@Override
+	public void scale(final int position, final int lgth, final double v) {
+		// The product is computed in double precision, and only then rounded to a float
+		final long offset = (long) position << 2;
+		for (int i = 0; i < lgth; ++i) {
+			final long o = offset + ((long) i << 2);
+			this.segment.set(ValueLayout.JAVA_FLOAT, o, (float) (v * this.segment.get(ValueLayout.JAVA_FLOAT, o)));
+		}
+	}
+
+	@Override
+	public void translate(final int position, final int lgth, final float v) {
+		BlockKernelUtil.translate(this.segment, position, lgth, v);
+	}
+
+	@Override
+	public void translate(final int position, final int lgth, final double v) {
+		final long offset = (long) position << 2;
+		for (int i = 0; i < lgth; ++i) {
+			final long o = offset + ((long) i << 2);
+			this.segment.set(ValueLayout.JAVA_FLOAT, o, (float) (v + this.segment.get(ValueLayout.JAVA_FLOAT, o)));
+		}
+	}
+
+	@Override
+	public void sort(final int position, final int lgth) {
+		final long offset = (long) position << 2;
+		final float[] values = new float[lgth];
+		MemorySegment.copy(this.segment, ValueLayout.JAVA_FLOAT, offset, values, 0, lgth);
+		Arrays.sort(values);
+		MemorySegment.copy(values, 0, this.segment, ValueLayout.JAVA_FLOAT, offset, lgth);
+	}
+
+	@Override
+	public int hashCode(final int position, final int lgth) {
+		return VectorHashUtil.hashCode(VectorHashUtil.hashFloats(this.segment, (long) position << 2, lgth));
+	}
+
+	@Override
+	public IPrimitiveIterator topK(final int position, final int lgth, final int k) {
+		return topKMinHeapDouble(position, lgth, k);
+	}
+
+	/**
+	 * A min heap containing the smallest k elements.
+	 *
+	 * @param position the position in the block
+	 * @param lgth the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MinHeapDouble topKMinHeapDouble(final int position, final int lgth, final int k) {
+		return TopKUtil.topKFloat(this.segment, (long) position << 2, lgth, k);
+	}
+
+	/**
+	 * A min heap containing the smallest k elements and their indices.
+	 *
+	 * @param position the position in the block
+	 * @param lgth the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MinHeapDoubleWithIndices topKMinHeapWithIndicesDouble(
+			final int position,
+			final int lgth,
+			final int k) {
+		return TopKUtil.topKFloatWithIndices(this.segment, (long) position << 2, lgth, k);
+	}
+
+	@Override
+	public IPrimitiveIterator bottomK(final int position, final int lgth, final int k) {
+		return bottomKMaxHeapDouble(position, lgth, k);
+	}
+
+	/**
+	 * A max heap containing the smallest k elements.
+	 *
+	 * @param position the position in the block
+	 * @param lgth the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MaxHeapDouble bottomKMaxHeapDouble(final int position, final int lgth, final int k) {
+		return TopKUtil.bottomKFloat(this.segment, (long) position << 2, lgth, k);
+	}
+
+	/**
+	 * A max heap containing the smallest k elements and their indices.
+	 *
+	 * @param position the position in the block
+	 * @param lgth the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MaxHeapDoubleWithIndices bottomKMaxHeapWithIndicesDouble(
+			final int position,
+			final int lgth,
+			final int k) {
+		return TopKUtil.bottomKFloatWithIndices(this.segment, (long) position << 2, lgth, k);
+	}
+
+	@Override
+	public int[] topKIndices(final int position, final int lgth, final int k) {
+		final MinHeapDoubleWithIndices h = topKMinHeapWithIndicesDouble(position, lgth, k);
+		h.sort();
+		return h.getArrayIndices();
+	}
+
+	@Override
+	public int[] bottomKIndices(final int position, final int lgth, final int k) {
+		final MaxHeapDoubleWithIndices h = bottomKMaxHeapWithIndicesDouble(position, lgth, k);
+		h.sort();
+		return h.getArrayIndices();
+	}
+
+	@Override
+	public double quantileDouble(final int position, final int lgth, final double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException(
+					"Order of the quantile should be greater than zero and less than 1.");
+		}
+
+		if (r >= 0.5) {
+			return topKMinHeapDouble(position, lgth, lgth - nearestRank(lgth, r) + 1).peek();
+		} else {
+			return bottomKMaxHeapDouble(position, lgth, nearestRank(lgth, r)).peek();
+		}
+	}
+
+	@Override
+	public float quantileFloat(final int position, final int lgth, final double r) {
+		return (float) quantileDouble(position, lgth, r);
+	}
+
+	@Override
+	public int quantileIndex(final int position, final int lgth, final double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException(
+					"Order of the quantile should be greater than zero and less than 1.");
+		}
+
+		if (r >= 0.5) {
+			return topKMinHeapWithIndicesDouble(position, lgth, lgth - nearestRank(lgth, r) + 1).peekIndex();
+		} else {
+			return bottomKMaxHeapWithIndicesDouble(position, lgth, nearestRank(lgth, r)).peekIndex();
+		}
+	}
+
+}
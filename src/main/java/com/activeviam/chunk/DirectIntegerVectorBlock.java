@@ -14,6 +14,11 @@ import com.activeviam.heap.MaxHeapIntegerWithIndices;
 import com.activeviam.heap.MinHeapInteger;
 import com.activeviam.heap.MinHeapIntegerWithIndices;
 import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.RadixSortUtil;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * @author ActiveViam
@@ -26,22 +31,12 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 
 	@Override
 	public void transfer(final int position, final double[] dest) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
-		final int lgth = dest.length;
-		long ptr = getAddress() + (position << 2);
-		for (int i = 0; i < lgth; ++i, ptr += 4) {
-			dest[i] = UNSAFE.getInt(ptr);
-		}
+		BlockKernelUtil.widenInts(this.segment, position, dest);
 	}
-	
+
 	@Override
 	public void transfer(final int position, final int[] dest) {
-		final int lgth = dest.length;
-		long ptr = getAddress() + (position << 2);
-		for (int i = 0; i < lgth; ++i, ptr += 4) {
-			dest[i] = UNSAFE.getInt(ptr);
-		}
+		MemorySegment.copy(this.segment, ValueLayout.JAVA_INT, (long) position << 2, dest, 0, dest.length);
 	}
 
 	@Override
@@ -51,63 +46,42 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 
 	@Override
 	public int readInt(int position) {
-		return UNSAFE.getInt(getAddress() + (position << 2));
+		return this.segment.get(ValueLayout.JAVA_INT, (long) position << 2);
 	}
-	
+
 	@Override
 	public void writeInt(int position, int value) {
-		UNSAFE.putInt(getAddress() + (position << 2), value);
+		this.segment.set(ValueLayout.JAVA_INT, (long) position << 2, value);
 	}
 
 	@Override
 	public void write(final int position, final int[] src) {
-		// Don't use Unsafe.copyMemory : there is no reason for the GC to not move things while
-		// we are reading.
-		final int lgth = src.length;
-		long ptr = getAddress() + (position << 2);
-		for (int i = 0; i < lgth; ++i, ptr += 4) {
-			UNSAFE.putInt(ptr, src[i]);
-		}
+		MemorySegment.copy(src, 0, this.segment, ValueLayout.JAVA_INT, (long) position << 2, src.length);
 	}
 
 	@Override
 	public void fillInt(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-		for (; ptr < end; ptr += 4) {
-			UNSAFE.putInt(ptr, v);
-		}
+		BlockKernelUtil.fill(this.segment, position, lgth, v);
 	}
 
 	@Override
 	public void scale(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-		for (; ptr < end; ptr += 4) {
-			UNSAFE.putInt(ptr, v * UNSAFE.getInt(ptr));
-		}
+		BlockKernelUtil.scale(this.segment, position, lgth, v);
 	}
 
 	@Override
 	public void translate(final int position, final int lgth, final int v) {
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-		for (; ptr < end; ptr += 4) {
-			UNSAFE.putInt(ptr, v + UNSAFE.getInt(ptr));
-		}
+		BlockKernelUtil.translate(this.segment, position, lgth, v);
 	}
 
 	@Override
-	public int hashCode(final int position, final int lgth) {
-		int result = 1;
-		long ptr = this.ptr + (position << 2);
-		final long end = ptr + (lgth << 2);
-		for (; ptr < end; ptr += 4) {
-			int bits = UNSAFE.getInt(ptr);
-			result = 31 * result + bits;
-		}
+	public void sort(final int position, final int lgth) {
+		RadixSortUtil.sortInts(this.segment, (long) position << 2, lgth);
+	}
 
-		return result;
+	@Override
+	public int hashCode(final int position, final int lgth) {
+		return VectorHashUtil.hashCode(VectorHashUtil.hashInts(this.segment, (long) position << 2, lgth));
 	}
 
 	@Override
@@ -124,22 +98,7 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 	 * @return the heap
 	 */
 	protected MinHeapInteger topKMinHeapInteger(final int position, final int lgth, final int k) {
-		final MinHeapInteger h = new MinHeapInteger(k);
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-
-		for (; ptr < end; ptr += 4) {
-			final int s = h.size();
-			final int item = UNSAFE.getInt(ptr);
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.topKInt(this.segment, (long) position << 2, lgth, k);
 	}
 
 	/**
@@ -154,25 +113,7 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 			final int position,
 			final int lgth,
 			final int k) {
-
-		final MinHeapIntegerWithIndices h = new MinHeapIntegerWithIndices(k);
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-
-		int i = 0;
-		for (; ptr < end; ptr += 4) {
-			final int s = h.size();
-			final int item = UNSAFE.getInt(ptr);
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i);
-			}
-			i++;
-		}
-
-		return h;
+		return TopKUtil.topKIntWithIndices(this.segment, (long) position << 2, lgth, k);
 	}
 
 	@Override
@@ -189,22 +130,7 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 	 * @return the heap
 	 */
 	protected MaxHeapInteger bottomKMaxHeapInteger(final int position, final int lgth, final int k) {
-		final MaxHeapInteger h = new MaxHeapInteger(k);
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final int item = UNSAFE.getInt(ptr);
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomKInt(this.segment, (long) position << 2, lgth, k);
 	}
 
 	/**
@@ -219,25 +145,7 @@ public class DirectIntegerVectorBlock extends ADirectVectorBlock {
 			final int position,
 			final int lgth,
 			final int k) {
-
-		final MaxHeapIntegerWithIndices h = new MaxHeapIntegerWithIndices(k);
-		long ptr = getAddress() + (position << 2);
-		final long end = ptr + (lgth << 2);
-
-		int i = 0;
-		for (; ptr < end; ptr += 8) {
-			final int s = h.size();
-			final int item = UNSAFE.getInt(ptr);
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i);
-			}
-			i++;
-		}
-
-		return h;
+		return TopKUtil.bottomKIntWithIndices(this.segment, (long) position << 2, lgth, k);
 	}
 
 	@Override
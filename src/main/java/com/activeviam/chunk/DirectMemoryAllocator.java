@@ -10,9 +10,14 @@ package com.activeviam.chunk;
 import com.activeviam.Types;
 import com.activeviam.allocator.MemoryAllocator;
 import com.activeviam.allocator.UnsafeNativeMemoryAllocator;
+import com.activeviam.chunk.ABlockPackingVectorAllocator.PackedDirectDoubleVectorAllocator;
+import com.activeviam.chunk.ABlockPackingVectorAllocator.PackedDirectIntegerVectorAllocator;
+import com.activeviam.chunk.APooledVectorAllocator.PooledDirectDoubleVectorAllocator;
+import com.activeviam.chunk.APooledVectorAllocator.PooledDirectIntegerVectorAllocator;
 import com.activeviam.vector.AFixedBlockVector;
 import com.activeviam.vector.DoubleFixedBlockVector;
 import com.activeviam.vector.EmptyVector;
+import com.activeviam.vector.FloatFixedBlockVector;
 import com.activeviam.vector.IVector;
 import com.activeviam.vector.IVectorAllocator;
 import com.activeviam.vector.IntegerFixedBlockVector;
@@ -26,6 +31,12 @@ public class DirectMemoryAllocator implements IChunkAllocator {
 
 	private final MemoryAllocator allocator = new UnsafeNativeMemoryAllocator();
 
+	/** The pool of vectors of doubles, shared by all the users of this allocator. */
+	private final IVectorAllocator pooledDoubleAllocator = new PooledDirectDoubleVectorAllocator(this.allocator);
+
+	/** The pool of vectors of ints, shared by all the users of this allocator. */
+	private final IVectorAllocator pooledIntegerAllocator = new PooledDirectIntegerVectorAllocator(this.allocator);
+
 	@Override
 	public IntegerChunk allocateIntegerChunk(int size) {
 		return null;
@@ -43,6 +54,36 @@ public class DirectMemoryAllocator implements IChunkAllocator {
 				return new DirectDoubleVectorAllocator();
 			case INTEGER:
 				return new DirectIntegerVectorAllocator();
+			case FLOAT:
+				return new DirectFloatVectorAllocator();
+			default:
+				throw new IllegalStateException(
+						"Unexpected type: " + type.name());
+		}
+	}
+
+	@Override
+	public IVectorAllocator getPooledVectorAllocator(Types type) {
+		switch (type) {
+			case DOUBLE:
+				return this.pooledDoubleAllocator;
+			case INTEGER:
+				return this.pooledIntegerAllocator;
+			default:
+				throw new IllegalStateException(
+						"Unexpected type: " + type.name());
+		}
+	}
+
+	@Override
+	public IVectorAllocator getPackedVectorAllocator(Types type) {
+		switch (type) {
+			case DOUBLE:
+				return new PackedDirectDoubleVectorAllocator(this.allocator,
+						ABlockPackingVectorAllocator.DEFAULT_BLOCK_CAPACITY);
+			case INTEGER:
+				return new PackedDirectIntegerVectorAllocator(this.allocator,
+						ABlockPackingVectorAllocator.DEFAULT_BLOCK_CAPACITY);
 			default:
 				throw new IllegalStateException(
 						"Unexpected type: " + type.name());
@@ -162,4 +203,32 @@ public class DirectMemoryAllocator implements IChunkAllocator {
 			return new DirectIntegerVectorBlock(DirectMemoryAllocator.this.allocator, capacity);
 		}
 	}
+
+	/**
+	 * An implementation of an {@link IVectorAllocator} that allocates off-heap vectors of floats via Unsafe.
+	 *
+	 * @author ActiveViam
+	 */
+	public class DirectFloatVectorAllocator extends ABlockVectorAllocator<DirectFloatVectorBlock> implements IVectorAllocator {
+
+		@Override
+		public void reallocateVector(IVector vector) {
+
+		}
+
+		@Override
+		public Types getComponentType() {
+			return Types.FLOAT;
+		}
+
+		@Override
+		protected AFixedBlockVector createVector(DirectFloatVectorBlock block, int length) {
+			return new FloatFixedBlockVector(block, 0, length);
+		}
+
+		@Override
+		protected DirectFloatVectorBlock allocateBlock(int capacity) {
+			return new DirectFloatVectorBlock(DirectMemoryAllocator.this.allocator, capacity);
+		}
+	}
 }
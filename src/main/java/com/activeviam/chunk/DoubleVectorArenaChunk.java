@@ -0,0 +1,194 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.DoubleMatrix;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorArithmeticUtil;
+import java.util.BitSet;
+
+/**
+ * A chunk of vectors of doubles of the same length, laid out row-major in one contiguous arena.
+ * <p>
+ * The vector of a row is stored from {@code row * vectorLength} in the arena, which is a single vector allocated by
+ * the {@link IChunkAllocator} of the chunk. Rows are read as zero-copy {@link IVector#subVector(int, int) views},
+ * and aggregated directly from the arena, without creating any vector per row.
+ *
+ * @author ActiveViam
+ */
+public class DoubleVectorArenaChunk implements IVectorChunk {
+
+	/** The number of vectors of the chunk. */
+	protected final int capacity;
+
+	/** The length of all the vectors of the chunk. */
+	protected final int vectorLength;
+
+	/** The components of all the vectors of the chunk, row after row. */
+	protected final IVector arena;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity the number of vectors of the chunk
+	 * @param vectorLength the length of all the vectors of the chunk
+	 * @param allocator the allocator of the arena
+	 */
+	public DoubleVectorArenaChunk(final int capacity, final int vectorLength, final IChunkAllocator allocator) {
+		if (vectorLength <= 0) {
+			throw new IllegalArgumentException("The length of the vectors must be positive, got " + vectorLength);
+		}
+		this.capacity = capacity;
+		this.vectorLength = vectorLength;
+		this.arena = allocator.getVectorAllocator(Types.DOUBLE)
+				.allocateNewVector(Math.multiplyExact(capacity, vectorLength));
+		// Direct memory is not zeroed when allocated
+		this.arena.fillDouble(0d);
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Gets the length of all the vectors of this chunk.
+	 *
+	 * @return the length of the vectors
+	 */
+	public int getVectorLength() {
+		return this.vectorLength;
+	}
+
+	@Override
+	public boolean isNull(final int position) {
+		return false;
+	}
+
+	@Override
+	public Object read(final int position) {
+		return readVector(position);
+	}
+
+	/**
+	 * Reads the vector of a row, as a view of the arena: writing in the returned vector writes in this chunk.
+	 */
+	@Override
+	public IVector readVector(final int position) {
+		final int from = checkPosition(position) * this.vectorLength;
+		return this.arena.subVector(from, from + this.vectorLength);
+	}
+
+	@Override
+	public void write(final int position, final Object value) {
+		if (value instanceof IVector || value == null) {
+			writeVector(position, (IVector) value);
+		} else if (value instanceof double[]) {
+			final double[] v = (double[]) value;
+			checkLength(v.length);
+			readVector(position).copyFrom(v);
+		} else {
+			throw new IllegalArgumentException(
+					"The object " + value + " is of an unexpected type, and cannot be converted to an IVector["
+							+ Types.DOUBLE.name() + "].");
+		}
+	}
+
+	/**
+	 * Copies a vector in the arena. A {@code null} vector is written as zeros.
+	 */
+	@Override
+	public void writeVector(final int position, final IVector vector) {
+		final IVector row = readVector(position);
+		if (vector == null) {
+			row.fillDouble(0d);
+			return;
+		}
+		checkLength(vector.size());
+		if (vector instanceof ArrayDoubleVector) {
+			row.copyFrom(((ArrayDoubleVector) vector).getUnderlying());
+		} else if (vector.getClass() == row.getClass()) {
+			row.copyFrom(vector);
+		} else {
+			row.copyFrom(vector.toDoubleArray());
+		}
+	}
+
+	/**
+	 * Adds the vector of a row to another vector.
+	 *
+	 * @param position the row to add
+	 * @param result the vector in which to add, of the length of the vectors of this chunk
+	 */
+	public void plusVector(final int position, final IVector result) {
+		checkLength(result.size());
+		VectorArithmeticUtil.plusRange(result, this.arena, checkPosition(position) * this.vectorLength);
+	}
+
+	/**
+	 * Adds the vectors of some rows to another vector.
+	 *
+	 * @param rows the rows to add
+	 * @param result the vector in which to add, of the length of the vectors of this chunk
+	 */
+	public void plusVectors(final BitSet rows, final IVector result) {
+		checkLength(result.size());
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+			VectorArithmeticUtil.plusRange(result, this.arena, checkPosition(row) * this.vectorLength);
+		}
+	}
+
+	/**
+	 * Views the vectors of this chunk as the rows of a matrix, sharing the arena of the chunk. The arena
+	 * remains owned by the chunk: closing the matrix does not release it.
+	 * <p>
+	 * The matrix computes the weighted sum of all the rows of the chunk in a single pass, see
+	 * {@link DoubleMatrix#multiplyTransposed(IVector, IVector)}.
+	 *
+	 * @return the matrix, of {@link #capacity()} rows of {@link #getVectorLength()} columns
+	 */
+	public DoubleMatrix matrix() {
+		return new DoubleMatrix(this.arena, this.capacity, this.vectorLength);
+	}
+
+	/**
+	 * Gets the size of the arena of this chunk.
+	 *
+	 * @return the size of the components of the vectors, in bytes
+	 */
+	public long sizeInBytes() {
+		return (long) this.capacity * this.vectorLength * Double.BYTES;
+	}
+
+	@Override
+	public void close() {
+		if (this.arena instanceof AFixedBlockVector) {
+			((AFixedBlockVector) this.arena).release();
+		}
+	}
+
+	private int checkPosition(final int position) {
+		if (position < 0 || position >= this.capacity) {
+			throw new IndexOutOfBoundsException(
+					"Cannot access position " + position + " in a chunk of capacity " + this.capacity);
+		}
+		return position;
+	}
+
+	private void checkLength(final int length) {
+		if (length != this.vectorLength) {
+			throw new IllegalArgumentException(
+					"Cannot store a vector of length " + length + " in a chunk of vectors of length "
+							+ this.vectorLength);
+		}
+	}
+
+}
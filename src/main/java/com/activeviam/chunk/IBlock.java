@@ -13,7 +13,7 @@ import com.activeviam.chunk.IArrayReader;
 import com.activeviam.chunk.IArrayWriter;
 import com.activeviam.iterator.IPrimitiveIterator;
 import com.activeviam.vector.IVector;
-import java.util.Arrays;
+import com.activeviam.vector.VectorHashUtil;
 
 /**
  * An atomic group of data that servers as backing structure for {@link IVector vectors}. A block can hold the
@@ -229,7 +229,17 @@ public interface IBlock extends IArrayReader, IArrayWriter {
 	void translate(int position, int lgth, int v);
 
 	/**
-	 * Calculates the hashCode of the given portion of the block, as per {@link Arrays#hashCode(Object[])}.
+	 * Sorts in place the components of the block, in ascending order, with the
+	 * {@link com.activeviam.vector.RadixSortUtil radix sorts}.
+	 *
+	 * @param position the position at which to start
+	 * @param lgth the number of components to sort
+	 */
+	void sort(int position, int lgth);
+
+	/**
+	 * Calculates the hashCode of the given portion of the block, as per {@link VectorHashUtil}, so that it is the
+	 * hashCode of a vector with the same components.
 	 *
 	 * @param position the position at which to start
 	 * @param length the number of components to calculate the hash-code of
@@ -16,7 +16,43 @@ public interface IChunkAllocator {
 		return new ChunkVector(size, type, this);
 	}
 
+	/**
+	 * Allocates a chunk storing each distinct vector only once in a dictionary, shared with the other chunks using
+	 * the same dictionary.
+	 *
+	 * @param size the size of the chunk
+	 * @param type the component type of the vectors
+	 * @param dictionary the dictionary storing the vectors
+	 * @return the new chunk
+	 */
+	default IVectorChunk allocateVectorChunk(int size, Types type, VectorDictionary dictionary) {
+		return new ChunkVector(size, type, this, dictionary);
+	}
+
 	IVectorAllocator getVectorAllocator(Types type);
 
+	/**
+	 * Gets an allocator recycling the vectors released through {@link IVectorAllocator#releaseVector} or
+	 * {@link com.activeviam.vector.ITransientVector#release()}, for loops allocating many short-lived vectors.
+	 *
+	 * @param type the component type of the vectors
+	 * @return the pooling vector allocator, or a plain one if this chunk allocator does not pool its vectors
+	 */
+	default IVectorAllocator getPooledVectorAllocator(Types type) {
+		return getVectorAllocator(type);
+	}
+
+	/**
+	 * Gets a new allocator packing short vectors next to each other in shared blocks, for the columns holding
+	 * millions of small vectors. All its vectors are freed at once, when it is released.
+	 *
+	 * @param type the component type of the vectors
+	 * @return the packing vector allocator, or a plain one if this chunk allocator does not pack its vectors
+	 * @see ABlockPackingVectorAllocator
+	 */
+	default IVectorAllocator getPackedVectorAllocator(Types type) {
+		return getVectorAllocator(type);
+	}
+
 	boolean isTransient();
 }
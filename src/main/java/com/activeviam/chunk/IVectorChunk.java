@@ -27,6 +27,18 @@ public interface IVectorChunk extends IChunk, AutoCloseable {
 	 */
 	void writeVector(int position, IVector vector);
 
+	/**
+	 * Reads the vector at the given position to modify it in place.
+	 * <p>
+	 * Chunks sharing their vectors copy a shared vector before returning it.
+	 *
+	 * @param position the position of the vector
+	 * @return the vector, that can be modified
+	 */
+	default IVector readVectorForUpdate(int position) {
+		return readVector(position);
+	}
+
 	@Override
 	default int readInt(int position)  {
 		throw new UnsupportedOperationException("Cannot read double as int.");
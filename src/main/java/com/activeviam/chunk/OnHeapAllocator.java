@@ -1,13 +1,21 @@
 package com.activeviam.chunk;
 
 import com.activeviam.Types;
+import com.activeviam.chunk.APooledVectorAllocator.PooledArrayDoubleVectorAllocator;
+import com.activeviam.chunk.APooledVectorAllocator.PooledArrayIntegerVectorAllocator;
 import com.activeviam.chunk.OnHeapAllocator.AArrayVectorAllocator.ArrayDoubleVectorAllocator;
+import com.activeviam.chunk.OnHeapAllocator.AArrayVectorAllocator.ArrayFloatVectorAllocator;
 import com.activeviam.chunk.OnHeapAllocator.AArrayVectorAllocator.ArrayIntegerVectorAllocator;
+import com.activeviam.vector.ASmallVector;
 import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayFloatVector;
 import com.activeviam.vector.ArrayIntegerVector;
 import com.activeviam.vector.EmptyVector;
 import com.activeviam.vector.IVector;
 import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.SmallDoubleVector;
+import com.activeviam.vector.SmallFloatVector;
+import com.activeviam.vector.SmallIntegerVector;
 
 /**
  * This allocator allocates array-based chunks stored on the java Heap.
@@ -16,6 +24,12 @@ import com.activeviam.vector.IVectorAllocator;
  */
 public class OnHeapAllocator implements IChunkAllocator {
 
+	/** The pool of vectors of doubles, shared by all the users of this allocator. */
+	private final IVectorAllocator pooledDoubleAllocator = new PooledArrayDoubleVectorAllocator();
+
+	/** The pool of vectors of ints, shared by all the users of this allocator. */
+	private final IVectorAllocator pooledIntegerAllocator = new PooledArrayIntegerVectorAllocator();
+
 	final
 	@Override
 	public IntegerChunk allocateIntegerChunk(int size) {
@@ -34,6 +48,21 @@ public class OnHeapAllocator implements IChunkAllocator {
 				return new ArrayDoubleVectorAllocator();
 			case INTEGER:
 				return new ArrayIntegerVectorAllocator();
+			case FLOAT:
+				return new ArrayFloatVectorAllocator();
+			default:
+				throw new IllegalStateException(
+						"Unexpected type: " + type.name());
+		}
+	}
+
+	@Override
+	public IVectorAllocator getPooledVectorAllocator(Types type) {
+		switch (type) {
+			case DOUBLE:
+				return this.pooledDoubleAllocator;
+			case INTEGER:
+				return this.pooledIntegerAllocator;
 			default:
 				throw new IllegalStateException(
 						"Unexpected type: " + type.name());
@@ -60,6 +89,9 @@ public class OnHeapAllocator implements IChunkAllocator {
 		/**
 		 * An implementation of an {@link IVectorAllocator} that allocates on-heap vectors of doubles that relies on
 		 * standard java arrays.
+		 * <p>
+		 * The vectors of at most {@link ASmallVector#MAX_SIZE} components are {@link SmallDoubleVector small
+		 * vectors}, holding their components in fields.
 		 *
 		 * @author ActiveViam
 		 */
@@ -70,14 +102,23 @@ public class OnHeapAllocator implements IChunkAllocator {
 				if (length == 0) {
 					return EmptyVector.emptyVector(getComponentType());
 				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					return new SmallDoubleVector(length);
+				}
 				return new ArrayDoubleVector(new double[length]);
 			}
 
 			@Override
 			public IVector copy(final IVector toCopy) {
-				if (toCopy.size() == 0) {
+				final int length = toCopy.size();
+				if (length == 0) {
 					return EmptyVector.emptyVector(getComponentType());
 				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					final IVector copy = new SmallDoubleVector(length);
+					copy.copyFrom(toCopy);
+					return copy;
+				}
 				return new ArrayDoubleVector(toCopy.toDoubleArray());
 			}
 
@@ -91,6 +132,9 @@ public class OnHeapAllocator implements IChunkAllocator {
 		/**
 		 * An implementation of an {@link IVectorAllocator} that allocates on-heap vectors of ints that relies on
 		 * standard java arrays.
+		 * <p>
+		 * The vectors of at most {@link ASmallVector#MAX_SIZE} components are {@link SmallIntegerVector small
+		 * vectors}, holding their components in fields.
 		 *
 		 * @author ActiveViam
 		 */
@@ -101,14 +145,23 @@ public class OnHeapAllocator implements IChunkAllocator {
 				if (length == 0) {
 					return EmptyVector.emptyVector(getComponentType());
 				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					return new SmallIntegerVector(length);
+				}
 				return new ArrayIntegerVector(new int[length]);
 			}
 
 			@Override
 			public IVector copy(final IVector toCopy) {
-				if (toCopy.size() == 0) {
+				final int length = toCopy.size();
+				if (length == 0) {
 					return EmptyVector.emptyVector(getComponentType());
 				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					final IVector copy = new SmallIntegerVector(length);
+					copy.copyFrom(toCopy);
+					return copy;
+				}
 				return new ArrayIntegerVector(toCopy.toIntArray());
 			}
 
@@ -119,5 +172,48 @@ public class OnHeapAllocator implements IChunkAllocator {
 
 		}
 
+		/**
+		 * An implementation of an {@link IVectorAllocator} that allocates on-heap vectors of floats that relies on
+		 * standard java arrays.
+		 * <p>
+		 * The vectors of at most {@link ASmallVector#MAX_SIZE} components are {@link SmallFloatVector small
+		 * vectors}, holding their components in fields.
+		 *
+		 * @author ActiveViam
+		 */
+		public static class ArrayFloatVectorAllocator extends AArrayVectorAllocator {
+
+			@Override
+			public IVector allocateNewVector(final int length) {
+				if (length == 0) {
+					return EmptyVector.emptyVector(getComponentType());
+				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					return new SmallFloatVector(length);
+				}
+				return new ArrayFloatVector(new float[length]);
+			}
+
+			@Override
+			public IVector copy(final IVector toCopy) {
+				final int length = toCopy.size();
+				if (length == 0) {
+					return EmptyVector.emptyVector(getComponentType());
+				}
+				if (length <= ASmallVector.MAX_SIZE) {
+					final IVector copy = new SmallFloatVector(length);
+					copy.copyFrom(toCopy);
+					return copy;
+				}
+				return new ArrayFloatVector(toCopy.toFloatArray());
+			}
+
+			@Override
+			public Types getComponentType() {
+				return Types.FLOAT;
+			}
+
+		}
+
 	}
 }
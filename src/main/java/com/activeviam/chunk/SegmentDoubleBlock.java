@@ -3,10 +3,14 @@ package com.activeviam.chunk;
 import com.activeviam.Types;
 import com.activeviam.heap.*;
 import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.RadixSortUtil;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
 import jdk.incubator.vector.DoubleVector;
 import jdk.incubator.vector.IntVector;
 import jdk.incubator.vector.VectorSpecies;
 
+import java.lang.foreign.MemorySegment;
 import java.lang.foreign.MemorySession;
 import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.ValueLayout;
@@ -42,61 +46,46 @@ public class SegmentDoubleBlock extends ASegmentBlock implements DoubleChunk{
 	
 	@Override
 	public void write(int position, double[] src) {
-		for(int i = 0; i < src.length; i++) {
-			writeDouble(position + i, src[i]);
-		}
+		MemorySegment.copy(src, 0, segment, ValueLayout.JAVA_DOUBLE, (long) position * 8, src.length);
+	}
+	
+	@Override
+	public void transfer(int position, double[] dest) {
+		MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, (long) position * 8, dest, 0, dest.length);
+	}
+	
+	@Override
+	public void fillDouble(int position, int lgth, double v) {
+		BlockKernelUtil.fill(segment, position, lgth, v);
 	}
 	
 	@Override
 	public void scale(int position, int lgth, double v) {
-		for(int i = position; i < position + lgth; i++) {
-			writeDouble(i, readDouble(i) * v);
-		}
+		BlockKernelUtil.scale(segment, position, lgth, v);
 	}
 
 	@Override
 	public void translate(int position, int lgth, double v) {
-		for(int i = position; i < position + lgth; i++) {
-			writeDouble(i, readDouble(i) + v);
-		}
+		BlockKernelUtil.translate(segment, position, lgth, v);
 	}
 	
+	@Override
+	public void sort(int position, int lgth) {
+		RadixSortUtil.sortDoubles(segment, (long) position << 3, lgth);
+	}
+
 	@Override
 	public int hashCode(int position, int length) {
-		int result = 1;
-		for(int i = position; i < position + length; i++) {
-			result = result * 31 + (int) readDouble(i);
-		}
-		return result;
+		return VectorHashUtil.hashCode(VectorHashUtil.hashDoubles(segment, (long) position << 3, length));
 	}
 
 	@Override
 	public IPrimitiveIterator topK(int position, int lgth, int k) {
-		var heap = new MinHeapDouble(k);
-		for(int i = 0; i < lgth; i++) {
-			double val = readDouble(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val);
-			} else if(val > heap.peek()) { // If in top K so far
-				heap.poll(); // Remove minimum
-				heap.add(val);
-			}
-		}
-		return heap;
+		return TopKUtil.topKDouble(segment, (long) position * 8, lgth, k);
 	}
 	
 	protected MinHeapDoubleWithIndices topKIndicesHeap(int position, int lgth, int k) {
-		var heap = new MinHeapDoubleWithIndices(k);
-		for(int i = 0; i < lgth; i++) {
-			double val = readDouble(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val, i);
-			} else if(val > heap.peek()) { // If in top K so far
-				heap.poll(); // Remove minimum
-				heap.add(val, i);
-			}
-		}
-		return heap;
+		return TopKUtil.topKDoubleWithIndices(segment, (long) position * 8, lgth, k);
 	}
 
 	@Override
@@ -108,31 +97,11 @@ public class SegmentDoubleBlock extends ASegmentBlock implements DoubleChunk{
 	
 	@Override
 	public IPrimitiveIterator bottomK(int position, int lgth, int k) {
-		var heap = new MaxHeapDouble(k);
-		for(int i = 0; i < lgth; i++) {
-			double val = readDouble(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val);
-			} else if(val < heap.peek()) { // If in bottom K so far
-				heap.poll(); // Remove maximum
-				heap.add(val);
-			}
-		}
-		return heap;
+		return TopKUtil.bottomKDouble(segment, (long) position * 8, lgth, k);
 	}
 	
 	public MaxHeapDoubleWithIndices bottomKIndicesHeap(int position, int lgth, int k) {
-		var heap = new MaxHeapDoubleWithIndices(k);
-		for(int i = 0; i < lgth; i++) {
-			double val = readDouble(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val, i);
-			} else if(val < heap.peek()) { // If in bottom K so far
-				heap.poll(); // Remove maximum
-				heap.add(val, i);
-			}
-		}
-		return heap;
+		return TopKUtil.bottomKDoubleWithIndices(segment, (long) position * 8, lgth, k);
 	}
 
 	@Override
@@ -0,0 +1,211 @@
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.heap.*;
+import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class SegmentFloatBlock extends ASegmentBlock {
+	protected SegmentFloatBlock(SegmentAllocator allocator, int capacity) {
+		super(allocator, Types.FLOAT, capacity);
+	}
+	
+	@Override
+	public Object read(int position) {
+		return readFloat(position);
+	}
+	
+	@Override
+	public float readFloat(int position) {
+		return segment.get(ValueLayout.JAVA_FLOAT, (long) position * 4);
+	}
+
+	@Override
+	public double readDouble(int position) {
+		return readFloat(position);
+	}
+
+	@Override
+	public void write(int position, Object value) {
+		if(value instanceof Number) {
+			writeFloat(position, ((Number) value).floatValue());
+		}
+	}
+	
+	@Override
+	public void writeFloat(int position, float value) {
+		segment.set(ValueLayout.JAVA_FLOAT, (long) position * 4, value);
+	}
+
+	@Override
+	public void writeDouble(int position, double value) {
+		writeFloat(position, (float) value);
+	}
+	
+	@Override
+	public void write(int position, float[] src) {
+		MemorySegment.copy(src, 0, segment, ValueLayout.JAVA_FLOAT, (long) position * 4, src.length);
+	}
+
+	@Override
+	public void write(int position, double[] src) {
+		for(int i = 0; i < src.length; i++) {
+			writeFloat(position + i, (float) src[i]);
+		}
+	}
+	
+	@Override
+	public void transfer(int position, float[] dest) {
+		MemorySegment.copy(segment, ValueLayout.JAVA_FLOAT, (long) position * 4, dest, 0, dest.length);
+	}
+
+	@Override
+	public void transfer(int position, double[] dest) {
+		for(int i = 0; i < dest.length; i++) {
+			dest[i] = readFloat(position + i);
+		}
+	}
+	
+	@Override
+	public void fillFloat(int position, int lgth, float v) {
+		BlockKernelUtil.fill(segment, position, lgth, v);
+	}
+
+	@Override
+	public void fillDouble(int position, int lgth, double v) {
+		fillFloat(position, lgth, (float) v);
+	}
+	
+	@Override
+	public void scale(int position, int lgth, float v) {
+		BlockKernelUtil.scale(segment, position, lgth, v);
+	}
+
+	@Override
+	public void scale(int position, int lgth, double v) {
+		for(int i = position; i < position + lgth; i++) {
+			writeFloat(i, (float) (readFloat(i) * v));
+		}
+	}
+
+	@Override
+	public void translate(int position, int lgth, float v) {
+		BlockKernelUtil.translate(segment, position, lgth, v);
+	}
+
+	@Override
+	public void translate(int position, int lgth, double v) {
+		for(int i = position; i < position + lgth; i++) {
+			writeFloat(i, (float) (readFloat(i) + v));
+		}
+	}
+	
+	@Override
+	public void sort(int position, int lgth) {
+		final float[] values = new float[lgth];
+		transfer(position, values);
+		Arrays.sort(values);
+		write(position, values);
+	}
+
+	@Override
+	public int hashCode(int position, int length) {
+		return VectorHashUtil.hashCode(VectorHashUtil.hashFloats(segment, (long) position << 2, length));
+	}
+
+	@Override
+	public IPrimitiveIterator topK(int position, int lgth, int k) {
+		return TopKUtil.topKFloat(segment, (long) position * 4, lgth, k);
+	}
+	
+	protected MinHeapDoubleWithIndices topKIndicesHeap(int position, int lgth, int k) {
+		return TopKUtil.topKFloatWithIndices(segment, (long) position * 4, lgth, k);
+	}
+
+	@Override
+	public int[] topKIndices(int position, int lgth, int k) {
+		var heap = topKIndicesHeap(position, lgth, k);
+		heap.sort();
+		return heap.getArrayIndices();
+	}
+	
+	@Override
+	public IPrimitiveIterator bottomK(int position, int lgth, int k) {
+		return TopKUtil.bottomKFloat(segment, (long) position * 4, lgth, k);
+	}
+	
+	public MaxHeapDoubleWithIndices bottomKIndicesHeap(int position, int lgth, int k) {
+		return TopKUtil.bottomKFloatWithIndices(segment, (long) position * 4, lgth, k);
+	}
+
+	@Override
+	public int[] bottomKIndices(int position, int lgth, int k) {
+		var heap = bottomKIndicesHeap(position, lgth, k);
+		heap.sort();
+		return heap.getArrayIndices();
+	}
+	
+	protected int nearestRank(final int lgth, final double r) {
+		return (int) Math.ceil(lgth * r);
+	}
+	
+	@Override
+	public double quantileDouble(int position, int lgth, double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException("Order of the quantile should be greater than zero and less than 1.");
+		}
+		if (r >= 0.5) {
+			return topK(position, lgth, lgth - nearestRank(lgth, r) + 1).nextDouble();
+		} else {
+			return bottomK(position, lgth, nearestRank(lgth, r)).nextDouble();
+		}
+	}
+
+	@Override
+	public float quantileFloat(int position, int lgth, double r) {
+		return (float) quantileDouble(position, lgth, r);
+	}
+	
+	@Override
+	public int quantileIndex(int position, int lgth, double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException("Order of the quantile should be greater than zero and less than 1.");
+		}
+		if (r >= 0.5) {
+			return topKIndicesHeap(position, lgth, lgth - nearestRank(lgth, r) + 1).peekIndex();
+		} else {
+			return bottomKIndicesHeap(position, lgth, nearestRank(lgth, r)).peekIndex();
+		}
+	}
+	
+	public static final VectorSpecies<Float> VECTOR_SPECIES = FloatVector.SPECIES_PREFERRED;
+	
+	public FloatVector getSimd(int position, int maxPosition) {
+		if(position + VECTOR_SPECIES.length() <= maxPosition) {
+			return FloatVector.fromMemorySegment(VECTOR_SPECIES, segment,
+				(long) position * 4, ByteOrder.nativeOrder());
+		} else {
+			var mask = VECTOR_SPECIES.indexInRange(position, maxPosition);
+			return FloatVector.fromMemorySegment(VECTOR_SPECIES, segment,
+					(long) position * 4, ByteOrder.nativeOrder(), mask);
+		}
+	}
+	
+	public void putSimd(int position, int maxPosition, FloatVector vec) {
+		if(position + VECTOR_SPECIES.length() <= maxPosition) {
+			vec.intoMemorySegment(segment, (long) position * 4, ByteOrder.nativeOrder());
+		} else {
+			var mask = VECTOR_SPECIES.indexInRange(position, maxPosition);
+			vec.intoMemorySegment(segment, (long) position * 4, ByteOrder.nativeOrder(), mask);
+		}
+	}
+}
@@ -1,11 +1,12 @@
 package com.activeviam.chunk;
 
 import com.activeviam.Types;
-import com.activeviam.heap.MaxHeapInteger;
 import com.activeviam.heap.MaxHeapIntegerWithIndices;
-import com.activeviam.heap.MinHeapInteger;
 import com.activeviam.heap.MinHeapIntegerWithIndices;
 import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.RadixSortUtil;
+import com.activeviam.vector.TopKUtil;
+import com.activeviam.vector.VectorHashUtil;
 import jdk.incubator.vector.*;
 
 import java.lang.foreign.*;
@@ -75,16 +76,12 @@ public class SegmentIntegerBlock extends ASegmentBlock implements IntegerChunk{
 	
 	@Override
 	public void fillInt(int position, int lgth, int v) {
-		for(int i = position; i < position + lgth; i++) {
-			writeInt(i, v);
-		}
+		BlockKernelUtil.fill(segment, position, lgth, v);
 	}
 	
 	@Override
 	public void scale(int position, int lgth, int v) {
-		for(int i = position; i < position + lgth; i++) {
-			writeInt(i, readInt(i) * v);
-		}
+		BlockKernelUtil.scale(segment, position, lgth, v);
 	}
 	
 	@Override
@@ -96,33 +93,22 @@ public class SegmentIntegerBlock extends ASegmentBlock implements IntegerChunk{
 	
 	@Override
 	public void translate(int position, int lgth, int v) {
-		for(int i = position; i < position + lgth; i++) {
-			writeInt(i, readInt(i) + v);
-		}
+		BlockKernelUtil.translate(segment, position, lgth, v);
 	}
 	
+	@Override
+	public void sort(int position, int lgth) {
+		RadixSortUtil.sortInts(segment, (long) position << 2, lgth);
+	}
+
 	@Override
 	public int hashCode(int position, int length) {
-		int result = 1;
-		for(int i = position; i < position + length; i++) {
-			result = result * 31 + readInt(i);
-		}
-		return result;
+		return VectorHashUtil.hashCode(VectorHashUtil.hashInts(segment, (long) position << 2, length));
 	}
 	
 	@Override
 	public IPrimitiveIterator topK(int position, int lgth, int k) {
-		var heap = new MinHeapInteger(k);
-		for(int i = 0; i < lgth; i++) {
-			int val = readInt(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val);
-			} else if(val > heap.peek()) { // If in top K so far
-				heap.poll(); // Remove minimum
-				heap.add(val);
-			}
-		}
-		return heap;
+		return TopKUtil.topKInt(segment, (long) position * 4, lgth, k);
 	}
 	
 	/**
@@ -374,17 +360,7 @@ public class SegmentIntegerBlock extends ASegmentBlock implements IntegerChunk{
 	}
 	
 	protected MinHeapIntegerWithIndices topKIndicesHeap(int position, int lgth, int k) {
-		var heap = new MinHeapIntegerWithIndices(k);
-		for(int i = 0; i < lgth; i++) {
-			int val = readInt(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val, i);
-			} else if(val > heap.peek()) { // If in top K so far
-				heap.poll(); // Remove minimum
-				heap.add(val, i);
-			}
-		}
-		return heap;
+		return TopKUtil.topKIntWithIndices(segment, (long) position * 4, lgth, k);
 	}
 	
 	@Override
@@ -396,31 +372,11 @@ public class SegmentIntegerBlock extends ASegmentBlock implements IntegerChunk{
 	
 	@Override
 	public IPrimitiveIterator bottomK(int position, int lgth, int k) {
-		var heap = new MaxHeapInteger(k);
-		for(int i = 0; i < lgth; i++) {
-			int val = readInt(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val);
-			} else if(val < heap.peek()) { // If in bottom K so far
-				heap.poll(); // Remove maximum
-				heap.add(val);
-			}
-		}
-		return heap;
+		return TopKUtil.bottomKInt(segment, (long) position * 4, lgth, k);
 	}
 	
 	public MaxHeapIntegerWithIndices bottomKIndicesHeap(int position, int lgth, int k) {
-		var heap = new MaxHeapIntegerWithIndices(k);
-		for(int i = 0; i < lgth; i++) {
-			int val = readInt(position + i);
-			if(heap.size() < k) { // Initial fill
-				heap.add(val, i);
-			} else if(val < heap.peek()) { // If in bottom K so far
-				heap.poll(); // Remove maximum
-				heap.add(val, i);
-			}
-		}
-		return heap;
+		return TopKUtil.bottomKIntWithIndices(segment, (long) position * 4, lgth, k);
 	}
 	
 	@Override
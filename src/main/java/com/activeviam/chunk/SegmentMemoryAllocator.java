@@ -1,10 +1,15 @@
 package com.activeviam.chunk;
 
 import com.activeviam.Types;
+import com.activeviam.chunk.ABlockPackingVectorAllocator.PackedSegmentDoubleVectorAllocator;
+import com.activeviam.chunk.ABlockPackingVectorAllocator.PackedSegmentIntegerVectorAllocator;
+import com.activeviam.chunk.APooledVectorAllocator.PooledSegmentDoubleVectorAllocator;
+import com.activeviam.chunk.APooledVectorAllocator.PooledSegmentIntegerVectorAllocator;
 import com.activeviam.vector.EmptyVector;
 import com.activeviam.vector.IVector;
 import com.activeviam.vector.IVectorAllocator;
 import com.activeviam.vector.SegmentDoubleVector;
+import com.activeviam.vector.SegmentFloatVector;
 import com.activeviam.vector.SegmentIntegerVector;
 
 import java.lang.foreign.SegmentAllocator;
@@ -12,8 +17,12 @@ import java.lang.foreign.SegmentAllocator;
 public class SegmentMemoryAllocator implements IChunkAllocator {
 
     private final SegmentAllocator allocator;
+    private final IVectorAllocator pooledDoubleAllocator;
+    private final IVectorAllocator pooledIntegerAllocator;
     public SegmentMemoryAllocator(SegmentAllocator allocator) {
         this.allocator = allocator;
+        this.pooledDoubleAllocator = new PooledSegmentDoubleVectorAllocator(allocator);
+        this.pooledIntegerAllocator = new PooledSegmentIntegerVectorAllocator(allocator);
     }
     @Override
     public IntegerChunk allocateIntegerChunk(int size) {
@@ -32,6 +41,36 @@ public class SegmentMemoryAllocator implements IChunkAllocator {
                 return new SegmentDoubleVectorAllocator();
             case INTEGER:
                 return new SegmentIntegerVectorAllocator();
+            case FLOAT:
+                return new SegmentFloatVectorAllocator();
+            default:
+                throw new IllegalStateException(
+                        "Unexpected type: " + type.name());
+        }
+    }
+
+    @Override
+    public IVectorAllocator getPooledVectorAllocator(Types type) {
+        switch (type) {
+            case DOUBLE:
+                return pooledDoubleAllocator;
+            case INTEGER:
+                return pooledIntegerAllocator;
+            default:
+                throw new IllegalStateException(
+                        "Unexpected type: " + type.name());
+        }
+    }
+
+    @Override
+    public IVectorAllocator getPackedVectorAllocator(Types type) {
+        switch (type) {
+            case DOUBLE:
+                return new PackedSegmentDoubleVectorAllocator(allocator,
+                        ABlockPackingVectorAllocator.DEFAULT_BLOCK_CAPACITY);
+            case INTEGER:
+                return new PackedSegmentIntegerVectorAllocator(allocator,
+                        ABlockPackingVectorAllocator.DEFAULT_BLOCK_CAPACITY);
             default:
                 throw new IllegalStateException(
                         "Unexpected type: " + type.name());
@@ -107,4 +146,36 @@ public class SegmentMemoryAllocator implements IChunkAllocator {
             return Types.DOUBLE;
         }
     }
+
+    public class SegmentFloatVectorAllocator implements IVectorAllocator {
+
+        @Override
+        public IVector allocateNewVector(int length) {
+            if (length == 0) {
+                return EmptyVector.emptyVector(Types.FLOAT);
+            }
+            final var block = new SegmentFloatBlock(SegmentMemoryAllocator.this.allocator, length);
+            return new SegmentFloatVector(block, 0, length);
+        }
+
+        @Override
+        public void reallocateVector(IVector vector) {
+
+        }
+
+        @Override
+        public IVector copy(IVector toCopy) {
+            if (toCopy == null) {
+                return null;
+            }
+            final IVector clone = allocateNewVector(toCopy.size());
+            clone.copyFrom(toCopy);
+            return clone;
+        }
+
+        @Override
+        public Types getComponentType() {
+            return Types.FLOAT;
+        }
+    }
 }
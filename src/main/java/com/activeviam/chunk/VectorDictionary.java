@@ -0,0 +1,233 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk;
+
+import com.activeviam.Types;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.VectorHashUtil;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A dictionary of reference-counted vectors, storing each distinct content only once.
+ * <p>
+ * {@link #acquire(IVector) Acquiring} a vector returns the stored vector with the same content, copying it in the
+ * dictionary the first time it is seen. The vectors are looked up by their {@link IVector#contentHash() content
+ * hash}, and compared with {@link VectorHashUtil#equals(IVector, IVector)}.
+ * <p>
+ * The stored vectors are shared: they must not be modified. A vector to modify is obtained with
+ * {@link #mutable(IVector)}, that only copies it when it is used elsewhere.
+ * <p>
+ * The same dictionary can be shared by several chunks, for instance by the chunks of several versions of a
+ * column.
+ *
+ * @author ActiveViam
+ */
+public class VectorDictionary {
+
+	/** The allocator of the stored vectors. */
+	protected final IVectorAllocator allocator;
+
+	/** The stored vectors, by content. */
+	protected final Map<ContentKey, Entry> entries = new HashMap<>();
+
+	/** The stored vectors, by identity. */
+	protected final Map<IVector, Entry> references = new IdentityHashMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param allocator the allocator of the stored vectors
+	 */
+	public VectorDictionary(final IVectorAllocator allocator) {
+		this.allocator = allocator;
+	}
+
+	/**
+	 * Gets the stored vector with the same content as a vector, storing a copy of the vector if there is none, and
+	 * adds a reference to it.
+	 *
+	 * @param vector the vector to store
+	 * @return the stored vector, that must not be modified
+	 */
+	public synchronized IVector acquire(final IVector vector) {
+		final Entry shared = this.references.get(vector);
+		if (shared != null) {
+			++shared.references;
+			return shared.vector;
+		}
+		final Entry existing = this.entries.get(new ContentKey(vector));
+		if (existing != null) {
+			++existing.references;
+			return existing.vector;
+		}
+		final Entry entry = new Entry(copy(vector));
+		this.entries.put(new ContentKey(entry.vector), entry);
+		this.references.put(entry.vector, entry);
+		return entry.vector;
+	}
+
+	/**
+	 * Removes a reference to a vector. The memory of the vector is freed when this was the last reference.
+	 *
+	 * @param vector a vector returned by {@link #acquire(IVector)} or {@link #mutable(IVector)}
+	 */
+	public synchronized void release(final IVector vector) {
+		final Entry entry = this.references.get(vector);
+		if (entry == null) {
+			// Not shared
+			free(vector);
+		} else if (--entry.references == 0) {
+			this.references.remove(vector);
+			this.entries.remove(new ContentKey(vector));
+			free(vector);
+		}
+	}
+
+	/**
+	 * Gets a vector that can be modified in place of a stored vector, copying it only if it has other references.
+	 * <p>
+	 * The reference to the stored vector is transferred to the returned vector, which is not shared anymore.
+	 *
+	 * @param vector a vector returned by {@link #acquire(IVector)}
+	 * @return a vector with the same content, owned by the caller
+	 */
+	public synchronized IVector mutable(final IVector vector) {
+		final Entry entry = this.references.get(vector);
+		if (entry == null) {
+			// Already owned by the caller
+			return vector;
+		}
+		if (entry.references == 1) {
+			// Last reference: no copy, simply stop sharing it
+			this.references.remove(vector);
+			this.entries.remove(new ContentKey(vector));
+			return vector;
+		}
+		--entry.references;
+		return copy(vector);
+	}
+
+	/**
+	 * Gets the number of references to a vector.
+	 *
+	 * @param vector a vector
+	 * @return the number of references to the vector, 0 if it is not stored in this dictionary
+	 */
+	public synchronized int getReferenceCount(final IVector vector) {
+		final Entry entry = this.references.get(vector);
+		return entry == null ? 0 : entry.references;
+	}
+
+	/**
+	 * Gets the number of distinct vectors stored in this dictionary.
+	 *
+	 * @return the number of stored vectors
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Copies a vector with the allocator of this dictionary.
+	 *
+	 * @param vector the vector to copy
+	 * @return the copy
+	 */
+	protected IVector copy(final IVector vector) {
+		final IVector copy = this.allocator.allocateNewVector(vector.size());
+		if (copy.getClass() == vector.getClass()) {
+			copy.copyFrom(vector);
+		} else if (vector.getComponentType() == Types.INTEGER) {
+			copy.copyFrom(vector.toIntArray());
+		} else if (vector.getComponentType() == Types.FLOAT) {
+			copy.copyFrom(vector.toFloatArray());
+		} else {
+			copy.copyFrom(vector.toDoubleArray());
+		}
+		return copy;
+	}
+
+	/**
+	 * Frees the memory of a vector that is not referenced anymore.
+	 *
+	 * @param vector the vector to free
+	 */
+	protected void free(final IVector vector) {
+		if (vector instanceof AFixedBlockVector) {
+			((AFixedBlockVector) vector).release();
+		}
+	}
+
+	/**
+	 * A key comparing vectors by content, with their hash computed once.
+	 *
+	 * @author ActiveViam
+	 */
+	protected static class ContentKey {
+
+		/** The vector. */
+		protected final IVector vector;
+
+		/** The content hash of the vector. */
+		protected final long hash;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param vector the vector
+		 */
+		protected ContentKey(final IVector vector) {
+			this.vector = vector;
+			this.hash = vector.contentHash();
+		}
+
+		@Override
+		public int hashCode() {
+			return VectorHashUtil.hashCode(this.hash);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof ContentKey)) {
+				return false;
+			}
+			final ContentKey other = (ContentKey) obj;
+			return this.hash == other.hash && VectorHashUtil.equals(this.vector, other.vector);
+		}
+
+	}
+
+	/**
+	 * A stored vector and its number of references.
+	 *
+	 * @author ActiveViam
+	 */
+	protected static class Entry {
+
+		/** The stored vector. */
+		protected final IVector vector;
+
+		/** The number of references to the vector. */
+		protected int references = 1;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param vector the stored vector
+		 */
+		protected Entry(final IVector vector) {
+			this.vector = vector;
+		}
+
+	}
+
+}
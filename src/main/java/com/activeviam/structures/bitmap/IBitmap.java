@@ -53,6 +53,18 @@ public interface IBitmap {
 	 */
 	IBitmap or(final IBitmap other);
 
+	/**
+	 * Performs a logical AND operation between this bitmap and several other ones.
+	 * <p>
+	 *   All the operands are processed in a single pass, without materializing the intermediate
+	 *   results of pairwise operations.
+	 * </p>
+	 *
+	 * @param others the other operands of the AND operator, of the same type as this bitmap
+	 * @return AND result bitmap
+	 */
+	IBitmap andAll(final IBitmap... others);
+
 	/**
 	 * Performs a logical AND operation between two bitmaps. It is responsibility of the user to
 	 * clear the result before using this logic operation.
@@ -73,6 +85,67 @@ public interface IBitmap {
 	 */
 	void or(final IBitmap operand, final IBitmap result);
 
+	/**
+	 * Merges (logical OR) a sequence of 64-bit words into this bitmap.
+	 * <p>
+	 *   Bit {@code j} of {@code words[offset + k]} is mapped to the bit at position
+	 *   {@code 64 * (wordIndex + k) + j} of this bitmap. This allows to splice whole words
+	 *   computed elsewhere (e.g. per-chunk results) without iterating over the set bits.
+	 * </p>
+	 *
+	 * @param wordIndex index of the word of this bitmap receiving {@code words[offset]}
+	 * @param words the words to merge into this bitmap
+	 * @param offset index of the first word to read from {@code words}
+	 * @param wordCount the number of words to read from {@code words}
+	 */
+	void orWords(int wordIndex, long[] words, int offset, int wordCount);
+
+	/**
+	 * Copies a sequence of 64-bit words of this bitmap into an array.
+	 * <p>
+	 *   This is the counterpart of {@link #orWords(int, long[], int, int)}: bit
+	 *   {@code 64 * (wordIndex + k) + j} of this bitmap is written to bit {@code j} of
+	 *   {@code words[offset + k]}. Words beyond the end of this bitmap are written as zeros.
+	 * </p>
+	 *
+	 * @param wordIndex index of the first word of this bitmap to copy
+	 * @param words the array receiving the words
+	 * @param offset index of the first word to write in {@code words}
+	 * @param wordCount the number of words to copy
+	 */
+	void getWords(int wordIndex, long[] words, int offset, int wordCount);
+
+	/**
+	 * @return the number of bits set to true in this bitmap
+	 */
+	int cardinality();
+
+	/**
+	 * Counts the bits set to true up to a position.
+	 *
+	 * @param i a position
+	 * @return the number of bits set to true at positions lower than or equal to {@code i}
+	 */
+	int rank(int i);
+
+	/**
+	 * Finds the position of the k-th bit set to true.
+	 *
+	 * @param k the rank of the bit to find, starting from 0
+	 * @return the position of the {@code k}-th bit set to true, or -1 if there are not enough bits
+	 *         set in this bitmap
+	 */
+	int select(int k);
+
+	/**
+	 * Finds the first bit set to true from a position.
+	 *
+	 * @param from the position to start from, inclusive
+	 * @return the position of the first bit set to true that is greater than or equal to
+	 *         {@code from}, or -1 if there is none
+	 */
+	int nextSetBit(int from);
+
 	/**
 	 * Gets the total size of the bitmap.
 	 * <p>
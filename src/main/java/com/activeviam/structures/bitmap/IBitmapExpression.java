@@ -0,0 +1,68 @@
+package com.activeviam.structures.bitmap;
+
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * A lazy logical expression (AND, OR, NOT) over {@link IBitmap bitmaps}.
+ *
+ * <p>
+ *   Nothing is computed when the expression is built. It is evaluated block by block of words,
+ *   so that a block whose partial result is already empty stops the evaluation of the remaining
+ *   operands, and the result can be either materialized into a bitmap or iterated over without
+ *   ever being materialized.
+ * </p>
+ *
+ * <p>
+ *   An expression holds evaluation buffers and must not be evaluated by several threads at the
+ *   same time.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public interface IBitmapExpression {
+
+	/**
+	 * Estimates the number of rows matching this expression, used to order the operands so that
+	 * the most selective ones are evaluated first.
+	 *
+	 * @return an estimation of the cardinality of the result
+	 */
+	long estimateCardinality();
+
+	/**
+	 * Evaluates a block of words of this expression.
+	 *
+	 * @param wordIndex index of the first word to evaluate
+	 * @param wordCount number of words to evaluate, at most the block size of the implementation
+	 * @param words the array receiving the result, starting at index 0
+	 * @return {@code false} if no bit is set in the block, in which case the content of
+	 *         {@code words} is unspecified
+	 */
+	boolean evaluate(int wordIndex, int wordCount, long[] words);
+
+	/**
+	 * Evaluates this expression and appends the result to a bitmap.
+	 *
+	 * @param size the number of rows to evaluate, rows above it are never part of the result
+	 * @param result the bitmap where the result is appended
+	 * @return the result bitmap
+	 */
+	IBitmap evaluate(int size, IBitmap result);
+
+	/**
+	 * Evaluates this expression lazily, one block at a time as the iterator is consumed.
+	 *
+	 * @param size the number of rows to evaluate, rows above it are never part of the result
+	 * @return an iterator over the rows matching this expression, in increasing order
+	 */
+	PrimitiveIterator.OfInt iterator(int size);
+
+	/**
+	 * @param size the number of rows to evaluate, rows above it are never part of the result
+	 * @return a stream of the rows matching this expression, evaluated lazily
+	 * @see #iterator(int)
+	 */
+	IntStream stream(int size);
+
+}
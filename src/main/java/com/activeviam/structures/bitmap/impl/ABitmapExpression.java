@@ -0,0 +1,164 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class of the {@link IBitmapExpression expressions}, driving their evaluation block by
+ * block.
+ *
+ * @author ActiveViam
+ */
+public abstract class ABitmapExpression implements IBitmapExpression {
+
+	/** Number of words evaluated at once, i.e. 4096 rows */
+	public static final int BLOCK_WORDS = 64;
+
+	/**
+	 * @param size a number of rows
+	 * @return the number of words covering these rows
+	 */
+	protected static int wordCount(final int size) {
+		return (size + 63) >>> 6;
+	}
+
+	/**
+	 * Evaluates a block of this expression, removing the rows above the evaluated size.
+	 *
+	 * @param wordIndex index of the first word of the block
+	 * @param wordCount number of words of the block
+	 * @param words the array receiving the result
+	 * @param size the number of evaluated rows
+	 * @return {@code false} if no bit is set in the block
+	 */
+	protected boolean evaluateBlock(final int wordIndex, final int wordCount, final long[] words, final int size) {
+		if (!evaluate(wordIndex, wordCount, words)) {
+			return false;
+		}
+		if (wordIndex + wordCount == wordCount(size) && (size & 63) != 0) {
+			words[wordCount - 1] &= -1L >>> -size;
+		}
+		return true;
+	}
+
+	/**
+	 * Sorts expressions by estimated cardinality, estimating each of them only once: the estimation of
+	 * a leaf counts the bits of its bitmap.
+	 *
+	 * @param operands the expressions to sort
+	 * @param decreasing {@code true} to sort by decreasing cardinality, {@code false} for increasing
+	 * @return a sorted copy of the expressions
+	 */
+	protected static IBitmapExpression[] sortByCardinality(
+			final IBitmapExpression[] operands,
+			final boolean decreasing) {
+		final long[] cardinalities = new long[operands.length];
+		final Integer[] order = new Integer[operands.length];
+		for (int k = 0; k < operands.length; ++k) {
+			cardinalities[k] = operands[k].estimateCardinality();
+			order[k] = k;
+		}
+		final Comparator<Integer> increasing = Comparator.comparingLong(k -> cardinalities[k]);
+		Arrays.sort(order, decreasing ? increasing.reversed() : increasing);
+		final IBitmapExpression[] sorted = new IBitmapExpression[operands.length];
+		for (int k = 0; k < operands.length; ++k) {
+			sorted[k] = operands[order[k]];
+		}
+		return sorted;
+	}
+
+	@Override
+	public IBitmap evaluate(final int size, final IBitmap result) {
+		final int wordCount = wordCount(size);
+		final long[] block = new long[BLOCK_WORDS];
+		for (int w = 0; w < wordCount; w += BLOCK_WORDS) {
+			final int length = Math.min(BLOCK_WORDS, wordCount - w);
+			// Splice the non-empty blocks only, without materializing the words of the whole result
+			if (evaluateBlock(w, length, block, size)) {
+				result.orWords(w, block, 0, length);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public PrimitiveIterator.OfInt iterator(final int size) {
+		final int wordCount = wordCount(size);
+		return new PrimitiveIterator.OfInt() {
+
+			/** The result of the current block */
+			final long[] block = new long[BLOCK_WORDS];
+
+			/** Index of the first word of the current block */
+			int blockStart = -BLOCK_WORDS;
+
+			/** Number of words of the current block */
+			int blockLength = 0;
+
+			/** Index of the current word within the block */
+			int w = 0;
+
+			/** The bits of the current word that have not been returned yet */
+			long word = 0L;
+
+			@Override
+			public boolean hasNext() {
+				while (word == 0L) {
+					if (++w < blockLength) {
+						word = block[w];
+					} else if (!nextBlock()) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public int nextInt() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final int result = ((blockStart + w) << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				return result;
+			}
+
+			/**
+			 * Moves to the next non-empty block.
+			 *
+			 * @return {@code false} if there are no more blocks
+			 */
+			private boolean nextBlock() {
+				do {
+					if (blockStart + BLOCK_WORDS >= wordCount) {
+						blockLength = 0;
+						return false;
+					}
+					blockStart += BLOCK_WORDS;
+					blockLength = Math.min(BLOCK_WORDS, wordCount - blockStart);
+				} while (!evaluateBlock(blockStart, blockLength, block, size));
+				w = 0;
+				word = block[0];
+				return true;
+			}
+		};
+	}
+
+	@Override
+	public IntStream stream(final int size) {
+		return StreamSupport.intStream(
+				Spliterators.spliteratorUnknownSize(
+						iterator(size),
+						Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL),
+				false);
+	}
+
+}
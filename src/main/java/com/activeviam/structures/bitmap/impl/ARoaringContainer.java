@@ -0,0 +1,168 @@
+package com.activeviam.structures.bitmap.impl;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * A container of a {@link RoaringBitmap}, holding the 16 lowest bits of the values of one block
+ * of 65536 values.
+ *
+ * <p>
+ *   Containers are never empty inside a {@link RoaringBitmap}. Operations that may change the best
+ *   representation of a container return the container to use from then on, which may be
+ *   {@code this} or a new container.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+abstract class ARoaringContainer {
+
+	/** Number of values in a block */
+	static final int BLOCK_SIZE = 1 << 16;
+
+	/** Maximum cardinality of an {@link ArrayContainer}, above it a {@link BitmapContainer} is smaller */
+	static final int MAX_ARRAY_SIZE = 4096;
+
+	/**
+	 * Adds a value to this container.
+	 *
+	 * @param low the value, between 0 and 65535
+	 * @return the container holding the result
+	 */
+	abstract ARoaringContainer add(int low);
+
+	/**
+	 * Adds all the values of a range to this container.
+	 *
+	 * @param start the first value of the range, inclusive
+	 * @param end the last value of the range, exclusive
+	 * @return the container holding the result
+	 */
+	ARoaringContainer addRange(final int start, final int end) {
+		final BitmapContainer bitmap = toBitmapContainer();
+		bitmap.setRange(start, end);
+		return bitmap;
+	}
+
+	/**
+	 * @param low a value between 0 and 65535
+	 * @return {@code true} if the value is in this container
+	 */
+	abstract boolean contains(int low);
+
+	/**
+	 * @return the number of values in this container
+	 */
+	abstract int cardinality();
+
+	/**
+	 * @param low a value between 0 and 65535
+	 * @return the number of values of this container lower than or equal to {@code low}
+	 */
+	abstract int rank(int low);
+
+	/**
+	 * @param k a rank, lower than the cardinality of this container
+	 * @return the {@code k}-th value of this container, starting from 0
+	 */
+	abstract int select(int k);
+
+	/**
+	 * @param low a value between 0 and 65535
+	 * @return the smallest value of this container greater than or equal to {@code low}, or -1
+	 *         if there is none
+	 */
+	abstract int nextValue(int low);
+
+	/**
+	 * Performs a logical AND between two containers, without modifying them.
+	 *
+	 * @param other the other operand
+	 * @return the result, possibly empty
+	 */
+	abstract ARoaringContainer and(ARoaringContainer other);
+
+	/**
+	 * Performs a logical OR between two containers, without modifying them.
+	 *
+	 * @param other the other operand
+	 * @return the result
+	 */
+	abstract ARoaringContainer or(ARoaringContainer other);
+
+	/**
+	 * Removes all the values greater than or equal to the given one.
+	 *
+	 * @param low a value between 0 and 65536
+	 * @return the container holding the result, possibly empty
+	 */
+	abstract ARoaringContainer truncate(int low);
+
+	/**
+	 * Converts this container to the representation using the least memory.
+	 *
+	 * @return the container holding the same values with the smallest footprint
+	 */
+	abstract ARoaringContainer runOptimize();
+
+	/**
+	 * @return this container if it is a {@link BitmapContainer}, a new {@link BitmapContainer}
+	 *         holding the same values otherwise
+	 */
+	abstract BitmapContainer toBitmapContainer();
+
+	/**
+	 * Copies a sequence of 64-bit words of this container into an array.
+	 *
+	 * @param wordIndex index of the first word of this container to copy, between 0 and 1023
+	 * @param words the array receiving the words
+	 * @param offset index of the first word to write in {@code words}
+	 * @param wordCount the number of words to copy
+	 */
+	abstract void getWords(int wordIndex, long[] words, int offset, int wordCount);
+
+	/**
+	 * @return an iterator over the values of this container, in increasing order
+	 */
+	abstract PrimitiveIterator.OfInt iterator();
+
+	/**
+	 * @return estimated size (in bytes) of the container
+	 */
+	abstract long sizeInBytes();
+
+	@Override
+	public abstract ARoaringContainer clone();
+
+	/**
+	 * Tests if two containers hold the same values, whatever their representations.
+	 *
+	 * @param other another container
+	 * @return {@code true} if both containers hold the same values
+	 */
+	boolean sameValues(final ARoaringContainer other) {
+		if (cardinality() != other.cardinality()) {
+			return false;
+		}
+		final PrimitiveIterator.OfInt it1 = iterator();
+		final PrimitiveIterator.OfInt it2 = other.iterator();
+		while (it1.hasNext()) {
+			if (it1.nextInt() != it2.nextInt()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a hash code depending only on the values of the container
+	 */
+	int valuesHashCode() {
+		int result = 1;
+		final PrimitiveIterator.OfInt it = iterator();
+		while (it.hasNext()) {
+			result = 31 * result + it.nextInt();
+		}
+		return result;
+	}
+
+}
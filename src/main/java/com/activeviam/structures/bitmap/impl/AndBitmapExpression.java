@@ -0,0 +1,75 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import java.util.Arrays;
+
+/**
+ * {@link IBitmapExpression} performing a logical AND between several expressions.
+ *
+ * <p>
+ *   The operands are evaluated from the most selective to the least selective one, and the
+ *   evaluation of a block stops as soon as its partial result is empty.
+ * </p>
+ *
+ * <p>
+ *   Without operands, this expression matches all the rows.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class AndBitmapExpression extends ABitmapExpression {
+
+	/** The operands, sorted by increasing estimated cardinality */
+	protected final IBitmapExpression[] operands;
+
+	/** Buffer receiving the result of the operands */
+	protected final long[] buffer = new long[BLOCK_WORDS];
+
+	/**
+	 * Constructor
+	 *
+	 * @param operands the operands of the AND operator
+	 */
+	public AndBitmapExpression(final IBitmapExpression... operands) {
+		this.operands = sortByCardinality(operands, false);
+	}
+
+	/**
+	 * @return {@code true} if this expression has no operands, and thus matches all the rows
+	 */
+	public boolean isTrue() {
+		return operands.length == 0;
+	}
+
+	@Override
+	public long estimateCardinality() {
+		return operands.length == 0 ? Integer.MAX_VALUE : operands[0].estimateCardinality();
+	}
+
+	@Override
+	public boolean evaluate(final int wordIndex, final int wordCount, final long[] words) {
+		if (operands.length == 0) {
+			Arrays.fill(words, 0, wordCount, -1L);
+			return true;
+		}
+		if (!operands[0].evaluate(wordIndex, wordCount, words)) {
+			return false;
+		}
+		for (int k = 1; k < operands.length; ++k) {
+			if (!operands[k].evaluate(wordIndex, wordCount, buffer)) {
+				return false;
+			}
+			BitmapUtil.and(words, buffer, words, wordCount);
+			if (BitmapUtil.isEmpty(words, 0, wordCount)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "And " + Arrays.toString(operands);
+	}
+
+}
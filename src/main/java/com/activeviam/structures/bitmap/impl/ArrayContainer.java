@@ -0,0 +1,264 @@
+package com.activeviam.structures.bitmap.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * {@link ARoaringContainer} storing its values in a sorted array, used for sparse blocks.
+ *
+ * @author ActiveViam
+ */
+class ArrayContainer extends ARoaringContainer {
+
+	/** Initial capacity of the content array */
+	protected static final int INITIAL_CAPACITY = 4;
+
+	/** The sorted values, only the first {@link #cardinality} ones are meaningful */
+	protected char[] content;
+
+	/** The number of values in this container */
+	protected int cardinality;
+
+	/**
+	 * Constructor of an empty container
+	 */
+	ArrayContainer() {
+		this(new char[INITIAL_CAPACITY], 0);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param content the sorted values
+	 * @param cardinality the number of values to read from content
+	 */
+	ArrayContainer(final char[] content, final int cardinality) {
+		this.content = content;
+		this.cardinality = cardinality;
+	}
+
+	@Override
+	ARoaringContainer add(final int low) {
+		final int cardinality = this.cardinality;
+		int index;
+		if (cardinality == 0 || content[cardinality - 1] < low) {
+			// Append, the most common case for indexes
+			index = cardinality;
+		} else {
+			index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+			if (index >= 0) {
+				return this;
+			}
+			index = -index - 1;
+		}
+
+		if (cardinality >= MAX_ARRAY_SIZE) {
+			return toBitmapContainer().add(low);
+		}
+		if (cardinality == content.length) {
+			content = Arrays.copyOf(content, Math.min(2 * cardinality, MAX_ARRAY_SIZE));
+		}
+		System.arraycopy(content, index, content, index + 1, cardinality - index);
+		content[index] = (char) low;
+		this.cardinality = cardinality + 1;
+		return this;
+	}
+
+	@Override
+	void getWords(final int wordIndex, final long[] words, final int offset, final int wordCount) {
+		Arrays.fill(words, offset, offset + wordCount, 0L);
+		final int start = wordIndex << 6;
+		final int end = (wordIndex + wordCount) << 6;
+		int i = Arrays.binarySearch(content, 0, cardinality, (char) start);
+		for (i = i >= 0 ? i : -i - 1; i < cardinality && content[i] < end; ++i) {
+			final int value = content[i] - start;
+			words[offset + (value >>> 6)] |= 1L << value;
+		}
+	}
+
+	@Override
+	boolean contains(final int low) {
+		return Arrays.binarySearch(content, 0, cardinality, (char) low) >= 0;
+	}
+
+	@Override
+	int cardinality() {
+		return cardinality;
+	}
+
+	@Override
+	int rank(final int low) {
+		final int index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	@Override
+	int select(final int k) {
+		return content[k];
+	}
+
+	@Override
+	int nextValue(final int low) {
+		int index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return index < cardinality ? content[index] : -1;
+	}
+
+	@Override
+	ARoaringContainer and(final ARoaringContainer other) {
+		final char[] result = new char[cardinality];
+		int n = 0;
+		if (other instanceof ArrayContainer) {
+			// Merge the two sorted arrays
+			final ArrayContainer o = (ArrayContainer) other;
+			int i = 0;
+			int j = 0;
+			while (i < cardinality && j < o.cardinality) {
+				final char a = content[i];
+				final char b = o.content[j];
+				if (a < b) {
+					++i;
+				} else if (a > b) {
+					++j;
+				} else {
+					result[n++] = a;
+					++i;
+					++j;
+				}
+			}
+		} else {
+			for (int i = 0; i < cardinality; ++i) {
+				if (other.contains(content[i])) {
+					result[n++] = content[i];
+				}
+			}
+		}
+		return new ArrayContainer(result, n);
+	}
+
+	@Override
+	ARoaringContainer or(final ARoaringContainer other) {
+		if (!(other instanceof ArrayContainer)) {
+			return other.or(this);
+		}
+		final ArrayContainer o = (ArrayContainer) other;
+		if (cardinality + o.cardinality > MAX_ARRAY_SIZE) {
+			final BitmapContainer result = o.toBitmapContainer();
+			for (int i = 0; i < cardinality; ++i) {
+				result.add(content[i]);
+			}
+			return result.repair();
+		}
+
+		// Merge the two sorted arrays
+		final char[] result = new char[cardinality + o.cardinality];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < cardinality && j < o.cardinality) {
+			final char a = content[i];
+			final char b = o.content[j];
+			if (a < b) {
+				result[n++] = a;
+				++i;
+			} else if (a > b) {
+				result[n++] = b;
+				++j;
+			} else {
+				result[n++] = a;
+				++i;
+				++j;
+			}
+		}
+		while (i < cardinality) {
+			result[n++] = content[i++];
+		}
+		while (j < o.cardinality) {
+			result[n++] = o.content[j++];
+		}
+		return new ArrayContainer(result, n);
+	}
+
+	@Override
+	ARoaringContainer truncate(final int low) {
+		if (low >= BLOCK_SIZE) {
+			return this;
+		}
+		final int index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+		cardinality = index >= 0 ? index : -index - 1;
+		return this;
+	}
+
+	@Override
+	ARoaringContainer runOptimize() {
+		int runs = 0;
+		for (int i = 0; i < cardinality; ++i) {
+			if (i == 0 || content[i] != content[i - 1] + 1) {
+				++runs;
+			}
+		}
+		// A run takes 2 chars, a value 1 char
+		if (2 * runs >= cardinality) {
+			return this;
+		}
+		final char[] result = new char[2 * runs];
+		int r = -1;
+		for (int i = 0; i < cardinality; ++i) {
+			if (i == 0 || content[i] != content[i - 1] + 1) {
+				result[2 * ++r] = content[i];
+			} else {
+				++result[2 * r + 1];
+			}
+		}
+		return new RunContainer(result, runs);
+	}
+
+	@Override
+	BitmapContainer toBitmapContainer() {
+		final BitmapContainer result = new BitmapContainer();
+		for (int i = 0; i < cardinality; ++i) {
+			result.add(content[i]);
+		}
+		return result;
+	}
+
+	@Override
+	PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < cardinality;
+			}
+
+			@Override
+			public int nextInt() {
+				if (index >= cardinality) {
+					throw new NoSuchElementException();
+				}
+				return content[index++];
+			}
+		};
+	}
+
+	@Override
+	long sizeInBytes() {
+		// 16: Object header
+		// 8: Reference to content
+		// 4: cardinality attribute
+		// 16: header of content
+		// content of the char array
+		return 16 + 8 + 4 + 16 + 2L * content.length;
+	}
+
+	@Override
+	public ArrayContainer clone() {
+		return new ArrayContainer(Arrays.copyOf(content, Math.max(cardinality, INITIAL_CAPACITY)), cardinality);
+	}
+
+}
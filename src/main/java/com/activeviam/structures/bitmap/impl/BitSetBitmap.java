@@ -1,23 +1,45 @@
 package com.activeviam.structures.bitmap.impl;
 
 import com.activeviam.structures.bitmap.IBitmap;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.stream.IntStream;
 
 /**
- * {@link IBitmap} implementation based on {@link BitSet}.
+ * Uncompressed {@link IBitmap} implementation, storing its bits in 64-bit words in the layout of
+ * {@link BitSet#toLongArray()}.
+ * <p>
+ * The words are kept in an array instead of a {@link BitSet}, so that the logical operations run the
+ * {@link BitmapUtil} kernels on them.
  *
  * @author ActiveViam
  */
 public class BitSetBitmap implements IBitmap {
 
-	protected final BitSet underlying;
+	/** Order of the number of bits summarized by each entry of {@link #blockRanks} */
+	protected static final int SUMMARY_BLOCK_ORDER = 12;
+
+	/** Number of words of a summarized block */
+	protected static final int SUMMARY_BLOCK_WORDS = 1 << (SUMMARY_BLOCK_ORDER - 6);
+
+	/** The words of the bitmap, bit {@code i} being stored in {@code words[i >>> 6]} */
+	protected long[] words;
+
+	/**
+	 * The number of bits set before each block of {@code 1 << SUMMARY_BLOCK_ORDER} bits, followed by the
+	 * number of bits set in all the blocks, computed on demand and maintained by {@link #set(int)}.
+	 * {@code null} when outdated.
+	 * <p>
+	 * Readers only ever store a fully computed array in this volatile field, so that concurrent readers
+	 * never observe a partially built summary. Writes are not thread-safe, like the ones of the words.
+	 */
+	protected volatile int[] blockRanks;
 
 	/**
 	 * Constructor
 	 */
 	public BitSetBitmap() {
-		this(new BitSet());
+		this(new long[1]);
 	}
 
 	/**
@@ -26,64 +48,127 @@ public class BitSetBitmap implements IBitmap {
 	 * @param initialCapacity the initial size of the bit set
 	 */
 	public BitSetBitmap(int initialCapacity) {
-		this(new BitSet(initialCapacity));
+		this(new long[Math.max(1, wordCount(initialCapacity))]);
 	}
 
 	/**
 	 * Constructor
 	 *
-	 * @param underlying the content of this bitmap
+	 * @param underlying the content of this bitmap, copied
 	 */
 	public BitSetBitmap(BitSet underlying) {
-		this.underlying = underlying;
+		this(underlying.toLongArray());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param words the words of this bitmap, not copied
+	 */
+	protected BitSetBitmap(long[] words) {
+		this.words = words;
+	}
+
+	/**
+	 * Creates a bitmap from its 64-bit words, in the layout of {@link BitSet#valueOf(long[])}.
+	 *
+	 * @param words the words of the bitmap, bit {@code i} being stored in {@code words[i / 64]}. The
+	 *        bitmap takes ownership of the array, which is not copied.
+	 * @return the new bitmap
+	 */
+	public static BitSetBitmap valueOf(long[] words) {
+		return new BitSetBitmap(words);
 	}
 
 	@Override
 	public void set(int i) {
-		underlying.set(i);
+		if (i < 0) {
+			throw new IndexOutOfBoundsException("i < 0: " + i);
+		}
+		final int[] blockRanks = this.blockRanks;
+		if (blockRanks != null && !get(i)) {
+			final int block = i >>> SUMMARY_BLOCK_ORDER;
+			if (block < blockRanks.length - 1) {
+				// Appends only update the last entries
+				for (int b = block + 1; b < blockRanks.length; ++b) {
+					++blockRanks[b];
+				}
+				this.blockRanks = blockRanks;
+			} else {
+				invalidateSummary();
+			}
+		}
+		ensureCapacity((i >>> 6) + 1);
+		words[i >>> 6] |= 1L << i;
 	}
 
 	@Override
 	public boolean get(int i) {
-		return underlying.get(i);
+		if (i < 0) {
+			throw new IndexOutOfBoundsException("i < 0: " + i);
+		}
+		final int w = i >>> 6;
+		return w < words.length && (words[w] & (1L << i)) != 0L;
 	}
 
 	@Override
 	public void clear() {
-		underlying.clear();
+		Arrays.fill(words, 0L);
+		invalidateSummary();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return underlying.isEmpty();
+		return BitmapUtil.isEmpty(words, 0, words.length);
 	}
 
 	@Override
 	public void truncate(int newSize) {
-		if (newSize > underlying.size()) {
-			throw new IllegalArgumentException("The new size cannot be greater than " + underlying.size());
+		if (newSize > capacity()) {
+			throw new IllegalArgumentException("The new size cannot be greater than " + capacity());
+		}
+		int w = newSize >>> 6;
+		if ((newSize & 63) != 0) {
+			words[w++] &= ~(-1L << newSize);
 		}
-		underlying.clear(newSize, underlying.size());
+		Arrays.fill(words, w, words.length, 0L);
+		invalidateSummary();
 	}
 
 	@Override
 	public IBitmap and(IBitmap other) {
 		final BitSetBitmap o = (BitSetBitmap) other;
-		final BitSet bitset = new BitSet(Math.min(underlying.length(), o.underlying.length()));
-		final BitSetBitmap r = new BitSetBitmap(bitset);
-
-		and(this, o, r);
-		return r;
+		final int length = Math.min(wordsInUse(), o.wordsInUse());
+		final long[] result = new long[Math.max(1, length)];
+		BitmapUtil.and(words, o.words, result, length);
+		return new BitSetBitmap(result);
 	}
 
 	@Override
 	public IBitmap or(IBitmap other) {
 		final BitSetBitmap o = (BitSetBitmap) other;
-		final BitSet bitset = new BitSet(Math.max(underlying.length(), o.underlying.length()));
-		final BitSetBitmap r = new BitSetBitmap(bitset);
+		final int length = wordsInUse();
+		final int otherLength = o.wordsInUse();
+		final long[] longest = length >= otherLength ? words : o.words;
+		final long[] result = Arrays.copyOf(longest, Math.max(1, Math.max(length, otherLength)));
+		BitmapUtil.or(result, longest == words ? o.words : words, result, Math.min(length, otherLength));
+		return new BitSetBitmap(result);
+	}
 
-		or(this, o, r);
-		return r;
+	@Override
+	public IBitmap andAll(IBitmap... others) {
+		// The result is not longer than the shortest operand
+		final long[][] operands = new long[others.length + 1][];
+		operands[0] = words;
+		int length = wordsInUse();
+		for (int k = 0; k < others.length; ++k) {
+			final BitSetBitmap other = (BitSetBitmap) others[k];
+			operands[k + 1] = other.words;
+			length = Math.min(length, other.wordsInUse());
+		}
+		final long[] result = new long[Math.max(1, length)];
+		BitmapUtil.and(operands, result, length);
+		return new BitSetBitmap(result);
 	}
 
 	@Override
@@ -96,6 +181,164 @@ public class BitSetBitmap implements IBitmap {
 		or(this, (BitSetBitmap) operand, (BitSetBitmap) result);
 	}
 
+	@Override
+	public void orWords(int wordIndex, long[] words, int offset, int wordCount) {
+		invalidateSummary();
+		ensureCapacity(wordIndex + wordCount);
+		final long[] underlying = this.words;
+		for (int k = 0; k < wordCount; ++k) {
+			underlying[wordIndex + k] |= words[offset + k];
+		}
+	}
+
+	@Override
+	public void getWords(int wordIndex, long[] words, int offset, int wordCount) {
+		final int copied = Math.max(0, Math.min(wordCount, this.words.length - wordIndex));
+		System.arraycopy(this.words, wordIndex, words, offset, copied);
+		Arrays.fill(words, offset + copied, offset + wordCount, 0L);
+	}
+
+	@Override
+	public int cardinality() {
+		return BitmapUtil.cardinality(words, 0, words.length);
+	}
+
+	@Override
+	public int rank(int i) {
+		if (i < 0) {
+			return 0;
+		}
+		final int[] blockRanks = summarize();
+		final int blockCount = blockRanks.length - 1;
+		final int block = i >>> SUMMARY_BLOCK_ORDER;
+		if (block >= blockCount) {
+			return blockRanks[blockCount];
+		}
+		return blockRanks[block] + cardinality(block << SUMMARY_BLOCK_ORDER, i);
+	}
+
+	@Override
+	public int select(int k) {
+		final int[] blockRanks = summarize();
+		final int blockCount = blockRanks.length - 1;
+		if (k < 0 || k >= blockRanks[blockCount]) {
+			return -1;
+		}
+		// Walk the words of the block, that holds at least remaining + 1 bits
+		final int block = BitmapUtil.selectBlock(blockRanks, blockCount, k);
+		int remaining = k - blockRanks[block];
+		for (int w = block * SUMMARY_BLOCK_WORDS;; ++w) {
+			final int count = Long.bitCount(words[w]);
+			if (remaining < count) {
+				return (w << 6) + BitmapUtil.select(words[w], remaining);
+			}
+			remaining -= count;
+		}
+	}
+
+	@Override
+	public int nextSetBit(int from) {
+		int w = Math.max(from, 0) >>> 6;
+		if (w >= words.length) {
+			return -1;
+		}
+		long word = words[w] & (-1L << Math.max(from, 0));
+		while (word == 0L) {
+			if (++w == words.length) {
+				return -1;
+			}
+			word = words[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @return the number of bits this bitmap can hold without growing its words
+	 */
+	protected int capacity() {
+		return (int) Math.min(Integer.MAX_VALUE, (long) words.length << 6);
+	}
+
+	/**
+	 * @return the number of words up to the last one holding a bit set
+	 */
+	protected int wordsInUse() {
+		int w = words.length;
+		while (w > 0 && words[w - 1] == 0L) {
+			--w;
+		}
+		return w;
+	}
+
+	/**
+	 * Grows the words so that they hold at least a given number of words.
+	 *
+	 * @param wordCount the number of words to hold
+	 */
+	protected void ensureCapacity(int wordCount) {
+		if (wordCount > words.length) {
+			words = Arrays.copyOf(words, Math.max(wordCount, 2 * words.length));
+		}
+	}
+
+	/**
+	 * @param bitCount a number of bits
+	 * @return the number of words holding that number of bits
+	 */
+	protected static int wordCount(int bitCount) {
+		return (int) (((long) bitCount + Long.SIZE - 1) >>> 6);
+	}
+
+	/**
+	 * Computes the cardinality summaries if they are outdated.
+	 *
+	 * @return the number of bits set before each block, followed by the number of bits set in all the blocks
+	 */
+	protected int[] summarize() {
+		int[] blockRanks = this.blockRanks;
+		if (blockRanks == null) {
+			final int length = wordsInUse();
+			final int blockCount = (length + SUMMARY_BLOCK_WORDS - 1) / SUMMARY_BLOCK_WORDS;
+			blockRanks = new int[blockCount + 1];
+			for (int b = 0; b < blockCount; ++b) {
+				final int from = b * SUMMARY_BLOCK_WORDS;
+				blockRanks[b + 1] = blockRanks[b]
+						+ BitmapUtil.cardinality(words, from, Math.min(length, from + SUMMARY_BLOCK_WORDS));
+			}
+			this.blockRanks = blockRanks;
+		}
+		return blockRanks;
+	}
+
+	/**
+	 * Counts the bits set in a range, with a popcount of its words.
+	 *
+	 * @param from the first bit of the range
+	 * @param last the last bit of the range, included
+	 * @return the number of bits set in {@code [from, last]}
+	 */
+	protected int cardinality(int from, int last) {
+		final int first = from >>> 6;
+		final int end = Math.min(words.length, (last >>> 6) + 1);
+		if (first >= end) {
+			return 0;
+		}
+		int count = BitmapUtil.cardinality(words, first, end);
+		// Remove the bits of the first and last words that are out of the range
+		count -= Long.bitCount(words[first] & ~(-1L << from));
+		if (end - 1 == last >>> 6) {
+			count -= Long.bitCount(words[end - 1] & (-2L << last));
+		}
+		return count;
+	}
+
+	/**
+	 * Marks the cardinality summaries as outdated, after a bulk modification of the bits.
+	 */
+	protected void invalidateSummary() {
+		blockRanks = null;
+	}
+
 	/**
 	 * Performs a logical AND operation between two bitmaps.
 	 *
@@ -105,8 +348,14 @@ public class BitSetBitmap implements IBitmap {
 	 */
 	private static void and(final BitSetBitmap bitmap1, final BitSetBitmap bitmap2,
 			final BitSetBitmap result) {
-		result.underlying.or(bitmap1.underlying);
-		result.underlying.and(bitmap2.underlying);
+		final int length = bitmap1.wordsInUse();
+		result.ensureCapacity(length);
+		final long[] words = result.words;
+		BitmapUtil.or(words, bitmap1.words, words, length);
+		final int andLength = Math.min(words.length, bitmap2.words.length);
+		BitmapUtil.and(words, bitmap2.words, words, andLength);
+		Arrays.fill(words, andLength, words.length, 0L);
+		result.invalidateSummary();
 	}
 
 	/**
@@ -118,42 +367,55 @@ public class BitSetBitmap implements IBitmap {
 	 */
 	private static void or(final BitSetBitmap bitmap1, final BitSetBitmap bitmap2,
 			final BitSetBitmap result) {
-		result.underlying.or(bitmap1.underlying);
-		result.underlying.or(bitmap2.underlying);
+		or(bitmap1.words, bitmap1.wordsInUse(), result);
+		or(bitmap2.words, bitmap2.wordsInUse(), result);
+		result.invalidateSummary();
+	}
+
+	/**
+	 * Merges (logical OR) words into a bitmap.
+	 *
+	 * @param words the merged words
+	 * @param length the number of words to merge
+	 * @param result the bitmap receiving the words
+	 */
+	private static void or(final long[] words, final int length, final BitSetBitmap result) {
+		result.ensureCapacity(length);
+		BitmapUtil.or(result.words, words, result.words, length);
 	}
 
 	@Override
 	public long sizeInBytes() {
 		// 16 : object header
-		// 8 : reference to BitSet
-		// 16 : header of BitSet
-		// 32 : value of the BitSet.wordsInUse
-		// 8 : reference to BitSet.long[]
-		// 16 : header of the BitSet.long[] array
-		// content of the BitSet.long[]
-		return 16 + 8 + 16 +32 + 8 + 16 + (underlying.size() / 8);
+		// 8 : reference to the words
+		// 8 : reference to the summaries
+		// 16 : header of the words array
+		// content of the words array
+		return 16 + 8 + 8 + 16 + 8L * words.length;
 	}
 
 	@Override
 	public IntStream stream() {
-		return underlying.stream();
+		return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> i == Integer.MAX_VALUE ? -1 : nextSetBit(i + 1));
 	}
 
 	@Override
 	public BitSetBitmap clone() {
-		return new BitSetBitmap((BitSet) underlying.clone());
+		return new BitSetBitmap(words.clone());
 	}
 
 	@Override
 	public String toString() {
-		return "BitSetBitmap [" + underlying + "]";
+		return "BitSetBitmap [" + BitSet.valueOf(words) + "]";
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((underlying == null) ? 0 : underlying.hashCode());
+		for (int w = 0, length = wordsInUse(); w < length; ++w) {
+			result = prime * result + Long.hashCode(words[w]);
+		}
 		return result;
 	}
 
@@ -166,12 +428,8 @@ public class BitSetBitmap implements IBitmap {
 		if (getClass() != obj.getClass())
 			return false;
 		BitSetBitmap other = (BitSetBitmap) obj;
-		if (underlying == null) {
-			if (other.underlying != null)
-				return false;
-		} else if (!underlying.equals(other.underlying))
-			return false;
-		return true;
+		final int length = wordsInUse();
+		return length == other.wordsInUse() && Arrays.equals(words, 0, length, other.words, 0, length);
 	}
 
 }
@@ -0,0 +1,373 @@
+package com.activeviam.structures.bitmap.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * {@link ARoaringContainer} storing its values as an uncompressed array of 1024 words, used for
+ * dense blocks.
+ *
+ * @author ActiveViam
+ */
+class BitmapContainer extends ARoaringContainer {
+
+	/** Number of words covering a block */
+	static final int WORD_COUNT = BLOCK_SIZE / Long.SIZE;
+
+	/** The words of the bitmap */
+	protected final long[] words;
+
+	/** The number of bits set in {@link #words} */
+	protected int cardinality;
+
+	/**
+	 * Constructor of an empty container
+	 */
+	BitmapContainer() {
+		this(new long[WORD_COUNT], 0);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param words the words of the bitmap
+	 * @param cardinality the number of bits set in the words
+	 */
+	BitmapContainer(final long[] words, final int cardinality) {
+		this.words = words;
+		this.cardinality = cardinality;
+	}
+
+	@Override
+	ARoaringContainer add(final int low) {
+		final int w = low >>> 6;
+		final long before = words[w];
+		final long after = before | (1L << low);
+		if (before != after) {
+			words[w] = after;
+			++cardinality;
+		}
+		return this;
+	}
+
+	@Override
+	ARoaringContainer addRange(final int start, final int end) {
+		setRange(start, end);
+		return this;
+	}
+
+	/**
+	 * Sets all the bits of a range.
+	 *
+	 * @param start the first bit of the range, inclusive
+	 * @param end the last bit of the range, exclusive
+	 */
+	void setRange(final int start, final int end) {
+		if (start >= end) {
+			return;
+		}
+		final int firstWord = start >>> 6;
+		final int lastWord = (end - 1) >>> 6;
+		for (int w = firstWord; w <= lastWord; ++w) {
+			final long before = words[w];
+			final long after = before | rangeMask(w, start, end);
+			cardinality += Long.bitCount(after) - Long.bitCount(before);
+			words[w] = after;
+		}
+	}
+
+	/**
+	 * Merges words into this container.
+	 *
+	 * @param wordIndex index of the word of this container receiving {@code words[offset]}
+	 * @param source the words to merge
+	 * @param offset index of the first word to read
+	 * @param wordCount number of words to read
+	 */
+	void orWords(final int wordIndex, final long[] source, final int offset, final int wordCount) {
+		for (int k = 0; k < wordCount; ++k) {
+			final long before = words[wordIndex + k];
+			final long after = before | source[offset + k];
+			cardinality += Long.bitCount(after) - Long.bitCount(before);
+			words[wordIndex + k] = after;
+		}
+	}
+
+	@Override
+	void getWords(final int wordIndex, final long[] dest, final int offset, final int wordCount) {
+		System.arraycopy(words, wordIndex, dest, offset, wordCount);
+	}
+
+	@Override
+	boolean contains(final int low) {
+		return (words[low >>> 6] & (1L << low)) != 0;
+	}
+
+	@Override
+	int cardinality() {
+		return cardinality;
+	}
+
+	@Override
+	int rank(final int low) {
+		final int w = low >>> 6;
+		return BitmapUtil.cardinality(words, 0, w) + Long.bitCount(words[w] & (-1L >>> (63 - (low & 63))));
+	}
+
+	@Override
+	int select(final int k) {
+		int remaining = k;
+		for (int w = 0; ; ++w) {
+			final int count = Long.bitCount(words[w]);
+			if (remaining < count) {
+				return (w << 6) + BitmapUtil.select(words[w], remaining);
+			}
+			remaining -= count;
+		}
+	}
+
+	@Override
+	int nextValue(final int low) {
+		final int next = nextSetBit(low);
+		return next < BLOCK_SIZE ? next : -1;
+	}
+
+	@Override
+	ARoaringContainer and(final ARoaringContainer other) {
+		if (other instanceof ArrayContainer) {
+			return other.and(this);
+		}
+		final long[] result = new long[WORD_COUNT];
+		int cardinality = 0;
+		if (other instanceof BitmapContainer) {
+			BitmapUtil.and(words, ((BitmapContainer) other).words, result, WORD_COUNT);
+			cardinality = BitmapUtil.cardinality(result, 0, WORD_COUNT);
+		} else {
+			// Keep the parts of the words covered by the runs
+			final RunContainer o = (RunContainer) other;
+			for (int r = 0; r < o.nbRuns; ++r) {
+				final int start = o.start(r);
+				final int end = o.end(r);
+				for (int w = start >>> 6, last = (end - 1) >>> 6; w <= last; ++w) {
+					final long word = words[w] & rangeMask(w, start, end);
+					result[w] |= word;
+					cardinality += Long.bitCount(word);
+				}
+			}
+		}
+		return new BitmapContainer(result, cardinality).repair();
+	}
+
+	@Override
+	ARoaringContainer or(final ARoaringContainer other) {
+		if (other instanceof BitmapContainer) {
+			final long[] result = new long[WORD_COUNT];
+			BitmapUtil.or(words, ((BitmapContainer) other).words, result, WORD_COUNT);
+			return new BitmapContainer(result, BitmapUtil.cardinality(result, 0, WORD_COUNT));
+		}
+		final BitmapContainer result = clone();
+		if (other instanceof ArrayContainer) {
+			final ArrayContainer o = (ArrayContainer) other;
+			for (int i = 0; i < o.cardinality; ++i) {
+				result.add(o.content[i]);
+			}
+		} else {
+			final RunContainer o = (RunContainer) other;
+			for (int r = 0; r < o.nbRuns; ++r) {
+				result.setRange(o.start(r), o.end(r));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Performs a logical AND between this container and several other bitmap containers, in a
+	 * single pass.
+	 *
+	 * @param others the other operands
+	 * @return the result, possibly empty
+	 */
+	ARoaringContainer and(final BitmapContainer[] others) {
+		final long[][] operands = new long[others.length + 1][];
+		operands[0] = words;
+		for (int k = 0; k < others.length; ++k) {
+			operands[k + 1] = others[k].words;
+		}
+		final long[] result = new long[WORD_COUNT];
+		BitmapUtil.and(operands, result, WORD_COUNT);
+		return new BitmapContainer(result, BitmapUtil.cardinality(result, 0, WORD_COUNT)).repair();
+	}
+
+	@Override
+	ARoaringContainer truncate(final int low) {
+		if (low >= BLOCK_SIZE) {
+			return this;
+		}
+		final int w = low >>> 6;
+		cardinality -= Long.bitCount(words[w] & (-1L << low));
+		words[w] &= ~(-1L << low);
+		for (int i = w + 1; i < WORD_COUNT; ++i) {
+			cardinality -= Long.bitCount(words[i]);
+			words[i] = 0L;
+		}
+		return repair();
+	}
+
+	@Override
+	ARoaringContainer runOptimize() {
+		int runs = 0;
+		long previous = 0L;
+		for (int w = 0; w < WORD_COUNT; ++w) {
+			final long word = words[w];
+			// A run starts on each set bit whose predecessor is not set
+			runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+			previous = word;
+		}
+		// A run takes 4 bytes, the bitmap 8 kB and an array 2 bytes per value
+		final long runSize = 4L * runs;
+		if (cardinality > MAX_ARRAY_SIZE) {
+			if (runSize >= 8L * WORD_COUNT) {
+				return this;
+			}
+		} else if (runSize >= 2L * cardinality) {
+			return repair();
+		}
+		final char[] result = new char[2 * runs];
+		int r = 0;
+		int v = 0;
+		while (r < runs) {
+			final int start = nextSetBit(v);
+			final int end = nextClearBit(start);
+			result[2 * r] = (char) start;
+			result[2 * r + 1] = (char) (end - start - 1);
+			++r;
+			v = end;
+		}
+		return new RunContainer(result, runs);
+	}
+
+	/**
+	 * Converts this container to an {@link ArrayContainer} if its cardinality is small enough.
+	 *
+	 * @return the container holding the values with the smallest footprint between an array and
+	 *         a bitmap
+	 */
+	ARoaringContainer repair() {
+		if (cardinality > MAX_ARRAY_SIZE) {
+			return this;
+		}
+		final char[] content = new char[Math.max(cardinality, ArrayContainer.INITIAL_CAPACITY)];
+		int n = 0;
+		for (int w = 0; w < WORD_COUNT; ++w) {
+			long word = words[w];
+			while (word != 0) {
+				content[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		return new ArrayContainer(content, n);
+	}
+
+	/**
+	 * @param from a value between 0 and 65536
+	 * @return the first set bit after from (inclusive), or {@link #BLOCK_SIZE} if there is none
+	 */
+	int nextSetBit(final int from) {
+		int w = from >>> 6;
+		if (w >= WORD_COUNT) {
+			return BLOCK_SIZE;
+		}
+		long word = words[w] & (-1L << from);
+		while (word == 0) {
+			if (++w == WORD_COUNT) {
+				return BLOCK_SIZE;
+			}
+			word = words[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @param from a value between 0 and 65536
+	 * @return the first clear bit after from (inclusive), or {@link #BLOCK_SIZE} if there is none
+	 */
+	int nextClearBit(final int from) {
+		int w = from >>> 6;
+		if (w >= WORD_COUNT) {
+			return BLOCK_SIZE;
+		}
+		long word = ~words[w] & (-1L << from);
+		while (word == 0) {
+			if (++w == WORD_COUNT) {
+				return BLOCK_SIZE;
+			}
+			word = ~words[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Computes the mask selecting the bits of a word that are in a range.
+	 *
+	 * @param w the index of the word
+	 * @param start the first bit of the range, inclusive
+	 * @param end the last bit of the range, exclusive
+	 * @return the mask of the bits of the word in the range
+	 */
+	static long rangeMask(final int w, final int start, final int end) {
+		final int first = w << 6;
+		long mask = -1L;
+		if (start > first) {
+			mask &= -1L << start;
+		}
+		if (end < first + Long.SIZE) {
+			mask &= -1L >>> -end;
+		}
+		return mask;
+	}
+
+	@Override
+	BitmapContainer toBitmapContainer() {
+		return this;
+	}
+
+	@Override
+	PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			int next = nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return next < BLOCK_SIZE;
+			}
+
+			@Override
+			public int nextInt() {
+				if (next >= BLOCK_SIZE) {
+					throw new NoSuchElementException();
+				}
+				final int result = next;
+				next = nextSetBit(result + 1);
+				return result;
+			}
+		};
+	}
+
+	@Override
+	long sizeInBytes() {
+		// 16: Object header
+		// 8: Reference to words
+		// 4: cardinality attribute
+		// 16: header of words
+		// content of the long array
+		return 16 + 8 + 4 + 16 + 8L * WORD_COUNT;
+	}
+
+	@Override
+	public BitmapContainer clone() {
+		return new BitmapContainer(Arrays.copyOf(words, WORD_COUNT), cardinality);
+	}
+
+}
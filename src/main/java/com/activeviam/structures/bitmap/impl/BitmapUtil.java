@@ -0,0 +1,244 @@
+package com.activeviam.structures.bitmap.impl;
+
+import java.util.Arrays;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Word-level kernels for logical operations on bitmaps backed by {@code long[]} arrays, written
+ * with the Panama Vector API.
+ *
+ * @author ActiveViam
+ */
+public class BitmapUtil {
+
+	/** The species used by the kernels */
+	public static final VectorSpecies<Long> VECTOR_SPECIES = LongVector.SPECIES_PREFERRED;
+
+	/** Number of words processed by each vector operation */
+	public static final int VECTOR_LANES = VECTOR_SPECIES.length();
+
+	private BitmapUtil() {}
+
+	/**
+	 * Computes {@code dest[i] = a[i] & b[i]} for the first {@code length} words.
+	 *
+	 * @param a the first operand
+	 * @param b the second operand
+	 * @param dest the result, possibly one of the operands
+	 * @param length the number of words to process
+	 */
+	public static void and(final long[] a, final long[] b, final long[] dest, final int length) {
+		final int bound = VECTOR_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VECTOR_LANES) {
+			LongVector.fromArray(VECTOR_SPECIES, a, i)
+					.and(LongVector.fromArray(VECTOR_SPECIES, b, i))
+					.intoArray(dest, i);
+		}
+		for (; i < length; ++i) {
+			dest[i] = a[i] & b[i];
+		}
+	}
+
+	/**
+	 * Computes {@code dest[i] = a[i] | b[i]} for the first {@code length} words.
+	 *
+	 * @param a the first operand
+	 * @param b the second operand
+	 * @param dest the result, possibly one of the operands
+	 * @param length the number of words to process
+	 */
+	public static void or(final long[] a, final long[] b, final long[] dest, final int length) {
+		final int bound = VECTOR_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VECTOR_LANES) {
+			LongVector.fromArray(VECTOR_SPECIES, a, i)
+					.or(LongVector.fromArray(VECTOR_SPECIES, b, i))
+					.intoArray(dest, i);
+		}
+		for (; i < length; ++i) {
+			dest[i] = a[i] | b[i];
+		}
+	}
+
+	/**
+	 * Computes {@code dest[i] = a[i] & ~b[i]} for the first {@code length} words.
+	 *
+	 * @param a the first operand
+	 * @param b the second operand, whose bits are removed from the first one
+	 * @param dest the result, possibly one of the operands
+	 * @param length the number of words to process
+	 */
+	public static void andNot(final long[] a, final long[] b, final long[] dest, final int length) {
+		final int bound = VECTOR_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VECTOR_LANES) {
+			LongVector.fromArray(VECTOR_SPECIES, a, i)
+					.lanewise(VectorOperators.AND_NOT, LongVector.fromArray(VECTOR_SPECIES, b, i))
+					.intoArray(dest, i);
+		}
+		for (; i < length; ++i) {
+			dest[i] = a[i] & ~b[i];
+		}
+	}
+
+	/**
+	 * Computes {@code dest[i] = a[i] ^ b[i]} for the first {@code length} words.
+	 *
+	 * @param a the first operand
+	 * @param b the second operand
+	 * @param dest the result, possibly one of the operands
+	 * @param length the number of words to process
+	 */
+	public static void xor(final long[] a, final long[] b, final long[] dest, final int length) {
+		final int bound = VECTOR_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VECTOR_LANES) {
+			LongVector.fromArray(VECTOR_SPECIES, a, i)
+					.lanewise(VectorOperators.XOR, LongVector.fromArray(VECTOR_SPECIES, b, i))
+					.intoArray(dest, i);
+		}
+		for (; i < length; ++i) {
+			dest[i] = a[i] ^ b[i];
+		}
+	}
+
+	/**
+	 * Computes the logical AND of several operands in a single pass over the words, without
+	 * materializing the intermediate results.
+	 *
+	 * @param operands the operands, each one holding at least {@code length} words
+	 * @param dest the result, possibly one of the operands
+	 * @param length the number of words to process
+	 */
+	public static void and(final long[][] operands, final long[] dest, final int length) {
+		final long[] first = operands[0];
+		final int bound = VECTOR_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VECTOR_LANES) {
+			LongVector v = LongVector.fromArray(VECTOR_SPECIES, first, i);
+			for (int k = 1; k < operands.length; ++k) {
+				v = v.and(LongVector.fromArray(VECTOR_SPECIES, operands[k], i));
+			}
+			v.intoArray(dest, i);
+		}
+		for (; i < length; ++i) {
+			long word = first[i];
+			for (int k = 1; k < operands.length; ++k) {
+				word &= operands[k][i];
+			}
+			dest[i] = word;
+		}
+	}
+
+	/**
+	 * Sets a range of bits, bit {@code i} being stored in {@code words[offset + i / 64]}.
+	 *
+	 * @param words the words
+	 * @param offset the index of the word holding the bit 0
+	 * @param from the index of the first bit to set, inclusive
+	 * @param to the index of the last bit to set, exclusive
+	 */
+	public static void setRange(final long[] words, final int offset, final int from, final int to) {
+		if (from >= to) {
+			return;
+		}
+		final int first = offset + (from >>> 6);
+		final int last = offset + ((to - 1) >>> 6);
+		// Shifts are modulo 64
+		final long firstMask = -1L << from;
+		final long lastMask = -1L >>> -to;
+		if (first == last) {
+			words[first] |= firstMask & lastMask;
+		} else {
+			words[first] |= firstMask;
+			Arrays.fill(words, first + 1, last, -1L);
+			words[last] |= lastMask;
+		}
+	}
+
+	/**
+	 * Tests if all the words of a range are zero.
+	 *
+	 * @param words the words
+	 * @param from the index of the first word to test, inclusive
+	 * @param to the index of the last word to test, exclusive
+	 * @return {@code true} if no bit is set in the words
+	 */
+	public static boolean isEmpty(final long[] words, final int from, final int to) {
+		final int bound = from + VECTOR_SPECIES.loopBound(to - from);
+		int i = from;
+		LongVector any = LongVector.zero(VECTOR_SPECIES);
+		for (; i < bound; i += VECTOR_LANES) {
+			any = any.or(LongVector.fromArray(VECTOR_SPECIES, words, i));
+		}
+		long word = any.reduceLanes(VectorOperators.OR);
+		for (; i < to; ++i) {
+			word |= words[i];
+		}
+		return word == 0L;
+	}
+
+	/**
+	 * Counts the number of bits set in a range of words.
+	 *
+	 * @param words the words
+	 * @param from the index of the first word to count, inclusive
+	 * @param to the index of the last word to count, exclusive
+	 * @return the number of bits set in the words
+	 */
+	public static int cardinality(final long[] words, final int from, final int to) {
+		final int bound = from + VECTOR_SPECIES.loopBound(to - from);
+		int i = from;
+		LongVector counts = LongVector.zero(VECTOR_SPECIES);
+		for (; i < bound; i += VECTOR_LANES) {
+			counts = counts.add(
+					LongVector.fromArray(VECTOR_SPECIES, words, i).lanewise(VectorOperators.BIT_COUNT));
+		}
+		long cardinality = counts.reduceLanes(VectorOperators.ADD);
+		for (; i < to; ++i) {
+			cardinality += Long.bitCount(words[i]);
+		}
+		return (int) cardinality;
+	}
+
+	/**
+	 * Finds the block holding the bit of a given rank, from the cumulative counts of the bits set in the
+	 * blocks.
+	 *
+	 * @param ranks the number of bits set before each block, in ascending order
+	 * @param blockCount the number of blocks
+	 * @param k a rank, lower than the number of bits set in all the blocks
+	 * @return the last block whose rank is lower than or equal to {@code k}
+	 */
+	public static int selectBlock(final int[] ranks, final int blockCount, final int k) {
+		int low = 0;
+		int high = blockCount - 1;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (ranks[mid] <= k) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the position of the k-th bit set in a word.
+	 *
+	 * @param word a word
+	 * @param k the rank of the bit to find, starting from 0
+	 * @return the position of the bit in the word, or 64 if the word has not enough bits set
+	 */
+	public static int select(long word, final int k) {
+		for (int j = 0; j < k; ++j) {
+			word &= word - 1;
+		}
+		return Long.numberOfTrailingZeros(word);
+	}
+
+}
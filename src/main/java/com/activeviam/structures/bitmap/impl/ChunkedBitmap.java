@@ -12,6 +12,13 @@ public class ChunkedBitmap implements IBitmap {
   protected IBitmap[] chunks;
   protected int chunkSize;
 
+  /**
+   * The number of bits set before each chunk, followed by the number of bits set in all the chunks,
+   * computed on demand by {@link #rank(int)} and {@link #select(int)}. {@code null} when outdated: the
+   * modifications made through this bitmap invalidate it.
+   */
+  protected volatile int[] chunkRanks;
+
   public ChunkedBitmap(int chunkSize) {
     this(new IBitmap[0], chunkSize);
     this.chunkSize = chunkSize;
@@ -86,17 +93,20 @@ public class ChunkedBitmap implements IBitmap {
       newChunks[i] = new BitSetBitmap();
     }
     this.chunks = newChunks;
+    invalidateSummary();
   }
 
   protected void setChunk(int chunkId, IBitmap defaultBitmap) {
     if (chunkId < chunks.length && null == chunks[chunkId]) {
       chunks[chunkId] = defaultBitmap;
+      invalidateSummary();
     }
   }
 
   @Override
   public void set(int i) {
     ensureCapacity(i + 1);
+    invalidateSummary();
 
     int chunkId = i / chunkSize;
     int index = i % chunkSize;
@@ -129,6 +139,7 @@ public boolean get(int i) {
   @Override
   public void clear() {
     chunks = new IBitmap[0];
+    invalidateSummary();
   }
 
   @Override
@@ -147,6 +158,7 @@ public boolean get(int i) {
     for (int i = chunkId + 1; i < chunks.length; ++i) {
       chunks[i] = null;
     }
+    invalidateSummary();
   }
 
   @Override
@@ -192,12 +204,35 @@ public boolean get(int i) {
     return new ChunkedBitmap(chunks, this.chunkSize);
   }
 
+  @Override
+  public IBitmap andAll(IBitmap... others) {
+    int size = this.chunks.length;
+    for (IBitmap other : others) {
+      size = Math.min(size, ((ChunkedBitmap) other).chunks.length);
+    }
+
+    final IBitmap[] chunks = new IBitmap[size];
+    final IBitmap[] operands = new IBitmap[others.length];
+    for (int i = 0; i < size; ++i) {
+      final IBitmap first = this.chunks[i];
+      boolean empty = null == first;
+      for (int k = 0; k < others.length && !empty; ++k) {
+        operands[k] = ((ChunkedBitmap) others[k]).chunks[i];
+        empty = null == operands[k];
+      }
+      chunks[i] = empty ? null : first.andAll(operands);
+    }
+
+    return new ChunkedBitmap(chunks, this.chunkSize);
+  }
+
   @Override
   public void and(IBitmap operand, IBitmap result) {
     final ChunkedBitmap r = (ChunkedBitmap) result;
     final ChunkedBitmap o = (ChunkedBitmap) operand;
     final int size = Math.min(o.chunks.length, this.chunks.length);
     r.chunks = new IBitmap[size];
+    r.invalidateSummary();
 
     for (int i = 0; i < size; ++i) {
       IBitmap left = o.chunks[i];
@@ -218,6 +253,7 @@ public boolean get(int i) {
     final ChunkedBitmap o = (ChunkedBitmap) operand;
     final int size = Math.max(o.chunks.length, this.chunks.length);
     r.chunks = new IBitmap[size];
+    r.invalidateSummary();
 
     for (int i = 0; i < size; ++i) {
       // Size can be larger than one of these two lengths
@@ -235,6 +271,191 @@ public boolean get(int i) {
     }
   }
 
+  @Override
+  public void orWords(int wordIndex, long[] words, int offset, int wordCount) {
+    // Ignore the trailing empty words not to allocate useless chunks
+    int end = offset + wordCount;
+    while (end > offset && words[end - 1] == 0L) {
+      --end;
+    }
+    if (end == offset) {
+      return;
+    }
+    invalidateSummary();
+    final int lastWord = wordIndex + end - offset - 1;
+    ensureCapacity((lastWord << 6) + Long.SIZE - Long.numberOfLeadingZeros(words[end - 1]));
+
+    if ((chunkSize & 63) == 0) {
+      // Chunks are word-aligned: splice the words chunk by chunk
+      final int wordsPerChunk = chunkSize >>> 6;
+      int k = offset;
+      while (k < end) {
+        final int globalWord = wordIndex + k - offset;
+        final int chunkId = globalWord / wordsPerChunk;
+        final int chunkWord = globalWord % wordsPerChunk;
+        final int length = Math.min(end - k, wordsPerChunk - chunkWord);
+        if (chunks[chunkId] == null) {
+          chunks[chunkId] = new BitSetBitmap();
+        }
+        chunks[chunkId].orWords(chunkWord, words, k, length);
+        k += length;
+      }
+    } else {
+      for (int k = offset; k < end; ++k) {
+        long word = words[k];
+        final int firstBit = (wordIndex + k - offset) << 6;
+        while (word != 0) {
+          set(firstBit + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+  }
+
+  @Override
+  public void getWords(int wordIndex, long[] words, int offset, int wordCount) {
+    if ((chunkSize & 63) == 0) {
+      // Chunks are word-aligned: copy the words chunk by chunk
+      final int wordsPerChunk = chunkSize >>> 6;
+      int k = 0;
+      while (k < wordCount) {
+        final int globalWord = wordIndex + k;
+        final int chunkId = globalWord / wordsPerChunk;
+        final int chunkWord = globalWord % wordsPerChunk;
+        final int length = Math.min(wordCount - k, wordsPerChunk - chunkWord);
+        final IBitmap chunk = chunkId < chunks.length ? chunks[chunkId] : null;
+        if (chunk == null) {
+          Arrays.fill(words, offset + k, offset + k + length, 0L);
+        } else {
+          chunk.getWords(chunkWord, words, offset + k, length);
+        }
+        k += length;
+      }
+    } else {
+      // Chunks are not word-aligned: assemble each word from the words of the chunks it overlaps
+      for (int k = 0; k < wordCount; ++k) {
+        final long firstBit = (long) (wordIndex + k) << 6;
+        long word = 0L;
+        int bit = 0;
+        while (bit < Long.SIZE) {
+          final int chunkId = (int) ((firstBit + bit) / chunkSize);
+          if (chunkId >= chunks.length) {
+            break;
+          }
+          final int chunkBit = (int) ((firstBit + bit) % chunkSize);
+          final int length = Math.min(Long.SIZE - bit, chunkSize - chunkBit);
+          final IBitmap chunk = chunks[chunkId];
+          if (chunk != null) {
+            final long mask = length == Long.SIZE ? -1L : (1L << length) - 1;
+            word |= (readWord(chunk, chunkBit, words, offset + k) & mask) << bit;
+          }
+          bit += length;
+        }
+        words[offset + k] = word;
+      }
+    }
+  }
+
+  /**
+   * Reads the 64 bits of a chunk starting from any bit, from the one or two words holding them.
+   *
+   * @param chunk the chunk to read
+   * @param from the index of the first bit to read in the chunk
+   * @param buffer an array whose word at {@code index} can be used as scratch space
+   * @param index the index of the scratch word
+   * @return the bits, bit {@code from} being the lowest one
+   */
+  private static long readWord(final IBitmap chunk, final int from, final long[] buffer, final int index) {
+    final int shift = from & 63;
+    chunk.getWords(from >>> 6, buffer, index, 1);
+    long word = buffer[index] >>> shift;
+    if (shift != 0) {
+      chunk.getWords((from >>> 6) + 1, buffer, index, 1);
+      word |= buffer[index] << (Long.SIZE - shift);
+    }
+    return word;
+  }
+
+  @Override
+  public int cardinality() {
+    int cardinality = 0;
+    for (IBitmap chunk : chunks) {
+      if (null != chunk) {
+        cardinality += chunk.cardinality();
+      }
+    }
+    return cardinality;
+  }
+
+  @Override
+  public int rank(int i) {
+    if (i < 0) {
+      return 0;
+    }
+    final IBitmap[] chunks = this.chunks;
+    final int[] chunkRanks = summarize(chunks);
+    final int chunkId = i / chunkSize;
+    if (chunkId >= chunks.length) {
+      return chunkRanks[chunks.length];
+    }
+    // The chunks maintain their own cardinality summaries
+    final IBitmap chunk = chunks[chunkId];
+    return chunkRanks[chunkId] + (null != chunk ? chunk.rank(i % chunkSize) : 0);
+  }
+
+  @Override
+  public int select(int k) {
+    final IBitmap[] chunks = this.chunks;
+    final int[] chunkRanks = summarize(chunks);
+    if (k < 0 || k >= chunkRanks[chunks.length]) {
+      return -1;
+    }
+    final int c = BitmapUtil.selectBlock(chunkRanks, chunks.length, k);
+    return c * chunkSize + chunks[c].select(k - chunkRanks[c]);
+  }
+
+  /**
+   * Computes the cumulative counts of the chunks if they are outdated.
+   *
+   * @param chunks the chunks of this bitmap
+   * @return the number of bits set before each chunk, followed by the number of bits set in all the chunks
+   */
+  protected int[] summarize(final IBitmap[] chunks) {
+    int[] chunkRanks = this.chunkRanks;
+    if (chunkRanks == null || chunkRanks.length != chunks.length + 1) {
+      chunkRanks = new int[chunks.length + 1];
+      for (int c = 0; c < chunks.length; ++c) {
+        chunkRanks[c + 1] = chunkRanks[c] + (null != chunks[c] ? chunks[c].cardinality() : 0);
+      }
+      this.chunkRanks = chunkRanks;
+    }
+    return chunkRanks;
+  }
+
+  /**
+   * Marks the cumulative counts of the chunks as outdated, after a modification of the bits.
+   */
+  protected void invalidateSummary() {
+    chunkRanks = null;
+  }
+
+  @Override
+  public int nextSetBit(int from) {
+    final int start = Math.max(from, 0);
+    int index = start % chunkSize;
+    for (int c = start / chunkSize; c < chunks.length; ++c) {
+      final IBitmap chunk = chunks[c];
+      if (null != chunk) {
+        final int next = chunk.nextSetBit(index);
+        if (next >= 0) {
+          return c * chunkSize + next;
+        }
+      }
+      index = 0;
+    }
+    return -1;
+  }
+
   @Override
   public long sizeInBytes() {
     // 16: Object header
@@ -0,0 +1,41 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.IBitmapExpression;
+
+/**
+ * {@link IBitmapExpression} reading the words of a bitmap.
+ *
+ * @author ActiveViam
+ */
+public class LeafBitmapExpression extends ABitmapExpression {
+
+	/** The bitmap */
+	protected final IBitmap bitmap;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bitmap the bitmap
+	 */
+	public LeafBitmapExpression(final IBitmap bitmap) {
+		this.bitmap = bitmap;
+	}
+
+	@Override
+	public long estimateCardinality() {
+		return bitmap.cardinality();
+	}
+
+	@Override
+	public boolean evaluate(final int wordIndex, final int wordCount, final long[] words) {
+		bitmap.getWords(wordIndex, words, 0, wordCount);
+		return !BitmapUtil.isEmpty(words, 0, wordCount);
+	}
+
+	@Override
+	public String toString() {
+		return "Leaf [" + bitmap + "]";
+	}
+
+}
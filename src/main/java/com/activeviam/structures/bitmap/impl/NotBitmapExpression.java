@@ -0,0 +1,63 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import java.util.Arrays;
+
+/**
+ * {@link IBitmapExpression} performing a logical NOT of an expression, within a given number of
+ * rows.
+ *
+ * @author ActiveViam
+ */
+public class NotBitmapExpression extends ABitmapExpression {
+
+	/** The operand */
+	protected final IBitmapExpression operand;
+
+	/** The number of rows, the rows above it never match this expression */
+	protected final int size;
+
+	/**
+	 * Constructor
+	 *
+	 * @param operand the operand of the NOT operator
+	 * @param size the number of rows
+	 */
+	public NotBitmapExpression(final IBitmapExpression operand, final int size) {
+		this.operand = operand;
+		this.size = size;
+	}
+
+	@Override
+	public long estimateCardinality() {
+		return Math.max(0L, size - operand.estimateCardinality());
+	}
+
+	@Override
+	public boolean evaluate(final int wordIndex, final int wordCount, final long[] words) {
+		final int lastWord = wordCount(size);
+		if (wordIndex >= lastWord) {
+			return false;
+		}
+		if (!operand.evaluate(wordIndex, wordCount, words)) {
+			Arrays.fill(words, 0, wordCount, -1L);
+		} else {
+			for (int i = 0; i < wordCount; ++i) {
+				words[i] = ~words[i];
+			}
+		}
+		// Remove the rows above the size
+		final int length = Math.min(wordCount, lastWord - wordIndex);
+		if (wordIndex + length == lastWord && (size & 63) != 0) {
+			words[length - 1] &= -1L >>> -size;
+		}
+		Arrays.fill(words, length, wordCount, 0L);
+		return !BitmapUtil.isEmpty(words, 0, length);
+	}
+
+	@Override
+	public String toString() {
+		return "Not [" + operand + "]";
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import java.util.Arrays;
+
+/**
+ * {@link IBitmapExpression} performing a logical OR between several expressions.
+ *
+ * <p>
+ *   The operands are evaluated from the least selective to the most selective one, and the
+ *   evaluation of a block stops as soon as all its bits are set.
+ * </p>
+ *
+ * <p>
+ *   Without operands, this expression matches no rows.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class OrBitmapExpression extends ABitmapExpression {
+
+	/** The operands, sorted by decreasing estimated cardinality */
+	protected final IBitmapExpression[] operands;
+
+	/** Buffer receiving the result of the operands */
+	protected final long[] buffer = new long[BLOCK_WORDS];
+
+	/**
+	 * Constructor
+	 *
+	 * @param operands the operands of the OR operator
+	 */
+	public OrBitmapExpression(final IBitmapExpression... operands) {
+		this.operands = sortByCardinality(operands, true);
+	}
+
+	@Override
+	public long estimateCardinality() {
+		long cardinality = 0;
+		for (final IBitmapExpression operand : operands) {
+			cardinality += operand.estimateCardinality();
+		}
+		return Math.min(cardinality, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean evaluate(final int wordIndex, final int wordCount, final long[] words) {
+		boolean empty = true;
+		for (int k = 0; k < operands.length; ++k) {
+			if (empty) {
+				empty = !operands[k].evaluate(wordIndex, wordCount, words);
+			} else if (operands[k].evaluate(wordIndex, wordCount, buffer)) {
+				BitmapUtil.or(words, buffer, words, wordCount);
+				if (isFull(words, wordCount)) {
+					break;
+				}
+			}
+		}
+		return !empty;
+	}
+
+	/**
+	 * @param words some words
+	 * @param wordCount the number of words to test
+	 * @return {@code true} if all the bits of the words are set
+	 */
+	protected static boolean isFull(final long[] words, final int wordCount) {
+		long word = -1L;
+		for (int i = 0; i < wordCount; ++i) {
+			word &= words[i];
+		}
+		return word == -1L;
+	}
+
+	@Override
+	public String toString() {
+		return "Or " + Arrays.toString(operands);
+	}
+
+}
@@ -0,0 +1,600 @@
+package com.activeviam.structures.bitmap.impl;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed {@link IBitmap} following the design of Roaring bitmaps.
+ *
+ * <p>
+ *   The values are split in blocks of 65536 values, identified by their 16 highest bits. Each
+ *   non-empty block is stored in a container adapted to its density: a sorted array of values
+ *   for sparse blocks, an uncompressed bitmap for dense blocks, or a list of runs of consecutive
+ *   values. The memory footprint is thus proportional to the cardinality of the bitmap rather
+ *   than to its highest set bit.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class RoaringBitmap implements IBitmap {
+
+	/** Initial capacity of the container arrays */
+	protected static final int INITIAL_CAPACITY = 4;
+
+	/** The 16 highest bits of the values of each container, sorted */
+	protected char[] keys;
+
+	/** The containers, only the first {@link #size} ones are meaningful */
+	protected ARoaringContainer[] containers;
+
+	/** The number of containers */
+	protected int size;
+
+	/**
+	 * Constructor
+	 */
+	public RoaringBitmap() {
+		this(new char[INITIAL_CAPACITY], new ARoaringContainer[INITIAL_CAPACITY], 0);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param keys the keys of the containers
+	 * @param containers the containers
+	 * @param size the number of containers
+	 */
+	protected RoaringBitmap(final char[] keys, final ARoaringContainer[] containers, final int size) {
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+	}
+
+	/**
+	 * @param i a value
+	 * @return the key of the container holding the value
+	 */
+	protected static int highBits(final int i) {
+		return i >>> 16;
+	}
+
+	/**
+	 * @param i a value
+	 * @return the value stored in the container
+	 */
+	protected static int lowBits(final int i) {
+		return i & 0xFFFF;
+	}
+
+	/**
+	 * Finds the container associated with a key.
+	 *
+	 * @param key the 16 highest bits of a value
+	 * @return the index of the container for this key if it exists, {@code -(insertion point) - 1}
+	 *         otherwise
+	 */
+	protected int findContainer(final int key) {
+		// Fast path for append-only bitmaps
+		if (size > 0 && keys[size - 1] == key) {
+			return size - 1;
+		}
+		return Arrays.binarySearch(keys, 0, size, (char) key);
+	}
+
+	/**
+	 * Inserts a container at a given index.
+	 *
+	 * @param index the insertion index
+	 * @param key the key of the container
+	 * @param container the container
+	 */
+	protected void insertContainer(final int index, final int key, final ARoaringContainer container) {
+		if (size == keys.length) {
+			final int capacity = Math.max(2 * size, INITIAL_CAPACITY);
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = (char) key;
+		containers[index] = container;
+		++size;
+	}
+
+	/**
+	 * Appends a container that is known to have a key greater than all the current ones.
+	 *
+	 * @param key the key of the container
+	 * @param container the container, ignored if it is empty
+	 */
+	protected void appendContainer(final int key, final ARoaringContainer container) {
+		if (container.cardinality() > 0) {
+			insertContainer(size, key, container);
+		}
+	}
+
+	/**
+	 * Merges (logical OR) a container into this bitmap.
+	 *
+	 * @param key the key of the container
+	 * @param container the container
+	 */
+	protected void orContainer(final int key, final ARoaringContainer container) {
+		if (container.cardinality() == 0) {
+			return;
+		}
+		final int index = findContainer(key);
+		if (index >= 0) {
+			containers[index] = containers[index].or(container);
+		} else {
+			insertContainer(-index - 1, key, container);
+		}
+	}
+
+	@Override
+	public void set(final int i) {
+		final int key = highBits(i);
+		final int index = findContainer(key);
+		if (index >= 0) {
+			containers[index] = containers[index].add(lowBits(i));
+		} else {
+			insertContainer(-index - 1, key, new ArrayContainer().add(lowBits(i)));
+		}
+	}
+
+	/**
+	 * Sets all the bits of a range to true.
+	 *
+	 * @param from the first bit of the range, inclusive
+	 * @param to the last bit of the range, exclusive
+	 */
+	public void setRange(final int from, final int to) {
+		int start = from;
+		while (start < to) {
+			final int key = highBits(start);
+			final int blockEnd = (key + 1) << 16;
+			final int end = blockEnd <= 0 || blockEnd > to ? to : blockEnd;
+			final int low = lowBits(start);
+			final int high = end - (key << 16);
+			final int index = findContainer(key);
+			if (index >= 0) {
+				containers[index] = containers[index].addRange(low, high);
+			} else {
+				insertContainer(-index - 1, key, new RunContainer(low, high));
+			}
+			start = end;
+		}
+	}
+
+	@Override
+	public boolean get(final int i) {
+		final int index = findContainer(highBits(i));
+		return index >= 0 && containers[index].contains(lowBits(i));
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(containers, 0, size, null);
+		size = 0;
+	}
+
+	@Override
+	public void truncate(final int newSize) {
+		final int key = highBits(newSize);
+		int index = findContainer(key);
+		if (index >= 0) {
+			final ARoaringContainer container = containers[index].truncate(lowBits(newSize));
+			containers[index] = container;
+			if (container.cardinality() > 0) {
+				++index;
+			}
+		} else {
+			index = -index - 1;
+		}
+		Arrays.fill(containers, index, size, null);
+		size = index;
+	}
+
+	@Override
+	public IBitmap and(final IBitmap other) {
+		final RoaringBitmap result = new RoaringBitmap();
+		and(this, (RoaringBitmap) other, result);
+		return result;
+	}
+
+	@Override
+	public IBitmap or(final IBitmap other) {
+		final RoaringBitmap result = new RoaringBitmap();
+		or(this, (RoaringBitmap) other, result);
+		return result;
+	}
+
+	@Override
+	public IBitmap andAll(final IBitmap... others) {
+		final RoaringBitmap result = new RoaringBitmap();
+		final int[] positions = new int[others.length];
+		final ARoaringContainer[] operands = new ARoaringContainer[others.length];
+		nextKey:
+		for (int i = 0; i < size; ++i) {
+			final char key = keys[i];
+			// Look for the key in all the other bitmaps
+			for (int k = 0; k < others.length; ++k) {
+				final RoaringBitmap other = (RoaringBitmap) others[k];
+				int p = positions[k];
+				while (p < other.size && other.keys[p] < key) {
+					++p;
+				}
+				positions[k] = p;
+				if (p == other.size) {
+					// No more common keys
+					break nextKey;
+				} else if (other.keys[p] != key) {
+					continue nextKey;
+				}
+				operands[k] = other.containers[p];
+			}
+			result.appendContainer(key, and(containers[i], operands));
+		}
+		return result;
+	}
+
+	/**
+	 * Performs a logical AND between several containers.
+	 *
+	 * @param first the first operand
+	 * @param others the other operands
+	 * @return the result, possibly empty
+	 */
+	protected static ARoaringContainer and(final ARoaringContainer first, final ARoaringContainer[] others) {
+		boolean bitmaps = first instanceof BitmapContainer;
+		for (int k = 0; k < others.length && bitmaps; ++k) {
+			bitmaps = others[k] instanceof BitmapContainer;
+		}
+		if (bitmaps) {
+			// Single pass over all the words
+			final BitmapContainer[] operands = new BitmapContainer[others.length];
+			System.arraycopy(others, 0, operands, 0, others.length);
+			return ((BitmapContainer) first).and(operands);
+		}
+
+		// Start with the sparsest container, the result can only shrink
+		ARoaringContainer result = first;
+		for (ARoaringContainer other : others) {
+			if (other.cardinality() < result.cardinality()) {
+				result = other;
+			}
+		}
+		final ARoaringContainer sparsest = result;
+		if (sparsest != first) {
+			result = result.and(first);
+		}
+		for (int k = 0; k < others.length && result.cardinality() > 0; ++k) {
+			if (others[k] != sparsest) {
+				result = result.and(others[k]);
+			}
+		}
+		return result == sparsest ? result.clone() : result;
+	}
+
+	@Override
+	public void and(final IBitmap operand, final IBitmap result) {
+		and(this, (RoaringBitmap) operand, (RoaringBitmap) result);
+	}
+
+	@Override
+	public void or(final IBitmap operand, final IBitmap result) {
+		or(this, (RoaringBitmap) operand, (RoaringBitmap) result);
+	}
+
+	/**
+	 * Performs a logical AND operation between two bitmaps, only the containers sharing the same
+	 * key are intersected.
+	 *
+	 * @param bitmap1 the first operand
+	 * @param bitmap2 the second operand
+	 * @param result the bitmap to which the result is appended
+	 */
+	protected static void and(final RoaringBitmap bitmap1, final RoaringBitmap bitmap2,
+			final RoaringBitmap result) {
+		final boolean append = result.size == 0;
+		int i = 0;
+		int j = 0;
+		while (i < bitmap1.size && j < bitmap2.size) {
+			final char key1 = bitmap1.keys[i];
+			final char key2 = bitmap2.keys[j];
+			if (key1 < key2) {
+				++i;
+			} else if (key1 > key2) {
+				++j;
+			} else {
+				final ARoaringContainer container = bitmap1.containers[i].and(bitmap2.containers[j]);
+				if (append) {
+					result.appendContainer(key1, container);
+				} else {
+					result.orContainer(key1, container);
+				}
+				++i;
+				++j;
+			}
+		}
+	}
+
+	/**
+	 * Performs a logical OR operation between two bitmaps.
+	 *
+	 * @param bitmap1 the first operand
+	 * @param bitmap2 the second operand
+	 * @param result the bitmap to which the result is appended
+	 */
+	protected static void or(final RoaringBitmap bitmap1, final RoaringBitmap bitmap2,
+			final RoaringBitmap result) {
+		final boolean append = result.size == 0;
+		int i = 0;
+		int j = 0;
+		while (i < bitmap1.size || j < bitmap2.size) {
+			final int key;
+			final ARoaringContainer container;
+			if (j >= bitmap2.size || (i < bitmap1.size && bitmap1.keys[i] < bitmap2.keys[j])) {
+				key = bitmap1.keys[i];
+				container = bitmap1.containers[i++].clone();
+			} else if (i >= bitmap1.size || bitmap1.keys[i] > bitmap2.keys[j]) {
+				key = bitmap2.keys[j];
+				container = bitmap2.containers[j++].clone();
+			} else {
+				key = bitmap1.keys[i];
+				container = bitmap1.containers[i++].or(bitmap2.containers[j++]);
+			}
+			if (append) {
+				result.appendContainer(key, container);
+			} else {
+				result.orContainer(key, container);
+			}
+		}
+	}
+
+	@Override
+	public void orWords(final int wordIndex, final long[] words, final int offset, final int wordCount) {
+		int k = 0;
+		while (k < wordCount) {
+			final int globalWord = wordIndex + k;
+			final int key = globalWord / BitmapContainer.WORD_COUNT;
+			final int containerWord = globalWord % BitmapContainer.WORD_COUNT;
+			final int length = Math.min(wordCount - k, BitmapContainer.WORD_COUNT - containerWord);
+
+			boolean empty = true;
+			for (int w = offset + k; w < offset + k + length && empty; ++w) {
+				empty = words[w] == 0L;
+			}
+			if (!empty) {
+				final int index = findContainer(key);
+				final BitmapContainer bitmap;
+				if (index >= 0) {
+					bitmap = containers[index].toBitmapContainer();
+				} else {
+					bitmap = new BitmapContainer();
+				}
+				bitmap.orWords(containerWord, words, offset + k, length);
+				if (index >= 0) {
+					containers[index] = bitmap.repair();
+				} else {
+					insertContainer(-index - 1, key, bitmap.repair());
+				}
+			}
+			k += length;
+		}
+	}
+
+	@Override
+	public void getWords(final int wordIndex, final long[] words, final int offset, final int wordCount) {
+		int k = 0;
+		while (k < wordCount) {
+			final int globalWord = wordIndex + k;
+			final int key = globalWord / BitmapContainer.WORD_COUNT;
+			final int containerWord = globalWord % BitmapContainer.WORD_COUNT;
+			final int length = Math.min(wordCount - k, BitmapContainer.WORD_COUNT - containerWord);
+			final int index = findContainer(key);
+			if (index >= 0) {
+				containers[index].getWords(containerWord, words, offset + k, length);
+			} else {
+				Arrays.fill(words, offset + k, offset + k + length, 0L);
+			}
+			k += length;
+		}
+	}
+
+	/**
+	 * Converts each container to its most compact representation, possibly using runs of
+	 * consecutive values.
+	 *
+	 * @return this bitmap
+	 */
+	public RoaringBitmap runOptimize() {
+		for (int i = 0; i < size; ++i) {
+			containers[i] = containers[i].runOptimize();
+		}
+		return this;
+	}
+
+	@Override
+	public int cardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; ++i) {
+			cardinality += containers[i].cardinality();
+		}
+		return cardinality;
+	}
+
+	@Override
+	public int rank(final int i) {
+		if (i < 0) {
+			return 0;
+		}
+		final int index = findContainer(highBits(i));
+		final int end = index >= 0 ? index : -index - 1;
+		int rank = 0;
+		for (int c = 0; c < end; ++c) {
+			rank += containers[c].cardinality();
+		}
+		if (index >= 0) {
+			rank += containers[index].rank(lowBits(i));
+		}
+		return rank;
+	}
+
+	@Override
+	public int select(final int k) {
+		if (k < 0) {
+			return -1;
+		}
+		int remaining = k;
+		for (int c = 0; c < size; ++c) {
+			final int cardinality = containers[c].cardinality();
+			if (remaining < cardinality) {
+				return (keys[c] << 16) | containers[c].select(remaining);
+			}
+			remaining -= cardinality;
+		}
+		return -1;
+	}
+
+	@Override
+	public int nextSetBit(final int from) {
+		final int start = Math.max(from, 0);
+		int index = findContainer(highBits(start));
+		if (index >= 0) {
+			final int next = containers[index].nextValue(lowBits(start));
+			if (next >= 0) {
+				return (keys[index] << 16) | next;
+			}
+			++index;
+		} else {
+			index = -index - 1;
+		}
+		// Containers are never empty
+		return index < size ? (keys[index] << 16) | containers[index].nextValue(0) : -1;
+	}
+
+	@Override
+	public long sizeInBytes() {
+		// 16: Object header
+		// 8: Reference to keys
+		// 8: Reference to containers
+		// 4: size attribute
+		// 16: header of keys
+		// 16: header of containers
+		long sizeInBytes = 16 + 8 + 8 + 4 + 16 + 16 + 2L * keys.length + 8L * containers.length;
+		for (int i = 0; i < size; ++i) {
+			sizeInBytes += containers[i].sizeInBytes();
+		}
+		return sizeInBytes;
+	}
+
+	/**
+	 * @return an iterator over the set bits, in increasing order
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			int index = 0;
+			int offset = 0;
+			PrimitiveIterator.OfInt current = advance();
+
+			PrimitiveIterator.OfInt advance() {
+				while (index < size) {
+					final PrimitiveIterator.OfInt it = containers[index].iterator();
+					offset = keys[index] << 16;
+					++index;
+					if (it.hasNext()) {
+						return it;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return current != null;
+			}
+
+			@Override
+			public int nextInt() {
+				if (current == null) {
+					throw new NoSuchElementException();
+				}
+				final int result = offset | current.nextInt();
+				if (!current.hasNext()) {
+					current = advance();
+				}
+				return result;
+			}
+		};
+	}
+
+	@Override
+	public IntStream stream() {
+		return StreamSupport.intStream(
+				Spliterators.spliterator(
+						iterator(),
+						cardinality(),
+						Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL),
+				false);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public RoaringBitmap clone() {
+		final ARoaringContainer[] containers = new ARoaringContainer[Math.max(size, INITIAL_CAPACITY)];
+		for (int i = 0; i < size; ++i) {
+			containers[i] = this.containers[i].clone();
+		}
+		return new RoaringBitmap(Arrays.copyOf(keys, containers.length), containers, size);
+	}
+
+	@Override
+	public String toString() {
+		return "RoaringBitmap ["
+				+ stream().mapToObj(Integer::toString).collect(Collectors.joining(", ", "{", "}"))
+				+ "]";
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		for (int i = 0; i < size; ++i) {
+			result = prime * result + keys[i];
+			result = prime * result + containers[i].valuesHashCode();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RoaringBitmap other = (RoaringBitmap) obj;
+		if (size != other.size)
+			return false;
+		for (int i = 0; i < size; ++i) {
+			if (keys[i] != other.keys[i] || !containers[i].sameValues(other.containers[i]))
+				return false;
+		}
+		return true;
+	}
+
+}
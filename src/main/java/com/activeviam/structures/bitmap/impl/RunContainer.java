@@ -0,0 +1,354 @@
+package com.activeviam.structures.bitmap.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * {@link ARoaringContainer} storing its values as sorted runs of consecutive values, used for
+ * blocks made of long sequences of set bits.
+ *
+ * <p>
+ *   Each run is stored as two chars: its first value and its length minus one.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+class RunContainer extends ARoaringContainer {
+
+	/** Initial capacity of the runs array, in runs */
+	protected static final int INITIAL_CAPACITY = 2;
+
+	/** Maximum number of runs, above it a {@link BitmapContainer} is smaller */
+	static final int MAX_RUN_COUNT = 2048;
+
+	/** The runs, only the first {@link #nbRuns} pairs are meaningful */
+	protected char[] runs;
+
+	/** The number of runs */
+	protected int nbRuns;
+
+	/**
+	 * Constructor of an empty container
+	 */
+	RunContainer() {
+		this(new char[2 * INITIAL_CAPACITY], 0);
+	}
+
+	/**
+	 * Constructor of a container with a single run
+	 *
+	 * @param start the first value of the run, inclusive
+	 * @param end the last value of the run, exclusive
+	 */
+	RunContainer(final int start, final int end) {
+		this(new char[] {(char) start, (char) (end - start - 1)}, 1);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param runs the runs
+	 * @param nbRuns the number of runs to read from the runs array
+	 */
+	RunContainer(final char[] runs, final int nbRuns) {
+		this.runs = runs;
+		this.nbRuns = nbRuns;
+	}
+
+	/**
+	 * @param r the index of a run
+	 * @return the first value of the run, inclusive
+	 */
+	int start(final int r) {
+		return runs[2 * r];
+	}
+
+	/**
+	 * @param r the index of a run
+	 * @return the last value of the run, exclusive
+	 */
+	int end(final int r) {
+		return runs[2 * r] + runs[2 * r + 1] + 1;
+	}
+
+	/**
+	 * Finds the last run starting before a value.
+	 *
+	 * @param low a value
+	 * @return the index of the last run whose start is lower than or equal to the value, -1 if
+	 *         there is none
+	 */
+	protected int findRun(final int low) {
+		int lo = 0;
+		int hi = nbRuns - 1;
+		while (lo <= hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (runs[2 * mid] <= low) {
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return hi;
+	}
+
+	@Override
+	ARoaringContainer add(final int low) {
+		final int r = findRun(low);
+		if (r >= 0 && low < end(r)) {
+			return this;
+		}
+		final boolean extendsPrevious = r >= 0 && end(r) == low;
+		final boolean extendsNext = r + 1 < nbRuns && start(r + 1) == low + 1;
+		if (extendsPrevious && extendsNext) {
+			// Merge the two runs
+			runs[2 * r + 1] = (char) (end(r + 1) - start(r) - 1);
+			System.arraycopy(runs, 2 * (r + 2), runs, 2 * (r + 1), 2 * (nbRuns - r - 2));
+			--nbRuns;
+		} else if (extendsPrevious) {
+			++runs[2 * r + 1];
+		} else if (extendsNext) {
+			--runs[2 * (r + 1)];
+			++runs[2 * (r + 1) + 1];
+		} else {
+			if (nbRuns >= MAX_RUN_COUNT) {
+				return toBitmapContainer().add(low);
+			}
+			if (2 * nbRuns == runs.length) {
+				runs = Arrays.copyOf(runs, 4 * nbRuns);
+			}
+			System.arraycopy(runs, 2 * (r + 1), runs, 2 * (r + 2), 2 * (nbRuns - r - 1));
+			runs[2 * (r + 1)] = (char) low;
+			runs[2 * (r + 1) + 1] = 0;
+			++nbRuns;
+		}
+		return this;
+	}
+
+	@Override
+	ARoaringContainer addRange(final int start, final int end) {
+		if (nbRuns == 0 || end(nbRuns - 1) < start) {
+			// Append a run
+			if (nbRuns >= MAX_RUN_COUNT) {
+				return super.addRange(start, end);
+			}
+			if (2 * nbRuns == runs.length) {
+				runs = Arrays.copyOf(runs, 4 * nbRuns);
+			}
+			runs[2 * nbRuns] = (char) start;
+			runs[2 * nbRuns + 1] = (char) (end - start - 1);
+			++nbRuns;
+			return this;
+		}
+		return or(new RunContainer(start, end));
+	}
+
+	@Override
+	void getWords(final int wordIndex, final long[] words, final int offset, final int wordCount) {
+		Arrays.fill(words, offset, offset + wordCount, 0L);
+		final int firstWord = wordIndex;
+		final int lastWord = wordIndex + wordCount - 1;
+		for (int r = Math.max(0, findRun(firstWord << 6)); r < nbRuns && start(r) <= (lastWord << 6) + 63; ++r) {
+			final int start = start(r);
+			final int end = end(r);
+			for (int w = Math.max(firstWord, start >>> 6), last = Math.min(lastWord, (end - 1) >>> 6); w <= last; ++w) {
+				words[offset + w - wordIndex] |= BitmapContainer.rangeMask(w, start, end);
+			}
+		}
+	}
+
+	@Override
+	boolean contains(final int low) {
+		final int r = findRun(low);
+		return r >= 0 && low < end(r);
+	}
+
+	@Override
+	int cardinality() {
+		int cardinality = 0;
+		for (int r = 0; r < nbRuns; ++r) {
+			cardinality += runs[2 * r + 1] + 1;
+		}
+		return cardinality;
+	}
+
+	@Override
+	int rank(final int low) {
+		int rank = 0;
+		for (int r = 0; r < nbRuns && start(r) <= low; ++r) {
+			rank += Math.min(low + 1, end(r)) - start(r);
+		}
+		return rank;
+	}
+
+	@Override
+	int select(final int k) {
+		int remaining = k;
+		for (int r = 0; ; ++r) {
+			final int length = runs[2 * r + 1] + 1;
+			if (remaining < length) {
+				return start(r) + remaining;
+			}
+			remaining -= length;
+		}
+	}
+
+	@Override
+	int nextValue(final int low) {
+		final int r = findRun(low);
+		if (r >= 0 && low < end(r)) {
+			return low;
+		}
+		return r + 1 < nbRuns ? start(r + 1) : -1;
+	}
+
+	@Override
+	ARoaringContainer and(final ARoaringContainer other) {
+		if (!(other instanceof RunContainer)) {
+			return other.and(this);
+		}
+		// Intersect the two sorted lists of intervals
+		final RunContainer o = (RunContainer) other;
+		final char[] result = new char[2 * (nbRuns + o.nbRuns)];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < nbRuns && j < o.nbRuns) {
+			final int start = Math.max(start(i), o.start(j));
+			final int end = Math.min(end(i), o.end(j));
+			if (start < end) {
+				result[2 * n] = (char) start;
+				result[2 * n + 1] = (char) (end - start - 1);
+				++n;
+			}
+			if (end(i) < o.end(j)) {
+				++i;
+			} else {
+				++j;
+			}
+		}
+		return new RunContainer(result, n);
+	}
+
+	@Override
+	ARoaringContainer or(final ARoaringContainer other) {
+		if (!(other instanceof RunContainer)) {
+			return toBitmapContainer().or(other).runOptimize();
+		}
+		// Merge the two sorted lists of intervals
+		final RunContainer o = (RunContainer) other;
+		final char[] result = new char[2 * (nbRuns + o.nbRuns)];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		int currentStart = -1;
+		int currentEnd = -1;
+		while (i < nbRuns || j < o.nbRuns) {
+			final int start;
+			final int end;
+			if (j >= o.nbRuns || (i < nbRuns && start(i) <= o.start(j))) {
+				start = start(i);
+				end = end(i++);
+			} else {
+				start = o.start(j);
+				end = o.end(j++);
+			}
+			if (start <= currentEnd) {
+				currentEnd = Math.max(currentEnd, end);
+			} else {
+				if (currentStart >= 0) {
+					result[2 * n] = (char) currentStart;
+					result[2 * n + 1] = (char) (currentEnd - currentStart - 1);
+					++n;
+				}
+				currentStart = start;
+				currentEnd = end;
+			}
+		}
+		if (currentStart >= 0) {
+			result[2 * n] = (char) currentStart;
+			result[2 * n + 1] = (char) (currentEnd - currentStart - 1);
+			++n;
+		}
+		final RunContainer container = new RunContainer(result, n);
+		return n > MAX_RUN_COUNT ? container.toBitmapContainer() : container;
+	}
+
+	@Override
+	ARoaringContainer truncate(final int low) {
+		final int r = findRun(low - 1);
+		if (r < 0) {
+			nbRuns = 0;
+		} else {
+			if (end(r) > low) {
+				runs[2 * r + 1] = (char) (low - start(r) - 1);
+			}
+			nbRuns = r + 1;
+		}
+		return this;
+	}
+
+	@Override
+	ARoaringContainer runOptimize() {
+		final int cardinality = cardinality();
+		final long runSize = 4L * nbRuns;
+		if (cardinality <= MAX_ARRAY_SIZE && 2L * cardinality < runSize) {
+			return toBitmapContainer().repair();
+		} else if (runSize > 8L * BitmapContainer.WORD_COUNT) {
+			return toBitmapContainer();
+		}
+		return this;
+	}
+
+	@Override
+	BitmapContainer toBitmapContainer() {
+		final BitmapContainer result = new BitmapContainer();
+		for (int r = 0; r < nbRuns; ++r) {
+			result.setRange(start(r), end(r));
+		}
+		return result;
+	}
+
+	@Override
+	PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			int run = 0;
+			int next = nbRuns > 0 ? start(0) : 0;
+
+			@Override
+			public boolean hasNext() {
+				return run < nbRuns;
+			}
+
+			@Override
+			public int nextInt() {
+				if (run >= nbRuns) {
+					throw new NoSuchElementException();
+				}
+				final int result = next++;
+				if (next == end(run) && ++run < nbRuns) {
+					next = start(run);
+				}
+				return result;
+			}
+		};
+	}
+
+	@Override
+	long sizeInBytes() {
+		// 16: Object header
+		// 8: Reference to runs
+		// 4: nbRuns attribute
+		// 16: header of runs
+		// content of the char array
+		return 16 + 8 + 4 + 16 + 2L * runs.length;
+	}
+
+	@Override
+	public RunContainer clone() {
+		return new RunContainer(Arrays.copyOf(runs, Math.max(2 * nbRuns, 2 * INITIAL_CAPACITY)), nbRuns);
+	}
+
+}
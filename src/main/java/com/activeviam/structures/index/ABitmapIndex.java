@@ -7,6 +7,13 @@
 package com.activeviam.structures.index;
 
 import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import com.activeviam.structures.bitmap.impl.AndBitmapExpression;
+import com.activeviam.structures.bitmap.impl.LeafBitmapExpression;
+import com.activeviam.structures.bitmap.impl.OrBitmapExpression;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -60,7 +67,7 @@ public abstract class ABitmapIndex<B extends IBitmap> implements IWritableBitmap
 	public IBitmap matchBitmap(final int[] pattern) {
 		checkTuple(pattern);
 
-		int predicateCount = countPredicates(pattern);
+		final int predicateCount = countPredicates(pattern);
 		if (predicateCount < 0) {
 			// One of the predicates is not valid (i.e. does not
 			// exist in this bitmap). Nothing is valid
@@ -71,13 +78,13 @@ public abstract class ABitmapIndex<B extends IBitmap> implements IWritableBitmap
 			return createOnesBitmap(this.size);
 
 		} else {
-			// Get all the predicated bitmaps to perform the AND operation on
+			// A single conjunction of stored bitmaps: AND them all in one pass
 			final B[] predicateBitmaps = createBitmapArray(predicateCount);
-			predicateCount = 0;
+			int p = 0;
 			for (int lvl = 0, numLevels = this.index.length; lvl < numLevels; ++lvl) {
 				final int predicate = pattern[lvl];
 				if (predicate != ANY) {
-					predicateBitmaps[predicateCount++] = getBitmap(lvl, predicate);
+					predicateBitmaps[p++] = getBitmap(lvl, predicate);
 				}
 			}
 
@@ -87,72 +94,75 @@ public abstract class ABitmapIndex<B extends IBitmap> implements IWritableBitmap
 
 	@Override
 	public IBitmap matchBitmap(final int[][] compositePattern) {
-		boolean returnAll = true;
-		IBitmap result = null;
-		IBitmap cache = createBitmap();
+		final IBitmapExpression expression = matchExpression(compositePattern);
+		if (expression instanceof AndBitmapExpression && ((AndBitmapExpression) expression).isTrue()) {
+			// No predicate: all rows are valid
+			return createOnesBitmap(this.size);
+		}
+		return expression.evaluate(this.size, createBitmap());
+	}
+
+	@Override
+	public IBitmapExpression matchExpression(final int[] pattern) {
+		checkTuple(pattern);
+
+		int predicateCount = countPredicates(pattern);
+		if (predicateCount < 0) {
+			// One of the predicates is not valid: nothing is valid
+			return new OrBitmapExpression();
+		}
+
+		// AND all the predicated bitmaps, the expression evaluating the most selective ones first
+		final IBitmapExpression[] operands = new IBitmapExpression[predicateCount];
+		predicateCount = 0;
+		for (int lvl = 0, numLevels = this.index.length; lvl < numLevels; ++lvl) {
+			final int predicate = pattern[lvl];
+			if (predicate != ANY) {
+				operands[predicateCount++] = new LeafBitmapExpression(getBitmap(lvl, predicate));
+			}
+		}
+		return new AndBitmapExpression(operands);
+	}
 
+	@Override
+	public IBitmapExpression matchExpression(final int[][] compositePattern) {
 		checkTuple(compositePattern);
 
+		final List<IBitmapExpression> levelExpressions = new ArrayList<>(index.length);
 		for (int lvl = 0; lvl < index.length; ++lvl) {
 
-			// Use bitmap OR operations to determine
-			// the rows that match any of the level predicates.
-			int[] predicates = compositePattern[lvl];
-
-			IBitmap levelResult = null;
+			// The rows that match any of the level predicates
+			final int[] predicates = compositePattern[lvl];
+			final List<IBitmapExpression> operands = new ArrayList<>(predicates.length);
 			boolean any = false;
-			for (int i = 0; i < predicates.length; ++i) {
+			for (int i = 0; i < predicates.length && !any; ++i) {
 				final int predicate = predicates[i];
 				if (predicate != ANY) {
-
 					// Load the right bitmap from the index
-					IBitmap bitmap = getBitmap(lvl, predicate);
-					if (bitmap == null) {
-						continue;
-					}
-
-					if (levelResult == null) {
-						levelResult = bitmap.clone();
-					} else {
-						cache.clear();
-						levelResult.or(bitmap, cache);
-						IBitmap temp = levelResult;
-						levelResult = cache;
-						cache = temp;
+					final IBitmap bitmap = getBitmap(lvl, predicate);
+					if (bitmap != null) {
+						operands.add(new LeafBitmapExpression(bitmap));
 					}
 				} else {
 					// If one of the predicates is 'ANY' all the rows
 					// match the composite predicate.
 					any = true;
-					levelResult = null;
-					break;
 				}
 			}
 
 			if (!any) {
-				if (levelResult == null) {
+				if (operands.isEmpty()) {
 					// No position for the current level
-					return createEmptyBitmap();
-				}
-
-				returnAll = false;
-				if (result == null) {
-					result = levelResult;
+					return new OrBitmapExpression();
+				} else if (operands.size() == 1) {
+					levelExpressions.add(operands.get(0));
 				} else {
-					cache.clear();
-					result.and(levelResult, cache);
-					IBitmap temp = result;
-					result = cache;
-					cache = temp;
+					levelExpressions.add(new OrBitmapExpression(operands.toArray(new IBitmapExpression[0])));
 				}
 			}
 		}
 
-		if (returnAll) {
-			return createOnesBitmap(this.size);
-		} else {
-			return result;
-		}
+		return new AndBitmapExpression(levelExpressions.toArray(new IBitmapExpression[0]));
 	}
 
 	@Override
@@ -320,16 +330,8 @@ public abstract class ABitmapIndex<B extends IBitmap> implements IWritableBitmap
 		if (bitmaps.length == 1) {
 			return bitmaps[0].clone();
 		} else {
-			IBitmap result = bitmaps[0].and(bitmaps[1]);
-			IBitmap cache = createBitmap();
-			for (int i = 2; i < bitmaps.length; ++i) {
-				cache.clear();
-				result.and(bitmaps[i], cache);
-				IBitmap tmp = cache;
-				cache = result;
-				result = tmp;
-			}
-			return result;
+			// Single pass over all the operands
+			return bitmaps[0].andAll(Arrays.copyOfRange(bitmaps, 1, bitmaps.length));
 		}
 	}
 
@@ -455,16 +455,8 @@ public abstract class AColumnImprintsIndex implements IWritableColumnImprintsInd
 		if (bitmaps.length == 1) {
 			return bitmaps[0].clone();
 		} else {
-			IBitmap result = bitmaps[0].and(bitmaps[1]);
-			IBitmap cache = createEmptyBitmap();
-			for (int i = 2; i < bitmaps.length; ++i) {
-				cache.clear();
-				result.and(bitmaps[i], cache);
-				IBitmap tmp = cache;
-				cache = result;
-				result = tmp;
-			}
-			return result;
+			// Single pass over all the operands
+			return bitmaps[0].andAll(Arrays.copyOfRange(bitmaps, 1, bitmaps.length));
 		}
 	}
 
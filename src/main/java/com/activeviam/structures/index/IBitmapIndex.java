@@ -1,6 +1,7 @@
 package com.activeviam.structures.index;
 
 import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.IBitmapExpression;
 
 /**
  * @author ActiveViam
@@ -14,6 +15,25 @@ public interface IBitmapIndex {
 
 	IBitmap matchBitmap(final int[][] compositePattern);
 
+	/**
+	 * Builds the lazy expression of the rows matching a pattern, which can be iterated over
+	 * without materializing the matching rows.
+	 *
+	 * @param pattern the value to match on each level, or {@link #ANY}
+	 * @return the expression of the matching rows, to evaluate up to {@link #size()}
+	 */
+	IBitmapExpression matchExpression(final int[] pattern);
+
+	/**
+	 * Builds the lazy expression of the rows matching a composite pattern, which can be iterated
+	 * over without materializing the matching rows.
+	 *
+	 * @param compositePattern the values to match on each level, a level containing {@link #ANY}
+	 *        matching all the rows
+	 * @return the expression of the matching rows, to evaluate up to {@link #size()}
+	 */
+	IBitmapExpression matchExpression(final int[][] compositePattern);
+
 	/**
 	 * Retrieves the bitmap stored at that position of that level.
 	 *
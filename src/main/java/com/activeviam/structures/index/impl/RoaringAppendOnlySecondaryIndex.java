@@ -0,0 +1,22 @@
+package com.activeviam.structures.index.impl;
+
+/**
+ * Secondary index based on {@link RoaringBitmapIndex}.
+ *
+ * @author ActiveViam
+ */
+public class RoaringAppendOnlySecondaryIndex extends AAppendOnlySecondaryIndex {
+
+	public RoaringAppendOnlySecondaryIndex(int[] indexedFields) {
+		super(indexedFields, new RoaringBitmapIndex(indexedFields.length));
+	}
+
+	/**
+	 * Does nothing: an append-only index never removes rows, so the rows deleted before the epoch stay
+	 * indexed until the index is {@link #truncate(int) truncated}.
+	 */
+	@Override
+	public void discardBefore(long epoch, long[][] versions, int[] deletedRows) {
+	}
+
+}
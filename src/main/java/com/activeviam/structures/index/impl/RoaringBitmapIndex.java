@@ -0,0 +1,45 @@
+package com.activeviam.structures.index.impl;
+
+import com.activeviam.structures.bitmap.impl.RoaringBitmap;
+import com.activeviam.structures.index.ABitmapIndex;
+import java.util.Arrays;
+
+/**
+ * Bitmap indexed based on the compressed {@link RoaringBitmap}.
+ *
+ * @author ActiveViam
+ */
+public class RoaringBitmapIndex extends ABitmapIndex<RoaringBitmap> {
+
+	/**
+	 * Constructor
+	 *
+	 * @param levels The number of indexed levels
+	 */
+	public RoaringBitmapIndex(final int levels) {
+		super(levels);
+	}
+
+	@Override
+	protected RoaringBitmap[] createBitmapArray(final int length) {
+		return new RoaringBitmap[length];
+	}
+
+	@Override
+	protected RoaringBitmap createBitmap() {
+		return new RoaringBitmap();
+	}
+
+	@Override
+	protected RoaringBitmap createOnesBitmap(final int size) {
+		final RoaringBitmap bitmap = new RoaringBitmap();
+		bitmap.setRange(0, size);
+		return bitmap;
+	}
+
+	@Override
+	public void truncate(final int newSize) {
+		size = newSize;
+		Arrays.stream(this.index).forEach(index -> index.truncate(newSize));
+	}
+}
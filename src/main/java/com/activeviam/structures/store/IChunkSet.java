@@ -1,5 +1,6 @@
 package com.activeviam.structures.store;
 
+import com.activeviam.vector.IVector;
 import java.util.BitSet;
 
 /**
@@ -45,6 +46,33 @@ public interface IChunkSet {
 	 */
 	void writeDouble(int row, int column, double value);
 
+	/**
+	 * Returns the vector of a vector column at a given row, as a view of the storage of the column.
+	 *
+	 * @param row The row
+	 * @param column The vector column
+	 * @return the vector, writing in it writes in the chunk set
+	 */
+	IVector readVector(int row, int column);
+
+	/**
+	 * Copies a vector in a vector column at a given row.
+	 *
+	 * @param row The row
+	 * @param column The vector column
+	 * @param vector The vector, of the length of the vectors of the column
+	 */
+	void writeVector(int row, int column, IVector vector);
+
+	/**
+	 * Adds the vectors of a vector column at the given rows to another vector, without materializing them.
+	 *
+	 * @param rows The rows to add
+	 * @param column The vector column
+	 * @param result The vector in which to add, of the length of the vectors of the column
+	 */
+	void plusVectors(BitSet rows, int column, IVector result);
+
 	/**
 	 * Finds the rows whose attributes match the given predicate.
 	 *
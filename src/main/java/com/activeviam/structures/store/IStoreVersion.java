@@ -2,6 +2,7 @@ package com.activeviam.structures.store;
 
 import com.activeviam.mvcc.IVersion;
 import com.activeviam.structures.bitmap.IBitmap;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -28,4 +29,43 @@ public interface IStoreVersion extends IVersion, ITable {
 		return findRows(compositePattern).stream().mapToObj(this::getRecord);
 	}
 
+	/**
+	 * Scans a page of the records matching a pattern.
+	 *
+	 * @param pattern the value to match on each field, or {@code ANY}
+	 * @param skip the number of matching records to skip, they are neither read nor iterated over
+	 * @param limit the maximum number of records to return
+	 * @return the matching records of the page
+	 */
+	default Stream<IRecord> scan(int[] pattern, int skip, int limit) {
+		return page(findRows(pattern), skip, limit).mapToObj(this::getRecord);
+	}
+
+	/**
+	 * Scans a page of the records matching a composite pattern.
+	 *
+	 * @param compositePattern the values to match on each field, or {@code ANY}
+	 * @param skip the number of matching records to skip, they are neither read nor iterated over
+	 * @param limit the maximum number of records to return
+	 * @return the matching records of the page
+	 */
+	default Stream<IRecord> scan(int[][] compositePattern, int skip, int limit) {
+		return page(findRows(compositePattern), skip, limit).mapToObj(this::getRecord);
+	}
+
+	/**
+	 * @param rows some rows
+	 * @param skip the number of rows to skip
+	 * @param limit the maximum number of rows to return
+	 * @return the rows of the page
+	 */
+	private static IntStream page(final IBitmap rows, final int skip, final int limit) {
+		// Jump directly to the first row of the page
+		final int first = rows.select(skip);
+		if (first < 0) {
+			return IntStream.empty();
+		}
+		return IntStream.iterate(first, row -> row >= 0, row -> rows.nextSetBit(row + 1)).limit(limit);
+	}
+
 }
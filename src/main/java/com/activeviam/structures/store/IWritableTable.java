@@ -1,5 +1,7 @@
 package com.activeviam.structures.store;
 
+import com.activeviam.vector.IVector;
+
 /**
  * Interface to edit an {@link ITable}.
  *
@@ -49,6 +51,14 @@ public interface IWritableTable extends ITable {
 		 */
 		void writeDouble(int column, double value);
 
+		/**
+		 * Sets the value of a vector column.
+		 *
+		 * @param column The vector column
+		 * @param vector The vector, copied in the table
+		 */
+		void writeVector(int column, IVector vector);
+
 		/**
 		 * Sets the row on which to write.
 		 *
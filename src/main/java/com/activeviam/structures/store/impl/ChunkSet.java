@@ -1,9 +1,11 @@
 package com.activeviam.structures.store.impl;
 
 import com.activeviam.chunk.DoubleChunk;
+import com.activeviam.chunk.DoubleVectorArenaChunk;
 import com.activeviam.chunk.IChunkAllocator;
 import com.activeviam.chunk.IntegerChunk;
 import com.activeviam.structures.store.IChunkSet;
+import com.activeviam.vector.IVector;
 import java.util.BitSet;
 
 /**
@@ -23,6 +25,9 @@ public class ChunkSet implements IChunkSet {
 	/** The values of the value columns */
 	protected final DoubleChunk[] values;
 
+	/** The values of the vector columns */
+	protected final DoubleVectorArenaChunk[] vectors;
+
 	/**
 	 * Constructor
 	 *
@@ -31,6 +36,20 @@ public class ChunkSet implements IChunkSet {
 	 * @param chunkSize Size of a chunk
 	 */
 	public ChunkSet(int attributes, int values, int chunkSize, IChunkAllocator allocator) {
+		this(attributes, values, 0, 0, chunkSize, allocator);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param attributes Number of attributes
+	 * @param values Number of values
+	 * @param vectors Number of vector values
+	 * @param vectorLength Length of the vector values
+	 * @param chunkSize Size of a chunk
+	 */
+	public ChunkSet(int attributes, int values, int vectors, int vectorLength, int chunkSize,
+			IChunkAllocator allocator) {
 		this.attributes = new IntegerChunk[attributes];
 		for (int i = 0; i < attributes; i++) {
 			this.attributes[i] = allocator.allocateIntegerChunk(chunkSize);
@@ -39,6 +58,10 @@ public class ChunkSet implements IChunkSet {
 		for (int i = 0; i < values; i++) {
 			this.values[i] = allocator.allocateDoubleChunk(chunkSize);
 		}
+		this.vectors = new DoubleVectorArenaChunk[vectors];
+		for (int i = 0; i < vectors; i++) {
+			this.vectors[i] = new DoubleVectorArenaChunk(chunkSize, vectorLength, allocator);
+		}
 		this.chunkSize = chunkSize;
 	}
 
@@ -62,6 +85,21 @@ public class ChunkSet implements IChunkSet {
 		this.values[column].writeDouble(row, value);
 	}
 
+	@Override
+	public IVector readVector(final int row, final int column) {
+		return this.vectors[column].readVector(row);
+	}
+
+	@Override
+	public void writeVector(final int row, final int column, final IVector vector) {
+		this.vectors[column].writeVector(row, vector);
+	}
+
+	@Override
+	public void plusVectors(final BitSet rows, final int column, final IVector result) {
+		this.vectors[column].plusVectors(rows, result);
+	}
+
 	@Override
 	public BitSet findRows(int[] predicate, int limit) {
 		BitSet result = null;
@@ -102,7 +140,8 @@ public class ChunkSet implements IChunkSet {
 		// 16: Object header
 		// 8: Reference to the attributes array
 		// 8: Reference to the values array
-		long sizeInBytes = 16 + 8 + 8;
+		// 8: Reference to the vectors array
+		long sizeInBytes = 16 + 8 + 8 + 8;
 
 		// Content to the attributes array
 		sizeInBytes += attributes.length * chunkSize * 4;
@@ -110,6 +149,11 @@ public class ChunkSet implements IChunkSet {
 		// Content to the values array
 		sizeInBytes += values.length * chunkSize * 8;
 
+		// Content to the vectors array
+		for (final DoubleVectorArenaChunk vector : vectors) {
+			sizeInBytes += vector.sizeInBytes();
+		}
+
 		return sizeInBytes;
 	}
 
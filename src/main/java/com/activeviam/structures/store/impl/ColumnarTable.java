@@ -14,6 +14,7 @@ import com.activeviam.structures.bitmap.IBitmap;
 import com.activeviam.structures.bitmap.impl.BitSetBitmap;
 import com.activeviam.structures.store.IRecord;
 import com.activeviam.structures.store.IWritableTable;
+import com.activeviam.vector.IVector;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.stream.Collectors;
@@ -35,6 +36,14 @@ public class ColumnarTable implements IWritableTable {
 	 * The size of {@link IRecord#getValues()}
 	 */
 	protected final int valueCount;
+	/**
+	 * The number of vector columns
+	 */
+	protected final int vectorCount;
+	/**
+	 * The length of the vectors of all the vector columns
+	 */
+	protected final int vectorLength;
 
 	/** IChunk allocator */
 	protected final IChunkAllocator allocator;
@@ -61,6 +70,8 @@ public class ColumnarTable implements IWritableTable {
 	public ColumnarTable(TableFormat format, IChunkAllocator allocator) {
 		this.attributeCount = format.attributeCount;
 		this.valueCount = format.valueCount;
+		this.vectorCount = format.vectorCount;
+		this.vectorLength = format.vectorLength;
 		this.chunkSize = format.chunkSize;
 		this.allocator = allocator;
 		if (Integer.bitCount(this.chunkSize) != 1) {
@@ -141,7 +152,7 @@ public class ColumnarTable implements IWritableTable {
 
 		final ChunkSet[] newChunks = Arrays.copyOf(oldChunks, numChunks);
 		for (int i = numOldChunks; i < numChunks; ++i) {
-			newChunks[i] = new ChunkSet(attributeCount, valueCount, 1 << chunkOrder, allocator);
+			newChunks[i] = new ChunkSet(attributeCount, valueCount, vectorCount, vectorLength, 1 << chunkOrder, allocator);
 		}
 		this.chunks = newChunks;
 	}
@@ -186,6 +197,52 @@ public class ColumnarTable implements IWritableTable {
 		return this.chunks[chunkId].readDouble(chunkRow, column);
 	}
 
+	/**
+	 * Reads the vector of a vector column at a given row, as a view of the storage of the column.
+	 *
+	 * @param row The row
+	 * @param column The vector column
+	 * @return the vector, writing in it writes in the table
+	 */
+	public IVector readVector(int row, int column) {
+		final int chunkId = row >>> this.chunkOrder;
+		final int chunkRow = row & this.chunkMask;
+		return this.chunks[chunkId].readVector(chunkRow, column);
+	}
+
+	/**
+	 * Copies a vector in a vector column at a given row.
+	 *
+	 * @param row The row
+	 * @param column The vector column
+	 * @param vector The vector, of the length of the vectors of the table
+	 */
+	public void writeVector(int row, int column, IVector vector) {
+		final int chunkId = row >>> this.chunkOrder;
+		final int chunkRow = row & this.chunkMask;
+		this.chunks[chunkId].writeVector(chunkRow, column, vector);
+	}
+
+	/**
+	 * Adds the vectors of a vector column of the rows matching a predicate.
+	 *
+	 * <p>The vectors are summed chunk by chunk, directly from the storage of the column.
+	 *
+	 * @param predicate The predicate on the attributes, as in {@link #findRows(int[])}
+	 * @param column The vector column
+	 * @param result The vector in which to add, of the length of the vectors of the table
+	 */
+	public void plusVectors(int[] predicate, int column, IVector result) {
+		int rowsToScan = size;
+		int c = 0;
+		while (rowsToScan > 0) {
+			final BitSet localRows = chunks[c].findRows(predicate, min(rowsToScan, chunkSize));
+			chunks[c].plusVectors(localRows, column, result);
+			++c;
+			rowsToScan -= chunkSize;
+		}
+	}
+
 	@Override
 	public IRecord getRecord(int row) {
 		final int chunkId = row >>> this.chunkOrder;
@@ -237,26 +294,46 @@ public class ColumnarTable implements IWritableTable {
 
 	@Override
 	public IBitmap findRows(int[] predicate) {
-		final IBitmap result = new BitSetBitmap();
+		// Chunk sizes are powers of 2: the words of a chunk result never straddle two words of the
+		// global result, so the chunk results can be spliced word by word
+		final long[] words = new long[(size + Long.SIZE - 1) >>> 6];
 		int rowsToScan = size;
 		int c = 0;
 		while (rowsToScan > 0) {
 			final BitSet localRows = chunks[c].findRows(predicate, min(rowsToScan, chunkSize));
-			final int offset = c * chunkSize;
-			localRows.stream().forEach(localRow -> result.set(localRow + offset));
+			spliceWords(localRows.toLongArray(), c << chunkOrder, words);
 			++c;
 			rowsToScan -= chunkSize;
 		}
-		return result;
+		return BitSetBitmap.valueOf(words);
+	}
+
+	/**
+	 * Copies the words of a chunk result into the words of the table result.
+	 *
+	 * @param localWords the words of the rows found in one chunk
+	 * @param offset the first row of the chunk
+	 * @param words the words of the table result
+	 */
+	protected void spliceWords(final long[] localWords, final int offset, final long[] words) {
+		if (localWords.length == 0) {
+			return;
+		}
+		if (this.chunkOrder >= 6) {
+			System.arraycopy(localWords, 0, words, offset >>> 6, localWords.length);
+		} else {
+			// Several chunks share the same word
+			words[offset >>> 6] |= localWords[0] << (offset & 63);
+		}
 	}
 
 	public long sizeInBytes() {
 		// 16: Object header
-		// 4: valueCount, size, chunkSize, chunkOrder, chunkMask attributes
+		// 4: valueCount, vectorCount, vectorLength, size, chunkSize, chunkOrder, chunkMask attributes
 		// 8: Reference to the chunks array
 		// 8: Reference to the table writer
 
-		long sizeInBytes = 16 + 6 * 4 + 2 * 8;
+		long sizeInBytes = 16 + 8 * 4 + 2 * 8;
 
 		// Content of the chunks array
 		for (ChunkSet chunk: chunks) {
@@ -310,6 +387,11 @@ public class ColumnarTable implements IWritableTable {
 		public void writeDouble(int column, double value) {
 			this.chunkSet.writeDouble(this.chunkRow, column, value);
 		}
+
+		@Override
+		public void writeVector(int column, IVector vector) {
+			this.chunkSet.writeVector(this.chunkRow, column, vector);
+		}
 		
 		@Override
 		public long sizeInBytes() {
@@ -338,17 +420,42 @@ public class ColumnarTable implements IWritableTable {
 
 		protected final int attributeCount;
 		protected final int valueCount;
+		protected final int vectorCount;
+		protected final int vectorLength;
 		protected final int chunkSize;
 
 		public TableFormat(int attributeCount, int valueCount, int chunkSize) {
+			this(attributeCount, valueCount, 0, 0, chunkSize);
+		}
+
+		/**
+		 * Constructor of a format with vector columns.
+		 *
+		 * @param attributeCount the number of attribute columns
+		 * @param valueCount the number of value columns
+		 * @param vectorCount the number of vector columns
+		 * @param vectorLength the length of the vectors of all the vector columns
+		 * @param chunkSize the size of the chunks
+		 */
+		public TableFormat(int attributeCount, int valueCount, int vectorCount, int vectorLength, int chunkSize) {
 			this.attributeCount = attributeCount;
 			this.valueCount = valueCount;
+			this.vectorCount = vectorCount;
+			this.vectorLength = vectorLength;
 			this.chunkSize = chunkSize;
 		}
 
 		public int getChunkSize() {
 			return chunkSize;
 		}
+
+		public int getVectorCount() {
+			return vectorCount;
+		}
+
+		public int getVectorLength() {
+			return vectorLength;
+		}
 	}
 
 }
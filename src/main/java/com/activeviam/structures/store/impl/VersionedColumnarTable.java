@@ -28,10 +28,17 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 	 */
 	protected int[] deletedRows;
 
+	/**
+	 * The number of rows with a positive version per chunk, i.e. valid at all the epochs in a chunk
+	 * without deletions.
+	 */
+	protected int[] committedRows;
+
 	public VersionedColumnarTable(TableFormat format) {
 		super(format);
 		this.versions = new long[0][];
 		this.deletedRows = new int[0];
+		this.committedRows = new int[0];
 	}
 
 	@Override
@@ -49,6 +56,9 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 		size += 4; // reference to deletions
 		size += 12; // header of deletions
 		size += deletedRows.length * 4; // content of deletions
+		size += 4; // reference to committed rows
+		size += 12; // header of committed rows
+		size += committedRows.length * 4; // content of committed rows
 		return size;
 	}
 
@@ -68,6 +78,7 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 		}
 		this.versions = newVersionChunks;
 		this.deletedRows =  Arrays.copyOf(deletedRows, numChunks);
+		this.committedRows = Arrays.copyOf(committedRows, numChunks);
 	}
 
 	/**
@@ -82,10 +93,16 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 			final int chunkId = row >>> this.chunkOrder;
 			final int chunkRow = row & this.chunkMask;
 			versions[chunkId][chunkRow] = epoch;
+			if (epoch > 0) {
+				++committedRows[chunkId];
+			}
 		}
 		deletions.forEach(row -> {
 			final int chunkId = row >>> this.chunkOrder;
 			final int chunkRow = row & this.chunkMask;
+			if (versions[chunkId][chunkRow] > 0) {
+				--committedRows[chunkId];
+			}
 			versions[chunkId][chunkRow] = -1 - epoch;
 			++deletedRows[chunkId];
 		});
@@ -132,10 +149,11 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 	public IBitmap filter(IBitmap rows, long epoch, int visibleSize) {
 		final IBitmap r = new BitSetBitmap();
 		// FIXME iterate on versions (this will avoid the decoding)
-		rows.stream()
-			.takeWhile(row -> row < visibleSize)
-			.filter(row -> exists(row, epoch, visibleSize))
-			.forEach(r::set);
+		for (int row = rows.nextSetBit(0); row >= 0 && row < visibleSize; row = rows.nextSetBit(row + 1)) {
+			if (exists(row, epoch, visibleSize)) {
+				r.set(row);
+			}
+		}
 		return r;
 	}
 
@@ -152,6 +170,11 @@ public class VersionedColumnarTable extends ColumnarTable implements IVersionedT
 					chunkSize = 1 << this.chunkOrder;
 				}
 			}
+			if (deletedRows[i] == 0 && chunkSize == 1 << this.chunkOrder) {
+				// A full chunk without deletions: all its committed rows are valid
+				recordCount += committedRows[i];
+				continue;
+			}
 			for (int j = 0; j < chunkSize; ++j) {
 				final long rowVersion = versionChunk[j];
 				if (rowVersion > 0 || (-rowVersion - 1) > epoch) {
@@ -52,6 +52,11 @@ public abstract class AArrayVector extends AVector implements IBlock, ITransient
 		return AllocationType.ON_HEAP;
 	}
 
+	@Override
+	protected IVector createSubVector(final int from, final int length) {
+		return new ArraySubVector(this, from, length);
+	}
+
 	@Override
 	public void write(final int index, final Object value) {
 		throw new UnsupportedOperationException(
@@ -218,19 +223,6 @@ public abstract class AArrayVector extends AVector implements IBlock, ITransient
 		return bottomKIndices(0, size(), k);
 	}
 
-	@Override
-	public double variance() {
-		double average = average();
-		return squaredEuclideanNorm() / size() - average * average;
-	}
-
-	/**
-	 * Computes the dot product of the vector and itself.
-	 *
-	 * @return the value of the squared Euclidean norm of the vector
-	 */
-	protected abstract double squaredEuclideanNorm();
-
 	@Override
 	public double quantileDouble(final int position, final int lgth, final double r) {
 		throw new UnsupportedOperationException(
@@ -255,7 +247,6 @@ public abstract class AArrayVector extends AVector implements IBlock, ITransient
 				"This method is not implemented for the vector " + getClass().getName());
 	}
 
-
 	@Override
 	public int quantileIndex(final double r) {
 		return quantileIndex(0, size(), r);
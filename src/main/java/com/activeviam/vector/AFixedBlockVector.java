@@ -7,9 +7,7 @@
 
 package com.activeviam.vector;
 
-import com.activeviam.UnsafeUtil;
 import com.activeviam.chunk.ADirectVectorBlock;
-import com.activeviam.chunk.IBlock;
 import com.activeviam.iterator.IPrimitiveIterator;
 
 /**
@@ -17,26 +15,48 @@ import com.activeviam.iterator.IPrimitiveIterator;
  *
  * @author ActiveViam
  */
-public abstract class AFixedBlockVector extends AVector {
-
-	/** Unsafe provider. */
-	protected static final sun.misc.Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+public abstract class AFixedBlockVector extends AVector implements ITransientVector {
 
 	protected final int position;
 	protected final int length;
 	protected ADirectVectorBlock block;
 
+	/** Whether {@link #release()} frees the block, {@code false} when the block is shared with other vectors. */
+	protected final boolean ownsBlock;
+
 	/**
-	 * Constructor.
+	 * Constructor of a vector owning its block.
 	 *
 	 * @param block the block holding the data
 	 * @param position the position at which the vector starts in the block
 	 * @param length the number of components in the vector
 	 */
 	protected AFixedBlockVector(ADirectVectorBlock block, int position, int length) {
+		this(block, position, length, true);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param block the block holding the data
+	 * @param position the position at which the vector starts in the block
+	 * @param length the number of components in the vector
+	 * @param ownsBlock whether releasing the vector frees the block
+	 */
+	protected AFixedBlockVector(ADirectVectorBlock block, int position, int length, boolean ownsBlock) {
 		this.block = block;
 		this.position = position;
 		this.length = length;
+		this.ownsBlock = ownsBlock;
+	}
+
+	/**
+	 * Gets the block holding the components of this vector.
+	 *
+	 * @return the underlying block
+	 */
+	public ADirectVectorBlock getBlock() {
+		return this.block;
 	}
 
 	@Override
@@ -106,7 +126,7 @@ public abstract class AFixedBlockVector extends AVector {
 
 	@Override
 	public void translate(final int v) {
-		this.block.divide(this.position, length, v);
+		this.block.translate(this.position, length, v);
 	}
 
 	@Override
@@ -142,9 +162,32 @@ public abstract class AFixedBlockVector extends AVector {
 		return block.bottomK(this.position, length, k);
 	}
 
+	/**
+	 * Sorts the components of this vector in place, in its block, instead of sorting a heap copy like
+	 * {@link #sort()}.
+	 */
+	@Override
+	public void sortInPlace() {
+		this.block.sort(this.position, this.length);
+	}
+
+	@Override
+	public void reverse() {
+		PermutationUtil.reverse(this);
+	}
+
+	/**
+	 * Computes several quantiles like {@link #quantiles(double[])}: the selection runs on a heap copy,
+	 * so the components of the block are left as they are.
+	 */
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		return quantiles(r);
+	}
+
 	@Override
 	public int hashCode() {
-		return block.hashCode(0, length);
+		return block.hashCode(this.position, length);
 	}
 
 	@Override
@@ -163,16 +206,6 @@ public abstract class AFixedBlockVector extends AVector {
 		return this.block.bottomKIndices(position, length, k);
 	}
 
-	@Override
-	public double sumDouble() {
-		double sum = 0d;
-		for (int i = 0; i < length; i++) {
-			sum += block.readDouble(position + i);
-		}
-
-		return sum;
-	}
-
 	@Override
 	public float sumFloat() {
 		float sum = 0f;
@@ -202,21 +235,6 @@ public abstract class AFixedBlockVector extends AVector {
 		return sum;
 	}
 
-	@Override
-	public double variance() {
-		final double average = average();
-		return squaredEuclideanDistance(this.block, position) / length - average * average;
-	}
-
-	/**
-	 * Computes the dot product of the vector and itself.
-	 *
-	 * @param block block on which the vector coordinates will be read
-	 * @param position position from which the vector coordinates can be read in the given block
-	 * @return the value of the squared Euclidean norm of the vector
-	 */
-	protected abstract double squaredEuclideanDistance(IBlock block, int position);
-
 	@Override
 	public double quantileDouble(final double r) {
 		return this.block.quantileDouble(position, length, r);
@@ -243,48 +261,15 @@ public abstract class AFixedBlockVector extends AVector {
 	}
 
 	/**
-	 * Returns the direct memory address vector position.
-	 *
-	 * @param block the block associated with this vector
-	 * @param posToIncOrder the order of the size of the vector contained class
-	 * @return the direct memory address vector position
+	 * Frees the block of this vector if the vector owns it.
+	 * <p>
+	 * Releasing a sub-vector or a vector packed with others in a block does nothing: the block is freed
+	 * by its owner.
 	 */
-	protected static long getPos(final ADirectVectorBlock block, final int posToIncOrder) {
-
-		return block.getAddress();
-	}
-
-	/**
-	 * Returns the direct memory address of the last vector coordinate.
-	 *
-	 * @param pos the direct memory address vector position
-	 * @param len the size of this vector
-	 * @param posToIncOrder the order of the size of the vector contained class
-	 * @return the direct memory address of the last vector coordinate
-	 */
-	protected static long getMaxPos(final long pos, final long len, final int posToIncOrder) {
-		return pos + (len << posToIncOrder);
-	}
-
-	/**
-	 * Returns the direct memory address of the maximum unrolled vector coordinate.
-	 *
-	 * @param pos the direct memory address vector position
-	 * @param len the size of this vector
-	 * @param posToIncOrder the order of the size of the vector contained class
-	 * @param increment the number of bytes unrolled in each iteration
-	 * @return the direct memory address of the maximum unrolled vector coordinate
-	 */
-	protected static long getMaxUnroll(
-			final long pos,
-			final long len,
-			final int posToIncOrder,
-			final int increment) {
-
-		return pos + (((len << posToIncOrder) / increment) * increment);
-	}
-
+	@Override
 	public void release() {
-		this.block.close();
+		if (this.ownsBlock) {
+			this.block.close();
+		}
 	}
 }
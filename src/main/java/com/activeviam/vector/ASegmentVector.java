@@ -8,7 +8,6 @@
 package com.activeviam.vector;
 
 import com.activeviam.chunk.ASegmentBlock;
-import com.activeviam.chunk.IBlock;
 import com.activeviam.iterator.IPrimitiveIterator;
 
 import java.lang.foreign.MemorySegment;
@@ -18,7 +17,7 @@ import java.lang.foreign.MemorySegment;
  *
  * @author ActiveViam
  */
-public abstract class ASegmentVector extends AVector {
+public abstract class ASegmentVector extends AVector implements ITransientVector {
 	protected final int position;
 	protected final int length;
 	protected ASegmentBlock block;
@@ -36,6 +35,15 @@ public abstract class ASegmentVector extends AVector {
 		this.length = length;
 	}
 
+	/**
+	 * Gets the block holding the components of this vector.
+	 *
+	 * @return the underlying block
+	 */
+	public ASegmentBlock getBlock() {
+		return this.block;
+	}
+
 	@Override
 	public int size() {
 		return this.length;
@@ -103,7 +111,7 @@ public abstract class ASegmentVector extends AVector {
 
 	@Override
 	public void translate(final int v) {
-		this.block.divide(this.position, length, v);
+		this.block.translate(this.position, length, v);
 	}
 
 	@Override
@@ -139,9 +147,32 @@ public abstract class ASegmentVector extends AVector {
 		return block.bottomK(this.position, length, k);
 	}
 
+	/**
+	 * Sorts the components of this vector in place, in its block, instead of sorting a heap copy like
+	 * {@link #sort()}.
+	 */
+	@Override
+	public void sortInPlace() {
+		this.block.sort(this.position, this.length);
+	}
+
+	@Override
+	public void reverse() {
+		PermutationUtil.reverse(this);
+	}
+
+	/**
+	 * Computes several quantiles like {@link #quantiles(double[])}: the selection runs on a heap copy,
+	 * so the components of the block are left as they are.
+	 */
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		return quantiles(r);
+	}
+
 	@Override
 	public int hashCode() {
-		return block.hashCode(0, length);
+		return block.hashCode(this.position, length);
 	}
 
 	@Override
@@ -160,16 +191,6 @@ public abstract class ASegmentVector extends AVector {
 		return this.block.bottomKIndices(position, length, k);
 	}
 
-	@Override
-	public double sumDouble() {
-		double sum = 0d;
-		for (int i = 0; i < length; i++) {
-			sum += block.readDouble(position + i);
-		}
-
-		return sum;
-	}
-
 	@Override
 	public float sumFloat() {
 		float sum = 0f;
@@ -199,21 +220,6 @@ public abstract class ASegmentVector extends AVector {
 		return sum;
 	}
 
-	@Override
-	public double variance() {
-		final double average = average();
-		return squaredEuclideanDistance(this.block, position) / length - average * average;
-	}
-
-	/**
-	 * Computes the dot product of the vector and itself.
-	 *
-	 * @param block block on which the vector coordinates will be read
-	 * @param position position from which the vector coordinates can be read in the given block
-	 * @return the value of the squared Euclidean norm of the vector
-	 */
-	protected abstract double squaredEuclideanDistance(IBlock block, int position);
-
 	@Override
 	public double quantileDouble(final double r) {
 		return this.block.quantileDouble(position, length, r);
@@ -238,4 +244,12 @@ public abstract class ASegmentVector extends AVector {
 	public int quantileIndex(final double r) {
 		return this.block.quantileIndex(position, length, r);
 	}
+
+	/**
+	 * Releases this vector. The memory of the block belongs to the segment allocator and is only freed with it,
+	 * so this does nothing unless the vector was allocated by a pool, to which its block is handed back.
+	 */
+	@Override
+	public void release() {
+	}
 }
@@ -0,0 +1,301 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.allocator.AllocationType;
+import com.activeviam.iterator.IPrimitiveIterator;
+
+/**
+ * Base implementation of the on-heap {@link IVector vectors} of at most {@link #MAX_SIZE} components, stored in
+ * fields rather than in an array.
+ * <p>
+ * A tiny vector is then a single object, without the header and the indirection of an array. The arithmetic
+ * between a small vector and a vector of any other layout reads and writes the components one by one, without
+ * allocating. The operations building a result, like {@link #sort()}, {@link #topK(int)} or the quantiles, work on
+ * an on-heap copy.
+ * <p>
+ * A small vector is a range of the fields of a storage vector: the range of all its fields when it holds them, or a
+ * part of the fields of another small vector when it is a {@link #subVector(int, int) view} of it. The vectors and
+ * their views then share the same implementation.
+ *
+ * @author ActiveViam
+ */
+public abstract class ASmallVector extends AVector implements ITransientVector {
+
+	/** The maximum number of components of a small vector. */
+	public static final int MAX_SIZE = 8;
+
+	/** The index of the first component of this vector in the fields of its storage. */
+	protected final int position;
+
+	/** The number of components of the vector. */
+	protected final int length;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param position the index of the first component of the vector in the fields of its storage
+	 * @param length the number of components of the vector
+	 */
+	protected ASmallVector(final int position, final int length) {
+		this.position = position;
+		this.length = length;
+	}
+
+	/**
+	 * Checks the size of a small vector holding its components.
+	 *
+	 * @param size the number of components of the vector
+	 * @return the size
+	 */
+	protected static int checkSize(final int size) {
+		if (size < 0 || size > MAX_SIZE) {
+			throw new IllegalArgumentException(
+					"A small vector holds between 0 and " + MAX_SIZE + " components, got " + size);
+		}
+		return size;
+	}
+
+	/**
+	 * Creates a view of a range of the fields of the storage of this vector.
+	 *
+	 * @param position the index of the first component of the view in the fields of the storage
+	 * @param length the number of components of the view
+	 * @return the view
+	 */
+	protected abstract ASmallVector createView(int position, int length);
+
+	/**
+	 * Creates a small vector of the component type of this one, holding its components.
+	 *
+	 * @param size the number of components of the vector
+	 * @return a vector of zeros
+	 */
+	protected abstract ASmallVector create(int size);
+
+	@Override
+	public int size() {
+		return this.length;
+	}
+
+	@Override
+	public AllocationType getAllocation() {
+		return AllocationType.ON_HEAP;
+	}
+
+	@Override
+	protected IVector createSubVector(final int from, final int length) {
+		return createView(this.position + from, length);
+	}
+
+	@Override
+	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		for (int i = 0; i < dst.length; ++i) {
+			dst[i] = readDouble(i);
+		}
+	}
+
+	@Override
+	public void copyTo(final float[] dst) {
+		checkIndex(0, dst.length);
+		for (int i = 0; i < dst.length; ++i) {
+			dst[i] = readFloat(i);
+		}
+	}
+
+	@Override
+	public void copyTo(final long[] dst) {
+		checkIndex(0, dst.length);
+		for (int i = 0; i < dst.length; ++i) {
+			dst[i] = readLong(i);
+		}
+	}
+
+	@Override
+	public void copyTo(final int[] dst) {
+		checkIndex(0, dst.length);
+		for (int i = 0; i < dst.length; ++i) {
+			dst[i] = readInt(i);
+		}
+	}
+
+	@Override
+	public void copyFrom(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorCopyUtil.copy(this, vector, length);
+	}
+
+	@Override
+	public void copyFrom(final double[] src) {
+		checkIndex(0, src.length);
+		for (int i = 0; i < src.length; ++i) {
+			writeDouble(i, src[i]);
+		}
+	}
+
+	@Override
+	public void copyFrom(final float[] src) {
+		checkIndex(0, src.length);
+		for (int i = 0; i < src.length; ++i) {
+			writeFloat(i, src[i]);
+		}
+	}
+
+	@Override
+	public void copyFrom(final long[] src) {
+		checkIndex(0, src.length);
+		for (int i = 0; i < src.length; ++i) {
+			writeLong(i, src[i]);
+		}
+	}
+
+	@Override
+	public void copyFrom(final int[] src) {
+		checkIndex(0, src.length);
+		for (int i = 0; i < src.length; ++i) {
+			writeInt(i, src[i]);
+		}
+	}
+
+	@Override
+	public void fillDouble(final double value) {
+		for (int i = 0; i < this.length; ++i) {
+			writeDouble(i, value);
+		}
+	}
+
+	@Override
+	public void fillFloat(final float value) {
+		for (int i = 0; i < this.length; ++i) {
+			writeFloat(i, value);
+		}
+	}
+
+	@Override
+	public void fillLong(final long value) {
+		for (int i = 0; i < this.length; ++i) {
+			writeLong(i, value);
+		}
+	}
+
+	@Override
+	public void fillInt(final int value) {
+		for (int i = 0; i < this.length; ++i) {
+			writeInt(i, value);
+		}
+	}
+
+	@Override
+	public ITransientVector sort() {
+		final ITransientVector sorted = onHeap();
+		sorted.sortInPlace();
+		return sorted;
+	}
+
+	@Override
+	public void sortInPlace() {
+		final ITransientVector sorted = onHeap();
+		sorted.sortInPlace();
+		copyFrom(sorted);
+	}
+
+	/**
+	 * Reverses this vector. The components are exchanged as doubles, which hold the ints and the floats exactly.
+	 */
+	@Override
+	public void reverse() {
+		for (int i = 0, j = this.length - 1; i < j; ++i, --j) {
+			final double temp = readDouble(i);
+			writeDouble(i, readDouble(j));
+			writeDouble(j, temp);
+		}
+	}
+
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		final ITransientVector copy = onHeap();
+		final double[] quantiles = copy.quantilesInPlace(r);
+		// Reorder this vector like the array vectors are
+		copyFrom(copy);
+		return quantiles;
+	}
+
+	@Override
+	public IPrimitiveIterator topK(final int k) {
+		return onHeap().topK(k);
+	}
+
+	@Override
+	public int[] topKIndices(final int k) {
+		return onHeap().topKIndices(k);
+	}
+
+	@Override
+	public IPrimitiveIterator bottomK(final int k) {
+		return onHeap().bottomK(k);
+	}
+
+	@Override
+	public int[] bottomKIndices(final int k) {
+		return onHeap().bottomKIndices(k);
+	}
+
+	@Override
+	public double quantileDouble(final double r) {
+		return onHeap().quantileDouble(r);
+	}
+
+	@Override
+	public float quantileFloat(final double r) {
+		return onHeap().quantileFloat(r);
+	}
+
+	@Override
+	public long quantileLong(final double r) {
+		return onHeap().quantileLong(r);
+	}
+
+	@Override
+	public int quantileInt(final double r) {
+		return onHeap().quantileInt(r);
+	}
+
+	@Override
+	public int quantileIndex(final double r) {
+		return onHeap().quantileIndex(r);
+	}
+
+	@Override
+	public int hashCode() {
+		return VectorHashUtil.hashCode(contentHash());
+	}
+
+	@Override
+	public IVector cloneOnHeap() {
+		final ASmallVector clone = create(this.length);
+		clone.copyFrom(this);
+		return clone;
+	}
+
+	/**
+	 * @return a copy of this vector in an array, for the operations that have no small-vector kernel
+	 */
+	protected ITransientVector onHeap() {
+		switch (getComponentType()) {
+			case INTEGER:
+				return new ArrayIntegerVector(toIntArray());
+			case FLOAT:
+				return new ArrayFloatVector(toFloatArray());
+			default:
+				return new ArrayDoubleVector(toDoubleArray());
+		}
+	}
+
+}
@@ -88,6 +88,30 @@ public abstract class AVector implements IVector {
 		return i;
 	}
 
+	@Override
+	public IVector subVector(final int from, final int to) {
+		if (from > to) {
+			throw new IndexOutOfBoundsException("Cannot create a sub-vector from index " + from + " to " + to);
+		}
+		checkIndex(from, to - from);
+		if (from == to) {
+			return EmptyVector.emptyVector(getComponentType());
+		}
+		return createSubVector(from, to - from);
+	}
+
+	/**
+	 * Creates the view of a range of this vector returned by {@link #subVector(int, int)}.
+	 *
+	 * @param from the index of the first component of the view, within this vector
+	 * @param length the number of components of the view, strictly positive
+	 * @return the view
+	 */
+	protected IVector createSubVector(final int from, final int length) {
+		throw new UnsupportedOperationException(
+				"This method is not implemented for the vector " + getClass().getSimpleName());
+	}
+
 	@Override
 	public Object read(final int index) {
 		throw new UnsupportedOperationException(
@@ -311,13 +335,140 @@ public abstract class AVector implements IVector {
 				"This method is not implemented for the vector " + getClass().getSimpleName());
 	}
 
+	@Override
+	public void plus(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, false, VectorArithmeticUtil.ALL_VALUES);
+	}
+
+	@Override
+	public void plusPositiveValues(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, false, VectorArithmeticUtil.POSITIVE_VALUES);
+	}
+
+	@Override
+	public void plusNegativeValues(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, false, VectorArithmeticUtil.NEGATIVE_VALUES);
+	}
+
+	@Override
+	public void plusAll(final IVector[] vectors) {
+		VectorAggregationUtil.plusAll(this, vectors);
+	}
+
+	@Override
+	public void minus(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, true, VectorArithmeticUtil.ALL_VALUES);
+	}
+
+	@Override
+	public void minusPositiveValues(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, true, VectorArithmeticUtil.POSITIVE_VALUES);
+	}
+
+	@Override
+	public void minusNegativeValues(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorArithmeticUtil.apply(this, vector, length, true, VectorArithmeticUtil.NEGATIVE_VALUES);
+	}
+
+	@Override
+	public void plusWhere(
+			final IVector vector,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorMaskUtil.applyWhere(this, vector, condition, comparison, threshold, length, false);
+	}
+
+	@Override
+	public void minusWhere(
+			final IVector vector,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorMaskUtil.applyWhere(this, vector, condition, comparison, threshold, length, true);
+	}
+
+	@Override
+	public void select(
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold,
+			final IVector ifTrue,
+			final IVector ifFalse) {
+		final int length = condition.size();
+		checkIndex(0, length);
+		VectorMaskUtil.select(this, condition, comparison, threshold, ifTrue, ifFalse, length);
+	}
+
+	@Override
+	public void max(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorMaskUtil.extremum(this, vector, length, true);
+	}
+
+	@Override
+	public void min(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorMaskUtil.extremum(this, vector, length, false);
+	}
+
+	@Override
+	public void clamp(final double lower, final double upper) {
+		VectorMaskUtil.clamp(this, lower, upper);
+	}
+
+	@Override
+	public ITransientVector argsort() {
+		return new ArrayIntegerVector(PermutationUtil.argsort(this));
+	}
+
+	@Override
+	public ITransientVector rank() {
+		return new ArrayIntegerVector(PermutationUtil.rank(this));
+	}
+
+	@Override
+	public void gather(final IVector source, final IVector indices) {
+		checkIndex(0, indices.size());
+		PermutationUtil.gather(this, source, indices);
+	}
+
+	@Override
+	public VectorExpression expression() {
+		return new VectorExpression(this);
+	}
+
 	@Override
 	public double sumDouble() {
-		double sum = 0d;
-		for (int i = 0; i < size(); i++) {
-			sum += readDouble(i);
-		}
-		return sum;
+		return VectorStatisticsUtil.sum(this);
+	}
+
+	@Override
+	public double average() {
+		return sumDouble() / size();
+	}
+
+	@Override
+	public double variance() {
+		return VectorStatisticsUtil.variance(this);
 	}
 
 	@Override
@@ -371,6 +522,16 @@ public abstract class AVector implements IVector {
 				"This method is not implemented for the vector " + getClass().getSimpleName());
 	}
 
+	@Override
+	public double[] quantiles(final double[] r) {
+		return QuantileUtil.quantiles(this, r);
+	}
+
+	@Override
+	public void addToQuantileSketch(final QuantileSketch sketch) {
+		sketch.add(this);
+	}
+
 	@Override
 	public boolean equals(final Object obj) {
 		if (obj == this) {
@@ -390,12 +551,17 @@ public abstract class AVector implements IVector {
 			return false;
 		}
 
-		return other.getClass() == this.getClass();
+		return VectorHashUtil.equals(this, other);
 	}
 
 	@Override
 	public abstract int hashCode();
 
+	@Override
+	public long contentHash() {
+		return VectorHashUtil.hash(this);
+	}
+
 	@Override
 	public String toString() {
 		return toString(1);
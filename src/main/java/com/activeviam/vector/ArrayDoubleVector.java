@@ -58,13 +58,18 @@ public class ArrayDoubleVector extends AArrayVector {
 	@Override
 	public ITransientVector sort() {
 		final double[] a = toDoubleArray();
-		Arrays.sort(a);
+		RadixSortUtil.sort(a, 0, a.length);
 		return new ArrayDoubleVector(a);
 	}
 
 	@Override
 	public void sortInPlace() {
-		Arrays.sort(this.underlying);
+		RadixSortUtil.sort(this.underlying, 0, this.underlying.length);
+	}
+
+	@Override
+	public void sort(final int position, final int lgth) {
+		RadixSortUtil.sort(this.underlying, position, position + lgth);
 	}
 
 	@Override
@@ -184,12 +189,7 @@ public class ArrayDoubleVector extends AArrayVector {
 	public void copyFrom(IVector vector) {
 		final int length = vector.size();
 		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		if (length >= 0) {
-			System.arraycopy(rightArray, 0, leftArray, 0, length);
-		}
+		VectorCopyUtil.copy(this, vector, length);
 	}
 
 	@Override
@@ -396,13 +396,7 @@ public class ArrayDoubleVector extends AArrayVector {
 
 	@Override
 	public int hashCode(final int position, final int length) {
-		int result = 1;
-		int pos = position;
-		for (int i = 0; i < length; ++i, ++pos) {
-			long bits = Double.doubleToLongBits(underlying[pos]);
-			result = 31 * result + (int) (bits ^ (bits >>> 32));
-		}
-		return result;
+		return VectorHashUtil.hashCode(VectorHashUtil.hashDoubles(this.underlying, position, length));
 	}
 
 	@Override
@@ -440,6 +434,11 @@ public class ArrayDoubleVector extends AArrayVector {
 		reverse(underlying);
 	}
 
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		return QuantileUtil.quantilesInPlace(underlying, 0, size(), r);
+	}
+
 	public static void reverse(final double[] a) {
 		final int l = a.length;
 		final int max = l >> 1;
@@ -455,84 +454,6 @@ public class ArrayDoubleVector extends AArrayVector {
 		return new ArrayDoubleVector(toDoubleArray());
 	}
 
-	@Override
-	public void plus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += rightArray[i];
-		}
-
-	}
-
-	@Override
-	public void plusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += Math.max(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void plusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += Math.min(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void minus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= rightArray[i];
-		}
-
-	}
-
-	@Override
-	public void minusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= Math.max(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void minusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final double[] rightArray = ((ArrayDoubleVector) vector).getUnderlying();
-		final double[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= Math.min(0, rightArray[i]);
-		}
-
-	}
-
 	@Override
 	public void transfer(final int position, final double[] dest) {
 		final int length = dest.length;
@@ -551,21 +472,7 @@ public class ArrayDoubleVector extends AArrayVector {
 	 * @return the heap
 	 */
 	protected MinHeapDouble topKMinHeapDouble(final int position, final int length, final int k) {
-		final MinHeapDouble h = new MinHeapDouble(k);
-
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.topK(underlying, position, length, k);
 	}
 
 	/**
@@ -580,22 +487,7 @@ public class ArrayDoubleVector extends AArrayVector {
 			final int position,
 			final int length,
 			final int k) {
-
-		final MinHeapDoubleWithIndices h = new MinHeapDoubleWithIndices(k);
-
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i - position);
-			}
-		}
-
-		return h;
+		return TopKUtil.topKWithIndices(underlying, position, length, k);
 	}
 
 	/**
@@ -607,20 +499,7 @@ public class ArrayDoubleVector extends AArrayVector {
 	 * @return the heap
 	 */
 	protected MaxHeapDouble bottomKMaxHeapDouble(final int position, final int length, final int k) {
-		final MaxHeapDouble h = new MaxHeapDouble(k);
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomK(underlying, position, length, k);
 	}
 
 	/**
@@ -635,21 +514,7 @@ public class ArrayDoubleVector extends AArrayVector {
 			final int position,
 			final int length,
 			final int k) {
-
-		final MaxHeapDoubleWithIndices h = new MaxHeapDoubleWithIndices(k);
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i - position);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomKWithIndices(underlying, position, length, k);
 	}
 
 	@Override
@@ -668,21 +533,6 @@ public class ArrayDoubleVector extends AArrayVector {
 		return h.getArrayIndices();
 	}
 
-	@Override
-	public double average() {
-		return sumDouble() / size();
-	}
-
-	@Override
-	protected double squaredEuclideanNorm() {
-		double s = 0d;
-		for (int i = 0; i < size(); i++) {
-			double a = readDouble(i);
-			s += a * a;
-		}
-		return s;
-	}
-
 	@Override
 	public double quantileDouble(final int position, final int length, final double r) {
 		if (r <= 0d || r > 1d) {
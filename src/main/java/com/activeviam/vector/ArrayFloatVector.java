@@ -0,0 +1,527 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import com.activeviam.heap.MaxHeapDouble;
+import com.activeviam.heap.MaxHeapDoubleWithIndices;
+import com.activeviam.heap.MinHeapDouble;
+import com.activeviam.heap.MinHeapDoubleWithIndices;
+import com.activeviam.iterator.IPrimitiveIterator;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of an {@link IVector} that stores floats on heap.
+ * <p>
+ * The components are stored in single precision, but the reductions ({@link #sumDouble()},
+ * {@link #variance()}, ...) accumulate in double precision.
+ *
+ * @author ActiveViam
+ */
+public class ArrayFloatVector extends AArrayVector {
+
+	/** The underlying array backing the structure. */
+	protected final float[] underlying;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param underlying the array to wrap in a vector, it is kept as is, so any modification done to the array
+	 *        will be seen by the vector, and reciprocally
+	 */
+	public ArrayFloatVector(float[] underlying) {
+		this.underlying = Objects.requireNonNull(underlying, "Null value cannot be wrapped.");
+	}
+
+	/**
+	 * Static constructor to build a vector of float values.
+	 */
+	public static ArrayFloatVector of(final float... values) {
+		return new ArrayFloatVector(values);
+	}
+
+	/**
+	 * Returns the underlying array.
+	 *
+	 * @return the underlying array
+	 */
+	public float[] getUnderlying() {
+		return this.underlying;
+	}
+
+	@Override
+	public ITransientVector sort() {
+		final float[] a = toFloatArray();
+		Arrays.sort(a);
+		return new ArrayFloatVector(a);
+	}
+
+	@Override
+	public void sortInPlace() {
+		Arrays.sort(this.underlying);
+	}
+
+	@Override
+	public void sort(final int position, final int lgth) {
+		Arrays.sort(this.underlying, position, position + lgth);
+	}
+
+	@Override
+	public int size() {
+		return this.underlying.length;
+	}
+
+	@Override
+	public Types getComponentType() {
+		return Types.FLOAT;
+	}
+
+	@Override
+	public Float read(final int index) {
+		return readFloat(index);
+	}
+
+	@Override
+	public float readFloat(final int index) {
+		return this.underlying[index];
+	}
+
+	@Override
+	public double readDouble(final int index) {
+		return this.underlying[index];
+	}
+
+	@Override
+	public void write(final int position, final float[] src) {
+		System.arraycopy(src, 0, this.underlying, position, src.length);
+	}
+
+	@Override
+	public void write(final int position, final double[] src) {
+		final int length = src.length;
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] = (float) src[i];
+		}
+	}
+
+	@Override
+	public void write(final int index, final Object value) {
+		if (value instanceof Number) {
+			writeFloat(index, ((Number) value).floatValue());
+		}
+	}
+
+	@Override
+	public void writeInt(final int index, final int value) {
+		this.underlying[index] = value;
+	}
+
+	@Override
+	public void writeFloat(final int index, final float value) {
+		this.underlying[index] = value;
+	}
+
+	@Override
+	public void writeDouble(final int index, final double value) {
+		this.underlying[index] = (float) value;
+	}
+
+	@Override
+	public boolean isNull(final int position) {
+		return false;
+	}
+
+	@Override
+	public void addInt(final int index, final int value) {
+		this.underlying[index] += value;
+	}
+
+	@Override
+	public void addLong(final int index, final long value) {
+		this.underlying[index] += value;
+	}
+
+	@Override
+	public void addFloat(final int index, final float value) {
+		this.underlying[index] += value;
+	}
+
+	@Override
+	public void addDouble(final int index, final double value) {
+		this.underlying[index] += value;
+	}
+
+	@Override
+	public void copyTo(final double[] dst) {
+		final int length = dst.length;
+		for (int i = 0; i < length; ++i) {
+			dst[i] = this.underlying[i];
+		}
+	}
+
+	@Override
+	public void copyTo(final float[] dst) {
+		System.arraycopy(this.underlying, 0, dst, 0, dst.length);
+	}
+
+	@Override
+	public void copyFrom(IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorCopyUtil.copy(this, vector, length);
+	}
+
+	@Override
+	public void copyFrom(final float[] src) {
+		System.arraycopy(src, 0, this.underlying, 0, src.length);
+	}
+
+	@Override
+	public void copyFrom(final double[] src) {
+		final int length = src.length;
+		for (int i = 0; i < length; ++i) {
+			this.underlying[i] = (float) src[i];
+		}
+	}
+
+	@Override
+	public void fillFloat(float value) {
+		Arrays.fill(this.underlying, value);
+	}
+
+	@Override
+	public void fillFloat(int position, int lgth, float v) {
+		Arrays.fill(this.underlying, position, position + lgth, v);
+	}
+
+	@Override
+	public void scale(final int v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final long v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final float v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final double v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final int position, final int length, final int v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final int position, final int length, final long v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final int position, final int length, final float v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] *= v;
+		}
+	}
+
+	@Override
+	public void scale(final int position, final int length, final double v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] *= v;
+		}
+	}
+
+	@Override
+	public void translate(final int v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] += v;
+		}
+	}
+
+	@Override
+	public void translate(final long v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] += v;
+		}
+	}
+
+	@Override
+	public void translate(final float v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] += v;
+		}
+	}
+
+	@Override
+	public void translate(final double v) {
+		final int end = size();
+		for (int i = 0; i < end; ++i) {
+			this.underlying[i] += v;
+		}
+	}
+
+	@Override
+	public void translate(final int position, final int length, final int v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] += v;
+		}
+	}
+
+	@Override
+	public void translate(final int position, final int length, final long v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] += v;
+		}
+	}
+
+	@Override
+	public void translate(final int position, final int length, final float v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] += v;
+		}
+	}
+
+	@Override
+	public void translate(final int position, final int length, final double v) {
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			this.underlying[pos] += v;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode(0, this.underlying.length);
+	}
+
+	@Override
+	public int hashCode(final int position, final int length) {
+		return VectorHashUtil.hashCode(VectorHashUtil.hashFloats(this.underlying, position, length));
+	}
+
+	@Override
+	public IPrimitiveIterator topK(final int k) {
+		checkIndex(0, k);
+		return topK(0, size(), k);
+	}
+
+	@Override
+	public IPrimitiveIterator topK(final int position, final int length, final int k) {
+		if (k == 0) {
+			return (IPrimitiveIterator) EmptyVector.emptyVector(getComponentType());
+		}
+
+		return topKMinHeapDouble(position, length, k);
+	}
+
+	@Override
+	public IPrimitiveIterator bottomK(final int k) {
+		checkIndex(0, k);
+		return bottomK(0, size(), k);
+	}
+
+	@Override
+	public IPrimitiveIterator bottomK(final int position, final int length, final int k) {
+		if (k == 0) {
+			return (IPrimitiveIterator) EmptyVector.emptyVector(getComponentType());
+		}
+
+		return bottomKMaxHeapDouble(position, length, k);
+	}
+
+	@Override
+	public void reverse() {
+		reverse(underlying);
+	}
+
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		return QuantileUtil.quantilesInPlace(underlying, 0, size(), r);
+	}
+
+	public static void reverse(final float[] a) {
+		final int l = a.length;
+		final int max = l >> 1;
+		for (int i = 0; i < max; i++) {
+			final float temp = a[i];
+			a[i] = a[l - i - 1];
+			a[l - i - 1] = temp;
+		}
+	}
+
+	@Override
+	public IVector cloneOnHeap() {
+		return new ArrayFloatVector(toFloatArray());
+	}
+
+	@Override
+	public void transfer(final int position, final double[] dest) {
+		final int length = dest.length;
+		int pos = position;
+		for (int i = 0; i < length; ++i, ++pos) {
+			dest[i] = underlying[pos];
+		}
+	}
+
+	@Override
+	public void transfer(final int position, final float[] dest) {
+		System.arraycopy(this.underlying, position, dest, 0, dest.length);
+	}
+
+	/**
+	 * A min heap containing the smallest k elements.
+	 *
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MinHeapDouble topKMinHeapDouble(final int position, final int length, final int k) {
+		return TopKUtil.topK(underlying, position, length, k);
+	}
+
+	/**
+	 * A min heap containing the smallest k elements and their indices.
+	 *
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MinHeapDoubleWithIndices topKMinHeapWithIndicesDouble(
+			final int position,
+			final int length,
+			final int k) {
+		return TopKUtil.topKWithIndices(underlying, position, length, k);
+	}
+
+	/**
+	 * A max heap containing the smallest k elements.
+	 *
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MaxHeapDouble bottomKMaxHeapDouble(final int position, final int length, final int k) {
+		return TopKUtil.bottomK(underlying, position, length, k);
+	}
+
+	/**
+	 * A max heap containing the smallest k elements and their indices.
+	 *
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 * @param k the number of elements to return in the heap
+	 * @return the heap
+	 */
+	protected MaxHeapDoubleWithIndices bottomKMaxHeapWithIndicesDouble(
+			final int position,
+			final int length,
+			final int k) {
+		return TopKUtil.bottomKWithIndices(underlying, position, length, k);
+	}
+
+	@Override
+	public int[] topKIndices(final int position, final int length, final int k) {
+		checkIndex(0, k);
+		final MinHeapDoubleWithIndices h = topKMinHeapWithIndicesDouble(position, length, k);
+		h.sort();
+		return h.getArrayIndices();
+	}
+
+	@Override
+	public int[] bottomKIndices(final int position, final int length, final int k) {
+		checkIndex(0, k);
+		final MaxHeapDoubleWithIndices h = bottomKMaxHeapWithIndicesDouble(position, length, k);
+		h.sort();
+		return h.getArrayIndices();
+	}
+
+	@Override
+	public double quantileDouble(final int position, final int length, final double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException(
+					"Order of the quantile should be greater than zero and less than 1.");
+		}
+		if (r >= 0.5) {
+			return topKMinHeapDouble(position, length, length - nearestRank(length, r) + 1).peek();
+		} else {
+			return bottomKMaxHeapDouble(position, length, nearestRank(length, r)).peek();
+		}
+	}
+
+	@Override
+	public double quantileDouble(final double r) {
+		return quantileDouble(0, size(), r);
+	}
+
+	@Override
+	public float quantileFloat(final int position, final int length, final double r) {
+		return (float) quantileDouble(position, length, r);
+	}
+
+	@Override
+	public float quantileFloat(final double r) {
+		return (float) quantileDouble(r);
+	}
+
+	@Override
+	public float sumFloat() {
+		return (float) sumDouble();
+	}
+
+	@Override
+	public int quantileIndex(final int position, final int length, final double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException(
+					"Order of the quantile should be greater than zero and less than 1.");
+		}
+		if (r >= 0.5) {
+			return topKMinHeapWithIndicesDouble(position, length, length - nearestRank(length, r) + 1).peekIndex();
+		} else {
+			return bottomKMaxHeapWithIndicesDouble(position, length, nearestRank(length, r)).peekIndex();
+		}
+	}
+
+}
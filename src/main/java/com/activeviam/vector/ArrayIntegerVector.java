@@ -58,13 +58,18 @@ public class ArrayIntegerVector extends AArrayVector {
 	@Override
 	public ITransientVector sort() {
 		final int[] a = toIntArray();
-		Arrays.sort(a);
+		RadixSortUtil.sort(a, 0, a.length);
 		return new ArrayIntegerVector(a);
 	}
 
 	@Override
 	public void sortInPlace() {
-		Arrays.sort(this.underlying);
+		RadixSortUtil.sort(this.underlying, 0, this.underlying.length);
+	}
+
+	@Override
+	public void sort(final int position, final int lgth) {
+		RadixSortUtil.sort(this.underlying, position, position + lgth);
 	}
 
 	@Override
@@ -74,7 +79,7 @@ public class ArrayIntegerVector extends AArrayVector {
 
 	@Override
 	public Types getComponentType() {
-		return Types.DOUBLE;
+		return Types.INTEGER;
 	}
 
 	@Override
@@ -140,6 +145,12 @@ public class ArrayIntegerVector extends AArrayVector {
 
 	@Override
 	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		VectorCopyUtil.widen(dst, 0, this.underlying, 0, dst.length);
+	}
+
+	@Override
+	public void copyTo(final int[] dst) {
 		System.arraycopy(this.underlying, 0, dst, 0, dst.length);
 	}
 
@@ -147,13 +158,7 @@ public class ArrayIntegerVector extends AArrayVector {
 	public void copyFrom(IVector vector) {
 		final int length = vector.size();
 		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] = rightArray[i];
-		}
-
+		VectorCopyUtil.copy(this, vector, length);
 	}
 
 	@Override
@@ -314,13 +319,7 @@ public class ArrayIntegerVector extends AArrayVector {
 
 	@Override
 	public int hashCode(final int position, final int length) {
-		int result = 1;
-		int pos = position;
-		for (int i = 0; i < length; ++i, ++pos) {
-			long bits = Double.doubleToLongBits(underlying[pos]);
-			result = 31 * result + (int) (bits ^ (bits >>> 32));
-		}
-		return result;
+		return VectorHashUtil.hashCode(VectorHashUtil.hashInts(this.underlying, position, length));
 	}
 
 	@Override
@@ -358,6 +357,11 @@ public class ArrayIntegerVector extends AArrayVector {
 		reverse(underlying);
 	}
 
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		return QuantileUtil.quantilesInPlace(underlying, 0, size(), r);
+	}
+
 	public static void reverse(final int[] a) {
 		final int l = a.length;
 		final int max = l >> 1;
@@ -373,84 +377,6 @@ public class ArrayIntegerVector extends AArrayVector {
 		return new ArrayIntegerVector(toIntArray());
 	}
 
-	@Override
-	public void plus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += rightArray[i];
-		}
-
-	}
-
-	@Override
-	public void plusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += Math.max(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void plusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] += Math.min(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void minus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= rightArray[i];
-		}
-
-	}
-
-	@Override
-	public void minusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= Math.max(0, rightArray[i]);
-		}
-
-	}
-
-	@Override
-	public void minusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final int[] rightArray = ((ArrayIntegerVector) vector).getUnderlying();
-		final int[] leftArray = getUnderlying();
-		for (int i = 0; i < length; ++i) {
-			leftArray[i] -= Math.min(0, rightArray[i]);
-		}
-
-	}
-
 	@Override
 	public void transfer(final int position, final double[] dest) {
 		final int length = dest.length;
@@ -460,6 +386,11 @@ public class ArrayIntegerVector extends AArrayVector {
 		}
 	}
 
+	@Override
+	public void transfer(final int position, final int[] dest) {
+		System.arraycopy(this.underlying, position, dest, 0, dest.length);
+	}
+
 	/**
 	 * A min heap containing the smallest k elements.
 	 *
@@ -469,21 +400,7 @@ public class ArrayIntegerVector extends AArrayVector {
 	 * @return the heap
 	 */
 	protected MinHeapDouble topKMinHeapDouble(final int position, final int length, final int k) {
-		final MinHeapDouble h = new MinHeapDouble(k);
-
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.topK(underlying, position, length, k);
 	}
 
 	/**
@@ -498,22 +415,7 @@ public class ArrayIntegerVector extends AArrayVector {
 			final int position,
 			final int length,
 			final int k) {
-
-		final MinHeapDoubleWithIndices h = new MinHeapDoubleWithIndices(k);
-
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item > h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i - position);
-			}
-		}
-
-		return h;
+		return TopKUtil.topKWithIndices(underlying, position, length, k);
 	}
 
 	/**
@@ -525,20 +427,7 @@ public class ArrayIntegerVector extends AArrayVector {
 	 * @return the heap
 	 */
 	protected MaxHeapDouble bottomKMaxHeapDouble(final int position, final int length, final int k) {
-		final MaxHeapDouble h = new MaxHeapDouble(k);
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomK(underlying, position, length, k);
 	}
 
 	/**
@@ -553,21 +442,7 @@ public class ArrayIntegerVector extends AArrayVector {
 			final int position,
 			final int length,
 			final int k) {
-
-		final MaxHeapDoubleWithIndices h = new MaxHeapDoubleWithIndices(k);
-		final int end = position + length;
-		for (int i = position; i < end; ++i) {
-			final int s = h.size();
-			final double item = underlying[i];
-			if (s < k || item < h.peek()) {
-				if (s == k) {
-					h.poll();
-				}
-				h.add(item, i - position);
-			}
-		}
-
-		return h;
+		return TopKUtil.bottomKWithIndices(underlying, position, length, k);
 	}
 
 	@Override
@@ -586,21 +461,6 @@ public class ArrayIntegerVector extends AArrayVector {
 		return h.getArrayIndices();
 	}
 
-	@Override
-	public double average() {
-		return sumDouble() / size();
-	}
-
-	@Override
-	protected double squaredEuclideanNorm() {
-		double s = 0d;
-		for (int i = 0; i < size(); i++) {
-			double a = readDouble(i);
-			s += a * a;
-		}
-		return s;
-	}
-
 	@Override
 	public double quantileDouble(final int position, final int length, final double r) {
 		if (r <= 0d || r > 1d) {
@@ -0,0 +1,358 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.AllocationType;
+import com.activeviam.iterator.IPrimitiveIterator;
+
+/**
+ * A view of a range of an on-heap vector, returned by {@link IVector#subVector(int, int)}.
+ * <p>
+ * The components are read and written in the array of the viewed vector, whose ranged {@link
+ * com.activeviam.chunk.IBlock block} operations implement the bulk operations of the view, the same way the
+ * vectors of the other layouts rely on their block.
+ *
+ * @author ActiveViam
+ */
+public class ArraySubVector extends AVector {
+
+	/** The viewed vector. */
+	protected final AArrayVector parent;
+
+	/** The index of the first component of the view in the viewed vector. */
+	protected final int position;
+
+	/** The number of components of the view. */
+	protected final int length;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent the viewed vector
+	 * @param position the index of the first component of the view in the viewed vector
+	 * @param length the number of components of the view
+	 */
+	public ArraySubVector(final AArrayVector parent, final int position, final int length) {
+		parent.checkIndex(position, length);
+		this.parent = parent;
+		this.position = position;
+		this.length = length;
+	}
+
+	@Override
+	public int size() {
+		return this.length;
+	}
+
+	@Override
+	public Types getComponentType() {
+		return this.parent.getComponentType();
+	}
+
+	@Override
+	public AllocationType getAllocation() {
+		return this.parent.getAllocation();
+	}
+
+	@Override
+	protected IVector createSubVector(final int from, final int length) {
+		return new ArraySubVector(this.parent, this.position + from, length);
+	}
+
+	@Override
+	public ITransientVector sort() {
+		final ITransientVector clone = (ITransientVector) cloneOnHeap();
+		clone.sortInPlace();
+		return clone;
+	}
+
+	/**
+	 * Sorts the components of this view in place, in the array of the viewed vector.
+	 */
+	public void sortInPlace() {
+		this.parent.sort(this.position, this.length);
+	}
+
+	@Override
+	public IVector cloneOnHeap() {
+		if (getComponentType() == Types.INTEGER) {
+			final int[] a = new int[this.length];
+			copyTo(a);
+			return new ArrayIntegerVector(a);
+		} else if (getComponentType() == Types.FLOAT) {
+			final float[] a = new float[this.length];
+			copyTo(a);
+			return new ArrayFloatVector(a);
+		} else {
+			final double[] a = new double[this.length];
+			copyTo(a);
+			return new ArrayDoubleVector(a);
+		}
+	}
+
+	@Override
+	public Object read(final int index) {
+		return this.parent.read(this.position + checkIndex(index));
+	}
+
+	@Override
+	public double readDouble(final int index) {
+		return this.parent.readDouble(this.position + checkIndex(index));
+	}
+
+	@Override
+	public float readFloat(final int index) {
+		return this.parent.readFloat(this.position + checkIndex(index));
+	}
+
+	@Override
+	public long readLong(final int index) {
+		return this.parent.readLong(this.position + checkIndex(index));
+	}
+
+	@Override
+	public int readInt(final int index) {
+		return this.parent.readInt(this.position + checkIndex(index));
+	}
+
+	@Override
+	public void write(final int index, final Object value) {
+		this.parent.write(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void writeDouble(final int index, final double value) {
+		this.parent.writeDouble(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void writeFloat(final int index, final float value) {
+		this.parent.writeFloat(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void writeLong(final int index, final long value) {
+		this.parent.writeLong(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void writeInt(final int index, final int value) {
+		this.parent.writeInt(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void addDouble(final int index, final double value) {
+		this.parent.addDouble(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void addFloat(final int index, final float value) {
+		this.parent.addFloat(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void addLong(final int index, final long value) {
+		this.parent.addLong(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void addInt(final int index, final int value) {
+		this.parent.addInt(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		this.parent.transfer(this.position, dst);
+	}
+
+	@Override
+	public void copyTo(final float[] dst) {
+		checkIndex(0, dst.length);
+		this.parent.transfer(this.position, dst);
+	}
+
+	@Override
+	public void copyTo(final long[] dst) {
+		checkIndex(0, dst.length);
+		this.parent.transfer(this.position, dst);
+	}
+
+	@Override
+	public void copyTo(final int[] dst) {
+		checkIndex(0, dst.length);
+		this.parent.transfer(this.position, dst);
+	}
+
+	@Override
+	public void copyFrom(final IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorCopyUtil.copy(this, vector, length);
+	}
+
+	@Override
+	public void copyFrom(final double[] src) {
+		checkIndex(0, src.length);
+		this.parent.write(this.position, src);
+	}
+
+	@Override
+	public void copyFrom(final float[] src) {
+		checkIndex(0, src.length);
+		this.parent.write(this.position, src);
+	}
+
+	@Override
+	public void copyFrom(final long[] src) {
+		checkIndex(0, src.length);
+		this.parent.write(this.position, src);
+	}
+
+	@Override
+	public void copyFrom(final int[] src) {
+		checkIndex(0, src.length);
+		this.parent.write(this.position, src);
+	}
+
+	@Override
+	public void fillDouble(final double value) {
+		this.parent.fillDouble(this.position, this.length, value);
+	}
+
+	@Override
+	public void fillFloat(final float value) {
+		this.parent.fillFloat(this.position, this.length, value);
+	}
+
+	@Override
+	public void fillLong(final long value) {
+		this.parent.fillLong(this.position, this.length, value);
+	}
+
+	@Override
+	public void fillInt(final int value) {
+		this.parent.fillInt(this.position, this.length, value);
+	}
+
+	@Override
+	public void scale(final double v) {
+		this.parent.scale(this.position, this.length, v);
+	}
+
+	@Override
+	public void scale(final float v) {
+		this.parent.scale(this.position, this.length, v);
+	}
+
+	@Override
+	public void scale(final long v) {
+		this.parent.scale(this.position, this.length, v);
+	}
+
+	@Override
+	public void scale(final int v) {
+		this.parent.scale(this.position, this.length, v);
+	}
+
+	@Override
+	public void divide(final long v) {
+		this.parent.divide(this.position, this.length, v);
+	}
+
+	@Override
+	public void divide(final int v) {
+		this.parent.divide(this.position, this.length, v);
+	}
+
+	@Override
+	public void translate(final double v) {
+		this.parent.translate(this.position, this.length, v);
+	}
+
+	@Override
+	public void translate(final float v) {
+		this.parent.translate(this.position, this.length, v);
+	}
+
+	@Override
+	public void translate(final long v) {
+		this.parent.translate(this.position, this.length, v);
+	}
+
+	@Override
+	public void translate(final int v) {
+		this.parent.translate(this.position, this.length, v);
+	}
+
+	@Override
+	public IPrimitiveIterator topK(final int k) {
+		checkIndex(0, k);
+		if (k == 0) {
+			return (IPrimitiveIterator) EmptyVector.emptyVector(getComponentType());
+		}
+		return this.parent.topK(this.position, this.length, k);
+	}
+
+	@Override
+	public IPrimitiveIterator bottomK(final int k) {
+		checkIndex(0, k);
+		if (k == 0) {
+			return (IPrimitiveIterator) EmptyVector.emptyVector(getComponentType());
+		}
+		return this.parent.bottomK(this.position, this.length, k);
+	}
+
+	@Override
+	public int[] topKIndices(final int k) {
+		if (k == 0) {
+			return new int[0];
+		}
+		return this.parent.topKIndices(this.position, this.length, k);
+	}
+
+	@Override
+	public int[] bottomKIndices(final int k) {
+		if (k == 0) {
+			return new int[0];
+		}
+		return this.parent.bottomKIndices(this.position, this.length, k);
+	}
+
+	@Override
+	public double quantileDouble(final double r) {
+		return this.parent.quantileDouble(this.position, this.length, r);
+	}
+
+	@Override
+	public float quantileFloat(final double r) {
+		return this.parent.quantileFloat(this.position, this.length, r);
+	}
+
+	@Override
+	public long quantileLong(final double r) {
+		return this.parent.quantileLong(this.position, this.length, r);
+	}
+
+	@Override
+	public int quantileInt(final double r) {
+		return this.parent.quantileInt(this.position, this.length, r);
+	}
+
+	@Override
+	public int quantileIndex(final double r) {
+		return this.parent.quantileIndex(this.position, this.length, r);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.parent.hashCode(this.position, this.length);
+	}
+
+}
@@ -10,8 +10,6 @@ package com.activeviam.vector;
 import com.activeviam.Types;
 import com.activeviam.allocator.AllocationType;
 import com.activeviam.chunk.ADirectVectorBlock;
-import com.activeviam.chunk.IBlock;
-import java.util.Arrays;
 
 /**
  * Basic implementation for a double fixed block vector.
@@ -31,6 +29,18 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 		super(block, position, length);
 	}
 
+	/**
+	 * Constructor.
+	 *
+	 * @param block the block on which the vector is based: where it's components are stored
+	 * @param position the position in the block at which one can find the first component of the vector
+	 * @param length the length of the vector
+	 * @param ownsBlock whether releasing the vector frees the block, {@code false} if the block is shared
+	 */
+	public DoubleFixedBlockVector(ADirectVectorBlock block, int position, int length, boolean ownsBlock) {
+		super(block, position, length, ownsBlock);
+	}
+
 	@Override
 	public AllocationType getAllocation() {
 		return this.block.getAllocation();
@@ -39,7 +49,7 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 	@Override
 	public ITransientVector sort() {
 		final double[] a = toDoubleArray();
-		Arrays.sort(a);
+		RadixSortUtil.sort(a, 0, a.length);
 		return new ArrayDoubleVector(a);
 	}
 
@@ -52,34 +62,13 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 	public void copyFrom(IVector vector) {
 		final int length = vector.size();
 		checkIndex(0, length);
+		VectorCopyUtil.copy(this, vector, length);
+	}
 
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(rghtPos));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(rghtPos + (1 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(rghtPos + (2 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(rghtPos + (3 * (1 << 3))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(rghtPos));
-		}
+	@Override
+	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		this.block.transfer(position, dst);
 	}
 
 	@Override
@@ -124,6 +113,12 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 		}
 	}
 
+	@Override
+	public void writeDouble(final int index, final double value) {
+		checkIndex(index);
+		this.block.writeDouble(this.position + index, value);
+	}
+
 	@Override
 	public void writeInt(final int index, final int value) {
 		writeDouble(index, value);
@@ -150,18 +145,8 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 	}
 
 	@Override
-	public double average() {
-		return sumDouble() / length;
-	}
-
-	@Override
-	protected double squaredEuclideanDistance(final IBlock block, final int position) {
-		double s = 0d;
-		for (int i = 0; i < length; i++) {
-			final double a = block.readDouble(position + i);
-			s += a * a;
-		}
-		return s;
+	protected IVector createSubVector(final int from, final int length) {
+		return new DoubleFixedBlockVector(this.block, this.position + from, length, false);
 	}
 
 	@Override
@@ -169,243 +154,4 @@ public class DoubleFixedBlockVector extends AFixedBlockVector {
 		return new ArrayDoubleVector(toDoubleArray());
 	}
 
-	@Override
-	public void plus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ UNSAFE.getDouble(rghtPos));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							+ UNSAFE.getDouble(rghtPos + (1 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							+ UNSAFE.getDouble(rghtPos + (2 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							+ UNSAFE.getDouble(rghtPos + (3 * (1 << 3))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ UNSAFE.getDouble(rghtPos));
-		}
-	}
-
-	@Override
-	public void plusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ Math.max(0, UNSAFE.getDouble(rghtPos)));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							+ Math.max(0, UNSAFE.getDouble(rghtPos + (1 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							+ Math.max(0, UNSAFE.getDouble(rghtPos + (2 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							+ Math.max(0, UNSAFE.getDouble(rghtPos + (3 * (1 << 3)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ Math.max(0, UNSAFE.getDouble(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void plusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ Math.min(0, UNSAFE.getDouble(rghtPos)));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							+ Math.min(0, UNSAFE.getDouble(rghtPos + (1 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							+ Math.min(0, UNSAFE.getDouble(rghtPos + (2 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							+ Math.min(0, UNSAFE.getDouble(rghtPos + (3 * (1 << 3)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							+ Math.min(0, UNSAFE.getDouble(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void minus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- UNSAFE.getDouble(rghtPos));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							- UNSAFE.getDouble(rghtPos + (1 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							- UNSAFE.getDouble(rghtPos + (2 * (1 << 3))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							- UNSAFE.getDouble(rghtPos + (3 * (1 << 3))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- UNSAFE.getDouble(rghtPos));
-		}
-
-	}
-
-	@Override
-	public void minusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- Math.max(0, UNSAFE.getDouble(rghtPos)));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							- Math.max(0, UNSAFE.getDouble(rghtPos + (1 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							- Math.max(0, UNSAFE.getDouble(rghtPos + (2 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							- Math.max(0, UNSAFE.getDouble(rghtPos + (3 * (1 << 3)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- Math.max(0, UNSAFE.getDouble(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void minusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((DoubleFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 3);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 3);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 3);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 3, 32);
-		for (; rghtPos < maxUnroll; rghtPos += 32, lftPos += 32) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- Math.min(0, UNSAFE.getDouble(rghtPos)));
-			UNSAFE.putDouble(
-					lftPos + (1 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (1 * (1 << 3)))
-							- Math.min(0, UNSAFE.getDouble(rghtPos + (1 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (2 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (2 * (1 << 3)))
-							- Math.min(0, UNSAFE.getDouble(rghtPos + (2 * (1 << 3)))));
-			UNSAFE.putDouble(
-					lftPos + (3 * (1 << 3)),
-					UNSAFE.getDouble(lftPos + (3 * (1 << 3)))
-							- Math.min(0, UNSAFE.getDouble(rghtPos + (3 * (1 << 3)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 3, lftPos += 1 << 3) {
-			UNSAFE.putDouble(
-					lftPos,
-					UNSAFE.getDouble(lftPos)
-							- Math.min(0, UNSAFE.getDouble(rghtPos)));
-		}
-
-	}
-
 }
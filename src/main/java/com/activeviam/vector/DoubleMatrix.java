@@ -0,0 +1,561 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * A dense matrix of doubles, laid out row-major in a single vector.
+ * <p>
+ *   Row {@code r} is stored from {@code r * columns} in the arena, a vector of any layout: on heap,
+ *   direct or segment blocks. Rows are read as zero-copy {@link IVector#subVector(int, int) views}, and
+ *   the products and sums of the matrix are computed by Panama Vector API kernels that read the arena
+ *   directly, without creating any vector per row.
+ * </p>
+ * <p>
+ *   The weighted sum of the rows ({@link #multiplyTransposed(IVector, IVector)}) and the column sums
+ *   cut the result into tiles of {@link VectorAggregationUtil#TILE_SIZE} components: all the rows are
+ *   streamed through a tile while it stays in the cache, instead of reading and writing the whole
+ *   result once per row as successive calls to {@link IVector#scale(double)} and
+ *   {@link IVector#plus(IVector)} would.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class DoubleMatrix implements AutoCloseable {
+
+	/** The number of rows of the matrix. */
+	protected final int rows;
+
+	/** The number of columns of the matrix, the length of each row. */
+	protected final int columns;
+
+	/** The components of the matrix, row after row. */
+	protected final IVector arena;
+
+	/** Whether the matrix allocated its arena, and then releases it when closed. */
+	protected final boolean ownsArena;
+
+	/**
+	 * Constructor of a matrix filled with zeros, owning its arena: closing the matrix releases it.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param allocator the allocator of the arena holding the components
+	 */
+	public DoubleMatrix(final int rows, final int columns, final IChunkAllocator allocator) {
+		this(allocateArena(rows, columns, allocator), rows, columns, true);
+		// Direct memory is not zeroed when allocated
+		this.arena.fillDouble(0d);
+	}
+
+	/**
+	 * Constructor of a view of an existing row-major arena.
+	 * <p>
+	 * The arena remains owned by the caller: closing the matrix does not release it.
+	 *
+	 * @param arena the components of the matrix, row after row, it is kept as is, so any modification done to the
+	 *        arena will be seen by the matrix, and reciprocally
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 */
+	public DoubleMatrix(final IVector arena, final int rows, final int columns) {
+		this(arena, rows, columns, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param arena the components of the matrix, row after row
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param ownsArena whether closing the matrix releases the arena
+	 */
+	private DoubleMatrix(final IVector arena, final int rows, final int columns, final boolean ownsArena) {
+		checkDimensions(rows, columns);
+		if (arena.getComponentType() != Types.DOUBLE || arena.size() < (long) rows * columns) {
+			throw new IllegalArgumentException(
+					"Cannot hold a " + rows + "x" + columns + " matrix of doubles in a vector of "
+							+ arena.getComponentType().name() + " of size " + arena.size());
+		}
+		this.rows = rows;
+		this.columns = columns;
+		this.arena = arena;
+		this.ownsArena = ownsArena;
+	}
+
+	/**
+	 * Allocates the arena of a matrix, once its dimensions are checked.
+	 *
+	 * @param rows the number of rows of the matrix
+	 * @param columns the number of columns of the matrix
+	 * @param allocator the allocator of the arena
+	 * @return the arena
+	 */
+	private static IVector allocateArena(final int rows, final int columns, final IChunkAllocator allocator) {
+		checkDimensions(rows, columns);
+		return allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(Math.multiplyExact(rows, columns));
+	}
+
+	private static void checkDimensions(final int rows, final int columns) {
+		if (rows < 0 || columns <= 0) {
+			throw new IllegalArgumentException("Invalid matrix dimensions " + rows + "x" + columns);
+		}
+	}
+
+	/**
+	 * @return the number of rows of the matrix
+	 */
+	public int rows() {
+		return this.rows;
+	}
+
+	/**
+	 * @return the number of columns of the matrix
+	 */
+	public int columns() {
+		return this.columns;
+	}
+
+	/**
+	 * Reads a row, as a view of the matrix: writing in the returned vector writes in this matrix.
+	 *
+	 * @param row the index of the row
+	 * @return the row
+	 */
+	public IVector row(final int row) {
+		final int from = checkRow(row) * this.columns;
+		return this.arena.subVector(from, from + this.columns);
+	}
+
+	/**
+	 * Reads a component of the matrix.
+	 *
+	 * @param row the index of the row
+	 * @param column the index of the column
+	 * @return the component
+	 */
+	public double read(final int row, final int column) {
+		return this.arena.readDouble(index(row, column));
+	}
+
+	/**
+	 * Writes a component of the matrix.
+	 *
+	 * @param row the index of the row
+	 * @param column the index of the column
+	 * @param value the new component
+	 */
+	public void write(final int row, final int column, final double value) {
+		this.arena.writeDouble(index(row, column), value);
+	}
+
+	/**
+	 * Copies a vector in a row of the matrix.
+	 *
+	 * @param row the index of the row
+	 * @param vector the vector to copy, of the length of the rows
+	 */
+	public void writeRow(final int row, final IVector vector) {
+		checkLength(vector, this.columns);
+		row(row).copyFrom(vector);
+	}
+
+	/**
+	 * Computes the product of this matrix by a vector: {@code result[r] = sum(this[r][c] * x[c])}, the dot
+	 * product of each row with {@code x}.
+	 *
+	 * @param x the vector to multiply, of the length of the rows
+	 * @param result the vector receiving the product, overridden, of one component per row
+	 */
+	public void multiply(final IVector x, final IVector result) {
+		checkLength(x, this.columns);
+		checkLength(result, this.rows);
+		if (overlaps(result, this.arena)) {
+			// The rows must all be read before the result overrides any of them
+			final ArrayDoubleVector product = new ArrayDoubleVector(new double[this.rows]);
+			multiply(x, product);
+			result.copyFrom(product);
+			return;
+		}
+		final double[] v;
+		final int vFrom;
+		if (x.getComponentType() == Types.DOUBLE && VectorCopyUtil.array(x) != null && !overlaps(x, result)) {
+			v = (double[]) VectorCopyUtil.array(x);
+			vFrom = VectorCopyUtil.arrayIndex(x);
+		} else {
+			v = x.toDoubleArray();
+			vFrom = 0;
+		}
+		final boolean doubles = result.getComponentType() == Types.DOUBLE;
+		final double[] target = doubles ? (double[]) VectorCopyUtil.array(result) : null;
+		final MemorySegment targetSegment = doubles && target == null ? VectorArithmeticUtil.segment(result) : null;
+		final int targetFrom = target == null ? 0 : VectorCopyUtil.arrayIndex(result);
+		final long targetOffset = targetSegment == null ? 0L : VectorArithmeticUtil.offset(result, 3);
+		final double[] array = array();
+		final MemorySegment segment = array == null ? VectorArithmeticUtil.segment(this.arena) : null;
+		for (int r = 0; r < this.rows; ++r) {
+			final int from = r * this.columns;
+			final double dot;
+			if (array != null) {
+				dot = dot(array, VectorCopyUtil.arrayIndex(this.arena) + from, v, vFrom, this.columns);
+			} else if (segment != null) {
+				final long offset = VectorArithmeticUtil.offset(this.arena, 3) + ((long) from << 3);
+				dot = dot(segment, offset, v, vFrom, this.columns);
+			} else {
+				double sum = 0d;
+				for (int c = 0; c < this.columns; ++c) {
+					sum = Math.fma(this.arena.readDouble(from + c), v[vFrom + c], sum);
+				}
+				dot = sum;
+			}
+			if (target != null) {
+				target[targetFrom + r] = dot;
+			} else if (targetSegment != null) {
+				targetSegment.set(ValueLayout.JAVA_DOUBLE, targetOffset + ((long) r << 3), dot);
+			} else {
+				result.writeDouble(r, dot);
+			}
+		}
+	}
+
+	/**
+	 * Computes the product of the transpose of this matrix by a vector: {@code result[c] = sum(w[r] * this[r][c])},
+	 * the sum of the rows weighted by {@code w}.
+	 * <p>
+	 * This is equivalent to scaling each row by its weight and adding it to the result, in a single pass over the
+	 * matrix that updates the result one cache-sized tile at a time.
+	 *
+	 * @param w the weights of the rows, one component per row
+	 * @param result the vector receiving the weighted sum, overridden, of the length of the rows
+	 */
+	public void multiplyTransposed(final IVector w, final IVector result) {
+		checkLength(w, this.rows);
+		checkLength(result, this.columns);
+		if (result.getComponentType() != Types.DOUBLE
+				|| (VectorCopyUtil.array(result) == null && VectorArithmeticUtil.segment(result) == null)
+				|| overlaps(result, this.arena)) {
+			// The sum is accumulated in a heap vector, then copied
+			final ArrayDoubleVector sum = new ArrayDoubleVector(new double[this.columns]);
+			multiplyTransposed(w, sum);
+			result.copyFrom(sum);
+			return;
+		}
+		final double[] weights;
+		final int weightsFrom;
+		if (w.getComponentType() == Types.DOUBLE && VectorCopyUtil.array(w) != null && !overlaps(w, result)) {
+			weights = (double[]) VectorCopyUtil.array(w);
+			weightsFrom = VectorCopyUtil.arrayIndex(w);
+		} else {
+			weights = w.toDoubleArray();
+			weightsFrom = 0;
+		}
+		result.fillDouble(0d);
+		sumRows(weights, weightsFrom, result);
+	}
+
+	/**
+	 * Computes the sum of each column of the matrix.
+	 *
+	 * @return the sums, of the length of the rows
+	 */
+	public ITransientVector columnSums() {
+		final ArrayDoubleVector sums = new ArrayDoubleVector(new double[this.columns]);
+		sumRows(null, 0, sums);
+		return sums;
+	}
+
+	/**
+	 * Computes the indices of the {@code k} largest components of each row.
+	 *
+	 * @param k the number of components to keep per row
+	 * @return for each row, the columns of its {@code k} largest components, as returned by
+	 *         {@link IVector#topKIndices(int)}
+	 */
+	public int[][] rowTopKIndices(final int k) {
+		final int[][] indices = new int[this.rows][];
+		for (int r = 0; r < this.rows; ++r) {
+			indices[r] = row(r).topKIndices(k);
+		}
+		return indices;
+	}
+
+	/**
+	 * Computes the indices of the {@code k} smallest components of each row.
+	 *
+	 * @param k the number of components to keep per row
+	 * @return for each row, the columns of its {@code k} smallest components, as returned by
+	 *         {@link IVector#bottomKIndices(int)}
+	 */
+	public int[][] rowBottomKIndices(final int k) {
+		final int[][] indices = new int[this.rows][];
+		for (int r = 0; r < this.rows; ++r) {
+			indices[r] = row(r).bottomKIndices(k);
+		}
+		return indices;
+	}
+
+	/**
+	 * Releases the arena of the matrix, if the matrix allocated it: a direct block is freed, and an arena
+	 * allocated by a pool is handed back to it.
+	 * <p>
+	 * Closing a view of an arena owned by someone else does nothing.
+	 */
+	@Override
+	public void close() {
+		if (this.ownsArena && this.arena instanceof ITransientVector) {
+			((ITransientVector) this.arena).release();
+		}
+	}
+
+	/**
+	 * Adds the rows of the matrix to a vector, one tile of columns at a time.
+	 *
+	 * @param weights the weights of the rows, or {@code null} to sum them as is
+	 * @param weightsFrom the index of the weight of the first row in {@code weights}
+	 * @param sum the vector of doubles receiving the sum, on heap or in a segment, which must not
+	 *        overlap the matrix
+	 */
+	protected void sumRows(final double[] weights, final int weightsFrom, final IVector sum) {
+		final double[] target = (double[]) VectorCopyUtil.array(sum);
+		final MemorySegment targetSegment = target == null ? VectorArithmeticUtil.segment(sum) : null;
+		final double[] array = array();
+		final MemorySegment segment = array == null ? VectorArithmeticUtil.segment(this.arena) : null;
+		for (int from = 0; from < this.columns; from += VectorAggregationUtil.TILE_SIZE) {
+			final int length = Math.min(VectorAggregationUtil.TILE_SIZE, this.columns - from);
+			final int targetFrom = target == null ? 0 : VectorCopyUtil.arrayIndex(sum) + from;
+			final long targetOffset = target == null ? VectorArithmeticUtil.offset(sum, 3) + ((long) from << 3) : 0L;
+			for (int r = 0; r < this.rows; ++r) {
+				// fma(1, v, s) rounds like v + s
+				final double weight = weights == null ? 1d : weights[weightsFrom + r];
+				final int start = r * this.columns + from;
+				if (array != null) {
+					final int index = VectorCopyUtil.arrayIndex(this.arena) + start;
+					if (target != null) {
+						fma(target, targetFrom, weight, array, index, length);
+					} else {
+						fma(targetSegment, targetOffset, weight, array, index, length);
+					}
+				} else if (segment != null) {
+					final long offset = VectorArithmeticUtil.offset(this.arena, 3) + ((long) start << 3);
+					if (target != null) {
+						fma(target, targetFrom, weight, segment, offset, length);
+					} else {
+						fma(targetSegment, targetOffset, weight, segment, offset, length);
+					}
+				} else {
+					for (int c = 0; c < length; ++c) {
+						sum.writeDouble(
+								from + c,
+								Math.fma(weight, this.arena.readDouble(start + c), sum.readDouble(from + c)));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the array holding the arena, or {@code null} if it is not on heap
+	 */
+	private double[] array() {
+		return (double[]) VectorCopyUtil.array(this.arena);
+	}
+
+	private int index(final int row, final int column) {
+		if (column < 0 || column >= this.columns) {
+			throw new IndexOutOfBoundsException(
+					"Cannot access column " + column + " in a matrix of " + this.columns + " columns");
+		}
+		return checkRow(row) * this.columns + column;
+	}
+
+	private int checkRow(final int row) {
+		if (row < 0 || row >= this.rows) {
+			throw new IndexOutOfBoundsException("Cannot access row " + row + " in a matrix of " + this.rows + " rows");
+		}
+		return row;
+	}
+
+	/**
+	 * @return whether two vectors may share components, so that writing one may change the other
+	 */
+	private static boolean overlaps(final IVector a, final IVector b) {
+		if (a == b) {
+			return true;
+		}
+		final Object array = VectorCopyUtil.array(a);
+		if (array != null) {
+			return array == VectorCopyUtil.array(b);
+		}
+		final MemorySegment segment = VectorArithmeticUtil.segment(a);
+		return segment != null && segment == VectorArithmeticUtil.segment(b);
+	}
+
+	private static void checkLength(final IVector vector, final int length) {
+		if (vector.size() != length) {
+			throw new IllegalArgumentException("Expected a vector of size " + length + ", got " + vector.size());
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	/** Heap kernel of {@code target[i] += weight * source[i]}. */
+	private static void fma(
+			final double[] target,
+			final int targetFrom,
+			final double weight,
+			final double[] source,
+			final int sourceFrom,
+			final int length) {
+		final DoubleVector w = DoubleVector.broadcast(DOUBLE_SPECIES, weight);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			w.fma(DoubleVector.fromArray(DOUBLE_SPECIES, source, sourceFrom + i),
+							DoubleVector.fromArray(DOUBLE_SPECIES, target, targetFrom + i))
+					.intoArray(target, targetFrom + i);
+		}
+		for (; i < length; ++i) {
+			target[targetFrom + i] = Math.fma(weight, source[sourceFrom + i], target[targetFrom + i]);
+		}
+	}
+
+	/** Segment kernel of {@code target[i] += weight * source[i]}. */
+	private static void fma(
+			final double[] target,
+			final int targetFrom,
+			final double weight,
+			final MemorySegment source,
+			final long sourceOffset,
+			final int length) {
+		final DoubleVector w = DoubleVector.broadcast(DOUBLE_SPECIES, weight);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			w.fma(DoubleVector.fromMemorySegment(
+									DOUBLE_SPECIES, source, sourceOffset + ((long) i << 3), ByteOrder.nativeOrder()),
+							DoubleVector.fromArray(DOUBLE_SPECIES, target, targetFrom + i))
+					.intoArray(target, targetFrom + i);
+		}
+		for (; i < length; ++i) {
+			target[targetFrom + i] = Math.fma(
+					weight,
+					source.get(ValueLayout.JAVA_DOUBLE, sourceOffset + ((long) i << 3)),
+					target[targetFrom + i]);
+		}
+	}
+
+	/** Segment / heap kernel of {@code target[i] += weight * source[i]}. */
+	private static void fma(
+			final MemorySegment target,
+			final long targetOffset,
+			final double weight,
+			final double[] source,
+			final int sourceFrom,
+			final int length) {
+		final DoubleVector w = DoubleVector.broadcast(DOUBLE_SPECIES, weight);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long t = targetOffset + ((long) i << 3);
+			w.fma(DoubleVector.fromArray(DOUBLE_SPECIES, source, sourceFrom + i),
+							DoubleVector.fromMemorySegment(DOUBLE_SPECIES, target, t, ByteOrder.nativeOrder()))
+					.intoMemorySegment(target, t, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long t = targetOffset + ((long) i << 3);
+			target.set(
+					ValueLayout.JAVA_DOUBLE,
+					t,
+					Math.fma(weight, source[sourceFrom + i], target.get(ValueLayout.JAVA_DOUBLE, t)));
+		}
+	}
+
+	/** Segment / segment kernel of {@code target[i] += weight * source[i]}. */
+	private static void fma(
+			final MemorySegment target,
+			final long targetOffset,
+			final double weight,
+			final MemorySegment source,
+			final long sourceOffset,
+			final int length) {
+		final DoubleVector w = DoubleVector.broadcast(DOUBLE_SPECIES, weight);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long t = targetOffset + ((long) i << 3);
+			w.fma(DoubleVector.fromMemorySegment(
+									DOUBLE_SPECIES, source, sourceOffset + ((long) i << 3), ByteOrder.nativeOrder()),
+							DoubleVector.fromMemorySegment(DOUBLE_SPECIES, target, t, ByteOrder.nativeOrder()))
+					.intoMemorySegment(target, t, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long t = targetOffset + ((long) i << 3);
+			target.set(
+					ValueLayout.JAVA_DOUBLE,
+					t,
+					Math.fma(
+							weight,
+							source.get(ValueLayout.JAVA_DOUBLE, sourceOffset + ((long) i << 3)),
+							target.get(ValueLayout.JAVA_DOUBLE, t)));
+		}
+	}
+
+	/** Heap kernel of the dot product of a range of the arena with a vector. */
+	private static double dot(
+			final double[] row,
+			final int from,
+			final double[] x,
+			final int xFrom,
+			final int length) {
+		DoubleVector acc = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			acc = DoubleVector.fromArray(DOUBLE_SPECIES, row, from + i)
+					.fma(DoubleVector.fromArray(DOUBLE_SPECIES, x, xFrom + i), acc);
+		}
+		double dot = acc.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			dot = Math.fma(row[from + i], x[xFrom + i], dot);
+		}
+		return dot;
+	}
+
+	/** Segment kernel of the dot product of a range of the arena with a vector. */
+	private static double dot(
+			final MemorySegment row,
+			final long offset,
+			final double[] x,
+			final int xFrom,
+			final int length) {
+		DoubleVector acc = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			acc = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, row, offset + ((long) i << 3), ByteOrder.nativeOrder())
+					.fma(DoubleVector.fromArray(DOUBLE_SPECIES, x, xFrom + i), acc);
+		}
+		double dot = acc.reduceLanes(VectorOperators.ADD);
+		for (; i < length; ++i) {
+			dot = Math.fma(row.get(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3)), x[xFrom + i], dot);
+		}
+		return dot;
+	}
+
+}
@@ -29,6 +29,7 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		// Init the map with usual types
 		emptyVector(Types.DOUBLE);
 		emptyVector(Types.INTEGER);
+		emptyVector(Types.FLOAT);
 	}
 
 	/** The underlying component type of this vector. */
@@ -68,6 +69,15 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		return this;
 	}
 
+	@Override
+	public IVector subVector(final int from, final int to) {
+		if (from != 0 || to != 0) {
+			throw new IndexOutOfBoundsException(
+					"Cannot access between index " + from + " and " + to + " in a vector of size 0");
+		}
+		return this;
+	}
+
 	@Override
 	public int size() {
 		return 0;
@@ -75,7 +85,14 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 
 	@Override
 	public int hashCode() {
-		return 1;
+		return VectorHashUtil.hashCode(contentHash());
+	}
+
+	@Override
+	public long contentHash() {
+		return componentTypes == Types.INTEGER
+				? VectorHashUtil.hashInts(new int[0], 0, 0)
+				: VectorHashUtil.hashDoubles(new double[0], 0, 0);
 	}
 
 	@Override
@@ -111,6 +128,13 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		}
 	}
 
+	@Override
+	public void plusAll(final IVector[] vectors) {
+		for (final IVector vector : vectors) {
+			plus(vector);
+		}
+	}
+
 	@Override
 	public void minus(final IVector vector) {
 		if (vector.size() > 0) {
@@ -132,6 +156,66 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		}
 	}
 
+	@Override
+	public void plusWhere(
+			final IVector vector,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold) {
+		if (vector.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+	}
+
+	@Override
+	public void minusWhere(
+			final IVector vector,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold) {
+		if (vector.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+	}
+
+	@Override
+	public void select(
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold,
+			final IVector ifTrue,
+			final IVector ifFalse) {
+		if (condition.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+	}
+
+	@Override
+	public void max(final IVector vector) {
+		if (vector.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+	}
+
+	@Override
+	public void min(final IVector vector) {
+		if (vector.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+	}
+
+	@Override
+	public void clamp(final double lower, final double upper) {
+		if (!(lower <= upper)) {
+			throw new IllegalArgumentException("The lower bound " + lower + " is above the upper bound " + upper);
+		}
+	}
+
+	@Override
+	public VectorExpression expression() {
+		return new VectorExpression(this);
+	}
+
 	@Override
 	public IPrimitiveIterator topK(final int k) {
 		if (k > 0) {
@@ -157,6 +241,23 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		return new int[0];
 	}
 
+	@Override
+	public ITransientVector argsort() {
+		return emptyVector(Types.INTEGER);
+	}
+
+	@Override
+	public ITransientVector rank() {
+		return emptyVector(Types.INTEGER);
+	}
+
+	@Override
+	public void gather(final IVector source, final IVector indices) {
+		if (indices.size() > 0) {
+			throw new IndexOutOfBoundsException("Tried to write the content of an empty vector.");
+		}
+	}
+
 	@Override
 	public int[] bottomKIndices(final int k) {
 		if (k > 0) {
@@ -493,6 +594,21 @@ public class EmptyVector implements ITransientVector, Cloneable, IPrimitiveItera
 		throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
 	}
 
+	@Override
+	public double[] quantiles(final double[] r) {
+		throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+	}
+
+	@Override
+	public double[] quantilesInPlace(final double[] r) {
+		throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+	}
+
+	@Override
+	public void addToQuantileSketch(final QuantileSketch sketch) {
+		// Nothing to add
+	}
+
 	@Override
 	public int quantileIndex(final double r) {
 		throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
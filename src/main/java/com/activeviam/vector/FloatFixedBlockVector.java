@@ -0,0 +1,157 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.AllocationType;
+import com.activeviam.chunk.ADirectVectorBlock;
+import java.util.Arrays;
+
+/**
+ * Basic implementation for a float fixed block vector.
+ *
+ * @author ActiveViam
+ */
+public class FloatFixedBlockVector extends AFixedBlockVector {
+
+	/**
+	 * Constructor.
+	 *
+	 * @param block the block on which to create the vector
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 */
+	public FloatFixedBlockVector(ADirectVectorBlock block, int position, int length) {
+		super(block, position, length);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param block the block on which the vector is based: where it's components are stored
+	 * @param position the position in the block at which one can find the first component of the vector
+	 * @param length the length of the vector
+	 * @param ownsBlock whether releasing the vector frees the block, {@code false} if the block is shared
+	 */
+	public FloatFixedBlockVector(ADirectVectorBlock block, int position, int length, boolean ownsBlock) {
+		super(block, position, length, ownsBlock);
+	}
+
+	@Override
+	public AllocationType getAllocation() {
+		return this.block.getAllocation();
+	}
+
+	@Override
+	public ITransientVector sort() {
+		final float[] a = toFloatArray();
+		Arrays.sort(a);
+		return new ArrayFloatVector(a);
+	}
+
+	@Override
+	public Types getComponentType() {
+		return Types.FLOAT;
+	}
+
+	@Override
+	public void copyFrom(IVector vector) {
+		final int length = vector.size();
+		checkIndex(0, length);
+		VectorCopyUtil.copy(this, vector, length);
+	}
+
+	@Override
+	public void copyTo(final float[] dst) {
+		checkIndex(0, dst.length);
+		this.block.transfer(position, dst);
+	}
+
+	@Override
+	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		this.block.transfer(position, dst);
+	}
+
+	@Override
+	public void copyFrom(float[] src) {
+		checkIndex(0, src.length);
+		this.block.write(position, src);
+	}
+
+	@Override
+	public void copyFrom(double[] src) {
+		checkIndex(0, src.length);
+		this.block.write(position, src);
+	}
+
+	@Override
+	public Float read(final int index) {
+		return readFloat(index);
+	}
+
+	@Override
+	public float readFloat(final int index) {
+		checkIndex(index);
+		return this.block.readFloat(this.position + index);
+	}
+
+	@Override
+	public double readDouble(final int index) {
+		return readFloat(index);
+	}
+
+	@Override
+	public void write(final int index, final Object value) {
+		if (value instanceof Number) {
+			writeFloat(index, ((Number) value).floatValue());
+		}
+	}
+
+	@Override
+	public void writeFloat(final int index, final float value) {
+		checkIndex(index);
+		this.block.writeFloat(this.position + index, value);
+	}
+
+	@Override
+	public void writeDouble(final int index, final double value) {
+		writeFloat(index, (float) value);
+	}
+
+	@Override
+	public void writeInt(final int index, final int value) {
+		writeFloat(index, value);
+	}
+
+	@Override
+	public void addFloat(final int position, final float addedValue) {
+		writeFloat(position, readFloat(position) + addedValue);
+	}
+
+	@Override
+	public void addDouble(final int position, final double addedValue) {
+		writeFloat(position, (float) (readFloat(position) + addedValue));
+	}
+
+	@Override
+	public float sumFloat() {
+		return (float) sumDouble();
+	}
+
+	@Override
+	protected IVector createSubVector(final int from, final int length) {
+		return new FloatFixedBlockVector(this.block, this.position + from, length, false);
+	}
+
+	@Override
+	public IVector cloneOnHeap() {
+		return new ArrayFloatVector(toFloatArray());
+	}
+
+}
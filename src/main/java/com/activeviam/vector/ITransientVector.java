@@ -8,8 +8,8 @@
 package com.activeviam.vector;
 
 /**
- * A special interface for transient vectors. Those vectors are stored on-heap, and are typically not held by long
- * living data structures like columns.
+ * A special interface for transient vectors. Those vectors are stored on-heap or in blocks they do not share with
+ * long living data structures like columns.
  * <p>
  * They can be safely sorted in place.
  *
@@ -29,4 +29,22 @@ public interface ITransientVector extends IVector {
 	 */
 	void reverse();
 
+	/**
+	 * Computes several quantiles like {@link IVector#quantiles(double[])}, reordering the content of this
+	 * vector instead of copying it.
+	 *
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	double[] quantilesInPlace(double[] r);
+
+	/**
+	 * Hands the underlying array of this vector back to the pooling allocator that created it, if any. This vector
+	 * must not be used anymore once released.
+	 *
+	 * @see IVectorAllocator#releaseVector(IVector)
+	 */
+	default void release() {
+	}
+
 }
@@ -33,6 +33,39 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 */
 	ITransientVector sort();
 
+	/**
+	 * Computes the permutation sorting this vector in ascending order: the component {@code i} of the returned
+	 * vector is the index, in this vector, of its {@code i}-th smallest component.
+	 * <p>
+	 * The sort is stable, equal components are ordered by index. The permutation can be applied to this vector
+	 * and to any vector aligned with it with {@link #gather(IVector, IVector)}.
+	 *
+	 * @return a transient integer vector holding the permutation
+	 */
+	ITransientVector argsort();
+
+	/**
+	 * Computes the rank of each component of this vector: the component {@code i} of the returned vector is the
+	 * 0-based position of the component {@code i} of this vector once sorted in ascending order.
+	 * <p>
+	 * Equal components get distinct ranks, in the order of their indices. This is the inverse permutation of
+	 * {@link #argsort()}.
+	 *
+	 * @return a transient integer vector holding the ranks
+	 */
+	ITransientVector rank();
+
+	/**
+	 * Writes into this vector the components of a vector at the given indices: {@code this[i] =
+	 * source[indices[i]]} for each component of {@code indices}, overriding the existing data.
+	 * <p>
+	 * Combined with {@link #argsort()}, this reorders several aligned vectors by the order of one of them.
+	 *
+	 * @param source the vector to read from, which must not be this vector
+	 * @param indices the integer vector of the indices to read in {@code source}
+	 */
+	void gather(IVector source, IVector indices);
+
 	/**
 	 * Returns an {@link IPrimitiveIterator iterator} of a collection composed of the k biggest elements of the
 	 * vector. The iterator iterates over the k biggest elements from the smallest element to the biggest element.
@@ -247,6 +280,19 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 */
 	IVector cloneOnHeap();
 
+	/**
+	 * Returns a view of a range of this vector, sharing its components: no component is copied, and the writes
+	 * through either vector are seen by the other one.
+	 * <p>
+	 * The view must not outlive the underlying data of this vector.
+	 *
+	 * @param from the index of the first component of the view, inclusive
+	 * @param to the index of the end of the view, exclusive
+	 * @return the view of the components between {@code from} and {@code to}
+	 * @throws IndexOutOfBoundsException if the range is not within this vector
+	 */
+	IVector subVector(int from, int to);
+
 	/**
 	 * Adds the content of the given vector to this vector, overriding the existing data. This is equivalent to the
 	 * standard primitive operation {@code +=}, this function effectively doing {@code this += vector}.
@@ -300,6 +346,21 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 */
 	void plusNegativeValues(IVector vector);
 
+	/**
+	 * Adds the content of all the given vectors to this vector, overriding the existing data. This is equivalent to
+	 * calling {@link #plus(IVector)} with each of them, but this vector is updated one cache-sized tile at a time,
+	 * each tile receiving all the given vectors before moving to the next one. Large sums are split between
+	 * several threads.
+	 * <p>
+	 * Each given vector smaller than the destination vector ({@code this}) is added at all indexes up to its size.
+	 * <p>
+	 * It is illegal to pass a vector that is larger than the destination vector ({@code this}).
+	 *
+	 * @param vectors the vectors to add to this instance
+	 * @see VectorAggregationUtil
+	 */
+	void plusAll(IVector[] vectors);
+
 	/**
 	 * Subtracts the content of the given vector to this vector, overriding the existing data. This is equivalent
 	 * to the standard primitive operation {@code -=}, this function effectively doing {@code this -= vector}.
@@ -353,6 +414,129 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 */
 	void minusNegativeValues(IVector vector);
 
+	/**
+	 * Adds the components of the given vector to this vector where a condition holds, overriding the existing data.
+	 * <p>
+	 * This is the vector equivalent to doing:
+	 *
+	 * <pre>
+	 * for (int i = 0; i &lt; vector.size(); ++i) {
+	 * 	if (comparison.test(condition[i], threshold)) {
+	 * 		to[i] += vector[i];
+	 * 	}
+	 * }
+	 * </pre>
+	 * <p>
+	 * The condition may be any of the vectors taking part in the operation, for instance
+	 * {@code v.plusWhere(pnl, pnl, VectorComparison.LE, var)} sums the losses beyond a value at risk.
+	 * <p>
+	 * It is illegal to pass a vector that is larger than the destination vector ({@code this}), or a condition that
+	 * is smaller than the given vector.
+	 *
+	 * @param vector the vector to add to this instance
+	 * @param condition the vector whose components are compared with the threshold
+	 * @param comparison the comparison selecting the updated components
+	 * @param threshold the threshold
+	 */
+	void plusWhere(IVector vector, IVector condition, VectorComparison comparison, double threshold);
+
+	/**
+	 * Subtracts the components of the given vector to this vector where a condition holds, overriding the existing
+	 * data.
+	 * <p>
+	 * This is the vector equivalent to doing:
+	 *
+	 * <pre>
+	 * for (int i = 0; i &lt; vector.size(); ++i) {
+	 * 	if (comparison.test(condition[i], threshold)) {
+	 * 		to[i] -= vector[i];
+	 * 	}
+	 * }
+	 * </pre>
+	 * <p>
+	 * It is illegal to pass a vector that is larger than the destination vector ({@code this}), or a condition that
+	 * is smaller than the given vector.
+	 *
+	 * @param vector the vector to subtract to this instance
+	 * @param condition the vector whose components are compared with the threshold
+	 * @param comparison the comparison selecting the updated components
+	 * @param threshold the threshold
+	 */
+	void minusWhere(IVector vector, IVector condition, VectorComparison comparison, double threshold);
+
+	/**
+	 * Overrides the components of this vector with the components of one of two vectors, chosen by a condition.
+	 * <p>
+	 * This is the vector equivalent to doing:
+	 *
+	 * <pre>
+	 * for (int i = 0; i &lt; condition.size(); ++i) {
+	 * 	to[i] = comparison.test(condition[i], threshold) ? ifTrue[i] : ifFalse[i];
+	 * }
+	 * </pre>
+	 * <p>
+	 * It is illegal to pass a condition that is larger than the destination vector ({@code this}), or operands that
+	 * are smaller than the condition.
+	 *
+	 * @param condition the vector whose components are compared with the threshold
+	 * @param comparison the comparison choosing between the two operands
+	 * @param threshold the threshold
+	 * @param ifTrue the vector read where the comparison holds
+	 * @param ifFalse the vector read where the comparison does not hold
+	 */
+	void select(IVector condition, VectorComparison comparison, double threshold, IVector ifTrue, IVector ifFalse);
+
+	/**
+	 * Keeps the largest of the components of this vector and of the given vector, overriding the existing data:
+	 * {@code to[i] = Math.max(to[i], vector[i])}.
+	 * <p>
+	 * If the given vector is smaller than the destination vector ({@code this}), the operator will be applied at all
+	 * indexes up to {@code vector.size()}.
+	 * <p>
+	 * It is illegal to pass a vector that is larger than the destination vector ({@code this}).
+	 *
+	 * @param vector the floor of this instance
+	 */
+	void max(IVector vector);
+
+	/**
+	 * Keeps the smallest of the components of this vector and of the given vector, overriding the existing data:
+	 * {@code to[i] = Math.min(to[i], vector[i])}.
+	 * <p>
+	 * If the given vector is smaller than the destination vector ({@code this}), the operator will be applied at all
+	 * indexes up to {@code vector.size()}.
+	 * <p>
+	 * It is illegal to pass a vector that is larger than the destination vector ({@code this}).
+	 *
+	 * @param vector the cap of this instance
+	 */
+	void min(IVector vector);
+
+	/**
+	 * Bounds all the components of this vector: {@code to[i] = Math.min(Math.max(to[i], lower), upper)}.
+	 * <p>
+	 * The result is converted to the component type of this vector.
+	 *
+	 * @param lower the lower bound, the floor of the components
+	 * @param upper the upper bound, the cap of the components
+	 * @throws IllegalArgumentException if the lower bound is above the upper bound
+	 */
+	void clamp(double lower, double upper);
+
+	/**
+	 * Starts a lazy chain of element-wise operations on this vector, evaluated in a single pass into a
+	 * destination vector. For instance:
+	 *
+	 * <pre>
+	 * vector.expression().scale(factor).translate(value).addTo(accumulator);
+	 * </pre>
+	 * <p>
+	 * adds {@code vector[i] * factor + value} to {@code accumulator[i]} without modifying {@code vector}.
+	 *
+	 * @return an expression whose source is this vector
+	 */
+	VectorExpression expression();
+
 	/**
 	 * Fills the vector with the given value.
 	 *
@@ -460,7 +644,7 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 * <p>
 	 * Implementation of equals corresponds to the vector equivalent of java.util.Arrays.equals(...[], ...[]),
 	 * where ... is the component type of the {@link IVector vectors}. Two {@link IVector vectors} that do not have
-	 * the same component type are never equals.
+	 * the same component type are never equals. Vectors of different layouts with the same components are equal.
 	 */
 	@Override
 	boolean equals(Object obj);
@@ -468,12 +652,22 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * Implementation of hashCode corresponds to the vector equivalent of java.util.Arrays.hashCode(...[]), where
-	 * ... is the component type of the {@link IVector vectors}.
+	 * Implementation of hashCode is the 32-bit folding of {@link #contentHash()}, so that it only depends on the
+	 * component type and the components of the vector, whatever its layout.
 	 */
 	@Override
 	int hashCode();
 
+	/**
+	 * Computes a well mixed 64-bit hash of the components of this vector, suitable to key vectors by content.
+	 * <p>
+	 * Vectors that are {@link #equals(Object) equal} have the same content hash.
+	 *
+	 * @return the 64-bit content hash
+	 * @see VectorHashUtil
+	 */
+	long contentHash();
+
 	/**
 	 * Computes the mean of a vector, i.e. the arithmetic average of its components.
 	 *
@@ -591,6 +785,27 @@ public interface IVector extends IArrayReader, IArrayWriter {
 	 */
 	int quantileInt(double r);
 
+	/**
+	 * Computes several quantiles using the Nearest Rank definition of quantile with rounding, as
+	 * {@link #quantileDouble(double)} does for each of them.
+	 * <p>
+	 * The content of the vector is copied once and the quantiles are selected together, which is faster than
+	 * calling {@link #quantileDouble(double)} for each order.
+	 *
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	double[] quantiles(double[] r);
+
+	/**
+	 * Adds the components of this vector to a quantile sketch, to compute approximate quantiles over many vectors in
+	 * bounded memory.
+	 *
+	 * @param sketch the sketch receiving the components
+	 * @see QuantileSketch#quantile(double)
+	 */
+	void addToQuantileSketch(QuantileSketch sketch);
+
 	/**
 	 * Returns the index of the quantile of order {@code r}.
 	 *
@@ -52,6 +52,18 @@ public interface IVectorAllocator {
 	 */
 	Types getComponentType();
 
+	/**
+	 * Hands a vector allocated by this allocator back, so that its underlying data can be reused by the next
+	 * allocations. The vector must not be used anymore once released.
+	 * <p>
+	 * Allocators that do not recycle their vectors ignore this call, and so do pooling allocators for vectors
+	 * they did not allocate.
+	 *
+	 * @param vector the vector to release
+	 */
+	default void releaseVector(final IVector vector) {
+	}
+
 	/**
 	 * Releases this vector allocator, removing all references to whatever resources it holds.
 	 */
@@ -10,8 +10,6 @@ package com.activeviam.vector;
 import com.activeviam.Types;
 import com.activeviam.allocator.AllocationType;
 import com.activeviam.chunk.ADirectVectorBlock;
-import com.activeviam.chunk.IBlock;
-import java.util.Arrays;
 
 /**
  * Basic implementation for an integer fixed block vector.
@@ -31,6 +29,18 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 		super(block, position, length);
 	}
 
+	/**
+	 * Constructor.
+	 *
+	 * @param block the block on which to create the vector
+	 * @param position the position in the block
+	 * @param length the length of the vector
+	 * @param ownsBlock whether releasing the vector frees the block, {@code false} if the block is shared
+	 */
+	public IntegerFixedBlockVector(ADirectVectorBlock block, int position, int length, boolean ownsBlock) {
+		super(block, position, length, ownsBlock);
+	}
+
 	@Override
 	public AllocationType getAllocation() {
 		return this.block.getAllocation();
@@ -39,7 +49,7 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 	@Override
 	public ITransientVector sort() {
 		final int[] a = toIntArray();
-		Arrays.sort(a);
+		RadixSortUtil.sort(a, 0, a.length);
 		return new ArrayIntegerVector(a);
 	}
 
@@ -58,40 +68,7 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 	public void copyFrom(IVector vector) {
 		final int length = vector.size();
 		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.min(0, UNSAFE.getInt(rghtPos)));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (1 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (2 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (3 * (1 << 2)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.min(0, UNSAFE.getInt(rghtPos)));
-		}
-
+		VectorCopyUtil.copy(this, vector, length);
 	}
 	
 	@Override
@@ -100,6 +77,12 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 		this.block.transfer(position, dst);
 	}
 
+	@Override
+	public void copyTo(final double[] dst) {
+		checkIndex(0, dst.length);
+		VectorCopyUtil.widen(dst, 0, this.block.getSegment(), (long) this.position << 2, dst.length);
+	}
+
 	@Override
 	public Integer read(final int index) {
 		return readInt(index);
@@ -145,18 +128,8 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 	}
 
 	@Override
-	public double average() {
-		return (double) sumInt() / this.length;
-	}
-
-	@Override
-	protected double squaredEuclideanDistance(final IBlock block, final int position) {
-		int s = 0;
-		for (int i = 0; i < this.length; i++) {
-			final int a = block.readInt(position + i);
-			s += a * a;
-		}
-		return s;
+	protected IVector createSubVector(final int from, final int length) {
+		return new IntegerFixedBlockVector(this.block, this.position + from, length, false);
 	}
 
 	@Override
@@ -164,243 +137,4 @@ public class IntegerFixedBlockVector extends AFixedBlockVector {
 		return new ArrayIntegerVector(toIntArray());
 	}
 
-	@Override
-	public void plus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ UNSAFE.getInt(rghtPos));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							+ UNSAFE.getInt(rghtPos + (1 * (1 << 2))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							+ UNSAFE.getInt(rghtPos + (2 * (1 << 2))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							+ UNSAFE.getInt(rghtPos + (3 * (1 << 2))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ UNSAFE.getInt(rghtPos));
-		}
-
-	}
-
-	@Override
-	public void plusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ Math.max(0, UNSAFE.getInt(rghtPos)));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							+ Math.max(0, UNSAFE.getInt(rghtPos + (1 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							+ Math.max(0, UNSAFE.getInt(rghtPos + (2 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							+ Math.max(0, UNSAFE.getInt(rghtPos + (3 * (1 << 2)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ Math.max(0, UNSAFE.getInt(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void plusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ Math.min(0, UNSAFE.getInt(rghtPos)));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							+ Math.min(0, UNSAFE.getInt(rghtPos + (1 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							+ Math.min(0, UNSAFE.getInt(rghtPos + (2 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							+ Math.min(0, UNSAFE.getInt(rghtPos + (3 * (1 << 2)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							+ Math.min(0, UNSAFE.getInt(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void minus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- UNSAFE.getInt(rghtPos));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							- UNSAFE.getInt(rghtPos + (1 * (1 << 2))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							- UNSAFE.getInt(rghtPos + (2 * (1 << 2))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							- UNSAFE.getInt(rghtPos + (3 * (1 << 2))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- UNSAFE.getInt(rghtPos));
-		}
-
-	}
-
-	@Override
-	public void minusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.max(0, UNSAFE.getInt(rghtPos)));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							- Math.max(0, UNSAFE.getInt(rghtPos + (1 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							- Math.max(0, UNSAFE.getInt(rghtPos + (2 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							- Math.max(0, UNSAFE.getInt(rghtPos + (3 * (1 << 2)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.max(0, UNSAFE.getInt(rghtPos)));
-		}
-
-	}
-
-	@Override
-	public void minusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-
-		final IBlock rightBlock = ((IntegerFixedBlockVector) vector).block;
-		final int rghtLen = vector.size();
-		final IBlock leftBlock = this.block;
-		long rghtPos = getPos((ADirectVectorBlock) rightBlock, 2);
-		long lftPos = getPos((ADirectVectorBlock) leftBlock, 2);
-		final long maxPos = getMaxPos(rghtPos, rghtLen, 2);
-		final long maxUnroll = getMaxUnroll(rghtPos, rghtLen, 2, 16);
-		for (; rghtPos < maxUnroll; rghtPos += 16, lftPos += 16) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.min(0, UNSAFE.getInt(rghtPos)));
-			UNSAFE.putInt(
-					lftPos + (1 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (1 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (1 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (2 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (2 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (2 * (1 << 2)))));
-			UNSAFE.putInt(
-					lftPos + (3 * (1 << 2)),
-					UNSAFE.getInt(lftPos + (3 * (1 << 2)))
-							- Math.min(0, UNSAFE.getInt(rghtPos + (3 * (1 << 2)))));
-		}
-
-		for (; rghtPos < maxPos; rghtPos += 1 << 2, lftPos += 1 << 2) {
-			UNSAFE.putInt(
-					lftPos,
-					UNSAFE.getInt(lftPos)
-							- Math.min(0, UNSAFE.getInt(rghtPos)));
-		}
-
-	}
-
 }
@@ -0,0 +1,230 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+
+/**
+ * Utility computing the permutations sorting {@link IVector vectors}, and applying them.
+ * <p>
+ *   The permutations are computed by the index-carrying radix sorts of {@link RadixSortUtil}, on
+ *   a copy of the vector. They are applied with the gathers of the Panama Vector API when the read
+ *   vector is on heap, the gathered lanes being stored in the heap array or the segment of the
+ *   written vector.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class PermutationUtil {
+
+	private PermutationUtil() {}
+
+	/**
+	 * Computes the permutation sorting a vector.
+	 *
+	 * @param vector the vector, of doubles or ints
+	 * @return the indices of the components of the vector, in ascending order of the components
+	 * @see IVector#argsort()
+	 */
+	public static int[] argsort(final IVector vector) {
+		switch (vector.getComponentType()) {
+			case DOUBLE:
+				return RadixSortUtil.argsort(vector.toDoubleArray());
+			case INTEGER:
+				return RadixSortUtil.argsort(vector.toIntArray());
+			case FLOAT:
+				// Floats widen exactly to doubles, and keep their order
+				return RadixSortUtil.argsort(vector.toDoubleArray());
+			default:
+				throw new UnsupportedOperationException(
+						"This method is not implemented for the vector " + vector.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Computes the ranks of the components of a vector.
+	 *
+	 * @param vector the vector, of doubles or ints
+	 * @return the rank of each component of the vector
+	 * @see IVector#rank()
+	 */
+	public static int[] rank(final IVector vector) {
+		final int[] permutation = argsort(vector);
+		final int[] ranks = new int[permutation.length];
+		for (int i = 0; i < permutation.length; ++i) {
+			ranks[permutation[i]] = i;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Computes {@code destination[i] = source[indices[i]]} for each component of {@code indices}.
+	 *
+	 * @param destination the vector receiving the components, at least as long as {@code indices}
+	 * @param source the vector to read from
+	 * @param indices the integer vector of the indices to read in {@code source}
+	 * @see IVector#gather(IVector, IVector)
+	 */
+	public static void gather(final IVector destination, final IVector source, final IVector indices) {
+		final int length = indices.size();
+		final int[] map = indices instanceof ArrayIntegerVector
+				? ((ArrayIntegerVector) indices).getUnderlying()
+				: indices.toIntArray();
+		final Types type = destination.getComponentType();
+		if (type == Types.DOUBLE && source instanceof ArrayDoubleVector) {
+			final double[] src = ((ArrayDoubleVector) source).getUnderlying();
+			if (destination instanceof ArrayDoubleVector) {
+				gather(((ArrayDoubleVector) destination).getUnderlying(), src, map, length);
+				return;
+			}
+			final MemorySegment dst = VectorArithmeticUtil.segment(destination);
+			if (dst != null) {
+				gather(dst, VectorArithmeticUtil.offset(destination, 3), src, map, length);
+				return;
+			}
+		} else if (type == Types.INTEGER && source instanceof ArrayIntegerVector) {
+			final int[] src = ((ArrayIntegerVector) source).getUnderlying();
+			if (destination instanceof ArrayIntegerVector) {
+				gather(((ArrayIntegerVector) destination).getUnderlying(), src, map, length);
+				return;
+			}
+			final MemorySegment dst = VectorArithmeticUtil.segment(destination);
+			if (dst != null) {
+				gather(dst, VectorArithmeticUtil.offset(destination, 2), src, map, length);
+				return;
+			}
+		}
+		gatherScalar(destination, source, map, length);
+	}
+
+	/**
+	 * Reverses a vector backed by a direct or segment block, in its block.
+	 *
+	 * @param vector the vector, of doubles, ints or floats
+	 * @see ITransientVector#reverse()
+	 */
+	static void reverse(final IVector vector) {
+		final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+		final Types type = vector.getComponentType();
+		if (type == Types.DOUBLE) {
+			final long offset = VectorArithmeticUtil.offset(vector, 3);
+			for (long i = offset, j = offset + ((long) (vector.size() - 1) << 3); i < j; i += 8, j -= 8) {
+				final double v = segment.get(ValueLayout.JAVA_DOUBLE, i);
+				segment.set(ValueLayout.JAVA_DOUBLE, i, segment.get(ValueLayout.JAVA_DOUBLE, j));
+				segment.set(ValueLayout.JAVA_DOUBLE, j, v);
+			}
+		} else if (type == Types.INTEGER || type == Types.FLOAT) {
+			// Floats are moved as their raw bits
+			final long offset = VectorArithmeticUtil.offset(vector, 2);
+			for (long i = offset, j = offset + ((long) (vector.size() - 1) << 2); i < j; i += 4, j -= 4) {
+				final int v = segment.get(ValueLayout.JAVA_INT, i);
+				segment.set(ValueLayout.JAVA_INT, i, segment.get(ValueLayout.JAVA_INT, j));
+				segment.set(ValueLayout.JAVA_INT, j, v);
+			}
+		} else {
+			throw new UnsupportedOperationException(
+					"This method is not implemented for the vector " + vector.getClass().getSimpleName());
+		}
+	}
+
+	private static void gatherScalar(
+			final IVector destination,
+			final IVector source,
+			final int[] map,
+			final int length) {
+		switch (destination.getComponentType()) {
+			case DOUBLE:
+				for (int i = 0; i < length; ++i) {
+					destination.writeDouble(i, source.readDouble(map[i]));
+				}
+				break;
+			case INTEGER:
+				for (int i = 0; i < length; ++i) {
+					destination.writeInt(i, source.readInt(map[i]));
+				}
+				break;
+			case FLOAT:
+				for (int i = 0; i < length; ++i) {
+					destination.writeFloat(i, source.readFloat(map[i]));
+				}
+				break;
+			default:
+				for (int i = 0; i < length; ++i) {
+					destination.write(i, source.read(map[i]));
+				}
+		}
+	}
+
+	/** Heap / heap kernel on doubles. */
+	static void gather(final double[] destination, final double[] source, final int[] map, final int length) {
+		final int bound = VectorArithmeticUtil.DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VectorArithmeticUtil.DOUBLE_SPECIES.length()) {
+			DoubleVector.fromArray(VectorArithmeticUtil.DOUBLE_SPECIES, source, 0, map, i)
+					.intoArray(destination, i);
+		}
+		for (; i < length; ++i) {
+			destination[i] = source[map[i]];
+		}
+	}
+
+	/** Segment / heap kernel on doubles. */
+	static void gather(
+			final MemorySegment destination,
+			final long offset,
+			final double[] source,
+			final int[] map,
+			final int length) {
+		final int bound = VectorArithmeticUtil.DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VectorArithmeticUtil.DOUBLE_SPECIES.length()) {
+			DoubleVector.fromArray(VectorArithmeticUtil.DOUBLE_SPECIES, source, 0, map, i)
+					.intoMemorySegment(destination, offset + ((long) i << 3), ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			destination.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), source[map[i]]);
+		}
+	}
+
+	/** Heap / heap kernel on ints. */
+	static void gather(final int[] destination, final int[] source, final int[] map, final int length) {
+		final int bound = VectorArithmeticUtil.INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VectorArithmeticUtil.INT_SPECIES.length()) {
+			IntVector.fromArray(VectorArithmeticUtil.INT_SPECIES, source, 0, map, i)
+					.intoArray(destination, i);
+		}
+		for (; i < length; ++i) {
+			destination[i] = source[map[i]];
+		}
+	}
+
+	/** Segment / heap kernel on ints. */
+	static void gather(
+			final MemorySegment destination,
+			final long offset,
+			final int[] source,
+			final int[] map,
+			final int length) {
+		final int bound = VectorArithmeticUtil.INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += VectorArithmeticUtil.INT_SPECIES.length()) {
+			IntVector.fromArray(VectorArithmeticUtil.INT_SPECIES, source, 0, map, i)
+					.intoMemorySegment(destination, offset + ((long) i << 2), ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			destination.set(ValueLayout.JAVA_INT, offset + ((long) i << 2), source[map[i]]);
+		}
+	}
+
+}
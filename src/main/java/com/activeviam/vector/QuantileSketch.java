@@ -0,0 +1,458 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.ADirectVectorBlock;
+import com.activeviam.chunk.ASegmentBlock;
+import com.activeviam.chunk.IBlock;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * A mergeable sketch computing approximate quantiles of a stream of values in bounded memory.
+ * <p>
+ *   This is a merging t-digest: the values are summarized by centroids (a mean and a weight) whose
+ *   maximum weight depends on their rank, following the {@code k1} scale function
+ *   {@code k(q) = compression / (2 pi) * asin(2q - 1)}. The centroids close to the minimum and the
+ *   maximum stay very small, hence the tail quantiles used to compute a VaR are much more accurate
+ *   than the median. The sketch holds at most about {@code compression} centroids, and the error on
+ *   the rank of a quantile of order {@code q} is roughly proportional to
+ *   {@code q (1 - q) / compression}.
+ * </p>
+ * <p>
+ *   Values are first appended to a buffer, which is sorted and merged into the centroids when full,
+ *   so the bulk methods only copy memory. Sketches computed over different chunks or threads are
+ *   combined with {@link #merge(QuantileSketch)}.
+ * </p>
+ * <p>
+ *   A sketch is not thread-safe.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class QuantileSketch {
+
+	/** The default compression, giving a rank error of about 0.1% around the 1% and 99% quantiles */
+	public static final double DEFAULT_COMPRESSION = 200;
+
+	/** The compression, which bounds the number of centroids */
+	protected final double compression;
+
+	/** The means of the centroids, sorted */
+	protected double[] means;
+
+	/** The weights of the centroids */
+	protected double[] weights;
+
+	/** The number of centroids */
+	protected int centroids;
+
+	/** The values not merged into the centroids yet */
+	protected final double[] buffer;
+
+	/** The number of values in the buffer */
+	protected int buffered;
+
+	/** Scratch space to convert ints into doubles */
+	protected int[] intBuffer;
+
+	/** The total weight of the centroids, excluding the buffer */
+	protected double weight;
+
+	protected double min = Double.POSITIVE_INFINITY;
+
+	protected double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Creates a sketch with the {@link #DEFAULT_COMPRESSION default compression}.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param compression the compression, the higher the more accurate and the larger
+	 */
+	public QuantileSketch(final double compression) {
+		if (compression < 10) {
+			throw new IllegalArgumentException("The compression must be at least 10, got " + compression);
+		}
+		this.compression = compression;
+		final int capacity = (int) Math.ceil(compression) + 10;
+		this.means = new double[capacity];
+		this.weights = new double[capacity];
+		this.buffer = new double[5 * capacity];
+	}
+
+	/**
+	 * @return the number of values added to this sketch
+	 */
+	public long size() {
+		return (long) this.weight + this.buffered;
+	}
+
+	/**
+	 * @return the smallest value added to this sketch
+	 */
+	public double min() {
+		checkNotEmpty();
+		flush();
+		return this.min;
+	}
+
+	/**
+	 * @return the largest value added to this sketch
+	 */
+	public double max() {
+		checkNotEmpty();
+		flush();
+		return this.max;
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value to add
+	 */
+	public void add(final double value) {
+		if (this.buffered == this.buffer.length) {
+			flush();
+		}
+		this.buffer[this.buffered++] = value;
+	}
+
+	/**
+	 * Adds a range of values.
+	 *
+	 * @param values the values
+	 * @param from the index of the first value to add
+	 * @param length the number of values to add
+	 */
+	public void add(final double[] values, final int from, final int length) {
+		for (int done = 0; done < length; ) {
+			final int n = Math.min(length - done, reserve());
+			System.arraycopy(values, from + done, this.buffer, this.buffered, n);
+			this.buffered += n;
+			done += n;
+		}
+	}
+
+	/**
+	 * Adds a range of values.
+	 *
+	 * @param values the values
+	 * @param from the index of the first value to add
+	 * @param length the number of values to add
+	 */
+	public void add(final int[] values, final int from, final int length) {
+		for (int done = 0; done < length; ) {
+			final int n = Math.min(length - done, reserve());
+			for (int i = 0; i < n; ++i) {
+				this.buffer[this.buffered + i] = values[from + done + i];
+			}
+			this.buffered += n;
+			done += n;
+		}
+	}
+
+	/**
+	 * Adds a range of values.
+	 *
+	 * @param values the values
+	 * @param from the index of the first value to add
+	 * @param length the number of values to add
+	 */
+	public void add(final float[] values, final int from, final int length) {
+		for (int done = 0; done < length; ) {
+			final int n = Math.min(length - done, reserve());
+			for (int i = 0; i < n; ++i) {
+				this.buffer[this.buffered + i] = values[from + done + i];
+			}
+			this.buffered += n;
+			done += n;
+		}
+	}
+
+	/**
+	 * Adds the components of a vector.
+	 *
+	 * @param vector the vector
+	 */
+	public void add(final IVector vector) {
+		final int length = vector.size();
+		if (vector instanceof ArrayDoubleVector) {
+			add(((ArrayDoubleVector) vector).getUnderlying(), 0, length);
+		} else if (vector instanceof ArrayIntegerVector) {
+			add(((ArrayIntegerVector) vector).getUnderlying(), 0, length);
+		} else if (vector instanceof ArrayFloatVector) {
+			add(((ArrayFloatVector) vector).getUnderlying(), 0, length);
+		} else {
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				add(segment, vector.getComponentType(), VectorArithmeticUtil.offset(vector, 0), length);
+			} else if (vector.getComponentType() == Types.INTEGER) {
+				for (int i = 0; i < length; ++i) {
+					add(vector.readInt(i));
+				}
+			} else {
+				for (int i = 0; i < length; ++i) {
+					add(vector.readDouble(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a range of the components of a block.
+	 *
+	 * @param block the block
+	 * @param position the position of the first component to add
+	 * @param length the number of components to add
+	 */
+	public void add(final IBlock block, final int position, final int length) {
+		final MemorySegment segment;
+		if (block instanceof ASegmentBlock) {
+			segment = ((ASegmentBlock) block).getSegment();
+		} else if (block instanceof ADirectVectorBlock) {
+			segment = ((ADirectVectorBlock) block).getSegment();
+		} else {
+			segment = null;
+		}
+		if (segment != null) {
+			add(segment, block.getComponentType(), position, length);
+		} else if (block instanceof ArrayDoubleVector) {
+			// On heap vectors are their own block
+			add(((ArrayDoubleVector) block).getUnderlying(), position, length);
+		} else if (block instanceof ArrayIntegerVector) {
+			add(((ArrayIntegerVector) block).getUnderlying(), position, length);
+		} else if (block instanceof ArrayFloatVector) {
+			add(((ArrayFloatVector) block).getUnderlying(), position, length);
+		} else if (block.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				add(block.readInt(position + i));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				add(block.readDouble(position + i));
+			}
+		}
+	}
+
+	/**
+	 * Adds values stored in a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param type the type of the values, {@link Types#DOUBLE}, {@link Types#FLOAT} or {@link Types#INTEGER}
+	 * @param position the index of the first value to add in the segment
+	 * @param length the number of values to add
+	 */
+	protected void add(final MemorySegment segment, final Types type, final long position, final int length) {
+		for (int done = 0; done < length; ) {
+			final int n = Math.min(length - done, reserve());
+			if (type == Types.INTEGER) {
+				if (this.intBuffer == null) {
+					this.intBuffer = new int[this.buffer.length];
+				}
+				MemorySegment.copy(segment, ValueLayout.JAVA_INT, (position + done) << 2, this.intBuffer, 0, n);
+				for (int i = 0; i < n; ++i) {
+					this.buffer[this.buffered + i] = this.intBuffer[i];
+				}
+			} else if (type == Types.FLOAT) {
+				for (int i = 0; i < n; ++i) {
+					this.buffer[this.buffered + i] = segment.get(ValueLayout.JAVA_FLOAT, (position + done + i) << 2);
+				}
+			} else {
+				MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, (position + done) << 3, this.buffer, this.buffered, n);
+			}
+			this.buffered += n;
+			done += n;
+		}
+	}
+
+	/**
+	 * Adds all the values summarized by another sketch to this one. The other sketch is left
+	 * unchanged, apart from the merge of its buffer.
+	 *
+	 * @param other the sketch to merge into this one
+	 */
+	public void merge(final QuantileSketch other) {
+		other.flush();
+		flush();
+		if (other.centroids > 0) {
+			compress(other.means, other.weights, other.centroids);
+			this.min = Math.min(this.min, other.min);
+			this.max = Math.max(this.max, other.max);
+		}
+	}
+
+	/**
+	 * Computes the approximate quantile of order {@code r}.
+	 *
+	 * @param r the order of the quantile, a double in {@code ]0.0, 1.0]}
+	 * @return the approximate quantile of order {@code r}
+	 * @see IVector#quantileDouble(double)
+	 */
+	public double quantile(final double r) {
+		if (r <= 0d || r > 1d) {
+			throw new UnsupportedOperationException("Order of the quantile should be greater than zero and less than 1.");
+		}
+		checkNotEmpty();
+		flush();
+		final int n = this.centroids;
+		if (n == 1) {
+			return this.means[0];
+		}
+
+		// Each centroid is considered centered on its weight: interpolate between those centers, and
+		// between the extreme centers and the min or max
+		final double index = r * this.weight;
+		final double firstHalf = this.weights[0] / 2;
+		if (index < firstHalf) {
+			return this.weights[0] == 1 ? this.min : this.min + (this.means[0] - this.min) * index / firstHalf;
+		}
+		double center = firstHalf;
+		for (int i = 0; i < n - 1; ++i) {
+			final double step = (this.weights[i] + this.weights[i + 1]) / 2;
+			if (center + step > index) {
+				if (this.weights[i] == 1 && index - center < 0.5) {
+					// A single value is exact
+					return this.means[i];
+				}
+				if (this.weights[i + 1] == 1 && center + step - index <= 0.5) {
+					return this.means[i + 1];
+				}
+				return this.means[i] + (this.means[i + 1] - this.means[i]) * (index - center) / step;
+			}
+			center += step;
+		}
+		final double lastHalf = this.weights[n - 1] / 2;
+		final double beyond = Math.min(index - center, lastHalf);
+		return this.weights[n - 1] == 1
+				? this.means[n - 1]
+				: this.means[n - 1] + (this.max - this.means[n - 1]) * beyond / lastHalf;
+	}
+
+	/**
+	 * Computes several approximate quantiles.
+	 *
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the approximate quantiles, in the order of {@code r}
+	 */
+	public double[] quantiles(final double[] r) {
+		final double[] quantiles = new double[r.length];
+		for (int i = 0; i < r.length; ++i) {
+			quantiles[i] = quantile(r[i]);
+		}
+		return quantiles;
+	}
+
+	/**
+	 * @return the number of values that can be appended to the buffer, after flushing it if full
+	 */
+	protected int reserve() {
+		if (this.buffered == this.buffer.length) {
+			flush();
+		}
+		return this.buffer.length - this.buffered;
+	}
+
+	/**
+	 * Merges the buffered values into the centroids.
+	 */
+	protected void flush() {
+		if (this.buffered == 0) {
+			return;
+		}
+		Arrays.sort(this.buffer, 0, this.buffered);
+		this.min = Math.min(this.min, this.buffer[0]);
+		this.max = Math.max(this.max, this.buffer[this.buffered - 1]);
+		compress(this.buffer, null, this.buffered);
+		this.buffered = 0;
+	}
+
+	/**
+	 * Merges sorted centroids into the centroids of this sketch, merging the neighbours whose
+	 * combined weight fits under the limit given by the scale function.
+	 *
+	 * @param addedMeans the means of the added centroids, sorted
+	 * @param addedWeights the weights of the added centroids, or {@code null} if they all weigh 1
+	 * @param added the number of added centroids
+	 */
+	protected void compress(final double[] addedMeans, final double[] addedWeights, final int added) {
+		final double total = this.weight + (addedWeights == null ? added : sum(addedWeights, added));
+		final double[] newMeans = new double[this.means.length];
+		final double[] newWeights = new double[this.weights.length];
+		int count = 0;
+
+		double weightSoFar = 0;
+		double limit = total * q(k(0) + 1);
+		int i = 0;
+		int j = 0;
+		while (i < this.centroids || j < added) {
+			final double mean;
+			final double w;
+			if (j >= added || (i < this.centroids && this.means[i] <= addedMeans[j])) {
+				mean = this.means[i];
+				w = this.weights[i++];
+			} else {
+				mean = addedMeans[j];
+				w = addedWeights == null ? 1 : addedWeights[j];
+				++j;
+			}
+			if (count > 0 && weightSoFar + newWeights[count - 1] + w <= limit) {
+				// Merge into the current centroid
+				final double merged = newWeights[count - 1] + w;
+				newMeans[count - 1] += (mean - newMeans[count - 1]) * w / merged;
+				newWeights[count - 1] = merged;
+			} else {
+				if (count > 0) {
+					weightSoFar += newWeights[count - 1];
+					limit = total * q(k(weightSoFar / total) + 1);
+				}
+				newMeans[count] = mean;
+				newWeights[count] = w;
+				++count;
+			}
+		}
+
+		this.means = newMeans;
+		this.weights = newWeights;
+		this.centroids = count;
+		this.weight = total;
+	}
+
+	/** The {@code k1} scale function */
+	private double k(final double q) {
+		return this.compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+	}
+
+	/** The inverse of {@link #k(double)} */
+	private double q(final double k) {
+		final double bounded = Math.min(k, this.compression / 4);
+		return (Math.sin(bounded * 2 * Math.PI / this.compression) + 1) / 2;
+	}
+
+	private static double sum(final double[] values, final int length) {
+		double sum = 0;
+		for (int i = 0; i < length; ++i) {
+			sum += values[i];
+		}
+		return sum;
+	}
+
+	private void checkNotEmpty() {
+		if (size() == 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty sketch.");
+		}
+	}
+
+}
@@ -0,0 +1,626 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.FLOAT_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.INT_SPECIES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Utility computing several quantiles of a vector with a single selection.
+ * <p>
+ *   The quantiles use the Nearest Rank definition of {@link IVector#quantileDouble(double)}: the
+ *   quantile of order {@code r} of {@code n} values is the value of rank {@code ceil(n * r)}.
+ * </p>
+ * <p>
+ *   The ranks are sorted, and a quickselect partitions the values once around each pivot: the ranks
+ *   on the left of the pivot are selected in the left part, the other ones in the right part, so
+ *   the values are only traversed once for all the quantiles sharing a partition. The partitions
+ *   use in-place SIMD compress kernels, without any buffer, and the selection falls back to sorting
+ *   a range when the pivots are too unbalanced (introselect), which bounds the worst case to
+ *   {@code O(n log n)}.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class QuantileUtil {
+
+	/** Below that size, a range is sorted by insertion instead of partitioned */
+	protected static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private QuantileUtil() {}
+
+	/**
+	 * Computes several quantiles of a vector, copying its content once.
+	 *
+	 * @param vector the vector
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	public static double[] quantiles(final IVector vector, final double[] r) {
+		final int length = vector.size();
+		final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+		if (vector.getComponentType() == Types.INTEGER) {
+			final int[] copy = new int[length];
+			if (vector instanceof ArrayIntegerVector) {
+				System.arraycopy(((ArrayIntegerVector) vector).getUnderlying(), 0, copy, 0, length);
+			} else if (segment != null) {
+				final long offset = VectorArithmeticUtil.offset(vector, 2);
+				MemorySegment.copy(segment, ValueLayout.JAVA_INT, offset, copy, 0, length);
+			} else {
+				for (int i = 0; i < length; ++i) {
+					copy[i] = vector.readInt(i);
+				}
+			}
+			return quantilesInPlace(copy, 0, length, r);
+		} else {
+			final double[] copy = new double[length];
+			if (vector instanceof ArrayDoubleVector) {
+				System.arraycopy(((ArrayDoubleVector) vector).getUnderlying(), 0, copy, 0, length);
+			} else if (segment != null && vector.getComponentType() == Types.DOUBLE) {
+				final long offset = VectorArithmeticUtil.offset(vector, 3);
+				MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, offset, copy, 0, length);
+			} else {
+				for (int i = 0; i < length; ++i) {
+					copy[i] = vector.readDouble(i);
+				}
+			}
+			return quantilesInPlace(copy, 0, length, r);
+		}
+	}
+
+	/**
+	 * Computes several quantiles of a range of an array, reordering the range.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	public static double[] quantilesInPlace(final double[] array, final int from, final int length, final double[] r) {
+		final int[] ranks = ranks(length, r);
+		final int[] targets = targets(ranks, from);
+		select(array, from, from + length, targets, 0, targets.length, maxDepth(length));
+		final double[] result = new double[r.length];
+		for (int i = 0; i < r.length; ++i) {
+			result[i] = array[from + ranks[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Computes several quantiles of a range of an array, reordering the range.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	public static double[] quantilesInPlace(final int[] array, final int from, final int length, final double[] r) {
+		final int[] ranks = ranks(length, r);
+		final int[] targets = targets(ranks, from);
+		select(array, from, from + length, targets, 0, targets.length, maxDepth(length));
+		final double[] result = new double[r.length];
+		for (int i = 0; i < r.length; ++i) {
+			result[i] = array[from + ranks[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Computes several quantiles of a range of an array, reordering the range.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param r the orders of the quantiles, doubles in {@code ]0.0, 1.0]}
+	 * @return the quantiles, in the order of {@code r}
+	 */
+	public static double[] quantilesInPlace(final float[] array, final int from, final int length, final double[] r) {
+		final int[] ranks = ranks(length, r);
+		final int[] targets = targets(ranks, from);
+		select(array, from, from + length, targets, 0, targets.length, maxDepth(length));
+		final double[] result = new double[r.length];
+		for (int i = 0; i < r.length; ++i) {
+			result[i] = array[from + ranks[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Partitions a range around its last value, in place: the values smaller than that pivot are moved
+	 * before it, the other ones after it.
+	 * <p>
+	 *   The first and last registers of the range are read ahead, then each register is read from the
+	 *   side with the least room left, so that the compressed stores on both sides only override values
+	 *   already read.
+	 * </p>
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param to the index after the last value of the range, which is the pivot
+	 * @return the index of the pivot once the range is partitioned
+	 */
+	public static int partition(final double[] array, final int from, final int to) {
+		final int end = to - 1;
+		final double pivot = array[end];
+		final int lanes = DOUBLE_SPECIES.length();
+		int lesser = from;
+		if (end - from < 2 * lanes) {
+			for (int i = from; i < end; ++i) {
+				final double v = array[i];
+				if (v < pivot) {
+					array[i] = array[lesser];
+					array[lesser++] = v;
+				}
+			}
+		} else {
+			final DoubleVector p = DoubleVector.broadcast(DOUBLE_SPECIES, pivot);
+			final DoubleVector first = DoubleVector.fromArray(DOUBLE_SPECIES, array, from);
+			final DoubleVector last = DoubleVector.fromArray(DOUBLE_SPECIES, array, end - lanes);
+			int greater = end;
+			int left = from + lanes;
+			int right = end - lanes;
+			while (right - left >= lanes) {
+				final DoubleVector v;
+				if (left - lesser <= greater - right) {
+					v = DoubleVector.fromArray(DOUBLE_SPECIES, array, left);
+					left += lanes;
+				} else {
+					right -= lanes;
+					v = DoubleVector.fromArray(DOUBLE_SPECIES, array, right);
+				}
+				final int count = compressStore(v, p, array, lesser, greater);
+				lesser += count;
+				greater -= lanes - count;
+			}
+			while (left < right) {
+				final double v = left - lesser <= greater - right ? array[left++] : array[--right];
+				if (v < pivot) {
+					array[lesser++] = v;
+				} else {
+					array[--greater] = v;
+				}
+			}
+			// The values read ahead fill the gap left between both sides
+			final int count = compressStore(first, p, array, lesser, greater);
+			lesser += count;
+			greater -= lanes - count;
+			lesser += compressStore(last, p, array, lesser, greater);
+		}
+		array[end] = array[lesser];
+		array[lesser] = pivot;
+		return lesser;
+	}
+
+	/**
+	 * Partitions a range around its last value, in place: the values smaller than that pivot are moved
+	 * before it, the other ones after it.
+	 * <p>
+	 *   The first and last registers of the range are read ahead, then each register is read from the
+	 *   side with the least room left, so that the compressed stores on both sides only override values
+	 *   already read.
+	 * </p>
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param to the index after the last value of the range, which is the pivot
+	 * @return the index of the pivot once the range is partitioned
+	 */
+	public static int partition(final int[] array, final int from, final int to) {
+		final int end = to - 1;
+		final int pivot = array[end];
+		final int lanes = INT_SPECIES.length();
+		int lesser = from;
+		if (end - from < 2 * lanes) {
+			for (int i = from; i < end; ++i) {
+				final int v = array[i];
+				if (v < pivot) {
+					array[i] = array[lesser];
+					array[lesser++] = v;
+				}
+			}
+		} else {
+			final IntVector p = IntVector.broadcast(INT_SPECIES, pivot);
+			final IntVector first = IntVector.fromArray(INT_SPECIES, array, from);
+			final IntVector last = IntVector.fromArray(INT_SPECIES, array, end - lanes);
+			int greater = end;
+			int left = from + lanes;
+			int right = end - lanes;
+			while (right - left >= lanes) {
+				final IntVector v;
+				if (left - lesser <= greater - right) {
+					v = IntVector.fromArray(INT_SPECIES, array, left);
+					left += lanes;
+				} else {
+					right -= lanes;
+					v = IntVector.fromArray(INT_SPECIES, array, right);
+				}
+				final int count = compressStore(v, p, array, lesser, greater);
+				lesser += count;
+				greater -= lanes - count;
+			}
+			while (left < right) {
+				final int v = left - lesser <= greater - right ? array[left++] : array[--right];
+				if (v < pivot) {
+					array[lesser++] = v;
+				} else {
+					array[--greater] = v;
+				}
+			}
+			// The values read ahead fill the gap left between both sides
+			final int count = compressStore(first, p, array, lesser, greater);
+			lesser += count;
+			greater -= lanes - count;
+			lesser += compressStore(last, p, array, lesser, greater);
+		}
+		array[end] = array[lesser];
+		array[lesser] = pivot;
+		return lesser;
+	}
+
+	/**
+	 * Partitions a range around its last value, in place: the values smaller than that pivot are moved
+	 * before it, the other ones after it.
+	 * <p>
+	 *   The first and last registers of the range are read ahead, then each register is read from the
+	 *   side with the least room left, so that the compressed stores on both sides only override values
+	 *   already read.
+	 * </p>
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param to the index after the last value of the range, which is the pivot
+	 * @return the index of the pivot once the range is partitioned
+	 */
+	public static int partition(final float[] array, final int from, final int to) {
+		final int end = to - 1;
+		final float pivot = array[end];
+		final int lanes = FLOAT_SPECIES.length();
+		int lesser = from;
+		if (end - from < 2 * lanes) {
+			for (int i = from; i < end; ++i) {
+				final float v = array[i];
+				if (v < pivot) {
+					array[i] = array[lesser];
+					array[lesser++] = v;
+				}
+			}
+		} else {
+			final FloatVector p = FloatVector.broadcast(FLOAT_SPECIES, pivot);
+			final FloatVector first = FloatVector.fromArray(FLOAT_SPECIES, array, from);
+			final FloatVector last = FloatVector.fromArray(FLOAT_SPECIES, array, end - lanes);
+			int greater = end;
+			int left = from + lanes;
+			int right = end - lanes;
+			while (right - left >= lanes) {
+				final FloatVector v;
+				if (left - lesser <= greater - right) {
+					v = FloatVector.fromArray(FLOAT_SPECIES, array, left);
+					left += lanes;
+				} else {
+					right -= lanes;
+					v = FloatVector.fromArray(FLOAT_SPECIES, array, right);
+				}
+				final int count = compressStore(v, p, array, lesser, greater);
+				lesser += count;
+				greater -= lanes - count;
+			}
+			while (left < right) {
+				final float v = left - lesser <= greater - right ? array[left++] : array[--right];
+				if (v < pivot) {
+					array[lesser++] = v;
+				} else {
+					array[--greater] = v;
+				}
+			}
+			// The values read ahead fill the gap left between both sides
+			final int count = compressStore(first, p, array, lesser, greater);
+			lesser += count;
+			greater -= lanes - count;
+			lesser += compressStore(last, p, array, lesser, greater);
+		}
+		array[end] = array[lesser];
+		array[lesser] = pivot;
+		return lesser;
+	}
+
+	/**
+	 * Computes the 0-based ranks of quantiles.
+	 *
+	 * @param length the number of values
+	 * @param r the orders of the quantiles
+	 * @return the index of each quantile in the sorted values
+	 */
+	protected static int[] ranks(final int length, final double[] r) {
+		if (length == 0) {
+			throw new IndexOutOfBoundsException("Tried to access the content of an empty vector.");
+		}
+		final int[] ranks = new int[r.length];
+		for (int i = 0; i < r.length; ++i) {
+			if (r[i] <= 0d || r[i] > 1d) {
+				throw new UnsupportedOperationException(
+						"Order of the quantile should be greater than zero and less than 1.");
+			}
+			ranks[i] = (int) Math.ceil(length * r[i]) - 1;
+		}
+		return ranks;
+	}
+
+	/**
+	 * @return the sorted distinct indices of the quantiles in the array
+	 */
+	private static int[] targets(final int[] ranks, final int from) {
+		final int[] targets = Arrays.stream(ranks).distinct().sorted().toArray();
+		for (int i = 0; i < targets.length; ++i) {
+			targets[i] += from;
+		}
+		return targets;
+	}
+
+	/**
+	 * @return the number of partitions after which a range is sorted instead
+	 */
+	private static int maxDepth(final int length) {
+		return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, length)));
+	}
+
+	/**
+	 * Moves to each target index of a range the value it would hold if the range was sorted.
+	 *
+	 * @param targets the sorted target indices, between {@code tFrom} and {@code tTo}
+	 * @param depth the number of partitions left before sorting the range
+	 */
+	private static void select(
+			final double[] array,
+			int from,
+			final int to,
+			final int[] targets,
+			int tFrom,
+			final int tTo,
+			int depth) {
+		while (tFrom < tTo) {
+			if (to - from <= INSERTION_SORT_THRESHOLD) {
+				for (int i = from + 1; i < to; ++i) {
+					final double v = array[i];
+					int j = i - 1;
+					for (; j >= from && array[j] > v; --j) {
+						array[j + 1] = array[j];
+					}
+					array[j + 1] = v;
+				}
+				return;
+			}
+			if (depth-- == 0) {
+				Arrays.sort(array, from, to);
+				return;
+			}
+			medianOfThreeToEnd(array, from, to);
+			final int p = partition(array, from, to);
+			final int split = lowerBound(targets, tFrom, tTo, p);
+			select(array, from, p, targets, tFrom, split, depth);
+			from = p + 1;
+			tFrom = split < tTo && targets[split] == p ? split + 1 : split;
+		}
+	}
+
+	/**
+	 * Moves to each target index of a range the value it would hold if the range was sorted.
+	 *
+	 * @param targets the sorted target indices, between {@code tFrom} and {@code tTo}
+	 * @param depth the number of partitions left before sorting the range
+	 */
+	private static void select(
+			final int[] array,
+			int from,
+			final int to,
+			final int[] targets,
+			int tFrom,
+			final int tTo,
+			int depth) {
+		while (tFrom < tTo) {
+			if (to - from <= INSERTION_SORT_THRESHOLD) {
+				for (int i = from + 1; i < to; ++i) {
+					final int v = array[i];
+					int j = i - 1;
+					for (; j >= from && array[j] > v; --j) {
+						array[j + 1] = array[j];
+					}
+					array[j + 1] = v;
+				}
+				return;
+			}
+			if (depth-- == 0) {
+				Arrays.sort(array, from, to);
+				return;
+			}
+			medianOfThreeToEnd(array, from, to);
+			final int p = partition(array, from, to);
+			final int split = lowerBound(targets, tFrom, tTo, p);
+			select(array, from, p, targets, tFrom, split, depth);
+			from = p + 1;
+			tFrom = split < tTo && targets[split] == p ? split + 1 : split;
+		}
+	}
+
+	/**
+	 * Moves to each target index of a range the value it would hold if the range was sorted.
+	 *
+	 * @param targets the sorted target indices, between {@code tFrom} and {@code tTo}
+	 * @param depth the number of partitions left before sorting the range
+	 */
+	private static void select(
+			final float[] array,
+			int from,
+			final int to,
+			final int[] targets,
+			int tFrom,
+			final int tTo,
+			int depth) {
+		while (tFrom < tTo) {
+			if (to - from <= INSERTION_SORT_THRESHOLD) {
+				for (int i = from + 1; i < to; ++i) {
+					final float v = array[i];
+					int j = i - 1;
+					for (; j >= from && array[j] > v; --j) {
+						array[j + 1] = array[j];
+					}
+					array[j + 1] = v;
+				}
+				return;
+			}
+			if (depth-- == 0) {
+				Arrays.sort(array, from, to);
+				return;
+			}
+			medianOfThreeToEnd(array, from, to);
+			final int p = partition(array, from, to);
+			final int split = lowerBound(targets, tFrom, tTo, p);
+			select(array, from, p, targets, tFrom, split, depth);
+			from = p + 1;
+			tFrom = split < tTo && targets[split] == p ? split + 1 : split;
+		}
+	}
+
+	/**
+	 * Moves the median of the first, middle and last values of a range to its end.
+	 */
+	private static void medianOfThreeToEnd(final double[] array, final int from, final int to) {
+		final int mid = (from + to) >>> 1;
+		final int last = to - 1;
+		final double a = array[from];
+		final double b = array[mid];
+		final double c = array[last];
+		final int median = a < b
+				? (b < c ? mid : (a < c ? last : from))
+				: (a < c ? from : (b < c ? last : mid));
+		array[last] = array[median];
+		array[median] = c;
+	}
+
+	/**
+	 * Moves the median of the first, middle and last values of a range to its end.
+	 */
+	private static void medianOfThreeToEnd(final int[] array, final int from, final int to) {
+		final int mid = (from + to) >>> 1;
+		final int last = to - 1;
+		final int a = array[from];
+		final int b = array[mid];
+		final int c = array[last];
+		final int median = a < b
+				? (b < c ? mid : (a < c ? last : from))
+				: (a < c ? from : (b < c ? last : mid));
+		array[last] = array[median];
+		array[median] = c;
+	}
+
+	/**
+	 * Moves the median of the first, middle and last values of a range to its end.
+	 */
+	private static void medianOfThreeToEnd(final float[] array, final int from, final int to) {
+		final int mid = (from + to) >>> 1;
+		final int last = to - 1;
+		final float a = array[from];
+		final float b = array[mid];
+		final float c = array[last];
+		final int median = a < b
+				? (b < c ? mid : (a < c ? last : from))
+				: (a < c ? from : (b < c ? last : mid));
+		array[last] = array[median];
+		array[median] = c;
+	}
+
+	/**
+	 * Stores the values of a register smaller than a pivot upwards from {@code lesser}, and the other
+	 * ones downwards from {@code greater}.
+	 *
+	 * @return the number of values smaller than the pivot
+	 */
+	private static int compressStore(
+			final DoubleVector v,
+			final DoubleVector pivot,
+			final double[] array,
+			final int lesser,
+			final int greater) {
+		final VectorMask<Double> m = v.compare(VectorOperators.LT, pivot);
+		final int count = m.trueCount();
+		final int others = DOUBLE_SPECIES.length() - count;
+		v.compress(m).intoArray(array, lesser, DOUBLE_SPECIES.indexInRange(0, count));
+		v.compress(m.not()).intoArray(array, greater - others, DOUBLE_SPECIES.indexInRange(0, others));
+		return count;
+	}
+
+	/**
+	 * Stores the values of a register smaller than a pivot upwards from {@code lesser}, and the other
+	 * ones downwards from {@code greater}.
+	 *
+	 * @return the number of values smaller than the pivot
+	 */
+	private static int compressStore(
+			final IntVector v,
+			final IntVector pivot,
+			final int[] array,
+			final int lesser,
+			final int greater) {
+		final VectorMask<Integer> m = v.compare(VectorOperators.LT, pivot);
+		final int count = m.trueCount();
+		final int others = INT_SPECIES.length() - count;
+		v.compress(m).intoArray(array, lesser, INT_SPECIES.indexInRange(0, count));
+		v.compress(m.not()).intoArray(array, greater - others, INT_SPECIES.indexInRange(0, others));
+		return count;
+	}
+
+	/**
+	 * Stores the values of a register smaller than a pivot upwards from {@code lesser}, and the other
+	 * ones downwards from {@code greater}.
+	 *
+	 * @return the number of values smaller than the pivot
+	 */
+	private static int compressStore(
+			final FloatVector v,
+			final FloatVector pivot,
+			final float[] array,
+			final int lesser,
+			final int greater) {
+		final VectorMask<Float> m = v.compare(VectorOperators.LT, pivot);
+		final int count = m.trueCount();
+		final int others = FLOAT_SPECIES.length() - count;
+		v.compress(m).intoArray(array, lesser, FLOAT_SPECIES.indexInRange(0, count));
+		v.compress(m.not()).intoArray(array, greater - others, FLOAT_SPECIES.indexInRange(0, others));
+		return count;
+	}
+
+	/**
+	 * @return the first index between {@code from} and {@code to} whose value is not smaller than
+	 *         {@code key}
+	 */
+	private static int lowerBound(final int[] sorted, int from, int to, final int key) {
+		while (from < to) {
+			final int mid = (from + to) >>> 1;
+			if (sorted[mid] < key) {
+				from = mid + 1;
+			} else {
+				to = mid;
+			}
+		}
+		return from;
+	}
+
+}
@@ -0,0 +1,553 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Least significant digit radix sorts of doubles and ints, on heap arrays and in place on memory segments.
+ * <p>
+ *   The components are first mapped to keys whose unsigned order is the order of
+ *   {@link Arrays#sort(double[])}: for doubles, the bits of {@link Double#doubleToLongBits(double)}
+ *   with all the bits of the negative values flipped and the sign bit of the positive values set,
+ *   so that {@code -0.0} comes before {@code 0.0} and NaN comes last. The keys are then sorted one
+ *   byte at a time, between two scratch arrays, and a pass is skipped when all the keys share the
+ *   same byte. The scratch arrays are kept per thread up to {@link #MAX_RETAINED_SCRATCH_LENGTH}
+ *   components, and allocated for each sort above.
+ * </p>
+ * <p>
+ *   Ranges shorter than {@link #RADIX_SORT_THRESHOLD} are sorted by {@link Arrays#sort(double[])},
+ *   and ranges of at least {@link #PARALLEL_SORT_THRESHOLD} components are sorted by several
+ *   threads, each one counting and scattering its own slice of the keys.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class RadixSortUtil {
+
+	/** The number of bits of a digit */
+	protected static final int DIGIT_BITS = 8;
+
+	/** The number of values of a digit */
+	protected static final int RADIX = 1 << DIGIT_BITS;
+
+	/** The length under which the comparison sort of the JDK is faster */
+	public static final int RADIX_SORT_THRESHOLD = 512;
+
+	/** The length from which the keys are sorted in parallel */
+	public static final int PARALLEL_SORT_THRESHOLD = 1 << 20;
+
+	/**
+	 * The length from which the scratch arrays are allocated for each sort instead of being kept by the
+	 * thread, bounding the memory retained by each thread to a few megabytes
+	 */
+	public static final int MAX_RETAINED_SCRATCH_LENGTH = 1 << 16;
+
+	/** The scratch arrays of each thread, only kept for the sorts of short ranges */
+	protected static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private RadixSortUtil() {}
+
+	/**
+	 * Sorts a range of an array of doubles, in the order of {@link Arrays#sort(double[])}.
+	 *
+	 * @param array the array
+	 * @param from the index of the first component to sort, inclusive
+	 * @param to the index of the last component to sort, exclusive
+	 */
+	public static void sort(final double[] array, final int from, final int to) {
+		final int length = to - from;
+		if (length < RADIX_SORT_THRESHOLD) {
+			Arrays.sort(array, from, to);
+			return;
+		}
+		final long[] keys = longScratch(length, 0);
+		for (int i = 0; i < length; ++i) {
+			keys[i] = encode(array[from + i]);
+		}
+		final long[] sorted = sortKeys(keys, longScratch(length, 1), length);
+		for (int i = 0; i < length; ++i) {
+			array[from + i] = decode(sorted[i]);
+		}
+	}
+
+	/**
+	 * Sorts a range of an array of ints.
+	 *
+	 * @param array the array
+	 * @param from the index of the first component to sort, inclusive
+	 * @param to the index of the last component to sort, exclusive
+	 */
+	public static void sort(final int[] array, final int from, final int to) {
+		final int length = to - from;
+		if (length < RADIX_SORT_THRESHOLD) {
+			Arrays.sort(array, from, to);
+			return;
+		}
+		final int[] keys = intScratch(length, 0);
+		for (int i = 0; i < length; ++i) {
+			keys[i] = array[from + i] ^ Integer.MIN_VALUE;
+		}
+		final int[] sorted = sortKeys(keys, intScratch(length, 1), length);
+		for (int i = 0; i < length; ++i) {
+			array[from + i] = sorted[i] ^ Integer.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * Sorts in place doubles stored in a memory segment.
+	 *
+	 * @param segment the segment
+	 * @param offset the offset, in bytes, of the first double to sort
+	 * @param length the number of doubles to sort
+	 */
+	public static void sortDoubles(final MemorySegment segment, final long offset, final int length) {
+		final long[] keys = longScratch(length, 0);
+		for (int i = 0; i < length; ++i) {
+			keys[i] = encode(segment.get(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3)));
+		}
+		final long[] sorted = length < RADIX_SORT_THRESHOLD
+				? sortSmall(keys, length)
+				: sortKeys(keys, longScratch(length, 1), length);
+		for (int i = 0; i < length; ++i) {
+			segment.set(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3), decode(sorted[i]));
+		}
+	}
+
+	/**
+	 * Sorts in place ints stored in a memory segment.
+	 *
+	 * @param segment the segment
+	 * @param offset the offset, in bytes, of the first int to sort
+	 * @param length the number of ints to sort
+	 */
+	public static void sortInts(final MemorySegment segment, final long offset, final int length) {
+		final int[] keys = intScratch(length, 0);
+		for (int i = 0; i < length; ++i) {
+			keys[i] = segment.get(ValueLayout.JAVA_INT, offset + ((long) i << 2)) ^ Integer.MIN_VALUE;
+		}
+		final int[] sorted = length < RADIX_SORT_THRESHOLD
+				? sortSmall(keys, length)
+				: sortKeys(keys, intScratch(length, 1), length);
+		for (int i = 0; i < length; ++i) {
+			segment.set(ValueLayout.JAVA_INT, offset + ((long) i << 2), sorted[i] ^ Integer.MIN_VALUE);
+		}
+	}
+
+	/**
+	 * Computes the permutation sorting an array of doubles, in the order of {@link Arrays#sort(double[])}.
+	 * <p>
+	 *   The sort is stable: equal values keep the order of their indices.
+	 * </p>
+	 *
+	 * @param values the values, left unchanged
+	 * @return the indices of the values, in the order of the sorted values
+	 */
+	public static int[] argsort(final double[] values) {
+		final int length = values.length;
+		if (length == 0) {
+			return new int[0];
+		}
+		final long[] keys = longScratch(length, 0);
+		final int[] indices = new int[length];
+		for (int i = 0; i < length; ++i) {
+			keys[i] = encode(values[i]);
+			indices[i] = i;
+		}
+		return sortKeys(keys, longScratch(length, 1), indices, new int[length], length);
+	}
+
+	/**
+	 * Computes the permutation sorting an array of ints.
+	 * <p>
+	 *   The sort is stable: equal values keep the order of their indices. Each index is carried in
+	 *   the low half of a long whose high half is the key, and only the passes of the high half are
+	 *   run.
+	 * </p>
+	 *
+	 * @param values the values, left unchanged
+	 * @return the indices of the values, in the order of the sorted values
+	 */
+	public static int[] argsort(final int[] values) {
+		final int length = values.length;
+		if (length == 0) {
+			return new int[0];
+		}
+		final long[] keys = longScratch(length, 0);
+		for (int i = 0; i < length; ++i) {
+			keys[i] = ((long) (values[i] ^ Integer.MIN_VALUE) << Integer.SIZE) | i;
+		}
+		final long[] sorted = sortKeys(keys, longScratch(length, 1), length, Integer.SIZE);
+		final int[] indices = new int[length];
+		for (int i = 0; i < length; ++i) {
+			indices[i] = (int) sorted[i];
+		}
+		return indices;
+	}
+
+	/**
+	 * Maps a double to a key whose unsigned order is the order of {@link Double#compare(double, double)}.
+	 */
+	protected static long encode(final double value) {
+		final long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+	}
+
+	/**
+	 * Inverse of {@link #encode(double)}.
+	 */
+	protected static double decode(final long key) {
+		return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+	}
+
+	/**
+	 * Sorts few keys with a comparison sort, the sign bit flipped to make their unsigned order signed.
+	 */
+	private static long[] sortSmall(final long[] keys, final int length) {
+		for (int i = 0; i < length; ++i) {
+			keys[i] ^= Long.MIN_VALUE;
+		}
+		Arrays.sort(keys, 0, length);
+		for (int i = 0; i < length; ++i) {
+			keys[i] ^= Long.MIN_VALUE;
+		}
+		return keys;
+	}
+
+	/**
+	 * Sorts few keys with a comparison sort, the sign bit flipped to make their unsigned order signed.
+	 */
+	private static int[] sortSmall(final int[] keys, final int length) {
+		for (int i = 0; i < length; ++i) {
+			keys[i] ^= Integer.MIN_VALUE;
+		}
+		Arrays.sort(keys, 0, length);
+		for (int i = 0; i < length; ++i) {
+			keys[i] ^= Integer.MIN_VALUE;
+		}
+		return keys;
+	}
+
+	/**
+	 * Sorts keys in unsigned order.
+	 *
+	 * @param keys the keys to sort
+	 * @param buffer a buffer at least as long as the keys
+	 * @param length the number of keys
+	 * @return the array holding the sorted keys, either {@code keys} or {@code buffer}
+	 */
+	protected static long[] sortKeys(final long[] keys, final long[] buffer, final int length) {
+		return sortKeys(keys, buffer, length, 0);
+	}
+
+	/**
+	 * Sorts keys in the unsigned order of their bits from {@code fromBit}, the lower bits keeping the
+	 * order they had.
+	 *
+	 * @param keys the keys to sort
+	 * @param buffer a buffer at least as long as the keys
+	 * @param length the number of keys
+	 * @param fromBit the first bit of the sorted digits, a multiple of {@link #DIGIT_BITS}
+	 * @return the array holding the sorted keys, either {@code keys} or {@code buffer}
+	 */
+	protected static long[] sortKeys(final long[] keys, final long[] buffer, final int length, final int fromBit) {
+		if (length >= PARALLEL_SORT_THRESHOLD) {
+			return parallelSortKeys(keys, buffer, length, fromBit);
+		}
+		final int passes = Long.SIZE / DIGIT_BITS;
+		final int[] counts = new int[passes * RADIX];
+		for (int i = 0; i < length; ++i) {
+			final long key = keys[i];
+			for (int p = fromBit / DIGIT_BITS; p < passes; ++p) {
+				++counts[(p << DIGIT_BITS) + (int) ((key >>> (p * DIGIT_BITS)) & (RADIX - 1))];
+			}
+		}
+		long[] src = keys;
+		long[] dst = buffer;
+		for (int p = fromBit / DIGIT_BITS; p < passes; ++p) {
+			final int base = p << DIGIT_BITS;
+			final int shift = p * DIGIT_BITS;
+			if (counts[base + (int) ((src[0] >>> shift) & (RADIX - 1))] == length) {
+				// All the keys share this digit
+				continue;
+			}
+			int offset = 0;
+			for (int d = 0; d < RADIX; ++d) {
+				final int count = counts[base + d];
+				counts[base + d] = offset;
+				offset += count;
+			}
+			for (int i = 0; i < length; ++i) {
+				final long key = src[i];
+				dst[counts[base + (int) ((key >>> shift) & (RADIX - 1))]++] = key;
+			}
+			final long[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+		return src;
+	}
+
+	/**
+	 * Sorts keys in unsigned order.
+	 *
+	 * @param keys the keys to sort
+	 * @param buffer a buffer at least as long as the keys
+	 * @param length the number of keys
+	 * @return the array holding the sorted keys, either {@code keys} or {@code buffer}
+	 */
+	protected static int[] sortKeys(final int[] keys, final int[] buffer, final int length) {
+		if (length >= PARALLEL_SORT_THRESHOLD) {
+			return parallelSortKeys(keys, buffer, length);
+		}
+		final int passes = Integer.SIZE / DIGIT_BITS;
+		final int[] counts = new int[passes * RADIX];
+		for (int i = 0; i < length; ++i) {
+			final int key = keys[i];
+			for (int p = 0; p < passes; ++p) {
+				++counts[(p << DIGIT_BITS) + ((key >>> (p * DIGIT_BITS)) & (RADIX - 1))];
+			}
+		}
+		int[] src = keys;
+		int[] dst = buffer;
+		for (int p = 0; p < passes; ++p) {
+			final int base = p << DIGIT_BITS;
+			final int shift = p * DIGIT_BITS;
+			if (counts[base + ((src[0] >>> shift) & (RADIX - 1))] == length) {
+				// All the keys share this digit
+				continue;
+			}
+			int offset = 0;
+			for (int d = 0; d < RADIX; ++d) {
+				final int count = counts[base + d];
+				counts[base + d] = offset;
+				offset += count;
+			}
+			for (int i = 0; i < length; ++i) {
+				final int key = src[i];
+				dst[counts[base + ((key >>> shift) & (RADIX - 1))]++] = key;
+			}
+			final int[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+		return src;
+	}
+
+	/**
+	 * Sorts keys in unsigned order, moving the indices along with them.
+	 *
+	 * @param keys the keys to sort
+	 * @param buffer a buffer at least as long as the keys
+	 * @param indices the indices associated to the keys
+	 * @param indexBuffer a buffer at least as long as the indices
+	 * @param length the number of keys
+	 * @return the array holding the indices in the order of the sorted keys, either {@code indices}
+	 *         or {@code indexBuffer}
+	 */
+	protected static int[] sortKeys(
+			final long[] keys,
+			final long[] buffer,
+			final int[] indices,
+			final int[] indexBuffer,
+			final int length) {
+		final int passes = Long.SIZE / DIGIT_BITS;
+		final int[] counts = new int[passes * RADIX];
+		for (int i = 0; i < length; ++i) {
+			final long key = keys[i];
+			for (int p = 0; p < passes; ++p) {
+				++counts[(p << DIGIT_BITS) + (int) ((key >>> (p * DIGIT_BITS)) & (RADIX - 1))];
+			}
+		}
+		long[] src = keys;
+		long[] dst = buffer;
+		int[] srcIndices = indices;
+		int[] dstIndices = indexBuffer;
+		for (int p = 0; p < passes; ++p) {
+			final int base = p << DIGIT_BITS;
+			final int shift = p * DIGIT_BITS;
+			if (counts[base + (int) ((src[0] >>> shift) & (RADIX - 1))] == length) {
+				// All the keys share this digit
+				continue;
+			}
+			int offset = 0;
+			for (int d = 0; d < RADIX; ++d) {
+				final int count = counts[base + d];
+				counts[base + d] = offset;
+				offset += count;
+			}
+			for (int i = 0; i < length; ++i) {
+				final long key = src[i];
+				final int to = counts[base + (int) ((key >>> shift) & (RADIX - 1))]++;
+				dst[to] = key;
+				dstIndices[to] = srcIndices[i];
+			}
+			final long[] tmp = src;
+			src = dst;
+			dst = tmp;
+			final int[] tmpIndices = srcIndices;
+			srcIndices = dstIndices;
+			dstIndices = tmpIndices;
+		}
+		return srcIndices;
+	}
+
+	/**
+	 * Parallel version of {@link #sortKeys(long[], long[], int, int)}: each task counts the digits of its
+	 * slice of the keys, then scatters them after the keys of the same digit of the previous slices.
+	 */
+	protected static long[] parallelSortKeys(
+			final long[] keys,
+			final long[] buffer,
+			final int length,
+			final int fromBit) {
+		final int tasks = taskCount(length);
+		final int slice = (length + tasks - 1) / tasks;
+		long[] src = keys;
+		long[] dst = buffer;
+		for (int shift = fromBit; shift < Long.SIZE; shift += DIGIT_BITS) {
+			final long[] from = src;
+			final long[] to = dst;
+			final int s = shift;
+			final int[][] offsets = new int[tasks][RADIX];
+			IntStream.range(0, tasks).parallel().forEach(t -> {
+				final int[] counts = offsets[t];
+				final int end = Math.min(length, (t + 1) * slice);
+				for (int i = t * slice; i < end; ++i) {
+					++counts[(int) ((from[i] >>> s) & (RADIX - 1))];
+				}
+			});
+			if (toOffsets(offsets, length)) {
+				continue;
+			}
+			IntStream.range(0, tasks).parallel().forEach(t -> {
+				final int[] next = offsets[t];
+				final int end = Math.min(length, (t + 1) * slice);
+				for (int i = t * slice; i < end; ++i) {
+					final long key = from[i];
+					to[next[(int) ((key >>> s) & (RADIX - 1))]++] = key;
+				}
+			});
+			src = to;
+			dst = from;
+		}
+		return src;
+	}
+
+	/**
+	 * Parallel version of {@link #sortKeys(int[], int[], int)}.
+	 *
+	 * @see #parallelSortKeys(long[], long[], int, int)
+	 */
+	protected static int[] parallelSortKeys(final int[] keys, final int[] buffer, final int length) {
+		final int tasks = taskCount(length);
+		final int slice = (length + tasks - 1) / tasks;
+		int[] src = keys;
+		int[] dst = buffer;
+		for (int shift = 0; shift < Integer.SIZE; shift += DIGIT_BITS) {
+			final int[] from = src;
+			final int[] to = dst;
+			final int s = shift;
+			final int[][] offsets = new int[tasks][RADIX];
+			IntStream.range(0, tasks).parallel().forEach(t -> {
+				final int[] counts = offsets[t];
+				final int end = Math.min(length, (t + 1) * slice);
+				for (int i = t * slice; i < end; ++i) {
+					++counts[(from[i] >>> s) & (RADIX - 1)];
+				}
+			});
+			if (toOffsets(offsets, length)) {
+				continue;
+			}
+			IntStream.range(0, tasks).parallel().forEach(t -> {
+				final int[] next = offsets[t];
+				final int end = Math.min(length, (t + 1) * slice);
+				for (int i = t * slice; i < end; ++i) {
+					final int key = from[i];
+					to[next[(key >>> s) & (RADIX - 1)]++] = key;
+				}
+			});
+			src = to;
+			dst = from;
+		}
+		return src;
+	}
+
+	/**
+	 * Turns the digit counts of each task into the index where the task writes its first key of each digit.
+	 *
+	 * @param counts the digit counts of each task, replaced by the offsets
+	 * @param length the total number of keys
+	 * @return {@code true} if all the keys share the same digit, and the pass can be skipped
+	 */
+	private static boolean toOffsets(final int[][] counts, final int length) {
+		int offset = 0;
+		for (int d = 0; d < RADIX; ++d) {
+			int total = 0;
+			for (final int[] c : counts) {
+				total += c[d];
+			}
+			if (total == length) {
+				return true;
+			}
+			for (final int[] c : counts) {
+				final int count = c[d];
+				c[d] = offset;
+				offset += count;
+			}
+		}
+		return false;
+	}
+
+	private static int taskCount(final int length) {
+		final int tasks = Math.min(ForkJoinPool.getCommonPoolParallelism(), length / (PARALLEL_SORT_THRESHOLD >> 2));
+		return Math.max(1, tasks);
+	}
+
+	private static long[] longScratch(final int length, final int index) {
+		if (length > MAX_RETAINED_SCRATCH_LENGTH) {
+			return new long[length];
+		}
+		final Scratch scratch = SCRATCH.get();
+		if (scratch.longs[index].length < length) {
+			scratch.longs[index] = new long[length];
+		}
+		return scratch.longs[index];
+	}
+
+	private static int[] intScratch(final int length, final int index) {
+		if (length > MAX_RETAINED_SCRATCH_LENGTH) {
+			return new int[length];
+		}
+		final Scratch scratch = SCRATCH.get();
+		if (scratch.ints[index].length < length) {
+			scratch.ints[index] = new int[length];
+		}
+		return scratch.ints[index];
+	}
+
+	/**
+	 * The scratch arrays of a thread: the keys and the buffer they are sorted with.
+	 *
+	 * @author ActiveViam
+	 */
+	protected static class Scratch {
+
+		/** The scratch arrays of the doubles */
+		protected final long[][] longs = {new long[0], new long[0]};
+
+		/** The scratch arrays of the ints */
+		protected final int[][] ints = {new int[0], new int[0]};
+
+	}
+
+}
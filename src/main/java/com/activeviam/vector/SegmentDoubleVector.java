@@ -10,16 +10,13 @@ package com.activeviam.vector;
 import com.activeviam.Types;
 import com.activeviam.allocator.AllocationType;
 import com.activeviam.chunk.ADirectVectorBlock;
-import com.activeviam.chunk.IBlock;
 import com.activeviam.chunk.SegmentDoubleBlock;
 import com.activeviam.chunk.SegmentIntegerBlock;
 import jdk.incubator.vector.DoubleVector;
 import jdk.incubator.vector.IntVector;
-import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 import java.lang.foreign.MemorySegment;
-import java.util.Arrays;
 
 /**
  * Basic implementation for an integer segment block vector.
@@ -47,7 +44,7 @@ public class SegmentDoubleVector extends ASegmentVector {
     @Override
     public ITransientVector sort() {
         final double[] a = toDoubleArray();
-        Arrays.sort(a);
+        RadixSortUtil.sort(a, 0, a.length);
         return new ArrayDoubleVector(a);
     }
 
@@ -66,13 +63,7 @@ public class SegmentDoubleVector extends ASegmentVector {
     public void copyFrom(IVector vector) {
         final int length = vector.size();
         checkIndex(0, length);
-        var segVector = (SegmentDoubleVector) vector;
-        MemorySegment.copy(
-                segVector.block.getSegment(),
-                (long) segVector.position * 8,
-                block.getSegment(),
-                (long) position * 8,
-                (long) length * 8);
+        VectorCopyUtil.copy(this, vector, length);
     }
 
     @Override
@@ -126,18 +117,8 @@ public class SegmentDoubleVector extends ASegmentVector {
     }
 
     @Override
-    public double average() {
-        return (double) sumDouble() / this.length;
-    }
-
-    @Override
-    protected double squaredEuclideanDistance(final IBlock block, final int position) {
-        double s = 0;
-        for (int i = 0; i < this.length; i++) {
-            final double a = block.readDouble(position + i);
-            s += a * a;
-        }
-        return s;
+    protected IVector createSubVector(final int from, final int length) {
+        return new SegmentDoubleVector((SegmentDoubleBlock) this.block, this.position + from, length);
     }
 
     @Override
@@ -154,72 +135,4 @@ public class SegmentDoubleVector extends ASegmentVector {
         ((SegmentDoubleBlock) block).putSimd(position + i, position + length, vec);
     }
 
-    @Override
-    public void plus(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).add(right.getSimd(i)));
-        }
-    }
-
-    @Override
-    public void plusPositiveValues(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).add(right.getSimd(i).max(0)));
-        }
-    }
-
-    @Override
-    public void plusNegativeValues(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).add(right.getSimd(i).min(0)));
-        }
-    }
-
-    @Override
-    public void minus(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).sub(right.getSimd(i)));
-        }
-    }
-
-    @Override
-    public void minusPositiveValues(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).sub(right.getSimd(i).max(0)));
-        }
-    }
-
-    @Override
-    public void minusNegativeValues(IVector vector) {
-        final int length = vector.size();
-        checkIndex(0, length);
-        var right = (SegmentDoubleVector) vector;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            putSimd(i, getSimd(i).sub(right.getSimd(i).min(0)));
-        }
-    }
-
-    @Override
-    public double sumDouble() {
-        double sum = 0;
-        for(int i = 0; i < length; i += VECTOR_STEP) {
-            sum += getSimd(i).reduceLanes(VectorOperators.ADD);
-        }
-        return sum;
-    }
 }
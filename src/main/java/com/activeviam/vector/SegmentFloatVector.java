@@ -0,0 +1,151 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.AllocationType;
+import com.activeviam.chunk.SegmentFloatBlock;
+import jdk.incubator.vector.FloatVector;
+
+import java.util.Arrays;
+
+/**
+ * Basic implementation for a float segment block vector.
+ *
+ * @author ActiveViam
+ */
+public class SegmentFloatVector extends ASegmentVector {
+
+    /**
+     * Constructor.
+     *
+     * @param block the block on which to create the vector
+     * @param position the position in the block
+     * @param length the length of the vector
+     */
+    public SegmentFloatVector(SegmentFloatBlock block, int position, int length) {
+        super(block, position, length);
+    }
+
+    @Override
+    public AllocationType getAllocation() {
+        return this.block.getAllocation();
+    }
+
+    @Override
+    public ITransientVector sort() {
+        final float[] a = toFloatArray();
+        Arrays.sort(a);
+        return new ArrayFloatVector(a);
+    }
+
+    @Override
+    public Types getComponentType() {
+        return Types.FLOAT;
+    }
+
+    @Override
+    public void copyFrom(float[] src) {
+        checkIndex(0, src.length);
+        this.block.write(position, src);
+    }
+
+    @Override
+    public void copyFrom(double[] src) {
+        checkIndex(0, src.length);
+        this.block.write(position, src);
+    }
+
+    @Override
+    public void copyFrom(IVector vector) {
+        final int length = vector.size();
+        checkIndex(0, length);
+        VectorCopyUtil.copy(this, vector, length);
+    }
+
+    @Override
+    public void copyTo(float[] dst) {
+        checkIndex(0, dst.length);
+        this.block.transfer(position, dst);
+    }
+
+    @Override
+    public void copyTo(double[] dst) {
+        checkIndex(0, dst.length);
+        this.block.transfer(position, dst);
+    }
+
+    @Override
+    public Float read(final int index) {
+        return readFloat(index);
+    }
+
+    @Override
+    public float readFloat(final int index) {
+        checkIndex(index);
+        return this.block.readFloat(this.position + index);
+    }
+
+    @Override
+    public double readDouble(final int index) {
+        return readFloat(index);
+    }
+
+    @Override
+    public void write(final int index, final Object value) {
+        if (value instanceof Number) {
+            writeFloat(index, ((Number) value).floatValue());
+        }
+    }
+
+    @Override
+    public void writeFloat(final int index, final float value) {
+        checkIndex(index);
+        this.block.writeFloat(this.position + index, value);
+    }
+
+    @Override
+    public void writeDouble(final int index, final double value) {
+        writeFloat(index, (float) value);
+    }
+
+    @Override
+    public void addFloat(final int position, final float addedValue) {
+        writeFloat(position, readFloat(position) + addedValue);
+    }
+
+    @Override
+    public void addDouble(final int position, final double addedValue) {
+        writeFloat(position, (float) (readFloat(position) + addedValue));
+    }
+
+    @Override
+    public float sumFloat() {
+        return (float) sumDouble();
+    }
+
+    @Override
+    protected IVector createSubVector(final int from, final int length) {
+        return new SegmentFloatVector((SegmentFloatBlock) this.block, this.position + from, length);
+    }
+
+    @Override
+    public IVector cloneOnHeap() {
+        return new ArrayFloatVector(toFloatArray());
+    }
+
+    public static final int VECTOR_STEP = SegmentFloatBlock.VECTOR_SPECIES.length();
+
+    protected FloatVector getSimd(int i) {
+        return ((SegmentFloatBlock) block).getSimd(position + i, position + length);
+    }
+    protected void putSimd(int i, FloatVector vec) {
+        ((SegmentFloatBlock) block).putSimd(position + i, position + length, vec);
+    }
+
+}
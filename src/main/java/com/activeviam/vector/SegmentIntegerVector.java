@@ -9,13 +9,11 @@ package com.activeviam.vector;
 
 import com.activeviam.Types;
 import com.activeviam.allocator.AllocationType;
-import com.activeviam.chunk.IBlock;
 import com.activeviam.chunk.SegmentIntegerBlock;
 import jdk.incubator.vector.IntVector;
 import jdk.incubator.vector.VectorOperators;
 
 import java.lang.foreign.MemorySegment;
-import java.util.Arrays;
 
 /**
  * Basic implementation for an integer segment block vector.
@@ -43,7 +41,7 @@ public class SegmentIntegerVector extends ASegmentVector {
 	@Override
 	public ITransientVector sort() {
 		final int[] a = toIntArray();
-		Arrays.sort(a);
+		RadixSortUtil.sort(a, 0, a.length);
 		return new ArrayIntegerVector(a);
 	}
 
@@ -62,13 +60,7 @@ public class SegmentIntegerVector extends ASegmentVector {
 	public void copyFrom(IVector vector) {
 		final int length = vector.size();
 		checkIndex(0, length);
-		var segVector = (SegmentIntegerVector) vector;
-		MemorySegment.copy(
-			segVector.block.getSegment(),
-			(long) segVector.position * 4,
-			block.getSegment(),
-			(long) position * 4,
-			(long) length * 4);
+		VectorCopyUtil.copy(this, vector, length);
 	}
 	
 	@Override
@@ -76,6 +68,12 @@ public class SegmentIntegerVector extends ASegmentVector {
 		checkIndex(0, dst.length);
 		this.block.transfer(position, dst);
 	}
+
+	@Override
+	public void copyTo(double[] dst) {
+		checkIndex(0, dst.length);
+		VectorCopyUtil.widen(dst, 0, this.block.getSegment(), (long) this.position << 2, dst.length);
+	}
 	
 	public final int[] toIntArraySimd() {
 		final int[] res = new int[size()];
@@ -128,18 +126,8 @@ public class SegmentIntegerVector extends ASegmentVector {
 	}
 
 	@Override
-	public double average() {
-		return (double) sumInt() / this.length;
-	}
-
-	@Override
-	protected double squaredEuclideanDistance(final IBlock block, final int position) {
-		int s = 0;
-		for (int i = 0; i < this.length; i++) {
-			final int a = block.readInt(position + i);
-			s += a * a;
-		}
-		return s;
+	protected IVector createSubVector(final int from, final int length) {
+		return new SegmentIntegerVector((SegmentIntegerBlock) this.block, this.position + from, length);
 	}
 
 	@Override
@@ -156,66 +144,6 @@ public class SegmentIntegerVector extends ASegmentVector {
 		((SegmentIntegerBlock) block).putSimd(position + i, position + length, vec);
 	}
 
-	@Override
-	public void plus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).add(right.getSimd(i)));
-		}
-	}
-
-	@Override
-	public void plusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).add(right.getSimd(i).max(0)));
-		}
-	}
-
-	@Override
-	public void plusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).add(right.getSimd(i).min(0)));
-		}
-	}
-
-	@Override
-	public void minus(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).sub(right.getSimd(i)));
-		}
-	}
-
-	@Override
-	public void minusPositiveValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).sub(right.getSimd(i).max(0)));
-		}
-	}
-
-	@Override
-	public void minusNegativeValues(IVector vector) {
-		final int length = vector.size();
-		checkIndex(0, length);
-		var right = (SegmentIntegerVector) vector;
-		for(int i = 0; i < length; i += VECTOR_STEP) {
-			putSimd(i, getSimd(i).sub(right.getSimd(i).min(0)));
-		}
-	}
-	
 	@Override
 	public int sumInt() {
 		int sum = 0;
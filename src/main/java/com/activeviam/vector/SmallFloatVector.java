@@ -0,0 +1,255 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+
+/**
+ * Implementation of an on-heap {@link IVector} of at most {@link #MAX_SIZE} floats, stored in fields
+ * rather than in an array.
+ * <p>
+ * The arithmetic computes in the type of the operand and narrows the result to a float, like the compound
+ * assignments of {@link ArrayFloatVector}.
+ *
+ * @author ActiveViam
+ */
+public class SmallFloatVector extends ASmallVector {
+
+	/** The vector holding the fields, this vector itself unless it is a view. */
+	private final SmallFloatVector storage;
+
+	private float c0;
+	private float c1;
+	private float c2;
+	private float c3;
+	private float c4;
+	private float c5;
+	private float c6;
+	private float c7;
+
+	/**
+	 * Constructor of a vector of zeros.
+	 *
+	 * @param size the number of components of the vector, at most {@link #MAX_SIZE}
+	 */
+	public SmallFloatVector(final int size) {
+		super(0, checkSize(size));
+		this.storage = this;
+	}
+
+	private SmallFloatVector(final SmallFloatVector storage, final int position, final int length) {
+		super(position, length);
+		this.storage = storage;
+	}
+
+	/**
+	 * Static constructor to build a small vector of float values.
+	 *
+	 * @param values the components of the vector, at most {@link #MAX_SIZE}
+	 * @return the vector
+	 */
+	public static SmallFloatVector of(final float... values) {
+		final SmallFloatVector vector = new SmallFloatVector(values.length);
+		vector.copyFrom(values);
+		return vector;
+	}
+
+	@Override
+	protected ASmallVector createView(final int position, final int length) {
+		return new SmallFloatVector(this.storage, position, length);
+	}
+
+	@Override
+	protected ASmallVector create(final int size) {
+		return new SmallFloatVector(size);
+	}
+
+	@Override
+	public Types getComponentType() {
+		return Types.FLOAT;
+	}
+
+	@Override
+	public Float read(final int index) {
+		return readFloat(index);
+	}
+
+	@Override
+	public float readFloat(final int index) {
+		return this.storage.get(this.position + checkIndex(index));
+	}
+
+	@Override
+	public double readDouble(final int index) {
+		return readFloat(index);
+	}
+
+	@Override
+	public long readLong(final int index) {
+		return (long) readFloat(index);
+	}
+
+	@Override
+	public int readInt(final int index) {
+		return (int) readFloat(index);
+	}
+
+	@Override
+	public void write(final int index, final Object value) {
+		if (value instanceof Number) {
+			writeFloat(index, ((Number) value).floatValue());
+		}
+	}
+
+	@Override
+	public void writeFloat(final int index, final float value) {
+		this.storage.set(this.position + checkIndex(index), value);
+	}
+
+	@Override
+	public void writeDouble(final int index, final double value) {
+		writeFloat(index, (float) value);
+	}
+
+	@Override
+	public void writeLong(final int index, final long value) {
+		writeFloat(index, value);
+	}
+
+	@Override
+	public void writeInt(final int index, final int value) {
+		writeFloat(index, value);
+	}
+
+	@Override
+	public void addFloat(final int index, final float value) {
+		writeFloat(index, readFloat(index) + value);
+	}
+
+	@Override
+	public void addDouble(final int index, final double value) {
+		writeFloat(index, (float) (readFloat(index) + value));
+	}
+
+	@Override
+	public void addLong(final int index, final long value) {
+		writeFloat(index, readFloat(index) + value);
+	}
+
+	@Override
+	public void addInt(final int index, final int value) {
+		writeFloat(index, readFloat(index) + value);
+	}
+
+	@Override
+	public void scale(final float v) {
+		for (int i = 0; i < this.length; ++i) {
+			writeFloat(i, readFloat(i) * v);
+		}
+	}
+
+	@Override
+	public void scale(final double v) {
+		for (int i = 0; i < this.length; ++i) {
+			writeFloat(i, (float) (readFloat(i) * v));
+		}
+	}
+
+	@Override
+	public void scale(final long v) {
+		for (int i = 0; i < this.length; ++i) {
+			writeFloat(i, readFloat(i) * v);
+		}
+	}
+
+	@Override
+	public void scale(final int v) {
+		for (int i = 0; i < this.length; ++i) {
+			writeFloat(i, readFloat(i) * v);
+		}
+	}
+
+	@Override
+	public void translate(final float v) {
+		for (int i = 0; i < this.length; ++i) {
+			addFloat(i, v);
+		}
+	}
+
+	@Override
+	public void translate(final double v) {
+		for (int i = 0; i < this.length; ++i) {
+			addDouble(i, v);
+		}
+	}
+
+	@Override
+	public void translate(final long v) {
+		for (int i = 0; i < this.length; ++i) {
+			addLong(i, v);
+		}
+	}
+
+	@Override
+	public void translate(final int v) {
+		for (int i = 0; i < this.length; ++i) {
+			addInt(i, v);
+		}
+	}
+
+	private float get(final int slot) {
+		switch (slot) {
+			case 0:
+				return this.c0;
+			case 1:
+				return this.c1;
+			case 2:
+				return this.c2;
+			case 3:
+				return this.c3;
+			case 4:
+				return this.c4;
+			case 5:
+				return this.c5;
+			case 6:
+				return this.c6;
+			default:
+				return this.c7;
+		}
+	}
+
+	private void set(final int slot, final float value) {
+		switch (slot) {
+			case 0:
+				this.c0 = value;
+				break;
+			case 1:
+				this.c1 = value;
+				break;
+			case 2:
+				this.c2 = value;
+				break;
+			case 3:
+				this.c3 = value;
+				break;
+			case 4:
+				this.c4 = value;
+				break;
+			case 5:
+				this.c5 = value;
+				break;
+			case 6:
+				this.c6 = value;
+				break;
+			default:
+				this.c7 = value;
+				break;
+		}
+	}
+
+}
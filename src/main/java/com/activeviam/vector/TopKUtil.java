@@ -0,0 +1,889 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.FLOAT_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.INT_SPECIES;
+
+import com.activeviam.heap.MaxHeapDouble;
+import com.activeviam.heap.MaxHeapDoubleWithIndices;
+import com.activeviam.heap.MaxHeapInteger;
+import com.activeviam.heap.MaxHeapIntegerWithIndices;
+import com.activeviam.heap.MinHeapDouble;
+import com.activeviam.heap.MinHeapDoubleWithIndices;
+import com.activeviam.heap.MinHeapInteger;
+import com.activeviam.heap.MinHeapIntegerWithIndices;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Utility computing the k largest or smallest components of a vector, shared by every memory layout.
+ * <p>
+ *   Once the heap is full, its root is the threshold a component must beat to enter it. The values
+ *   are compared to that threshold with SIMD instructions, a whole register at a time, and only the
+ *   indices of the lanes beating it are collected. The collected candidates are then offered to the
+ *   heap, which refreshes the threshold before the next batch is scanned. For large vectors and
+ *   small k, such as the tails extracted to compute a VaR, almost all the registers are rejected
+ *   with a single comparison.
+ * </p>
+ * <p>
+ *   Indices in the returned heaps are relative to the first component of the range.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class TopKUtil {
+
+	/** Maximum number of candidates collected before the threshold is refreshed */
+	protected static final int BATCH_SIZE = 64;
+
+	private TopKUtil() {}
+
+	/**
+	 * Computes the k largest values of a range of an array.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapDouble topK(final double[] array, final int from, final int length, final int k) {
+		return topKDouble(new DoubleArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest values of a range of an array, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapDoubleWithIndices topKWithIndices(
+			final double[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return topKDoubleWithIndices(new DoubleArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapDouble bottomK(final double[] array, final int from, final int length, final int k) {
+		return bottomKDouble(new DoubleArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapDoubleWithIndices bottomKWithIndices(
+			final double[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return bottomKDoubleWithIndices(new DoubleArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest values of a range of an array.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDouble topK(final int[] array, final int from, final int length, final int k) {
+		return topKDouble(new IntArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest values of a range of an array, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDoubleWithIndices topKWithIndices(
+			final int[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return topKDoubleWithIndices(new IntArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDouble bottomK(final int[] array, final int from, final int length, final int k) {
+		return bottomKDouble(new IntArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDoubleWithIndices bottomKWithIndices(
+			final int[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return bottomKDoubleWithIndices(new IntArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest values of a range of an array of floats.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDouble topK(final float[] array, final int from, final int length, final int k) {
+		return topKDouble(new FloatArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest values of a range of an array of floats, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDoubleWithIndices topKWithIndices(
+			final float[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return topKDoubleWithIndices(new FloatArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array of floats.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDouble bottomK(final float[] array, final int from, final int length, final int k) {
+		return bottomKDouble(new FloatArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k smallest values of a range of an array of floats, and their indices.
+	 *
+	 * @param array the values
+	 * @param from the index of the first value of the range
+	 * @param length the length of the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDoubleWithIndices bottomKWithIndices(
+			final float[] array,
+			final int from,
+			final int length,
+			final int k) {
+		return bottomKDoubleWithIndices(new FloatArrayScanner(array, from), length, k);
+	}
+
+	/**
+	 * Computes the k largest doubles of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first double of the range
+	 * @param length the number of doubles in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapDouble topKDouble(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return topKDouble(new DoubleSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k largest doubles of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first double of the range
+	 * @param length the number of doubles in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapDoubleWithIndices topKDoubleWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return topKDoubleWithIndices(new DoubleSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k smallest doubles of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first double of the range
+	 * @param length the number of doubles in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapDouble bottomKDouble(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return bottomKDouble(new DoubleSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k smallest doubles of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first double of the range
+	 * @param length the number of doubles in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapDoubleWithIndices bottomKDoubleWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return bottomKDoubleWithIndices(new DoubleSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k largest floats of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first float of the range
+	 * @param length the number of floats in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDouble topKFloat(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return topKDouble(new FloatSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k largest floats of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first float of the range
+	 * @param length the number of floats in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values, as doubles
+	 */
+	public static MinHeapDoubleWithIndices topKFloatWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return topKDoubleWithIndices(new FloatSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k smallest floats of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first float of the range
+	 * @param length the number of floats in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDouble bottomKFloat(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return bottomKDouble(new FloatSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k smallest floats of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first float of the range
+	 * @param length the number of floats in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values, as doubles
+	 */
+	public static MaxHeapDoubleWithIndices bottomKFloatWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		return bottomKDoubleWithIndices(new FloatSegmentScanner(segment, offset), length, k);
+	}
+
+	/**
+	 * Computes the k largest ints of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first int of the range
+	 * @param length the number of ints in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapInteger topKInt(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		final IntSegmentScanner scanner = new IntSegmentScanner(segment, offset);
+		final MinHeapInteger h = new MinHeapInteger(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readInt(j));
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), true);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int item = scanner.readInt(scanner.candidates[c]);
+				if (item > h.peek()) {
+					h.poll();
+					h.add(item);
+				}
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Computes the k largest ints of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first int of the range
+	 * @param length the number of ints in the range
+	 * @param k the number of values to keep
+	 * @return a min heap containing the k largest values
+	 */
+	public static MinHeapIntegerWithIndices topKIntWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		final IntSegmentScanner scanner = new IntSegmentScanner(segment, offset);
+		final MinHeapIntegerWithIndices h = new MinHeapIntegerWithIndices(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readInt(j), j);
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), true);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int index = scanner.candidates[c];
+				final int item = scanner.readInt(index);
+				if (item > h.peek()) {
+					h.poll();
+					h.add(item, index);
+				}
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Computes the k smallest ints of a range of a memory segment.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first int of the range
+	 * @param length the number of ints in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapInteger bottomKInt(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		final IntSegmentScanner scanner = new IntSegmentScanner(segment, offset);
+		final MaxHeapInteger h = new MaxHeapInteger(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readInt(j));
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), false);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int item = scanner.readInt(scanner.candidates[c]);
+				if (item < h.peek()) {
+					h.poll();
+					h.add(item);
+				}
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Computes the k smallest ints of a range of a memory segment, and their indices.
+	 *
+	 * @param segment the memory segment
+	 * @param offset the offset in bytes of the first int of the range
+	 * @param length the number of ints in the range
+	 * @param k the number of values to keep
+	 * @return a max heap containing the k smallest values
+	 */
+	public static MaxHeapIntegerWithIndices bottomKIntWithIndices(
+			final MemorySegment segment,
+			final long offset,
+			final int length,
+			final int k) {
+		final IntSegmentScanner scanner = new IntSegmentScanner(segment, offset);
+		final MaxHeapIntegerWithIndices h = new MaxHeapIntegerWithIndices(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readInt(j), j);
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), false);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int index = scanner.candidates[c];
+				final int item = scanner.readInt(index);
+				if (item < h.peek()) {
+					h.poll();
+					h.add(item, index);
+				}
+			}
+		}
+		return h;
+	}
+
+	private static MinHeapDouble topKDouble(final AScanner scanner, final int length, final int k) {
+		final MinHeapDouble h = new MinHeapDouble(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readDouble(j));
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), true);
+			for (int c = 0; c < scanner.count; ++c) {
+				final double item = scanner.readDouble(scanner.candidates[c]);
+				if (item > h.peek()) {
+					h.poll();
+					h.add(item);
+				}
+			}
+		}
+		return h;
+	}
+
+	private static MinHeapDoubleWithIndices topKDoubleWithIndices(
+			final AScanner scanner,
+			final int length,
+			final int k) {
+		final MinHeapDoubleWithIndices h = new MinHeapDoubleWithIndices(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readDouble(j), j);
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), true);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int index = scanner.candidates[c];
+				final double item = scanner.readDouble(index);
+				if (item > h.peek()) {
+					h.poll();
+					h.add(item, index);
+				}
+			}
+		}
+		return h;
+	}
+
+	private static MaxHeapDouble bottomKDouble(final AScanner scanner, final int length, final int k) {
+		final MaxHeapDouble h = new MaxHeapDouble(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readDouble(j));
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), false);
+			for (int c = 0; c < scanner.count; ++c) {
+				final double item = scanner.readDouble(scanner.candidates[c]);
+				if (item < h.peek()) {
+					h.poll();
+					h.add(item);
+				}
+			}
+		}
+		return h;
+	}
+
+	private static MaxHeapDoubleWithIndices bottomKDoubleWithIndices(
+			final AScanner scanner,
+			final int length,
+			final int k) {
+		final MaxHeapDoubleWithIndices h = new MaxHeapDoubleWithIndices(k);
+		int i = start(length, k);
+		for (int j = 0; j < i && j < k; ++j) {
+			h.add(scanner.readDouble(j), j);
+		}
+		while (i < length) {
+			i = scanner.scan(i, length, h.peek(), false);
+			for (int c = 0; c < scanner.count; ++c) {
+				final int index = scanner.candidates[c];
+				final double item = scanner.readDouble(index);
+				if (item < h.peek()) {
+					h.poll();
+					h.add(item, index);
+				}
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * @return the index of the first value left to scan once the first k values are in the heap,
+	 *         which is the length of the range when k is 0, as an empty heap has no threshold
+	 */
+	private static int start(final int length, final int k) {
+		return k == 0 ? length : Math.min(k, length);
+	}
+
+	/**
+	 * Reads the values of a range and collects the indices of the values beating a threshold.
+	 */
+	private abstract static class AScanner {
+
+		/** The indices, relative to the start of the range, of the values collected by the last scan */
+		protected final int[] candidates = new int[BATCH_SIZE];
+
+		/** The number of values collected by the last scan */
+		protected int count;
+
+		/**
+		 * Collects the values of a range beating a threshold, until either the end of the range or
+		 * {@link #BATCH_SIZE} candidates have been collected.
+		 *
+		 * @param from the index of the first value to scan
+		 * @param to the index after the last value of the range
+		 * @param threshold the value to beat
+		 * @param greater whether the values must be greater than the threshold, or smaller
+		 * @return the index of the first value left to scan
+		 */
+		abstract int scan(int from, int to, double threshold, boolean greater);
+
+		abstract double readDouble(int index);
+
+		abstract int readInt(int index);
+
+		/**
+		 * Collects the indices of the lanes set in a comparison mask.
+		 */
+		protected final void collect(final int index, long lanes) {
+			while (lanes != 0) {
+				this.candidates[this.count++] = index + Long.numberOfTrailingZeros(lanes);
+				lanes &= lanes - 1;
+			}
+		}
+
+		/**
+		 * Collects a value of the scalar tail of a range.
+		 */
+		protected final void collect(final int index, final double value, final double threshold, final boolean greater) {
+			if (greater ? value > threshold : value < threshold) {
+				this.candidates[this.count++] = index;
+			}
+		}
+	}
+
+	private static final class DoubleArrayScanner extends AScanner {
+
+		private final double[] array;
+		private final int from;
+
+		DoubleArrayScanner(final double[] array, final int from) {
+			this.array = array;
+			this.from = from;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = DOUBLE_SPECIES.length();
+			final int bound = from + DOUBLE_SPECIES.loopBound(to - from);
+			final DoubleVector t = DoubleVector.broadcast(DOUBLE_SPECIES, threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final DoubleVector v = DoubleVector.fromArray(DOUBLE_SPECIES, this.array, this.from + i);
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readDouble(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return this.array[this.from + index];
+		}
+
+		@Override
+		int readInt(final int index) {
+			return (int) readDouble(index);
+		}
+	}
+
+	private static final class IntArrayScanner extends AScanner {
+
+		private final int[] array;
+		private final int from;
+
+		IntArrayScanner(final int[] array, final int from) {
+			this.array = array;
+			this.from = from;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = INT_SPECIES.length();
+			final int bound = from + INT_SPECIES.loopBound(to - from);
+			// The threshold is a value of the vector, hence the cast is exact
+			final IntVector t = IntVector.broadcast(INT_SPECIES, (int) threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final IntVector v = IntVector.fromArray(INT_SPECIES, this.array, this.from + i);
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readInt(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return this.array[this.from + index];
+		}
+
+		@Override
+		int readInt(final int index) {
+			return this.array[this.from + index];
+		}
+	}
+
+	private static final class DoubleSegmentScanner extends AScanner {
+
+		private final MemorySegment segment;
+		private final long offset;
+
+		DoubleSegmentScanner(final MemorySegment segment, final long offset) {
+			this.segment = segment;
+			this.offset = offset;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = DOUBLE_SPECIES.length();
+			final int bound = from + DOUBLE_SPECIES.loopBound(to - from);
+			final DoubleVector t = DoubleVector.broadcast(DOUBLE_SPECIES, threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final DoubleVector v = DoubleVector.fromMemorySegment(
+						DOUBLE_SPECIES, this.segment, this.offset + ((long) i << 3), ByteOrder.nativeOrder());
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readDouble(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return this.segment.get(ValueLayout.JAVA_DOUBLE, this.offset + ((long) index << 3));
+		}
+
+		@Override
+		int readInt(final int index) {
+			return (int) readDouble(index);
+		}
+	}
+
+	private static final class IntSegmentScanner extends AScanner {
+
+		private final MemorySegment segment;
+		private final long offset;
+
+		IntSegmentScanner(final MemorySegment segment, final long offset) {
+			this.segment = segment;
+			this.offset = offset;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = INT_SPECIES.length();
+			final int bound = from + INT_SPECIES.loopBound(to - from);
+			// The threshold is a value of the vector, hence the cast is exact
+			final IntVector t = IntVector.broadcast(INT_SPECIES, (int) threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final IntVector v = IntVector.fromMemorySegment(
+						INT_SPECIES, this.segment, this.offset + ((long) i << 2), ByteOrder.nativeOrder());
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readInt(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return readInt(index);
+		}
+
+		@Override
+		int readInt(final int index) {
+			return this.segment.get(ValueLayout.JAVA_INT, this.offset + ((long) index << 2));
+		}
+	}
+
+	private static final class FloatArrayScanner extends AScanner {
+
+		private final float[] array;
+		private final int from;
+
+		FloatArrayScanner(final float[] array, final int from) {
+			this.array = array;
+			this.from = from;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = FLOAT_SPECIES.length();
+			final int bound = from + FLOAT_SPECIES.loopBound(to - from);
+			// The threshold is a value of the vector, hence the cast is exact
+			final FloatVector t = FloatVector.broadcast(FLOAT_SPECIES, (float) threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, this.array, this.from + i);
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readDouble(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return this.array[this.from + index];
+		}
+
+		@Override
+		int readInt(final int index) {
+			return (int) readDouble(index);
+		}
+	}
+
+	private static final class FloatSegmentScanner extends AScanner {
+
+		private final MemorySegment segment;
+		private final long offset;
+
+		FloatSegmentScanner(final MemorySegment segment, final long offset) {
+			this.segment = segment;
+			this.offset = offset;
+		}
+
+		@Override
+		int scan(final int from, final int to, final double threshold, final boolean greater) {
+			this.count = 0;
+			final int lanes = FLOAT_SPECIES.length();
+			final int bound = from + FLOAT_SPECIES.loopBound(to - from);
+			// The threshold is a value of the vector, hence the cast is exact
+			final FloatVector t = FloatVector.broadcast(FLOAT_SPECIES, (float) threshold);
+			int i = from;
+			for (; i < bound && this.count <= BATCH_SIZE - lanes; i += lanes) {
+				final FloatVector v = FloatVector.fromMemorySegment(
+						FLOAT_SPECIES, this.segment, this.offset + ((long) i << 2), ByteOrder.nativeOrder());
+				collect(i, greater
+						? v.compare(VectorOperators.GT, t).toLong()
+						: v.compare(VectorOperators.LT, t).toLong());
+			}
+			for (; i >= bound && i < to && this.count < BATCH_SIZE; ++i) {
+				collect(i, readDouble(i), threshold, greater);
+			}
+			return i;
+		}
+
+		@Override
+		double readDouble(final int index) {
+			return this.segment.get(ValueLayout.JAVA_FLOAT, this.offset + ((long) index << 2));
+		}
+
+		@Override
+		int readInt(final int index) {
+			return (int) readDouble(index);
+		}
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.ALL_VALUES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Sums of many {@link IVector vectors} into a single accumulator, written with the Panama Vector API.
+ * <p>
+ *   The accumulator is cut into tiles of {@link #TILE_SIZE} components, small enough to stay in the
+ *   L1 cache, and all the added vectors are streamed through a tile before moving to the next one:
+ *   the accumulator is read from and written to memory once per tile instead of once per added
+ *   vector. The layout of each added vector is resolved once for the whole sum, not once per tile, and
+ *   each tile is added with the kernels of {@link VectorArithmeticUtil}.
+ * </p>
+ * <p>
+ *   Sums adding at least {@link #PARALLEL_AGGREGATION_THRESHOLD} components are split between several
+ *   threads, each one owning a contiguous range of tiles, so that no two threads write the same part
+ *   of the accumulator.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorAggregationUtil {
+
+	/** The number of components of the accumulator updated by all the added vectors at once */
+	public static final int TILE_SIZE = 2048;
+
+	/** The total number of added components from which the sum is computed in parallel */
+	public static final long PARALLEL_AGGREGATION_THRESHOLD = 1L << 22;
+
+	private VectorAggregationUtil() {}
+
+	/**
+	 * Adds all the given vectors to an accumulator: {@code accumulator[i] += sources[s][i]} for each
+	 * source {@code s}, up to the size of that source.
+	 *
+	 * @param accumulator the vector receiving the sum, updated in place
+	 * @param sources the vectors to add, none of them larger than the accumulator
+	 * @see IVector#plusAll(IVector[])
+	 */
+	public static void plusAll(final IVector accumulator, final IVector[] sources) {
+		long total = 0;
+		for (final IVector source : sources) {
+			total += source.size();
+		}
+		plusAll(
+				accumulator,
+				sources,
+				total >= PARALLEL_AGGREGATION_THRESHOLD ? ForkJoinPool.getCommonPoolParallelism() : 1);
+	}
+
+	/**
+	 * Version of {@link #plusAll(IVector, IVector[])} splitting the sum between at most the given number
+	 * of threads, whatever the number of added components.
+	 * <p>
+	 *   The sum stays on the calling thread if the accumulator or one of the sources is held by a
+	 *   segment confined to a thread.
+	 * </p>
+	 *
+	 * @param accumulator the vector receiving the sum, updated in place
+	 * @param sources the vectors to add, none of them larger than the accumulator
+	 * @param parallelism the maximal number of threads computing the sum, {@code 1} to compute it on the
+	 *        calling thread
+	 */
+	public static void plusAll(final IVector accumulator, final IVector[] sources, final int parallelism) {
+		final int size = accumulator.size();
+		for (final IVector source : sources) {
+			if (source.size() > size) {
+				throw new IndexOutOfBoundsException(
+						"Cannot add a vector of size " + source.size() + " to a vector of size " + size);
+			}
+		}
+		final Operand target = new Operand(accumulator);
+		final Operand[] operands = new Operand[sources.length];
+		boolean shared = target.isShared();
+		for (int s = 0; s < sources.length; ++s) {
+			operands[s] = new Operand(sources[s]);
+			shared &= operands[s].isShared();
+		}
+
+		final int tiles = (size + TILE_SIZE - 1) / TILE_SIZE;
+		final int tasks = shared ? Math.max(1, Math.min(parallelism, tiles)) : 1;
+		if (tasks == 1) {
+			addTiles(target, operands, 0, size);
+		} else {
+			IntStream.range(0, tasks).parallel().forEach(t -> {
+				final int from = (int) ((long) tiles * t / tasks) * TILE_SIZE;
+				final int to = Math.min(size, (int) ((long) tiles * (t + 1) / tasks) * TILE_SIZE);
+				addTiles(target, operands, from, to);
+			});
+		}
+	}
+
+	/**
+	 * Adds the sources to the components of the accumulator between {@code from} and {@code to}, one
+	 * tile at a time.
+	 */
+	private static void addTiles(final Operand target, final Operand[] sources, final int from, final int to) {
+		for (int tile = from; tile < to; tile += TILE_SIZE) {
+			final int end = Math.min(to, tile + TILE_SIZE);
+			for (final Operand source : sources) {
+				final int length = Math.min(end, source.size) - tile;
+				if (length > 0) {
+					add(target, source, tile, length);
+				}
+			}
+		}
+	}
+
+	private static void add(final Operand target, final Operand source, final int from, final int length) {
+		if (target.type == source.type) {
+			final int order = target.type == Types.DOUBLE ? 3 : 2;
+			final long targetOffset = target.offset + ((long) from << order);
+			final long sourceOffset = source.offset + ((long) from << order);
+			switch (target.type) {
+				case DOUBLE:
+					if (target.array != null && source.array != null) {
+						VectorArithmeticUtil.apply((double[]) target.array, target.index + from,
+								(double[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.array != null && source.segment != null) {
+						VectorArithmeticUtil.apply((double[]) target.array, target.index + from,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.array != null) {
+						VectorArithmeticUtil.apply(target.segment, targetOffset,
+								(double[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.segment != null) {
+						VectorArithmeticUtil.applyDouble(target.segment, targetOffset,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					}
+					break;
+				case INTEGER:
+					if (target.array != null && source.array != null) {
+						VectorArithmeticUtil.apply((int[]) target.array, target.index + from,
+								(int[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.array != null && source.segment != null) {
+						VectorArithmeticUtil.apply((int[]) target.array, target.index + from,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.array != null) {
+						VectorArithmeticUtil.apply(target.segment, targetOffset,
+								(int[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.segment != null) {
+						VectorArithmeticUtil.applyInt(target.segment, targetOffset,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					}
+					break;
+				case FLOAT:
+					if (target.array != null && source.array != null) {
+						VectorArithmeticUtil.apply((float[]) target.array, target.index + from,
+								(float[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.array != null && source.segment != null) {
+						VectorArithmeticUtil.apply((float[]) target.array, target.index + from,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.array != null) {
+						VectorArithmeticUtil.apply(target.segment, targetOffset,
+								(float[]) source.array, source.index + from, length, false, ALL_VALUES);
+						return;
+					} else if (target.segment != null && source.segment != null) {
+						VectorArithmeticUtil.applyFloat(target.segment, targetOffset,
+								source.segment, sourceOffset, length, false, ALL_VALUES);
+						return;
+					}
+					break;
+				default:
+					break;
+			}
+		}
+		addScalar(target.vector, source.vector, from, length);
+	}
+
+	/**
+	 * Element by element fallback, for the operands whose layout or types have no dedicated kernel.
+	 */
+	private static void addScalar(final IVector target, final IVector source, final int from, final int length) {
+		if (target.getComponentType() == Types.INTEGER) {
+			for (int i = from; i < from + length; ++i) {
+				target.addInt(i, source.readInt(i));
+			}
+		} else {
+			for (int i = from; i < from + length; ++i) {
+				target.addDouble(i, source.readDouble(i));
+			}
+		}
+	}
+
+	/**
+	 * The layout of a vector taking part in a sum, resolved once for all its tiles.
+	 */
+	private static final class Operand {
+
+		final IVector vector;
+
+		final Types type;
+
+		final int size;
+
+		/** The array holding the components, if the vector is on heap */
+		final Object array;
+
+		/** The index of the first component in {@link #array} */
+		final int index;
+
+		/** The segment holding the components, if the vector is backed by a direct or segment block */
+		final MemorySegment segment;
+
+		/** The offset in bytes of the first component in {@link #segment} */
+		final long offset;
+
+		Operand(final IVector vector) {
+			this.vector = vector;
+			this.type = vector.getComponentType();
+			this.size = vector.size();
+			this.array = VectorCopyUtil.array(vector);
+			this.index = this.array != null ? VectorCopyUtil.arrayIndex(vector) : 0;
+			this.segment = this.array == null ? VectorArithmeticUtil.segment(vector) : null;
+			this.offset = this.segment != null
+					? VectorArithmeticUtil.offset(vector, this.type == Types.DOUBLE ? 3 : 2)
+					: 0L;
+		}
+
+		/**
+		 * @return whether the vector can be read and written by any thread
+		 */
+		boolean isShared() {
+			return this.segment == null || this.segment.session().ownerThread() == null;
+		}
+
+	}
+
+}
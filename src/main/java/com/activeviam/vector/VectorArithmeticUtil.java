@@ -0,0 +1,753 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels for the element-wise arithmetic operations between two {@link IVector vectors}, written
+ * with the Panama Vector API.
+ * <p>
+ *   Each operation is dispatched on the layout of its two operands: on heap arrays are read with
+ *   {@code fromArray}, direct and segment blocks are both read through a {@link MemorySegment}.
+ *   Operands of different component types, or of unknown layouts, fall back to an element by
+ *   element loop.
+ * </p>
+ * <p>
+ *   The kernels are the only implementation of {@code +=} and {@code -=} between arrays and segments,
+ *   also used by the sums of {@link VectorAggregationUtil}: an array operand is read from an index,
+ *   a segment operand from an offset in bytes.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorArithmeticUtil {
+
+	/** The species used by the kernels on doubles */
+	public static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/** The species used by the kernels on integers */
+	public static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+
+	/** The species used by the kernels on floats, with as many lanes as {@link #INT_SPECIES} */
+	public static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	/** The right operand is used as is */
+	static final int ALL_VALUES = 0;
+
+	/** Only the positive values of the right operand are used, the others count as zero */
+	static final int POSITIVE_VALUES = 1;
+
+	/** Only the negative values of the right operand are used, the others count as zero */
+	static final int NEGATIVE_VALUES = -1;
+
+	private VectorArithmeticUtil() {}
+
+	/**
+	 * Computes {@code left[i] += filter(right[i])} or {@code left[i] -= filter(right[i])} for the
+	 * first {@code length} components of the vectors.
+	 *
+	 * @param left the vector receiving the result
+	 * @param right the other operand
+	 * @param length the number of components to process
+	 * @param subtract whether the right operand is subtracted instead of added
+	 * @param filter the values of the right operand to use, {@link #ALL_VALUES},
+	 *        {@link #POSITIVE_VALUES} or {@link #NEGATIVE_VALUES}
+	 */
+	static void apply(
+			final IVector left,
+			final IVector right,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final Types type = left.getComponentType();
+		if (type != right.getComponentType()) {
+			applyScalar(left, right, length, subtract, filter);
+		} else if (type == Types.DOUBLE) {
+			applyDouble(left, right, length, subtract, filter);
+		} else if (type == Types.INTEGER) {
+			applyInt(left, right, length, subtract, filter);
+		} else if (type == Types.FLOAT) {
+			applyFloat(left, right, length, subtract, filter);
+		} else {
+			applyScalar(left, right, length, subtract, filter);
+		}
+	}
+
+	/**
+	 * Adds a range of a vector of doubles to another one: {@code left[i] += right[from + i]} for
+	 * each component of {@code left}.
+	 * <p>
+	 *   This aggregates the rows of a row-major arena of fixed-length vectors without creating a
+	 *   view per row.
+	 * </p>
+	 *
+	 * @param left the vector in which to add, updated in place
+	 * @param right the vector holding the added range
+	 * @param from the index in {@code right} of the first added component
+	 */
+	public static void plusRange(final IVector left, final IVector right, final int from) {
+		final int length = left.size();
+		if (from < 0 || length > right.size() - from) {
+			throw new IndexOutOfBoundsException(
+					"Cannot read between index " + from + " and " + (from + length) + " in a vector of size "
+							+ right.size());
+		}
+		if (left.getComponentType() == Types.DOUBLE && right.getComponentType() == Types.DOUBLE) {
+			if (left instanceof ArrayDoubleVector) {
+				final double[] l = ((ArrayDoubleVector) left).getUnderlying();
+				if (right instanceof ArrayDoubleVector) {
+					apply(l, 0, ((ArrayDoubleVector) right).getUnderlying(), from, length, false, ALL_VALUES);
+					return;
+				}
+				final MemorySegment r = segment(right);
+				if (r != null) {
+					apply(l, 0, r, offset(right, 3) + ((long) from << 3), length, false, ALL_VALUES);
+					return;
+				}
+			} else {
+				final MemorySegment l = segment(left);
+				if (l != null) {
+					if (right instanceof ArrayDoubleVector) {
+						apply(l, offset(left, 3), ((ArrayDoubleVector) right).getUnderlying(), from, length,
+								false, ALL_VALUES);
+						return;
+					}
+					final MemorySegment r = segment(right);
+					if (r != null) {
+						applyDouble(l, offset(left, 3), r, offset(right, 3) + ((long) from << 3), length,
+								false, ALL_VALUES);
+						return;
+					}
+				}
+			}
+		}
+		for (int i = 0; i < length; ++i) {
+			left.addDouble(i, right.readDouble(from + i));
+		}
+	}
+
+	/**
+	 * @param vector a vector
+	 * @return the segment holding the components of the vector, or {@code null} if it is not
+	 *         backed by a direct or segment block
+	 */
+	static MemorySegment segment(final IVector vector) {
+		if (vector instanceof ASegmentVector) {
+			return ((ASegmentVector) vector).block.getSegment();
+		} else if (vector instanceof AFixedBlockVector) {
+			return ((AFixedBlockVector) vector).block.getSegment();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @param vector a vector backed by a direct or segment block
+	 * @param order the order of the size of a component
+	 * @return the offset, in bytes, of the first component of the vector in its segment
+	 */
+	static long offset(final IVector vector, final int order) {
+		if (vector instanceof ASegmentVector) {
+			return (long) ((ASegmentVector) vector).position << order;
+		} else {
+			return (long) ((AFixedBlockVector) vector).position << order;
+		}
+	}
+
+	private static void applyDouble(
+			final IVector left,
+			final IVector right,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		if (left instanceof ArrayDoubleVector) {
+			final double[] l = ((ArrayDoubleVector) left).getUnderlying();
+			if (right instanceof ArrayDoubleVector) {
+				apply(l, 0, ((ArrayDoubleVector) right).getUnderlying(), 0, length, subtract, filter);
+				return;
+			}
+			final MemorySegment r = segment(right);
+			if (r != null) {
+				apply(l, 0, r, offset(right, 3), length, subtract, filter);
+				return;
+			}
+		} else {
+			final MemorySegment l = segment(left);
+			if (l != null) {
+				if (right instanceof ArrayDoubleVector) {
+					apply(l, offset(left, 3), ((ArrayDoubleVector) right).getUnderlying(), 0, length, subtract, filter);
+					return;
+				}
+				final MemorySegment r = segment(right);
+				if (r != null) {
+					applyDouble(l, offset(left, 3), r, offset(right, 3), length, subtract, filter);
+					return;
+				}
+			}
+		}
+		applyScalar(left, right, length, subtract, filter);
+	}
+
+	private static void applyInt(
+			final IVector left,
+			final IVector right,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		if (left instanceof ArrayIntegerVector) {
+			final int[] l = ((ArrayIntegerVector) left).getUnderlying();
+			if (right instanceof ArrayIntegerVector) {
+				apply(l, 0, ((ArrayIntegerVector) right).getUnderlying(), 0, length, subtract, filter);
+				return;
+			}
+			final MemorySegment r = segment(right);
+			if (r != null) {
+				apply(l, 0, r, offset(right, 2), length, subtract, filter);
+				return;
+			}
+		} else {
+			final MemorySegment l = segment(left);
+			if (l != null) {
+				if (right instanceof ArrayIntegerVector) {
+					apply(l, offset(left, 2), ((ArrayIntegerVector) right).getUnderlying(), 0, length,
+							subtract, filter);
+					return;
+				}
+				final MemorySegment r = segment(right);
+				if (r != null) {
+					applyInt(l, offset(left, 2), r, offset(right, 2), length, subtract, filter);
+					return;
+				}
+			}
+		}
+		applyScalar(left, right, length, subtract, filter);
+	}
+
+	private static void applyFloat(
+			final IVector left,
+			final IVector right,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		if (left instanceof ArrayFloatVector) {
+			final float[] l = ((ArrayFloatVector) left).getUnderlying();
+			if (right instanceof ArrayFloatVector) {
+				apply(l, 0, ((ArrayFloatVector) right).getUnderlying(), 0, length, subtract, filter);
+				return;
+			}
+			final MemorySegment r = segment(right);
+			if (r != null) {
+				apply(l, 0, r, offset(right, 2), length, subtract, filter);
+				return;
+			}
+		} else {
+			final MemorySegment l = segment(left);
+			if (l != null) {
+				if (right instanceof ArrayFloatVector) {
+					apply(l, offset(left, 2), ((ArrayFloatVector) right).getUnderlying(), 0, length, subtract, filter);
+					return;
+				}
+				final MemorySegment r = segment(right);
+				if (r != null) {
+					applyFloat(l, offset(left, 2), r, offset(right, 2), length, subtract, filter);
+					return;
+				}
+			}
+		}
+		applyScalar(left, right, length, subtract, filter);
+	}
+
+	/**
+	 * Element by element fallback, for the operands whose layout has no dedicated kernel.
+	 */
+	private static void applyScalar(
+			final IVector left,
+			final IVector right,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		if (left.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				left.writeInt(i, combine(left.readInt(i), right.readInt(i), subtract, filter));
+			}
+		} else if (left.getComponentType() == Types.FLOAT) {
+			for (int i = 0; i < length; ++i) {
+				left.writeFloat(i, combine(left.readFloat(i), right.readFloat(i), subtract, filter));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				left.writeDouble(i, combine(left.readDouble(i), right.readDouble(i), subtract, filter));
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Double kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static DoubleVector combine(
+			final DoubleVector left,
+			final DoubleVector right,
+			final boolean subtract,
+			final int filter) {
+		final DoubleVector r;
+		if (filter == POSITIVE_VALUES) {
+			r = right.max(0d);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = right.min(0d);
+		} else {
+			r = right;
+		}
+		return subtract ? left.sub(r) : left.add(r);
+	}
+
+	private static double combine(
+			final double left,
+			final double right,
+			final boolean subtract,
+			final int filter) {
+		final double r;
+		if (filter == POSITIVE_VALUES) {
+			r = Math.max(0d, right);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = Math.min(0d, right);
+		} else {
+			r = right;
+		}
+		return subtract ? left - r : left + r;
+	}
+
+	/** Heap / heap kernel. */
+	static void apply(
+			final double[] left,
+			final int leftFrom,
+			final double[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			combine(
+					DoubleVector.fromArray(DOUBLE_SPECIES, left, leftFrom + i),
+					DoubleVector.fromArray(DOUBLE_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(left[leftFrom + i], right[rightFrom + i], subtract, filter);
+		}
+	}
+
+	/** Heap / segment kernel. */
+	static void apply(
+			final double[] left,
+			final int leftFrom,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			combine(
+					DoubleVector.fromArray(DOUBLE_SPECIES, left, leftFrom + i),
+					DoubleVector.fromMemorySegment(
+							DOUBLE_SPECIES, right, rightOffset + ((long) i << 3), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(
+					left[leftFrom + i],
+					right.get(ValueLayout.JAVA_DOUBLE, rightOffset + ((long) i << 3)),
+					subtract,
+					filter);
+		}
+	}
+
+	/** Segment / heap kernel. */
+	static void apply(
+			final MemorySegment left,
+			final long leftOffset,
+			final double[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 3);
+			combine(
+					DoubleVector.fromMemorySegment(DOUBLE_SPECIES, left, l, ByteOrder.nativeOrder()),
+					DoubleVector.fromArray(DOUBLE_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 3);
+			left.set(
+					ValueLayout.JAVA_DOUBLE,
+					l,
+					combine(left.get(ValueLayout.JAVA_DOUBLE, l), right[rightFrom + i], subtract, filter));
+		}
+	}
+
+	/** Segment / segment kernel. */
+	static void applyDouble(
+			final MemorySegment left,
+			final long leftOffset,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 3);
+			combine(
+					DoubleVector.fromMemorySegment(DOUBLE_SPECIES, left, l, ByteOrder.nativeOrder()),
+					DoubleVector.fromMemorySegment(
+							DOUBLE_SPECIES, right, rightOffset + ((long) i << 3), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 3);
+			left.set(
+					ValueLayout.JAVA_DOUBLE,
+					l,
+					combine(
+							left.get(ValueLayout.JAVA_DOUBLE, l),
+							right.get(ValueLayout.JAVA_DOUBLE, rightOffset + ((long) i << 3)),
+							subtract,
+							filter));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Integer kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static IntVector combine(
+			final IntVector left,
+			final IntVector right,
+			final boolean subtract,
+			final int filter) {
+		final IntVector r;
+		if (filter == POSITIVE_VALUES) {
+			r = right.max(0);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = right.min(0);
+		} else {
+			r = right;
+		}
+		return subtract ? left.sub(r) : left.add(r);
+	}
+
+	private static int combine(
+			final int left,
+			final int right,
+			final boolean subtract,
+			final int filter) {
+		final int r;
+		if (filter == POSITIVE_VALUES) {
+			r = Math.max(0, right);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = Math.min(0, right);
+		} else {
+			r = right;
+		}
+		return subtract ? left - r : left + r;
+	}
+
+	/** Heap / heap kernel. */
+	static void apply(
+			final int[] left,
+			final int leftFrom,
+			final int[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			combine(
+					IntVector.fromArray(INT_SPECIES, left, leftFrom + i),
+					IntVector.fromArray(INT_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(left[leftFrom + i], right[rightFrom + i], subtract, filter);
+		}
+	}
+
+	/** Heap / segment kernel. */
+	static void apply(
+			final int[] left,
+			final int leftFrom,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			combine(
+					IntVector.fromArray(INT_SPECIES, left, leftFrom + i),
+					IntVector.fromMemorySegment(
+							INT_SPECIES, right, rightOffset + ((long) i << 2), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(
+					left[leftFrom + i],
+					right.get(ValueLayout.JAVA_INT, rightOffset + ((long) i << 2)),
+					subtract,
+					filter);
+		}
+	}
+
+	/** Segment / heap kernel. */
+	static void apply(
+			final MemorySegment left,
+			final long leftOffset,
+			final int[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 2);
+			combine(
+					IntVector.fromMemorySegment(INT_SPECIES, left, l, ByteOrder.nativeOrder()),
+					IntVector.fromArray(INT_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 2);
+			left.set(
+					ValueLayout.JAVA_INT,
+					l,
+					combine(left.get(ValueLayout.JAVA_INT, l), right[rightFrom + i], subtract, filter));
+		}
+	}
+
+	/** Segment / segment kernel. */
+	static void applyInt(
+			final MemorySegment left,
+			final long leftOffset,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 2);
+			combine(
+					IntVector.fromMemorySegment(INT_SPECIES, left, l, ByteOrder.nativeOrder()),
+					IntVector.fromMemorySegment(
+							INT_SPECIES, right, rightOffset + ((long) i << 2), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 2);
+			left.set(
+					ValueLayout.JAVA_INT,
+					l,
+					combine(
+							left.get(ValueLayout.JAVA_INT, l),
+							right.get(ValueLayout.JAVA_INT, rightOffset + ((long) i << 2)),
+							subtract,
+							filter));
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Float kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static FloatVector combine(
+			final FloatVector left,
+			final FloatVector right,
+			final boolean subtract,
+			final int filter) {
+		final FloatVector r;
+		if (filter == POSITIVE_VALUES) {
+			r = right.max(0f);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = right.min(0f);
+		} else {
+			r = right;
+		}
+		return subtract ? left.sub(r) : left.add(r);
+	}
+
+	private static float combine(
+			final float left,
+			final float right,
+			final boolean subtract,
+			final int filter) {
+		final float r;
+		if (filter == POSITIVE_VALUES) {
+			r = Math.max(0f, right);
+		} else if (filter == NEGATIVE_VALUES) {
+			r = Math.min(0f, right);
+		} else {
+			r = right;
+		}
+		return subtract ? left - r : left + r;
+	}
+
+	/** Heap / heap kernel. */
+	static void apply(
+			final float[] left,
+			final int leftFrom,
+			final float[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			combine(
+					FloatVector.fromArray(FLOAT_SPECIES, left, leftFrom + i),
+					FloatVector.fromArray(FLOAT_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(left[leftFrom + i], right[rightFrom + i], subtract, filter);
+		}
+	}
+
+	/** Heap / segment kernel. */
+	static void apply(
+			final float[] left,
+			final int leftFrom,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			combine(
+					FloatVector.fromArray(FLOAT_SPECIES, left, leftFrom + i),
+					FloatVector.fromMemorySegment(
+							FLOAT_SPECIES, right, rightOffset + ((long) i << 2), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoArray(left, leftFrom + i);
+		}
+		for (; i < length; ++i) {
+			left[leftFrom + i] = combine(
+					left[leftFrom + i],
+					right.get(ValueLayout.JAVA_FLOAT, rightOffset + ((long) i << 2)),
+					subtract,
+					filter);
+		}
+	}
+
+	/** Segment / heap kernel. */
+	static void apply(
+			final MemorySegment left,
+			final long leftOffset,
+			final float[] right,
+			final int rightFrom,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 2);
+			combine(
+					FloatVector.fromMemorySegment(FLOAT_SPECIES, left, l, ByteOrder.nativeOrder()),
+					FloatVector.fromArray(FLOAT_SPECIES, right, rightFrom + i),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 2);
+			left.set(
+					ValueLayout.JAVA_FLOAT,
+					l,
+					combine(left.get(ValueLayout.JAVA_FLOAT, l), right[rightFrom + i], subtract, filter));
+		}
+	}
+
+	/** Segment / segment kernel. */
+	static void applyFloat(
+			final MemorySegment left,
+			final long leftOffset,
+			final MemorySegment right,
+			final long rightOffset,
+			final int length,
+			final boolean subtract,
+			final int filter) {
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long l = leftOffset + ((long) i << 2);
+			combine(
+					FloatVector.fromMemorySegment(FLOAT_SPECIES, left, l, ByteOrder.nativeOrder()),
+					FloatVector.fromMemorySegment(
+							FLOAT_SPECIES, right, rightOffset + ((long) i << 2), ByteOrder.nativeOrder()),
+					subtract,
+					filter)
+					.intoMemorySegment(left, l, ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			final long l = leftOffset + ((long) i << 2);
+			left.set(
+					ValueLayout.JAVA_FLOAT,
+					l,
+					combine(
+							left.get(ValueLayout.JAVA_FLOAT, l),
+							right.get(ValueLayout.JAVA_FLOAT, rightOffset + ((long) i << 2)),
+							subtract,
+							filter));
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * The comparisons between the components of a vector and a threshold that select the components
+ * taking part in a conditional operation, such as {@link IVector#plusWhere}.
+ * <p>
+ *   The comparisons follow the semantics of the primitive operators on doubles: a {@code NaN}
+ *   component only satisfies {@link #NE}.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public enum VectorComparison {
+
+	/** {@code value == threshold} */
+	EQ(VectorOperators.EQ),
+	/** {@code value != threshold} */
+	NE(VectorOperators.NE),
+	/** {@code value < threshold} */
+	LT(VectorOperators.LT),
+	/** {@code value <= threshold} */
+	LE(VectorOperators.LE),
+	/** {@code value > threshold} */
+	GT(VectorOperators.GT),
+	/** {@code value >= threshold} */
+	GE(VectorOperators.GE);
+
+	/** The equivalent lane-wise comparison of the Vector API */
+	private final VectorOperators.Comparison operator;
+
+	VectorComparison(final VectorOperators.Comparison operator) {
+		this.operator = operator;
+	}
+
+	/**
+	 * @return the equivalent lane-wise comparison of the Vector API
+	 */
+	VectorOperators.Comparison operator() {
+		return this.operator;
+	}
+
+	/**
+	 * Compares a value with a threshold.
+	 *
+	 * @param value the compared value
+	 * @param threshold the threshold
+	 * @return whether the comparison holds
+	 */
+	public boolean test(final double value, final double threshold) {
+		switch (this) {
+			case EQ:
+				return value == threshold;
+			case NE:
+				return value != threshold;
+			case LT:
+				return value < threshold;
+			case LE:
+				return value <= threshold;
+			case GT:
+				return value > threshold;
+			case GE:
+				return value >= threshold;
+			default:
+				throw new IllegalStateException("Unexpected comparison: " + name());
+		}
+	}
+
+}
@@ -0,0 +1,289 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.INT_SPECIES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Copies of the content of a {@link IVector vector} into another one, whatever their layouts.
+ * <p>
+ *   Vectors of the same component type are copied in bulk: {@link System#arraycopy} between heap
+ *   arrays, {@link MemorySegment#copy} as soon as one of them is held by a direct or segment
+ *   block. Vectors of ints copied into vectors of doubles are widened with the Panama Vector API.
+ *   Any other pair of vectors is copied element by element.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorCopyUtil {
+
+	private VectorCopyUtil() {}
+
+	/**
+	 * Copies the first {@code length} components of a vector into another one.
+	 *
+	 * @param destination the vector receiving the components
+	 * @param source the vector to copy
+	 * @param length the number of components to copy
+	 */
+	public static void copy(final IVector destination, final IVector source, final int length) {
+		final Types type = destination.getComponentType();
+		final Types sourceType = source.getComponentType();
+		if (type == sourceType && type == Types.DOUBLE) {
+			if (copy(destination, source, length, ValueLayout.JAVA_DOUBLE, 3)) {
+				return;
+			}
+		} else if (type == sourceType && type == Types.INTEGER) {
+			if (copy(destination, source, length, ValueLayout.JAVA_INT, 2)) {
+				return;
+			}
+		} else if (type == sourceType && type == Types.FLOAT) {
+			if (copy(destination, source, length, ValueLayout.JAVA_FLOAT, 2)) {
+				return;
+			}
+		} else if (type == Types.DOUBLE && sourceType == Types.INTEGER) {
+			if (widen(destination, source, length)) {
+				return;
+			}
+		}
+		copyScalar(destination, source, length);
+	}
+
+	/**
+	 * @param vector a vector
+	 * @return the array holding the components of the vector, or {@code null} if it is not on heap
+	 */
+	static Object array(final IVector vector) {
+		if (vector instanceof ArrayDoubleVector) {
+			return ((ArrayDoubleVector) vector).getUnderlying();
+		} else if (vector instanceof ArrayIntegerVector) {
+			return ((ArrayIntegerVector) vector).getUnderlying();
+		} else if (vector instanceof ArrayFloatVector) {
+			return ((ArrayFloatVector) vector).getUnderlying();
+		} else if (vector instanceof ArraySubVector) {
+			return array(((ArraySubVector) vector).parent);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @param vector a vector on heap
+	 * @return the index of the first component of the vector in its {@link #array(IVector) array}
+	 */
+	static int arrayIndex(final IVector vector) {
+		return vector instanceof ArraySubVector ? ((ArraySubVector) vector).position : 0;
+	}
+
+	private static boolean copy(
+			final IVector destination,
+			final IVector source,
+			final int length,
+			final ValueLayout layout,
+			final int order) {
+		final Object sourceArray = array(source);
+		final Object destinationArray = array(destination);
+		if (sourceArray != null) {
+			if (destinationArray != null) {
+				System.arraycopy(sourceArray, arrayIndex(source), destinationArray, arrayIndex(destination), length);
+				return true;
+			}
+			final MemorySegment d = VectorArithmeticUtil.segment(destination);
+			if (d != null) {
+				MemorySegment.copy(
+						sourceArray,
+						arrayIndex(source),
+						d,
+						layout,
+						VectorArithmeticUtil.offset(destination, order),
+						length);
+				return true;
+			}
+			return false;
+		}
+		final MemorySegment s = VectorArithmeticUtil.segment(source);
+		if (s == null) {
+			return false;
+		}
+		if (destinationArray != null) {
+			MemorySegment.copy(
+					s,
+					layout,
+					VectorArithmeticUtil.offset(source, order),
+					destinationArray,
+					arrayIndex(destination),
+					length);
+			return true;
+		}
+		final MemorySegment d = VectorArithmeticUtil.segment(destination);
+		if (d != null) {
+			MemorySegment.copy(
+					s,
+					VectorArithmeticUtil.offset(source, order),
+					d,
+					VectorArithmeticUtil.offset(destination, order),
+					(long) length << order);
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean widen(final IVector destination, final IVector source, final int length) {
+		final int[] sourceArray = (int[]) array(source);
+		final double[] destinationArray = (double[]) array(destination);
+		if (sourceArray != null) {
+			if (destinationArray != null) {
+				widen(destinationArray, arrayIndex(destination), sourceArray, arrayIndex(source), length);
+				return true;
+			}
+			final MemorySegment d = VectorArithmeticUtil.segment(destination);
+			if (d != null) {
+				widen(d, VectorArithmeticUtil.offset(destination, 3), sourceArray, arrayIndex(source), length);
+				return true;
+			}
+			return false;
+		}
+		final MemorySegment s = VectorArithmeticUtil.segment(source);
+		if (s == null) {
+			return false;
+		}
+		if (destinationArray != null) {
+			widen(destinationArray, arrayIndex(destination), s, VectorArithmeticUtil.offset(source, 2), length);
+			return true;
+		}
+		final MemorySegment d = VectorArithmeticUtil.segment(destination);
+		if (d != null) {
+			widen(d, VectorArithmeticUtil.offset(destination, 3), s, VectorArithmeticUtil.offset(source, 2), length);
+			return true;
+		}
+		return false;
+	}
+
+	private static void copyScalar(final IVector destination, final IVector source, final int length) {
+		if (destination.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				destination.writeInt(i, source.readInt(i));
+			}
+		} else if (destination.getComponentType() == Types.DOUBLE) {
+			for (int i = 0; i < length; ++i) {
+				destination.writeDouble(i, source.readDouble(i));
+			}
+		} else if (destination.getComponentType() == Types.FLOAT) {
+			for (int i = 0; i < length; ++i) {
+				destination.writeFloat(i, source.readFloat(i));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				destination.write(i, source.read(i));
+			}
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Widening kernels, each int vector filling two double vectors
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	/** Heap / heap kernel. */
+	static void widen(
+			final double[] destination,
+			final int destinationFrom,
+			final int[] source,
+			final int sourceFrom,
+			final int length) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromArray(INT_SPECIES, source, sourceFrom + i);
+			((DoubleVector) v.convert(VectorOperators.I2D, 0)).intoArray(destination, destinationFrom + i);
+			((DoubleVector) v.convert(VectorOperators.I2D, 1))
+					.intoArray(destination, destinationFrom + i + DOUBLE_SPECIES.length());
+		}
+		for (; i < length; ++i) {
+			destination[destinationFrom + i] = source[sourceFrom + i];
+		}
+	}
+
+	/** Segment / heap kernel. */
+	static void widen(
+			final MemorySegment destination,
+			final long destinationOffset,
+			final int[] source,
+			final int sourceFrom,
+			final int length) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromArray(INT_SPECIES, source, sourceFrom + i);
+			final long d = destinationOffset + ((long) i << 3);
+			((DoubleVector) v.convert(VectorOperators.I2D, 0))
+					.intoMemorySegment(destination, d, ByteOrder.nativeOrder());
+			((DoubleVector) v.convert(VectorOperators.I2D, 1))
+					.intoMemorySegment(destination, d + ((long) DOUBLE_SPECIES.length() << 3), ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			destination.set(ValueLayout.JAVA_DOUBLE, destinationOffset + ((long) i << 3), source[sourceFrom + i]);
+		}
+	}
+
+	/** Heap / segment kernel. */
+	static void widen(
+			final double[] destination,
+			final int destinationFrom,
+			final MemorySegment source,
+			final long sourceOffset,
+			final int length) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromMemorySegment(
+					INT_SPECIES, source, sourceOffset + ((long) i << 2), ByteOrder.nativeOrder());
+			((DoubleVector) v.convert(VectorOperators.I2D, 0)).intoArray(destination, destinationFrom + i);
+			((DoubleVector) v.convert(VectorOperators.I2D, 1))
+					.intoArray(destination, destinationFrom + i + DOUBLE_SPECIES.length());
+		}
+		for (; i < length; ++i) {
+			destination[destinationFrom + i] = source.get(ValueLayout.JAVA_INT, sourceOffset + ((long) i << 2));
+		}
+	}
+
+	/** Segment / segment kernel. */
+	static void widen(
+			final MemorySegment destination,
+			final long destinationOffset,
+			final MemorySegment source,
+			final long sourceOffset,
+			final int length) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromMemorySegment(
+					INT_SPECIES, source, sourceOffset + ((long) i << 2), ByteOrder.nativeOrder());
+			final long d = destinationOffset + ((long) i << 3);
+			((DoubleVector) v.convert(VectorOperators.I2D, 0))
+					.intoMemorySegment(destination, d, ByteOrder.nativeOrder());
+			((DoubleVector) v.convert(VectorOperators.I2D, 1))
+					.intoMemorySegment(destination, d + ((long) DOUBLE_SPECIES.length() << 3), ByteOrder.nativeOrder());
+		}
+		for (; i < length; ++i) {
+			destination.set(
+					ValueLayout.JAVA_DOUBLE,
+					destinationOffset + ((long) i << 3),
+					source.get(ValueLayout.JAVA_INT, sourceOffset + ((long) i << 2)));
+		}
+	}
+
+}
@@ -0,0 +1,429 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.incubator.vector.DoubleVector;
+
+/**
+ * A lazy chain of element-wise operations on a {@link IVector vector}, created with
+ * {@link IVector#expression()}.
+ * <p>
+ *   Nothing is computed while the chain is built. When it is evaluated into a destination vector,
+ *   the source is streamed block by block through a small buffer that stays in the L1 cache: all
+ *   the steps are applied to a block with SIMD loops before it is written or added to the
+ *   destination. Hence {@code v.expression().scale(f).translate(t).addTo(acc)} reads {@code v} and
+ *   {@code acc} once and does not modify {@code v}, whereas
+ *   {@code v.scale(f); v.translate(t); acc.plus(v)} makes three passes over memory.
+ * </p>
+ * <p>
+ *   The steps are computed with doubles. Integer vectors are converted when read, and the results
+ *   are cast back when written into an integer destination.
+ * </p>
+ * <p>
+ *   This builder is mutable: each step method appends a step and returns this expression.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorExpression {
+
+	/** Number of components processed by each step at once */
+	public static final int BLOCK_SIZE = 512;
+
+	/** The vector at the start of the chain */
+	protected final IVector source;
+
+	/** The steps applied to the source, in order */
+	protected final List<Step> steps = new ArrayList<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param source the vector at the start of the chain
+	 */
+	public VectorExpression(final IVector source) {
+		this.source = source;
+	}
+
+	/**
+	 * @return the number of components of the result of this expression
+	 */
+	public int size() {
+		return this.source.size();
+	}
+
+	/**
+	 * Multiplies the components by a factor.
+	 *
+	 * @param factor the factor
+	 * @return this expression
+	 */
+	public VectorExpression scale(final double factor) {
+		this.steps.add(new Scale(factor));
+		return this;
+	}
+
+	/**
+	 * Adds a value to the components.
+	 *
+	 * @param value the value to add
+	 * @return this expression
+	 */
+	public VectorExpression translate(final double value) {
+		this.steps.add(new Translate(value));
+		return this;
+	}
+
+	/**
+	 * Adds the components of a vector, which must not be smaller than this expression.
+	 *
+	 * @param vector the vector to add
+	 * @return this expression
+	 */
+	public VectorExpression plus(final IVector vector) {
+		checkSize(vector);
+		this.steps.add(new Plus(vector, false));
+		return this;
+	}
+
+	/**
+	 * Subtracts the components of a vector, which must not be smaller than this expression.
+	 *
+	 * @param vector the vector to subtract
+	 * @return this expression
+	 */
+	public VectorExpression minus(final IVector vector) {
+		checkSize(vector);
+		this.steps.add(new Plus(vector, true));
+		return this;
+	}
+
+	/**
+	 * Restricts the components to a range.
+	 *
+	 * @param min the lower bound of the range
+	 * @param max the upper bound of the range
+	 * @return this expression
+	 */
+	public VectorExpression clamp(final double min, final double max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Empty clamping range [" + min + ", " + max + "]");
+		}
+		this.steps.add(new Clamp(min, max));
+		return this;
+	}
+
+	/**
+	 * Evaluates this expression and adds the result to a vector, i.e. {@code accumulator += this}.
+	 * The accumulator may be one of the vectors of this expression.
+	 *
+	 * @param accumulator the vector receiving the result, not smaller than this expression
+	 */
+	public void addTo(final IVector accumulator) {
+		evaluate(accumulator, true);
+	}
+
+	/**
+	 * Evaluates this expression and writes the result into a vector, i.e.
+	 * {@code destination = this}. The destination may be one of the vectors of this expression.
+	 *
+	 * @param destination the vector receiving the result, not smaller than this expression
+	 */
+	public void writeTo(final IVector destination) {
+		evaluate(destination, false);
+	}
+
+	/**
+	 * Checks that a vector has a component for each component of this expression.
+	 *
+	 * @param vector a vector
+	 */
+	protected void checkSize(final IVector vector) {
+		if (vector.size() < size()) {
+			throw new IndexOutOfBoundsException(
+					"Cannot combine a vector of size " + vector.size() + " with an expression of size " + size());
+		}
+	}
+
+	/**
+	 * Evaluates this expression, block by block.
+	 *
+	 * @param destination the vector receiving the result
+	 * @param accumulate whether the result is added to the destination instead of overriding it
+	 */
+	protected void evaluate(final IVector destination, final boolean accumulate) {
+		checkSize(destination);
+		final int length = size();
+		final double[] block = new double[Math.min(BLOCK_SIZE, length)];
+		final double[] operand = this.steps.stream().anyMatch(Plus.class::isInstance)
+				? new double[block.length]
+				: null;
+		for (int from = 0; from < length; from += BLOCK_SIZE) {
+			final int n = Math.min(BLOCK_SIZE, length - from);
+			read(this.source, from, n, block);
+			for (final Step step : this.steps) {
+				step.apply(block, from, n, operand);
+			}
+			if (accumulate) {
+				accumulate(destination, from, n, block);
+			} else {
+				write(destination, from, n, block);
+			}
+		}
+	}
+
+	/**
+	 * Copies components of a vector into a block.
+	 *
+	 * @param vector the vector to read
+	 * @param from the index of the first component to read
+	 * @param n the number of components to read
+	 * @param block the array receiving the components, starting at index 0
+	 */
+	protected static void read(final IVector vector, final int from, final int n, final double[] block) {
+		if (vector instanceof ArrayDoubleVector) {
+			System.arraycopy(((ArrayDoubleVector) vector).getUnderlying(), from, block, 0, n);
+			return;
+		}
+		if (vector.getComponentType() == Types.DOUBLE) {
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				final long offset = VectorArithmeticUtil.offset(vector, 3) + ((long) from << 3);
+				MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, offset, block, 0, n);
+				return;
+			}
+		}
+		if (vector.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < n; ++i) {
+				block[i] = vector.readInt(from + i);
+			}
+		} else {
+			for (int i = 0; i < n; ++i) {
+				block[i] = vector.readDouble(from + i);
+			}
+		}
+	}
+
+	/**
+	 * Writes a block into the components of a vector.
+	 *
+	 * @param vector the vector to write
+	 * @param from the index of the first component to write
+	 * @param n the number of components to write
+	 * @param block the components to write, starting at index 0
+	 */
+	protected static void write(final IVector vector, final int from, final int n, final double[] block) {
+		if (vector instanceof ArrayDoubleVector) {
+			System.arraycopy(block, 0, ((ArrayDoubleVector) vector).getUnderlying(), from, n);
+			return;
+		}
+		if (vector.getComponentType() == Types.DOUBLE) {
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				final long offset = VectorArithmeticUtil.offset(vector, 3) + ((long) from << 3);
+				MemorySegment.copy(block, 0, segment, ValueLayout.JAVA_DOUBLE, offset, n);
+				return;
+			}
+		}
+		if (vector.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < n; ++i) {
+				vector.writeInt(from + i, (int) block[i]);
+			}
+		} else {
+			for (int i = 0; i < n; ++i) {
+				vector.writeDouble(from + i, block[i]);
+			}
+		}
+	}
+
+	/**
+	 * Adds a block to the components of a vector.
+	 *
+	 * @param vector the vector to update
+	 * @param from the index of the first component to update
+	 * @param n the number of components to update
+	 * @param block the values to add, starting at index 0
+	 */
+	protected static void accumulate(final IVector vector, final int from, final int n, final double[] block) {
+		final int bound = DOUBLE_SPECIES.loopBound(n);
+		if (vector instanceof ArrayDoubleVector) {
+			final double[] a = ((ArrayDoubleVector) vector).getUnderlying();
+			int i = 0;
+			for (; i < bound; i += DOUBLE_SPECIES.length()) {
+				DoubleVector.fromArray(DOUBLE_SPECIES, a, from + i)
+						.add(DoubleVector.fromArray(DOUBLE_SPECIES, block, i))
+						.intoArray(a, from + i);
+			}
+			for (; i < n; ++i) {
+				a[from + i] += block[i];
+			}
+			return;
+		}
+		if (vector.getComponentType() == Types.DOUBLE) {
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				final long offset = VectorArithmeticUtil.offset(vector, 3) + ((long) from << 3);
+				int i = 0;
+				for (; i < bound; i += DOUBLE_SPECIES.length()) {
+					final long o = offset + ((long) i << 3);
+					DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, o, ByteOrder.nativeOrder())
+							.add(DoubleVector.fromArray(DOUBLE_SPECIES, block, i))
+							.intoMemorySegment(segment, o, ByteOrder.nativeOrder());
+				}
+				for (; i < n; ++i) {
+					final long o = offset + ((long) i << 3);
+					segment.set(ValueLayout.JAVA_DOUBLE, o, segment.get(ValueLayout.JAVA_DOUBLE, o) + block[i]);
+				}
+				return;
+			}
+		}
+		if (vector.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < n; ++i) {
+				vector.writeInt(from + i, (int) (vector.readInt(from + i) + block[i]));
+			}
+		} else {
+			for (int i = 0; i < n; ++i) {
+				vector.writeDouble(from + i, vector.readDouble(from + i) + block[i]);
+			}
+		}
+	}
+
+	/**
+	 * A step of the expression, applied to one block at a time.
+	 */
+	protected abstract static class Step {
+
+		/**
+		 * Applies this step to a block.
+		 *
+		 * @param block the components of the block, updated in place
+		 * @param from the index, in the vectors, of the first component of the block
+		 * @param n the number of components of the block
+		 * @param operand a buffer of the size of the block, for the steps reading another vector
+		 */
+		abstract void apply(double[] block, int from, int n, double[] operand);
+	}
+
+	/** {@code x * factor} */
+	protected static class Scale extends Step {
+
+		private final double factor;
+
+		Scale(final double factor) {
+			this.factor = factor;
+		}
+
+		@Override
+		void apply(final double[] block, final int from, final int n, final double[] operand) {
+			final int bound = DOUBLE_SPECIES.loopBound(n);
+			int i = 0;
+			for (; i < bound; i += DOUBLE_SPECIES.length()) {
+				DoubleVector.fromArray(DOUBLE_SPECIES, block, i).mul(this.factor).intoArray(block, i);
+			}
+			for (; i < n; ++i) {
+				block[i] *= this.factor;
+			}
+		}
+	}
+
+	/** {@code x + value} */
+	protected static class Translate extends Step {
+
+		private final double value;
+
+		Translate(final double value) {
+			this.value = value;
+		}
+
+		@Override
+		void apply(final double[] block, final int from, final int n, final double[] operand) {
+			final int bound = DOUBLE_SPECIES.loopBound(n);
+			int i = 0;
+			for (; i < bound; i += DOUBLE_SPECIES.length()) {
+				DoubleVector.fromArray(DOUBLE_SPECIES, block, i).add(this.value).intoArray(block, i);
+			}
+			for (; i < n; ++i) {
+				block[i] += this.value;
+			}
+		}
+	}
+
+	/** {@code x + vector} or {@code x - vector} */
+	protected static class Plus extends Step {
+
+		private final IVector vector;
+		private final boolean subtract;
+
+		Plus(final IVector vector, final boolean subtract) {
+			this.vector = vector;
+			this.subtract = subtract;
+		}
+
+		@Override
+		void apply(final double[] block, final int from, final int n, final double[] operand) {
+			read(this.vector, from, n, operand);
+			final int bound = DOUBLE_SPECIES.loopBound(n);
+			int i = 0;
+			if (this.subtract) {
+				for (; i < bound; i += DOUBLE_SPECIES.length()) {
+					DoubleVector.fromArray(DOUBLE_SPECIES, block, i)
+							.sub(DoubleVector.fromArray(DOUBLE_SPECIES, operand, i))
+							.intoArray(block, i);
+				}
+				for (; i < n; ++i) {
+					block[i] -= operand[i];
+				}
+			} else {
+				for (; i < bound; i += DOUBLE_SPECIES.length()) {
+					DoubleVector.fromArray(DOUBLE_SPECIES, block, i)
+							.add(DoubleVector.fromArray(DOUBLE_SPECIES, operand, i))
+							.intoArray(block, i);
+				}
+				for (; i < n; ++i) {
+					block[i] += operand[i];
+				}
+			}
+		}
+	}
+
+	/** {@code min(max(x, min), max)} */
+	protected static class Clamp extends Step {
+
+		private final double min;
+		private final double max;
+
+		Clamp(final double min, final double max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		void apply(final double[] block, final int from, final int n, final double[] operand) {
+			final int bound = DOUBLE_SPECIES.loopBound(n);
+			int i = 0;
+			for (; i < bound; i += DOUBLE_SPECIES.length()) {
+				DoubleVector.fromArray(DOUBLE_SPECIES, block, i)
+						.max(this.min)
+						.min(this.max)
+						.intoArray(block, i);
+			}
+			for (; i < n; ++i) {
+				block[i] = Math.min(Math.max(block[i], this.min), this.max);
+			}
+		}
+	}
+
+}
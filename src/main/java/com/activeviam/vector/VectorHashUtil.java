@@ -0,0 +1,501 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.FLOAT_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.INT_SPECIES;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Content hash and content equality of {@link IVector vectors}, written with the Panama Vector API.
+ * <p>
+ *   The hash is a 64-bit hash mixing each lane of the vector independently: {@code acc = (acc ^ x) * K},
+ *   followed by a xor-shift. The lanes are then folded together with the trailing components, starting
+ *   from a seed mixing the component type and the length, and the result goes through the finalizer of
+ *   MurmurHash3. Doubles are hashed on the bits of {@link Double#doubleToLongBits(double)}, so all the NaNs
+ *   have the same hash, and floats are hashed as the doubles they widen to, with the seed of the doubles.
+ * </p>
+ * <p>
+ *   The hash only depends on the component type and the components: heap, direct and segment vectors with
+ *   the same content have the same hash, and are {@link #equals(IVector, IVector) equal}. The equality
+ *   compares whole lane blocks, and stops at the first block with a different lane.
+ * </p>
+ * <p>
+ *   The kernels read either a heap array or a segment: {@code array} is {@code null} for a segment, and
+ *   {@code base} is the index of the first component in the array, or its offset in bytes in the segment.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorHashUtil {
+
+	/** The species of the hash lanes, as wide as the species of the doubles */
+	static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+	/** The multiplier of the lanes, the 64-bit golden ratio */
+	private static final long LANE_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/** The multiplier folding the lanes and the trailing components */
+	private static final long FOLD_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+	/** The seed of the hashes of the doubles and of the floats */
+	private static final long DOUBLE_SEED = 0x27D4EB2F165667C5L;
+
+	/** The seed of the hashes of the ints */
+	private static final long INT_SEED = 0x85EBCA77C2B2AE63L;
+
+	/** The lanes of the floats that widen to a full vector of doubles */
+	private static final VectorMask<Float> HALF_FLOAT_MASK = FLOAT_SPECIES.indexInRange(0, DOUBLE_SPECIES.length());
+
+	private VectorHashUtil() {}
+
+	/**
+	 * Folds a 64-bit hash into the hash returned by {@link Object#hashCode()}.
+	 *
+	 * @param hash a hash computed by this class
+	 * @return the 32-bit hash
+	 */
+	public static int hashCode(final long hash) {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Computes the content hash of a vector.
+	 *
+	 * @param vector the vector
+	 * @return the 64-bit hash of the components of the vector
+	 * @see IVector#contentHash()
+	 */
+	public static long hash(final IVector vector) {
+		final int length = vector.size();
+		final Object array = VectorCopyUtil.array(vector);
+		switch (vector.getComponentType()) {
+			case DOUBLE:
+				if (array != null) {
+					return hashDoubles((double[]) array, null, VectorCopyUtil.arrayIndex(vector), length);
+				} else if (VectorArithmeticUtil.segment(vector) != null) {
+					return hashDoubles(
+							null, VectorArithmeticUtil.segment(vector), VectorArithmeticUtil.offset(vector, 3), length);
+				} else {
+					return hashDoubles(vector, length);
+				}
+			case INTEGER:
+				if (array != null) {
+					return hashInts((int[]) array, null, VectorCopyUtil.arrayIndex(vector), length);
+				} else if (VectorArithmeticUtil.segment(vector) != null) {
+					return hashInts(
+							null, VectorArithmeticUtil.segment(vector), VectorArithmeticUtil.offset(vector, 2), length);
+				} else {
+					return hashInts(vector.toIntArray(), null, 0, length);
+				}
+			case FLOAT:
+				if (array != null) {
+					return hashFloats((float[]) array, VectorCopyUtil.arrayIndex(vector), length);
+				} else if (VectorArithmeticUtil.segment(vector) != null) {
+					return hashFloats(
+							VectorArithmeticUtil.segment(vector), VectorArithmeticUtil.offset(vector, 2), length);
+				} else {
+					return hashFloats(vector.toFloatArray(), 0, length);
+				}
+			default:
+				return Arrays.hashCode(vector.toArray());
+		}
+	}
+
+	/**
+	 * Computes the hash of doubles stored in an array.
+	 *
+	 * @param array the array
+	 * @param from the index of the first double
+	 * @param length the number of doubles
+	 * @return the 64-bit hash
+	 */
+	public static long hashDoubles(final double[] array, final int from, final int length) {
+		return hashDoubles(array, null, from, length);
+	}
+
+	/**
+	 * Computes the hash of doubles stored in a segment.
+	 *
+	 * @param segment the segment
+	 * @param offset the offset, in bytes, of the first double
+	 * @param length the number of doubles
+	 * @return the 64-bit hash
+	 */
+	public static long hashDoubles(final MemorySegment segment, final long offset, final int length) {
+		return hashDoubles(null, segment, offset, length);
+	}
+
+	/**
+	 * Computes the hash of ints stored in an array.
+	 *
+	 * @param array the array
+	 * @param from the index of the first int
+	 * @param length the number of ints
+	 * @return the 64-bit hash
+	 */
+	public static long hashInts(final int[] array, final int from, final int length) {
+		return hashInts(array, null, from, length);
+	}
+
+	/**
+	 * Computes the hash of ints stored in a segment.
+	 *
+	 * @param segment the segment
+	 * @param offset the offset, in bytes, of the first int
+	 * @param length the number of ints
+	 * @return the 64-bit hash
+	 */
+	public static long hashInts(final MemorySegment segment, final long offset, final int length) {
+		return hashInts(null, segment, offset, length);
+	}
+
+	/**
+	 * Computes the hash of floats stored in an array: the floats are hashed as the doubles they widen to.
+	 *
+	 * @param array the array
+	 * @param from the index of the first float
+	 * @param length the number of floats
+	 * @return the 64-bit hash
+	 */
+	public static long hashFloats(final float[] array, final int from, final int length) {
+		return hashFloats(array, null, from, length);
+	}
+
+	/**
+	 * Computes the hash of floats stored in a segment.
+	 *
+	 * @param segment the segment
+	 * @param offset the offset, in bytes, of the first float
+	 * @param length the number of floats
+	 * @return the 64-bit hash
+	 * @see #hashFloats(float[], int, int)
+	 */
+	public static long hashFloats(final MemorySegment segment, final long offset, final int length) {
+		return hashFloats(null, segment, offset, length);
+	}
+
+	/**
+	 * Tests whether two vectors have the same component type and the same components, the doubles being
+	 * compared like {@link Arrays#equals(double[], double[])} does.
+	 *
+	 * @param a a vector
+	 * @param b another vector
+	 * @return {@code true} if both vectors have the same content
+	 * @see IVector#equals(Object)
+	 */
+	public static boolean equals(final IVector a, final IVector b) {
+		final int length = a.size();
+		if (length != b.size() || a.getComponentType() != b.getComponentType()) {
+			return false;
+		}
+		final Object aArray = VectorCopyUtil.array(a);
+		final Object bArray = VectorCopyUtil.array(b);
+		switch (a.getComponentType()) {
+			case DOUBLE: {
+				final MemorySegment aSegment = aArray == null ? VectorArithmeticUtil.segment(a) : null;
+				final MemorySegment bSegment = bArray == null ? VectorArithmeticUtil.segment(b) : null;
+				if ((aArray == null && aSegment == null) || (bArray == null && bSegment == null)) {
+					return equalDoubles(a, b, length);
+				}
+				return equalDoubles(
+						(double[]) aArray,
+						aSegment,
+						base(a, aArray, aSegment, 3),
+						(double[]) bArray,
+						bSegment,
+						base(b, bArray, bSegment, 3),
+						length);
+			}
+			case INTEGER: {
+				final MemorySegment aSegment = aArray == null ? VectorArithmeticUtil.segment(a) : null;
+				final MemorySegment bSegment = bArray == null ? VectorArithmeticUtil.segment(b) : null;
+				final int[] x = aArray == null && aSegment == null ? a.toIntArray() : (int[]) aArray;
+				final int[] y = bArray == null && bSegment == null ? b.toIntArray() : (int[]) bArray;
+				return equalInts(
+						x, aSegment, base(a, aArray, aSegment, 2), y, bSegment, base(b, bArray, bSegment, 2), length);
+			}
+			case FLOAT: {
+				final float[] x = aArray != null ? (float[]) aArray : a.toFloatArray();
+				final float[] y = bArray != null ? (float[]) bArray : b.toFloatArray();
+				final int aFrom = aArray != null ? VectorCopyUtil.arrayIndex(a) : 0;
+				final int bFrom = bArray != null ? VectorCopyUtil.arrayIndex(b) : 0;
+				return Arrays.equals(x, aFrom, aFrom + length, y, bFrom, bFrom + length);
+			}
+			default:
+				return Arrays.equals(a.toArray(), b.toArray());
+		}
+	}
+
+	/**
+	 * @return the base of a vector in the kernels: its index in its heap array, its offset in its segment, or 0
+	 *         when it was copied into an array
+	 */
+	private static long base(final IVector vector, final Object array, final MemorySegment segment, final int order) {
+		if (array != null) {
+			return VectorCopyUtil.arrayIndex(vector);
+		} else if (segment != null) {
+			return VectorArithmeticUtil.offset(vector, order);
+		} else {
+			return 0;
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Hash kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	static long hashDoubles(final double[] array, final MemorySegment segment, final long base, final int length) {
+		LongVector acc = LongVector.zero(LONG_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			acc = mix(acc, canonical(loadDouble(array, segment, base, i)));
+		}
+		long h = fold(acc, DOUBLE_SEED, length);
+		for (; i < length; ++i) {
+			h = step(h, Double.doubleToLongBits(readDouble(array, segment, base, i)));
+		}
+		return avalanche(h);
+	}
+
+	/**
+	 * Hashes the doubles of a vector that has neither an array nor a segment, reading them one by one: each
+	 * lane of the kernel of the doubles is computed in turn, so that the hash is the same as the one of the
+	 * same doubles in an array, without copying them.
+	 */
+	static long hashDoubles(final IVector vector, final int length) {
+		final int lanes = LONG_SPECIES.length();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		long h = step(DOUBLE_SEED, length);
+		for (int lane = 0; lane < lanes; ++lane) {
+			long acc = 0L;
+			for (int i = lane; i < bound; i += lanes) {
+				acc = mix(acc, Double.doubleToLongBits(vector.readDouble(i)));
+			}
+			h = step(h, acc);
+		}
+		for (int i = bound; i < length; ++i) {
+			h = step(h, Double.doubleToLongBits(vector.readDouble(i)));
+		}
+		return avalanche(h);
+	}
+
+	static long hashInts(final int[] array, final MemorySegment segment, final long base, final int length) {
+		LongVector acc = LongVector.zero(LONG_SPECIES);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = loadInt(array, segment, base, i);
+			acc = mix(acc, (LongVector) v.convert(VectorOperators.I2L, 0));
+			acc = mix(acc, (LongVector) v.convert(VectorOperators.I2L, 1));
+		}
+		long h = fold(acc, INT_SEED, length);
+		for (; i < length; ++i) {
+			h = step(h, readInt(array, segment, base, i));
+		}
+		return avalanche(h);
+	}
+
+	/**
+	 * Hashes floats like the doubles they widen to, widening them lane by lane: each vector of floats
+	 * feeds the lanes of two vectors of doubles, in the order of the kernel of the doubles.
+	 */
+	static long hashFloats(final float[] array, final MemorySegment segment, final long base, final int length) {
+		LongVector acc = LongVector.zero(LONG_SPECIES);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v = loadFloat(array, segment, base, i, FLOAT_SPECIES.maskAll(true));
+			acc = mix(acc, canonical((DoubleVector) v.convert(VectorOperators.F2D, 0)));
+			acc = mix(acc, canonical((DoubleVector) v.convert(VectorOperators.F2D, 1)));
+		}
+		// The kernel of the doubles still has a full vector of doubles left
+		if (i < DOUBLE_SPECIES.loopBound(length)) {
+			final FloatVector v = loadFloat(array, segment, base, i, HALF_FLOAT_MASK);
+			acc = mix(acc, canonical((DoubleVector) v.convert(VectorOperators.F2D, 0)));
+			i += DOUBLE_SPECIES.length();
+		}
+		long h = fold(acc, DOUBLE_SEED, length);
+		for (; i < length; ++i) {
+			h = step(h, Double.doubleToLongBits(readFloat(array, segment, base, i)));
+		}
+		return avalanche(h);
+	}
+
+	private static LongVector mix(final LongVector acc, final LongVector x) {
+		final LongVector m = acc.lanewise(VectorOperators.XOR, x).lanewise(VectorOperators.MUL, LANE_MULTIPLIER);
+		return m.lanewise(VectorOperators.XOR, m.lanewise(VectorOperators.LSHR, 31));
+	}
+
+	/** The scalar version of {@link #mix(LongVector, LongVector)}, for a single lane. */
+	private static long mix(final long acc, final long x) {
+		final long m = (acc ^ x) * LANE_MULTIPLIER;
+		return m ^ (m >>> 31);
+	}
+
+	/**
+	 * Folds the lanes of the accumulator, starting from the seed of the component type mixed with the length,
+	 * so that empty vectors of different types have different hashes.
+	 */
+	private static long fold(final LongVector acc, final long seed, final int length) {
+		long h = step(seed, length);
+		for (int lane = 0; lane < LONG_SPECIES.length(); ++lane) {
+			h = step(h, acc.lane(lane));
+		}
+		return h;
+	}
+
+	private static long step(final long h, final long x) {
+		final long m = (h ^ x) * FOLD_MULTIPLIER;
+		return m ^ (m >>> 32);
+	}
+
+	/** The 64-bit finalizer of MurmurHash3. */
+	private static long avalanche(final long hash) {
+		long h = hash;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * @return the bits of the lanes, with all the NaNs replaced by the canonical NaN like
+	 *         {@link Double#doubleToLongBits(double)} does
+	 */
+	private static LongVector canonical(final DoubleVector v) {
+		return (LongVector) v.blend(Double.NaN, v.test(VectorOperators.IS_NAN)).reinterpretAsLongs();
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Equality kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	static boolean equalDoubles(
+			final double[] a,
+			final MemorySegment aSegment,
+			final long aBase,
+			final double[] b,
+			final MemorySegment bSegment,
+			final long bBase,
+			final int length) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final LongVector x = canonical(loadDouble(a, aSegment, aBase, i));
+			final LongVector y = canonical(loadDouble(b, bSegment, bBase, i));
+			if (!x.compare(VectorOperators.EQ, y).allTrue()) {
+				return false;
+			}
+		}
+		for (; i < length; ++i) {
+			if (Double.doubleToLongBits(readDouble(a, aSegment, aBase, i))
+					!= Double.doubleToLongBits(readDouble(b, bSegment, bBase, i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the doubles of two vectors one by one, when one of them has neither an array nor a segment.
+	 */
+	static boolean equalDoubles(final IVector a, final IVector b, final int length) {
+		for (int i = 0; i < length; ++i) {
+			if (Double.doubleToLongBits(a.readDouble(i)) != Double.doubleToLongBits(b.readDouble(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean equalInts(
+			final int[] a,
+			final MemorySegment aSegment,
+			final long aBase,
+			final int[] b,
+			final MemorySegment bSegment,
+			final long bBase,
+			final int length) {
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector x = loadInt(a, aSegment, aBase, i);
+			final IntVector y = loadInt(b, bSegment, bBase, i);
+			if (!x.compare(VectorOperators.EQ, y).allTrue()) {
+				return false;
+			}
+		}
+		for (; i < length; ++i) {
+			if (readInt(a, aSegment, aBase, i) != readInt(b, bSegment, bBase, i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Reads from an array or a segment
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static DoubleVector loadDouble(
+			final double[] array,
+			final MemorySegment segment,
+			final long base,
+			final int i) {
+		return array != null
+				? DoubleVector.fromArray(DOUBLE_SPECIES, array, (int) base + i)
+				: DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, base + ((long) i << 3), ByteOrder.nativeOrder());
+	}
+
+	private static IntVector loadInt(final int[] array, final MemorySegment segment, final long base, final int i) {
+		return array != null
+				? IntVector.fromArray(INT_SPECIES, array, (int) base + i)
+				: IntVector.fromMemorySegment(INT_SPECIES, segment, base + ((long) i << 2), ByteOrder.nativeOrder());
+	}
+
+	private static FloatVector loadFloat(
+			final float[] array,
+			final MemorySegment segment,
+			final long base,
+			final int i,
+			final VectorMask<Float> mask) {
+		return array != null
+				? FloatVector.fromArray(FLOAT_SPECIES, array, (int) base + i, mask)
+				: FloatVector.fromMemorySegment(
+						FLOAT_SPECIES, segment, base + ((long) i << 2), ByteOrder.nativeOrder(), mask);
+	}
+
+	private static double readDouble(final double[] array, final MemorySegment segment, final long base, final int i) {
+		return array != null ? array[(int) base + i] : segment.get(ValueLayout.JAVA_DOUBLE, base + ((long) i << 3));
+	}
+
+	private static int readInt(final int[] array, final MemorySegment segment, final long base, final int i) {
+		return array != null ? array[(int) base + i] : segment.get(ValueLayout.JAVA_INT, base + ((long) i << 2));
+	}
+
+	private static float readFloat(final float[] array, final MemorySegment segment, final long base, final int i) {
+		return array != null ? array[(int) base + i] : segment.get(ValueLayout.JAVA_FLOAT, base + ((long) i << 2));
+	}
+
+}
@@ -0,0 +1,810 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.FLOAT_SPECIES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Kernels for the conditional and bounding operations on {@link IVector vectors}, written with the
+ * {@link VectorMask masks} of the Panama Vector API.
+ * <p>
+ *   The condition of an operation is a comparison between the components of a condition vector and
+ *   a threshold, evaluated lane by lane into a mask: the masked lanes are left unchanged instead of
+ *   branching on each component.
+ * </p>
+ * <p>
+ *   The kernels handle vectors of doubles, or vectors of floats, whose operands are either all on
+ *   heap, or all backed by direct or segment blocks. Any other combination of types or layouts falls
+ *   back to an element by element loop. The floats are compared with the threshold as doubles, like
+ *   in that loop.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorMaskUtil {
+
+	private VectorMaskUtil() {}
+
+	/**
+	 * Computes {@code target[i] += source[i]}, or {@code target[i] -= source[i]}, for the first
+	 * {@code length} components whose {@code condition[i]} satisfies the comparison with the
+	 * threshold.
+	 *
+	 * @param target the vector receiving the result
+	 * @param source the added or subtracted vector
+	 * @param condition the vector compared with the threshold
+	 * @param comparison the comparison selecting the updated components
+	 * @param threshold the threshold
+	 * @param length the number of components to process
+	 * @param subtract whether the source is subtracted instead of added
+	 */
+	static void applyWhere(
+			final IVector target,
+			final IVector source,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold,
+			final int length,
+			final boolean subtract) {
+		checkLength(condition, length);
+		if (is(Types.DOUBLE, target, source, condition)) {
+			final double[] t = array(target);
+			final double[] s = array(source);
+			final double[] c = array(condition);
+			if (t != null && s != null && c != null) {
+				applyWhere(
+						t, VectorCopyUtil.arrayIndex(target),
+						s, VectorCopyUtil.arrayIndex(source),
+						c, VectorCopyUtil.arrayIndex(condition),
+						length, subtract, comparison, threshold);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment ss = VectorArithmeticUtil.segment(source);
+			final MemorySegment cs = VectorArithmeticUtil.segment(condition);
+			if (ts != null && ss != null && cs != null) {
+				applyWhere(
+						ts, VectorArithmeticUtil.offset(target, 3),
+						ss, VectorArithmeticUtil.offset(source, 3),
+						cs, VectorArithmeticUtil.offset(condition, 3),
+						length, subtract, comparison, threshold);
+				return;
+			}
+		} else if (is(Types.FLOAT, target, source, condition)) {
+			final float[] t = floats(target);
+			final float[] s = floats(source);
+			final float[] c = floats(condition);
+			if (t != null && s != null && c != null) {
+				applyWhere(
+						t, VectorCopyUtil.arrayIndex(target),
+						s, VectorCopyUtil.arrayIndex(source),
+						c, VectorCopyUtil.arrayIndex(condition),
+						length, subtract, comparison, threshold);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment ss = VectorArithmeticUtil.segment(source);
+			final MemorySegment cs = VectorArithmeticUtil.segment(condition);
+			if (ts != null && ss != null && cs != null) {
+				applyWhereFloat(
+						ts, VectorArithmeticUtil.offset(target, 2),
+						ss, VectorArithmeticUtil.offset(source, 2),
+						cs, VectorArithmeticUtil.offset(condition, 2),
+						length, subtract, comparison, threshold);
+				return;
+			}
+		}
+		if (target.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				if (comparison.test(condition.readDouble(i), threshold)) {
+					final int value = source.readInt(i);
+					target.addInt(i, subtract ? -value : value);
+				}
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				if (comparison.test(condition.readDouble(i), threshold)) {
+					final double value = source.readDouble(i);
+					target.addDouble(i, subtract ? -value : value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code target[i] = test(condition[i]) ? ifTrue[i] : ifFalse[i]} for the first
+	 * {@code length} components.
+	 *
+	 * @param target the vector receiving the result
+	 * @param condition the vector compared with the threshold
+	 * @param comparison the comparison choosing between the two operands
+	 * @param threshold the threshold
+	 * @param ifTrue the operand read where the comparison holds
+	 * @param ifFalse the operand read where the comparison does not hold
+	 * @param length the number of components to process
+	 */
+	static void select(
+			final IVector target,
+			final IVector condition,
+			final VectorComparison comparison,
+			final double threshold,
+			final IVector ifTrue,
+			final IVector ifFalse,
+			final int length) {
+		checkLength(ifTrue, length);
+		checkLength(ifFalse, length);
+		if (is(Types.DOUBLE, target, condition, ifTrue, ifFalse)) {
+			final double[] t = array(target);
+			final double[] c = array(condition);
+			final double[] a = array(ifTrue);
+			final double[] b = array(ifFalse);
+			if (t != null && c != null && a != null && b != null) {
+				select(
+						t, VectorCopyUtil.arrayIndex(target),
+						c, VectorCopyUtil.arrayIndex(condition),
+						a, VectorCopyUtil.arrayIndex(ifTrue),
+						b, VectorCopyUtil.arrayIndex(ifFalse),
+						length, comparison, threshold);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment cs = VectorArithmeticUtil.segment(condition);
+			final MemorySegment as = VectorArithmeticUtil.segment(ifTrue);
+			final MemorySegment bs = VectorArithmeticUtil.segment(ifFalse);
+			if (ts != null && cs != null && as != null && bs != null) {
+				select(
+						ts, VectorArithmeticUtil.offset(target, 3),
+						cs, VectorArithmeticUtil.offset(condition, 3),
+						as, VectorArithmeticUtil.offset(ifTrue, 3),
+						bs, VectorArithmeticUtil.offset(ifFalse, 3),
+						length, comparison, threshold);
+				return;
+			}
+		} else if (is(Types.FLOAT, target, condition, ifTrue, ifFalse)) {
+			final float[] t = floats(target);
+			final float[] c = floats(condition);
+			final float[] a = floats(ifTrue);
+			final float[] b = floats(ifFalse);
+			if (t != null && c != null && a != null && b != null) {
+				select(
+						t, VectorCopyUtil.arrayIndex(target),
+						c, VectorCopyUtil.arrayIndex(condition),
+						a, VectorCopyUtil.arrayIndex(ifTrue),
+						b, VectorCopyUtil.arrayIndex(ifFalse),
+						length, comparison, threshold);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment cs = VectorArithmeticUtil.segment(condition);
+			final MemorySegment as = VectorArithmeticUtil.segment(ifTrue);
+			final MemorySegment bs = VectorArithmeticUtil.segment(ifFalse);
+			if (ts != null && cs != null && as != null && bs != null) {
+				selectFloat(
+						ts, VectorArithmeticUtil.offset(target, 2),
+						cs, VectorArithmeticUtil.offset(condition, 2),
+						as, VectorArithmeticUtil.offset(ifTrue, 2),
+						bs, VectorArithmeticUtil.offset(ifFalse, 2),
+						length, comparison, threshold);
+				return;
+			}
+		}
+		if (target.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				final IVector operand = comparison.test(condition.readDouble(i), threshold) ? ifTrue : ifFalse;
+				target.writeInt(i, operand.readInt(i));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				final IVector operand = comparison.test(condition.readDouble(i), threshold) ? ifTrue : ifFalse;
+				target.writeDouble(i, operand.readDouble(i));
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code target[i] = max(target[i], source[i])}, or the minimum, for the first
+	 * {@code length} components.
+	 *
+	 * @param target the vector receiving the result
+	 * @param source the other operand
+	 * @param length the number of components to process
+	 * @param maximum whether the maximum is kept instead of the minimum
+	 */
+	static void extremum(final IVector target, final IVector source, final int length, final boolean maximum) {
+		if (is(Types.DOUBLE, target, source)) {
+			final double[] t = array(target);
+			final double[] s = array(source);
+			if (t != null && s != null) {
+				extremum(t, VectorCopyUtil.arrayIndex(target), s, VectorCopyUtil.arrayIndex(source), length, maximum);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment ss = VectorArithmeticUtil.segment(source);
+			if (ts != null && ss != null) {
+				extremum(
+						ts, VectorArithmeticUtil.offset(target, 3),
+						ss, VectorArithmeticUtil.offset(source, 3),
+						length, maximum);
+				return;
+			}
+		} else if (is(Types.FLOAT, target, source)) {
+			final float[] t = floats(target);
+			final float[] s = floats(source);
+			if (t != null && s != null) {
+				extremum(t, VectorCopyUtil.arrayIndex(target), s, VectorCopyUtil.arrayIndex(source), length, maximum);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			final MemorySegment ss = VectorArithmeticUtil.segment(source);
+			if (ts != null && ss != null) {
+				extremumFloat(
+						ts, VectorArithmeticUtil.offset(target, 2),
+						ss, VectorArithmeticUtil.offset(source, 2),
+						length, maximum);
+				return;
+			}
+		}
+		if (target.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				final int t = target.readInt(i);
+				final int s = source.readInt(i);
+				target.writeInt(i, maximum ? Math.max(t, s) : Math.min(t, s));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				final double t = target.readDouble(i);
+				final double s = source.readDouble(i);
+				target.writeDouble(i, maximum ? Math.max(t, s) : Math.min(t, s));
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code target[i] = min(max(target[i], lower), upper)} for all the components.
+	 *
+	 * @param target the vector to bound
+	 * @param lower the lower bound
+	 * @param upper the upper bound
+	 */
+	static void clamp(final IVector target, final double lower, final double upper) {
+		if (!(lower <= upper)) {
+			throw new IllegalArgumentException("The lower bound " + lower + " is above the upper bound " + upper);
+		}
+		final int length = target.size();
+		if (target.getComponentType() == Types.DOUBLE) {
+			final double[] t = array(target);
+			if (t != null) {
+				clamp(t, VectorCopyUtil.arrayIndex(target), length, lower, upper);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			if (ts != null) {
+				clamp(ts, VectorArithmeticUtil.offset(target, 3), length, lower, upper);
+				return;
+			}
+		} else if (target.getComponentType() == Types.FLOAT) {
+			// Rounding is monotonic: clamping between the rounded bounds is rounding the clamped double
+			final float[] t = floats(target);
+			if (t != null) {
+				clamp(t, VectorCopyUtil.arrayIndex(target), length, (float) lower, (float) upper);
+				return;
+			}
+			final MemorySegment ts = VectorArithmeticUtil.segment(target);
+			if (ts != null) {
+				clampFloat(ts, VectorArithmeticUtil.offset(target, 2), length, (float) lower, (float) upper);
+				return;
+			}
+		}
+		if (target.getComponentType() == Types.INTEGER) {
+			for (int i = 0; i < length; ++i) {
+				target.writeInt(i, (int) Math.min(Math.max(target.readInt(i), lower), upper));
+			}
+		} else {
+			for (int i = 0; i < length; ++i) {
+				target.writeDouble(i, Math.min(Math.max(target.readDouble(i), lower), upper));
+			}
+		}
+	}
+
+	private static void checkLength(final IVector operand, final int length) {
+		if (operand.size() < length) {
+			throw new IndexOutOfBoundsException(
+					"Cannot read " + length + " components in a vector of size " + operand.size());
+		}
+	}
+
+	private static boolean is(final Types type, final IVector... vectors) {
+		for (final IVector vector : vectors) {
+			if (vector.getComponentType() != type) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param vector a vector of doubles
+	 * @return the array holding its components, or {@code null} if it is not on heap
+	 */
+	private static double[] array(final IVector vector) {
+		return (double[]) VectorCopyUtil.array(vector);
+	}
+
+	/**
+	 * @param vector a vector of floats
+	 * @return the array holding its components, or {@code null} if it is not on heap
+	 */
+	private static float[] floats(final IVector vector) {
+		return (float[]) VectorCopyUtil.array(vector);
+	}
+
+	/**
+	 * Compares the floats of a register with a threshold as doubles, widening each half of the register
+	 * into a register of doubles, so that the mask is the one of the element by element loop.
+	 */
+	private static VectorMask<Float> compare(
+			final FloatVector condition,
+			final VectorOperators.Comparison operator,
+			final double threshold) {
+		final DoubleVector low = (DoubleVector) condition.convert(VectorOperators.F2D, 0);
+		final DoubleVector high = (DoubleVector) condition.convert(VectorOperators.F2D, 1);
+		return VectorMask.fromLong(
+				FLOAT_SPECIES,
+				low.compare(operator, threshold).toLong()
+						| high.compare(operator, threshold).toLong() << DOUBLE_SPECIES.length());
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Heap kernels
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static void applyWhere(
+			final double[] target,
+			final int t,
+			final double[] source,
+			final int s,
+			final double[] condition,
+			final int c,
+			final int length,
+			final boolean subtract,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final VectorMask<Double> mask =
+					DoubleVector.fromArray(DOUBLE_SPECIES, condition, c + i).compare(operator, threshold);
+			final DoubleVector left = DoubleVector.fromArray(DOUBLE_SPECIES, target, t + i);
+			final DoubleVector right = DoubleVector.fromArray(DOUBLE_SPECIES, source, s + i);
+			(subtract ? left.sub(right, mask) : left.add(right, mask)).intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			if (comparison.test(condition[c + i], threshold)) {
+				target[t + i] = subtract ? target[t + i] - source[s + i] : target[t + i] + source[s + i];
+			}
+		}
+	}
+
+	private static void select(
+			final double[] target,
+			final int t,
+			final double[] condition,
+			final int c,
+			final double[] ifTrue,
+			final int a,
+			final double[] ifFalse,
+			final int b,
+			final int length,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final VectorMask<Double> mask =
+					DoubleVector.fromArray(DOUBLE_SPECIES, condition, c + i).compare(operator, threshold);
+			DoubleVector.fromArray(DOUBLE_SPECIES, ifFalse, b + i)
+					.blend(DoubleVector.fromArray(DOUBLE_SPECIES, ifTrue, a + i), mask)
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = comparison.test(condition[c + i], threshold) ? ifTrue[a + i] : ifFalse[b + i];
+		}
+	}
+
+	private static void extremum(
+			final double[] target,
+			final int t,
+			final double[] source,
+			final int s,
+			final int length,
+			final boolean maximum) {
+		final VectorOperators.Binary operator = maximum ? VectorOperators.MAX : VectorOperators.MIN;
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			DoubleVector.fromArray(DOUBLE_SPECIES, target, t + i)
+					.lanewise(operator, DoubleVector.fromArray(DOUBLE_SPECIES, source, s + i))
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = maximum
+					? Math.max(target[t + i], source[s + i])
+					: Math.min(target[t + i], source[s + i]);
+		}
+	}
+
+	private static void clamp(
+			final double[] target,
+			final int t,
+			final int length,
+			final double lower,
+			final double upper) {
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			DoubleVector.fromArray(DOUBLE_SPECIES, target, t + i)
+					.max(lower)
+					.min(upper)
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = Math.min(Math.max(target[t + i], lower), upper);
+		}
+	}
+
+	private static void applyWhere(
+			final float[] target,
+			final int t,
+			final float[] source,
+			final int s,
+			final float[] condition,
+			final int c,
+			final int length,
+			final boolean subtract,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final VectorMask<Float> mask =
+					compare(FloatVector.fromArray(FLOAT_SPECIES, condition, c + i), operator, threshold);
+			final FloatVector left = FloatVector.fromArray(FLOAT_SPECIES, target, t + i);
+			final FloatVector right = FloatVector.fromArray(FLOAT_SPECIES, source, s + i);
+			(subtract ? left.sub(right, mask) : left.add(right, mask)).intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			if (comparison.test(condition[c + i], threshold)) {
+				target[t + i] = subtract ? target[t + i] - source[s + i] : target[t + i] + source[s + i];
+			}
+		}
+	}
+
+	private static void select(
+			final float[] target,
+			final int t,
+			final float[] condition,
+			final int c,
+			final float[] ifTrue,
+			final int a,
+			final float[] ifFalse,
+			final int b,
+			final int length,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final VectorMask<Float> mask =
+					compare(FloatVector.fromArray(FLOAT_SPECIES, condition, c + i), operator, threshold);
+			FloatVector.fromArray(FLOAT_SPECIES, ifFalse, b + i)
+					.blend(FloatVector.fromArray(FLOAT_SPECIES, ifTrue, a + i), mask)
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = comparison.test(condition[c + i], threshold) ? ifTrue[a + i] : ifFalse[b + i];
+		}
+	}
+
+	private static void extremum(
+			final float[] target,
+			final int t,
+			final float[] source,
+			final int s,
+			final int length,
+			final boolean maximum) {
+		final VectorOperators.Binary operator = maximum ? VectorOperators.MAX : VectorOperators.MIN;
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			FloatVector.fromArray(FLOAT_SPECIES, target, t + i)
+					.lanewise(operator, FloatVector.fromArray(FLOAT_SPECIES, source, s + i))
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = maximum
+					? Math.max(target[t + i], source[s + i])
+					: Math.min(target[t + i], source[s + i]);
+		}
+	}
+
+	private static void clamp(
+			final float[] target,
+			final int t,
+			final int length,
+			final float lower,
+			final float upper) {
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			FloatVector.fromArray(FLOAT_SPECIES, target, t + i)
+					.max(lower)
+					.min(upper)
+					.intoArray(target, t + i);
+		}
+		for (; i < length; ++i) {
+			target[t + i] = Math.min(Math.max(target[t + i], lower), upper);
+		}
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Segment kernels, offsets in bytes
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	private static void applyWhere(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment source,
+			final long s,
+			final MemorySegment condition,
+			final long c,
+			final int length,
+			final boolean subtract,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long shift = (long) i << 3;
+			final VectorMask<Double> mask = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, condition, c + shift, order)
+					.compare(operator, threshold);
+			final DoubleVector left = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, target, t + shift, order);
+			final DoubleVector right = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, source, s + shift, order);
+			(subtract ? left.sub(right, mask) : left.add(right, mask)).intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 3;
+			if (comparison.test(condition.get(ValueLayout.JAVA_DOUBLE, c + shift), threshold)) {
+				final double left = target.get(ValueLayout.JAVA_DOUBLE, t + shift);
+				final double right = source.get(ValueLayout.JAVA_DOUBLE, s + shift);
+				target.set(ValueLayout.JAVA_DOUBLE, t + shift, subtract ? left - right : left + right);
+			}
+		}
+	}
+
+	private static void select(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment condition,
+			final long c,
+			final MemorySegment ifTrue,
+			final long a,
+			final MemorySegment ifFalse,
+			final long b,
+			final int length,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long shift = (long) i << 3;
+			final VectorMask<Double> mask = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, condition, c + shift, order)
+					.compare(operator, threshold);
+			DoubleVector.fromMemorySegment(DOUBLE_SPECIES, ifFalse, b + shift, order)
+					.blend(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, ifTrue, a + shift, order), mask)
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 3;
+			final boolean test = comparison.test(condition.get(ValueLayout.JAVA_DOUBLE, c + shift), threshold);
+			target.set(
+					ValueLayout.JAVA_DOUBLE,
+					t + shift,
+					test
+							? ifTrue.get(ValueLayout.JAVA_DOUBLE, a + shift)
+							: ifFalse.get(ValueLayout.JAVA_DOUBLE, b + shift));
+		}
+	}
+
+	private static void extremum(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment source,
+			final long s,
+			final int length,
+			final boolean maximum) {
+		final VectorOperators.Binary operator = maximum ? VectorOperators.MAX : VectorOperators.MIN;
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long shift = (long) i << 3;
+			DoubleVector.fromMemorySegment(DOUBLE_SPECIES, target, t + shift, order)
+					.lanewise(operator, DoubleVector.fromMemorySegment(DOUBLE_SPECIES, source, s + shift, order))
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 3;
+			final double left = target.get(ValueLayout.JAVA_DOUBLE, t + shift);
+			final double right = source.get(ValueLayout.JAVA_DOUBLE, s + shift);
+			target.set(ValueLayout.JAVA_DOUBLE, t + shift, maximum ? Math.max(left, right) : Math.min(left, right));
+		}
+	}
+
+	private static void clamp(
+			final MemorySegment target,
+			final long t,
+			final int length,
+			final double lower,
+			final double upper) {
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final long shift = (long) i << 3;
+			DoubleVector.fromMemorySegment(DOUBLE_SPECIES, target, t + shift, order)
+					.max(lower)
+					.min(upper)
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 3;
+			target.set(
+					ValueLayout.JAVA_DOUBLE,
+					t + shift,
+					Math.min(Math.max(target.get(ValueLayout.JAVA_DOUBLE, t + shift), lower), upper));
+		}
+	}
+
+	private static void applyWhereFloat(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment source,
+			final long s,
+			final MemorySegment condition,
+			final long c,
+			final int length,
+			final boolean subtract,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long shift = (long) i << 2;
+			final VectorMask<Float> mask = compare(
+					FloatVector.fromMemorySegment(FLOAT_SPECIES, condition, c + shift, order), operator, threshold);
+			final FloatVector left = FloatVector.fromMemorySegment(FLOAT_SPECIES, target, t + shift, order);
+			final FloatVector right = FloatVector.fromMemorySegment(FLOAT_SPECIES, source, s + shift, order);
+			(subtract ? left.sub(right, mask) : left.add(right, mask)).intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 2;
+			if (comparison.test(condition.get(ValueLayout.JAVA_FLOAT, c + shift), threshold)) {
+				final float left = target.get(ValueLayout.JAVA_FLOAT, t + shift);
+				final float right = source.get(ValueLayout.JAVA_FLOAT, s + shift);
+				target.set(ValueLayout.JAVA_FLOAT, t + shift, subtract ? left - right : left + right);
+			}
+		}
+	}
+
+	private static void selectFloat(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment condition,
+			final long c,
+			final MemorySegment ifTrue,
+			final long a,
+			final MemorySegment ifFalse,
+			final long b,
+			final int length,
+			final VectorComparison comparison,
+			final double threshold) {
+		final VectorOperators.Comparison operator = comparison.operator();
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long shift = (long) i << 2;
+			final VectorMask<Float> mask = compare(
+					FloatVector.fromMemorySegment(FLOAT_SPECIES, condition, c + shift, order), operator, threshold);
+			FloatVector.fromMemorySegment(FLOAT_SPECIES, ifFalse, b + shift, order)
+					.blend(FloatVector.fromMemorySegment(FLOAT_SPECIES, ifTrue, a + shift, order), mask)
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 2;
+			final boolean test = comparison.test(condition.get(ValueLayout.JAVA_FLOAT, c + shift), threshold);
+			target.set(
+					ValueLayout.JAVA_FLOAT,
+					t + shift,
+					test
+							? ifTrue.get(ValueLayout.JAVA_FLOAT, a + shift)
+							: ifFalse.get(ValueLayout.JAVA_FLOAT, b + shift));
+		}
+	}
+
+	private static void extremumFloat(
+			final MemorySegment target,
+			final long t,
+			final MemorySegment source,
+			final long s,
+			final int length,
+			final boolean maximum) {
+		final VectorOperators.Binary operator = maximum ? VectorOperators.MAX : VectorOperators.MIN;
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long shift = (long) i << 2;
+			FloatVector.fromMemorySegment(FLOAT_SPECIES, target, t + shift, order)
+					.lanewise(operator, FloatVector.fromMemorySegment(FLOAT_SPECIES, source, s + shift, order))
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 2;
+			final float left = target.get(ValueLayout.JAVA_FLOAT, t + shift);
+			final float right = source.get(ValueLayout.JAVA_FLOAT, s + shift);
+			target.set(ValueLayout.JAVA_FLOAT, t + shift, maximum ? Math.max(left, right) : Math.min(left, right));
+		}
+	}
+
+	private static void clampFloat(
+			final MemorySegment target,
+			final long t,
+			final int length,
+			final float lower,
+			final float upper) {
+		final ByteOrder order = ByteOrder.nativeOrder();
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final long shift = (long) i << 2;
+			FloatVector.fromMemorySegment(FLOAT_SPECIES, target, t + shift, order)
+					.max(lower)
+					.min(upper)
+					.intoMemorySegment(target, t + shift, order);
+		}
+		for (; i < length; ++i) {
+			final long shift = (long) i << 2;
+			target.set(
+					ValueLayout.JAVA_FLOAT,
+					t + shift,
+					Math.min(Math.max(target.get(ValueLayout.JAVA_FLOAT, t + shift), lower), upper));
+		}
+	}
+
+}
@@ -0,0 +1,497 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.vector;
+
+import static com.activeviam.vector.VectorArithmeticUtil.DOUBLE_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.FLOAT_SPECIES;
+import static com.activeviam.vector.VectorArithmeticUtil.INT_SPECIES;
+
+import com.activeviam.Types;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Single pass reductions over the components of a {@link IVector vector}, written with the Panama
+ * Vector API.
+ * <p>
+ *   Each lane keeps its own compensated accumulator: a Kahan sum for {@link #sum(IVector)}, and
+ *   Welford's running mean and sum of squared deviations for {@link #variance(IVector)}. The lanes
+ *   are merged once at the end, so that the result is as accurate as a scalar compensated loop
+ *   while reading the vector only once. Integer and float components are converted to doubles
+ *   lane-wise, so that float vectors are also accumulated in double precision.
+ * </p>
+ *
+ * @author ActiveViam
+ */
+public class VectorStatisticsUtil {
+
+	private VectorStatisticsUtil() {}
+
+	/**
+	 * Computes the compensated sum of the components of a vector.
+	 *
+	 * @param vector a vector
+	 * @return the sum of its components, as a double
+	 */
+	public static double sum(final IVector vector) {
+		final int length = vector.size();
+		final Types type = vector.getComponentType();
+		if (type == Types.DOUBLE) {
+			if (vector instanceof ArrayDoubleVector) {
+				return sum(((ArrayDoubleVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return sumDouble(segment, VectorArithmeticUtil.offset(vector, 3), length);
+			}
+		} else if (type == Types.INTEGER) {
+			if (vector instanceof ArrayIntegerVector) {
+				return sum(((ArrayIntegerVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return sumInt(segment, VectorArithmeticUtil.offset(vector, 2), length);
+			}
+		} else if (type == Types.FLOAT) {
+			if (vector instanceof ArrayFloatVector) {
+				return sum(((ArrayFloatVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return sumFloat(segment, VectorArithmeticUtil.offset(vector, 2), length);
+			}
+		}
+		final CompensatedSum sum = new CompensatedSum();
+		for (int i = 0; i < length; ++i) {
+			sum.add(vector.readDouble(i));
+		}
+		return sum.get();
+	}
+
+	/**
+	 * Computes the biased variance of the components of a vector, in a single pass.
+	 *
+	 * @param vector a vector
+	 * @return the variance of its components
+	 * @see IVector#variance()
+	 */
+	public static double variance(final IVector vector) {
+		final int length = vector.size();
+		final Types type = vector.getComponentType();
+		if (type == Types.DOUBLE) {
+			if (vector instanceof ArrayDoubleVector) {
+				return variance(((ArrayDoubleVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return varianceDouble(segment, VectorArithmeticUtil.offset(vector, 3), length);
+			}
+		} else if (type == Types.INTEGER) {
+			if (vector instanceof ArrayIntegerVector) {
+				return variance(((ArrayIntegerVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return varianceInt(segment, VectorArithmeticUtil.offset(vector, 2), length);
+			}
+		} else if (type == Types.FLOAT) {
+			if (vector instanceof ArrayFloatVector) {
+				return variance(((ArrayFloatVector) vector).getUnderlying(), length);
+			}
+			final MemorySegment segment = VectorArithmeticUtil.segment(vector);
+			if (segment != null) {
+				return varianceFloat(segment, VectorArithmeticUtil.offset(vector, 2), length);
+			}
+		}
+		final Moments moments = new Moments();
+		for (int i = 0; i < length; ++i) {
+			moments.add(vector.readDouble(i));
+		}
+		return moments.variance();
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Sum kernels, with a Kahan summation per lane: s is the running sum and c the opposite of
+	// its lost low-order bits
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Merges the lanes of the per lane sums.
+	 *
+	 * @param s the sum of each lane
+	 * @param c the compensation of each lane
+	 * @return a scalar compensated sum of all the lanes
+	 */
+	private static CompensatedSum merge(final DoubleVector s, final DoubleVector c) {
+		final CompensatedSum result = new CompensatedSum();
+		final double[] sums = s.toArray();
+		final double[] compensations = c.toArray();
+		for (int l = 0; l < sums.length; ++l) {
+			result.add(sums[l]);
+			result.add(-compensations[l]);
+		}
+		return result;
+	}
+
+	static double sum(final double[] a, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final DoubleVector y = DoubleVector.fromArray(DOUBLE_SPECIES, a, i).sub(c);
+			final DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a[i]);
+		}
+		return sum.get();
+	}
+
+	static double sumDouble(final MemorySegment a, final long offset, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final DoubleVector y = DoubleVector.fromMemorySegment(
+					DOUBLE_SPECIES, a, offset + ((long) i << 3), ByteOrder.nativeOrder()).sub(c);
+			final DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a.get(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3)));
+		}
+		return sum.get();
+	}
+
+	static double sum(final int[] a, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromArray(INT_SPECIES, a, i);
+			DoubleVector y = ((DoubleVector) v.convert(VectorOperators.I2D, 0)).sub(c);
+			DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+			y = ((DoubleVector) v.convert(VectorOperators.I2D, 1)).sub(c);
+			t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a[i]);
+		}
+		return sum.get();
+	}
+
+	static double sumInt(final MemorySegment a, final long offset, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromMemorySegment(
+					INT_SPECIES, a, offset + ((long) i << 2), ByteOrder.nativeOrder());
+			DoubleVector y = ((DoubleVector) v.convert(VectorOperators.I2D, 0)).sub(c);
+			DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+			y = ((DoubleVector) v.convert(VectorOperators.I2D, 1)).sub(c);
+			t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a.get(ValueLayout.JAVA_INT, offset + ((long) i << 2)));
+		}
+		return sum.get();
+	}
+
+	static double sum(final float[] a, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, a, i);
+			DoubleVector y = ((DoubleVector) v.convert(VectorOperators.F2D, 0)).sub(c);
+			DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+			y = ((DoubleVector) v.convert(VectorOperators.F2D, 1)).sub(c);
+			t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a[i]);
+		}
+		return sum.get();
+	}
+
+	static double sumFloat(final MemorySegment a, final long offset, final int length) {
+		DoubleVector s = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector c = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v = FloatVector.fromMemorySegment(
+					FLOAT_SPECIES, a, offset + ((long) i << 2), ByteOrder.nativeOrder());
+			DoubleVector y = ((DoubleVector) v.convert(VectorOperators.F2D, 0)).sub(c);
+			DoubleVector t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+			y = ((DoubleVector) v.convert(VectorOperators.F2D, 1)).sub(c);
+			t = s.add(y);
+			c = t.sub(s).sub(y);
+			s = t;
+		}
+		final CompensatedSum sum = merge(s, c);
+		for (; i < length; ++i) {
+			sum.add(a.get(ValueLayout.JAVA_FLOAT, offset + ((long) i << 2)));
+		}
+		return sum.get();
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Variance kernels, with Welford's algorithm per lane. All the lanes see the same number of
+	// values
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Merges the lanes of the per lane moments.
+	 *
+	 * @param count the number of values seen by each lane
+	 * @param mean the mean of each lane
+	 * @param m2 the sum of squared deviations of each lane
+	 * @return the scalar moments of all the lanes
+	 */
+	private static Moments merge(final long count, final DoubleVector mean, final DoubleVector m2) {
+		final Moments result = new Moments();
+		final double[] means = mean.toArray();
+		final double[] m2s = m2.toArray();
+		for (int l = 0; l < means.length; ++l) {
+			result.merge(count, means[l], m2s[l]);
+		}
+		return result;
+	}
+
+	static double variance(final double[] a, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final DoubleVector x = DoubleVector.fromArray(DOUBLE_SPECIES, a, i);
+			final DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a[i]);
+		}
+		return moments.variance();
+	}
+
+	static double varianceDouble(final MemorySegment a, final long offset, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = DOUBLE_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += DOUBLE_SPECIES.length()) {
+			final DoubleVector x = DoubleVector.fromMemorySegment(
+					DOUBLE_SPECIES, a, offset + ((long) i << 3), ByteOrder.nativeOrder());
+			final DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a.get(ValueLayout.JAVA_DOUBLE, offset + ((long) i << 3)));
+		}
+		return moments.variance();
+	}
+
+	static double variance(final int[] a, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromArray(INT_SPECIES, a, i);
+			DoubleVector x = (DoubleVector) v.convert(VectorOperators.I2D, 0);
+			DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+			x = (DoubleVector) v.convert(VectorOperators.I2D, 1);
+			delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a[i]);
+		}
+		return moments.variance();
+	}
+
+	static double varianceInt(final MemorySegment a, final long offset, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = INT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += INT_SPECIES.length()) {
+			final IntVector v = IntVector.fromMemorySegment(
+					INT_SPECIES, a, offset + ((long) i << 2), ByteOrder.nativeOrder());
+			DoubleVector x = (DoubleVector) v.convert(VectorOperators.I2D, 0);
+			DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+			x = (DoubleVector) v.convert(VectorOperators.I2D, 1);
+			delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a.get(ValueLayout.JAVA_INT, offset + ((long) i << 2)));
+		}
+		return moments.variance();
+	}
+
+	static double variance(final float[] a, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, a, i);
+			DoubleVector x = (DoubleVector) v.convert(VectorOperators.F2D, 0);
+			DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+			x = (DoubleVector) v.convert(VectorOperators.F2D, 1);
+			delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a[i]);
+		}
+		return moments.variance();
+	}
+
+	static double varianceFloat(final MemorySegment a, final long offset, final int length) {
+		long count = 0;
+		DoubleVector mean = DoubleVector.zero(DOUBLE_SPECIES);
+		DoubleVector m2 = DoubleVector.zero(DOUBLE_SPECIES);
+		final int bound = FLOAT_SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += FLOAT_SPECIES.length()) {
+			final FloatVector v = FloatVector.fromMemorySegment(
+					FLOAT_SPECIES, a, offset + ((long) i << 2), ByteOrder.nativeOrder());
+			DoubleVector x = (DoubleVector) v.convert(VectorOperators.F2D, 0);
+			DoubleVector delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+			x = (DoubleVector) v.convert(VectorOperators.F2D, 1);
+			delta = x.sub(mean);
+			mean = mean.add(delta.div(++count));
+			m2 = delta.fma(x.sub(mean), m2);
+		}
+		final Moments moments = merge(count, mean, m2);
+		for (; i < length; ++i) {
+			moments.add(a.get(ValueLayout.JAVA_FLOAT, offset + ((long) i << 2)));
+		}
+		return moments.variance();
+	}
+
+	/////////////////////////////////////////////////////////////////////////////////////
+	// Scalar accumulators
+	/////////////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Neumaier's variant of the Kahan summation, which also handles terms larger than the running
+	 * sum.
+	 */
+	static final class CompensatedSum {
+
+		private double sum = 0d;
+		private double compensation = 0d;
+
+		void add(final double v) {
+			final double t = this.sum + v;
+			if (Math.abs(this.sum) >= Math.abs(v)) {
+				this.compensation += (this.sum - t) + v;
+			} else {
+				this.compensation += (v - t) + this.sum;
+			}
+			this.sum = t;
+		}
+
+		double get() {
+			return this.sum + this.compensation;
+		}
+	}
+
+	/**
+	 * Welford's running mean and sum of squared deviations, mergeable with Chan's formula.
+	 */
+	static final class Moments {
+
+		private long count = 0;
+		private double mean = 0d;
+		private double m2 = 0d;
+
+		void add(final double v) {
+			++this.count;
+			final double delta = v - this.mean;
+			this.mean += delta / this.count;
+			this.m2 += delta * (v - this.mean);
+		}
+
+		void merge(final long count, final double mean, final double m2) {
+			if (count == 0) {
+				return;
+			}
+			final long total = this.count + count;
+			final double delta = mean - this.mean;
+			this.mean += delta * count / total;
+			this.m2 += m2 + delta * delta * ((double) this.count * count / total);
+			this.count = total;
+		}
+
+		double variance() {
+			return this.m2 / this.count;
+		}
+	}
+
+}
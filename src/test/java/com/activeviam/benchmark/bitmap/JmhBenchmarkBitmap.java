@@ -0,0 +1,103 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.bitmap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.impl.BitSetBitmap;
+import com.activeviam.structures.bitmap.impl.RoaringBitmap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Micro Benchmark for the AND and OR operations of the {@link IBitmap} implementations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 100, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 100, timeUnit = MILLISECONDS)
+@Fork(1)
+public class JmhBenchmarkBitmap {
+
+	/** Number of rows covered by the bitmaps */
+	protected static final int ROW_COUNT = 10_000_000;
+
+	/**
+	 * Implementation of the tested bitmaps.
+	 * <ul>
+	 * <li>bitset: uncompressed {@link BitSetBitmap}
+	 * <li>roaring: compressed {@link RoaringBitmap}
+	 * </ul>
+	 */
+	@Param({"bitset", "roaring"})
+	protected static String BITMAP_IMPLEMENTATION;
+
+	/** Number of rows set in each of the bitmaps */
+	@Param({"100000"})
+	protected static int CARDINALITY;
+
+	protected static IBitmap LEFT;
+
+	protected static IBitmap RIGHT;
+
+	/**
+	 * Fills the two bitmaps with random rows.
+	 */
+	@Setup(Level.Trial)
+	public void setupBitmaps() {
+		final Random random = new Random(42);
+		LEFT = fill(random.ints(CARDINALITY, 0, ROW_COUNT).sorted().toArray());
+		RIGHT = fill(random.ints(CARDINALITY, 0, ROW_COUNT).sorted().toArray());
+	}
+
+	/** Benchmarks the intersection of the two bitmaps. */
+	@Benchmark
+	public IBitmap and() {
+		return LEFT.and(RIGHT);
+	}
+
+	/** Benchmarks the union of the two bitmaps. */
+	@Benchmark
+	public IBitmap or() {
+		return LEFT.or(RIGHT);
+	}
+
+	protected static IBitmap fill(final int[] rows) {
+		final IBitmap bitmap = createBitmap();
+		for (final int row : rows) {
+			bitmap.set(row);
+		}
+		return bitmap;
+	}
+
+	protected static IBitmap createBitmap() {
+		switch (BITMAP_IMPLEMENTATION) {
+			case "bitset":
+				return new BitSetBitmap();
+			case "roaring":
+				return new RoaringBitmap();
+			default:
+				throw new IllegalStateException("Unexpected bitmap parameter value.");
+		}
+	}
+
+}
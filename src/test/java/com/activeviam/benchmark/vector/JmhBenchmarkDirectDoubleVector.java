@@ -89,6 +89,16 @@ public class JmhBenchmarkDirectDoubleVector extends AJmhBenchmarkTypedVector {
 		vector.vector.sumDouble();
 	}
 
+	@Benchmark
+	public void scale(BenchmarkVector vector) {
+		vector.vector.scale(1.0001d);
+	}
+
+	@Benchmark
+	public void translate(BenchmarkVector vector) {
+		vector.vector.translate(writtenValue);
+	}
+
 	@Benchmark
 	public void toDoubleArray(BenchmarkVector vector) {
 		vector.vector.toDoubleArray();
@@ -0,0 +1,141 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.VectorAggregationUtil;
+import java.lang.foreign.MemorySession;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Micro Benchmark for the SUM of many stored vectors into one accumulator, as done by a roll-up.
+ * <p>
+ * The largest configuration holds 10K vectors of 100K doubles, and needs about 8GB of memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 1000, timeUnit = MILLISECONDS)
+@Fork(1)
+public class JmhBenchmarkVectorAggregation {
+
+	/** Number of summed vectors. */
+	@Param({"10000"})
+	protected int ROW_COUNT;
+
+	/** Size of each summed vector, and of the accumulator. */
+	@Param({"1000", "10000", "100000"})
+	protected int ROW_SIZE;
+
+	/**
+	 * Layout of the summed vectors and of the accumulator.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected String VECTOR_LAYOUT;
+
+	protected MemorySession session;
+
+	protected IVector[] rows;
+
+	protected IVector accumulator;
+
+	/** Benchmarks the sum of the vectors one after the other, with {@link IVector#plus(IVector)}. */
+	@Benchmark
+	public IVector plusEachRow() {
+		for (final IVector row : this.rows) {
+			this.accumulator.plus(row);
+		}
+		return this.accumulator;
+	}
+
+	/** Benchmarks the tiled sum of the vectors, on the calling thread only. */
+	@Benchmark
+	public IVector plusAllRows() {
+		VectorAggregationUtil.plusAll(this.accumulator, this.rows, 1);
+		return this.accumulator;
+	}
+
+	/** Benchmarks the tiled sum of the vectors, split between the threads of the common pool. */
+	@Benchmark
+	public IVector parallelPlusAllRows() {
+		VectorAggregationUtil.plusAll(this.accumulator, this.rows, ForkJoinPool.getCommonPoolParallelism());
+		return this.accumulator;
+	}
+
+	/**
+	 * Creates the summed vectors and the accumulator.
+	 */
+	@Setup(Level.Trial)
+	public void initializeVectors() {
+		this.session = MemorySession.openShared();
+		final IChunkAllocator allocator;
+		switch (VECTOR_LAYOUT) {
+			case "heap" -> allocator = new OnHeapAllocator();
+			case "direct" -> allocator = new DirectMemoryAllocator();
+			case "segment" -> allocator = new SegmentMemoryAllocator(this.session);
+			default -> throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+		final IVectorAllocator vectorAllocator = allocator.getVectorAllocator(Types.DOUBLE);
+		this.rows = new IVector[ROW_COUNT];
+		for (int r = 0; r < ROW_COUNT; ++r) {
+			this.rows[r] = vectorAllocator.allocateNewVector(ROW_SIZE);
+			for (int i = 0; i < ROW_SIZE; ++i) {
+				this.rows[r].writeDouble(i, Math.random());
+			}
+		}
+		this.accumulator = vectorAllocator.allocateNewVector(ROW_SIZE);
+		this.accumulator.fillDouble(0d);
+	}
+
+	/**
+	 * Destroys the summed vectors and the accumulator.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownVectors() {
+		for (final IVector row : this.rows) {
+			if (row instanceof AFixedBlockVector) {
+				((AFixedBlockVector) row).release();
+			}
+		}
+		if (this.accumulator instanceof AFixedBlockVector) {
+			((AFixedBlockVector) this.accumulator).release();
+		}
+		this.rows = null;
+		this.session.close();
+	}
+
+}
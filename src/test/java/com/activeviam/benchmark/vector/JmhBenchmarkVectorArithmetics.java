@@ -7,12 +7,22 @@
 
 package com.activeviam.benchmark.vector;
 
+import com.activeviam.Types;
 import com.activeviam.benchmark.vector.AJmhBenchmarkVector.BenchmarkVector;
 import com.activeviam.chunk.DirectMemoryAllocator;
 import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 /**
  * JMH Micro Benchmark for vector ARITHMETIC performances.
@@ -40,6 +50,116 @@ public class JmhBenchmarkVectorArithmetics extends AJmhBenchmarkUntypedVector {
 		vector.vector.translate(ZERO_VALUE);
 	}
 
+	/** Benchmarks the addition of two vectors. */
+	@Benchmark
+	public void plusVector(BenchmarkVectorPair pair) {
+		pair.left.plus(pair.right);
+	}
+
+	/** Benchmarks the addition of the positive values of a vector to another one. */
+	@Benchmark
+	public void plusPositiveValuesVector(BenchmarkVectorPair pair) {
+		pair.left.plusPositiveValues(pair.right);
+	}
+
+	/** Benchmarks the addition of the negative values of a vector to another one. */
+	@Benchmark
+	public void plusNegativeValuesVector(BenchmarkVectorPair pair) {
+		pair.left.plusNegativeValues(pair.right);
+	}
+
+	/** Benchmarks the subtraction of two vectors. */
+	@Benchmark
+	public void minusVector(BenchmarkVectorPair pair) {
+		pair.left.minus(pair.right);
+	}
+
+	/** Benchmarks the subtraction of the positive values of a vector from another one. */
+	@Benchmark
+	public void minusPositiveValuesVector(BenchmarkVectorPair pair) {
+		pair.left.minusPositiveValues(pair.right);
+	}
+
+	/** Benchmarks the subtraction of the negative values of a vector from another one. */
+	@Benchmark
+	public void minusNegativeValuesVector(BenchmarkVectorPair pair) {
+		pair.left.minusNegativeValues(pair.right);
+	}
+
+	/**
+	 * The two operands of a binary operation, allocated with any pair of memory layouts.
+	 */
+	@State(Scope.Benchmark)
+	public static class BenchmarkVectorPair {
+
+		/**
+		 * Layout of the vector receiving the result.
+		 * <ul>
+		 * <li>heap: on heap arrays
+		 * <li>direct: direct memory blocks
+		 * <li>segment: memory segment blocks
+		 * </ul>
+		 */
+		@Param({"heap", "direct", "segment"})
+		protected String LEFT_LAYOUT;
+
+		/** Layout of the other operand, see {@link #LEFT_LAYOUT}. */
+		@Param({"heap", "direct", "segment"})
+		protected String RIGHT_LAYOUT;
+
+		protected MemorySession session;
+
+		protected IVector left;
+
+		protected IVector right;
+
+		/**
+		 * Creates the two operands.
+		 */
+		@Setup(Level.Iteration)
+		public void initializeVectors() {
+			this.session = MemorySession.openShared();
+			this.left = allocate(LEFT_LAYOUT);
+			this.right = allocate(RIGHT_LAYOUT);
+		}
+
+		private IVector allocate(final String layout) {
+			final IChunkAllocator allocator;
+			switch (layout) {
+				case "heap" -> allocator = new OnHeapAllocator();
+				case "direct" -> allocator = new DirectMemoryAllocator();
+				case "segment" -> allocator = new SegmentMemoryAllocator(this.session);
+				default -> throw new IllegalStateException("Unexpected layout parameter value.");
+			}
+			final Types type = Types.valueOf(VECTOR_TYPE);
+			final IVector vector = allocator.getVectorAllocator(type).allocateNewVector(VECTOR_SIZE);
+			for (int i = 0; i < VECTOR_SIZE; i++) {
+				final Object value = computeValue(type, VECTOR_CONTENT, cstValue);
+				if (type == Types.INTEGER) {
+					vector.writeInt(i, (Integer) value);
+				} else {
+					vector.writeDouble(i, (Double) value);
+				}
+			}
+			return vector;
+		}
+
+		/**
+		 * Destroys the two operands.
+		 */
+		@TearDown(Level.Iteration)
+		public void teardownVectors() {
+			if (this.left instanceof AFixedBlockVector) {
+				((AFixedBlockVector) this.left).release();
+			}
+			if (this.right instanceof AFixedBlockVector) {
+				((AFixedBlockVector) this.right).release();
+			}
+			this.session.close();
+		}
+
+	}
+
 	@Override
 	protected IChunkAllocator createChunkAllocator() {
 		return new DirectMemoryAllocator();
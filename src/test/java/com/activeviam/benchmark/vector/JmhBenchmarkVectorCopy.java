@@ -0,0 +1,137 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH Micro Benchmark for the COPY of a vector into another one, for every pair of memory layouts.
+ */
+@State(Scope.Benchmark)
+public class JmhBenchmarkVectorCopy extends AJmhBenchmarkUntypedVector {
+
+	/** Benchmarks the copy of a vector into another one. */
+	@Benchmark
+	public IVector copyVector(BenchmarkVectorCopy copy) {
+		copy.destination.copyFrom(copy.source);
+		return copy.destination;
+	}
+
+	/** Benchmarks the copy of a vector into another one, reading and writing each component. */
+	@Benchmark
+	public IVector copyVectorByElement(BenchmarkVectorCopy copy) {
+		final IVector source = copy.source;
+		final IVector destination = copy.destination;
+		for (int i = 0; i < VECTOR_SIZE; ++i) {
+			destination.writeDouble(i, source.readDouble(i));
+		}
+		return destination;
+	}
+
+	/**
+	 * The copied vector and the vector receiving it, allocated with any pair of memory layouts.
+	 */
+	@State(Scope.Benchmark)
+	public static class BenchmarkVectorCopy {
+
+		/**
+		 * Layout of the copied vector.
+		 * <ul>
+		 * <li>heap: on heap arrays
+		 * <li>direct: direct memory blocks
+		 * <li>segment: memory segment blocks
+		 * </ul>
+		 */
+		@Param({"heap", "direct", "segment"})
+		protected String SOURCE_LAYOUT;
+
+		/** Layout of the vector receiving the copy, see {@link #SOURCE_LAYOUT}. */
+		@Param({"heap", "direct", "segment"})
+		protected String DESTINATION_LAYOUT;
+
+		/**
+		 * Component type of the copied vector, the vector receiving the copy holding doubles.
+		 * <ul>
+		 * <li>DOUBLE: bulk copy
+		 * <li>INTEGER: copy widening the ints
+		 * </ul>
+		 */
+		@Param({"DOUBLE", "INTEGER"})
+		protected String SOURCE_TYPE;
+
+		protected MemorySession session;
+
+		protected IVector source;
+
+		protected IVector destination;
+
+		/**
+		 * Creates the two vectors.
+		 */
+		@Setup(Level.Iteration)
+		public void initializeVectors() {
+			this.session = MemorySession.openShared();
+			final Types type = Types.valueOf(SOURCE_TYPE);
+			this.source = allocate(SOURCE_LAYOUT, type);
+			for (int i = 0; i < VECTOR_SIZE; i++) {
+				final Object value = computeValue(type, VECTOR_CONTENT, cstValue);
+				if (type == Types.INTEGER) {
+					this.source.writeInt(i, (Integer) value);
+				} else {
+					this.source.writeDouble(i, (Double) value);
+				}
+			}
+			this.destination = allocate(DESTINATION_LAYOUT, Types.DOUBLE);
+		}
+
+		private IVector allocate(final String layout, final Types type) {
+			final IChunkAllocator allocator;
+			switch (layout) {
+				case "heap" -> allocator = new OnHeapAllocator();
+				case "direct" -> allocator = new DirectMemoryAllocator();
+				case "segment" -> allocator = new SegmentMemoryAllocator(this.session);
+				default -> throw new IllegalStateException("Unexpected layout parameter value.");
+			}
+			return allocator.getVectorAllocator(type).allocateNewVector(VECTOR_SIZE);
+		}
+
+		/**
+		 * Destroys the two vectors.
+		 */
+		@TearDown(Level.Iteration)
+		public void teardownVectors() {
+			if (this.source instanceof AFixedBlockVector) {
+				((AFixedBlockVector) this.source).release();
+			}
+			if (this.destination instanceof AFixedBlockVector) {
+				((AFixedBlockVector) this.destination).release();
+			}
+			this.session.close();
+		}
+
+	}
+
+	@Override
+	protected IChunkAllocator createChunkAllocator() {
+		return new DirectMemoryAllocator();
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH Micro Benchmark comparing chains of vector operations evaluated by fused
+ * {@link com.activeviam.vector.VectorExpression expressions} with the same chains made of
+ * sequential calls.
+ */
+@State(Scope.Benchmark)
+public class JmhBenchmarkVectorExpression extends AJmhBenchmarkUntypedVector {
+
+	// Identity factor and value, to keep the source vector identical as it is reused by the
+	// sequential benchmarks
+	protected static double FACTOR = 1d;
+
+	protected static double VALUE = 0d;
+
+	/** Benchmarks {@code v.scale(f); v.translate(t); acc.plus(v)}. */
+	@Benchmark
+	public void sequentialThreeOperations(BenchmarkVectorChain chain) {
+		chain.source.scale(FACTOR);
+		chain.source.translate(VALUE);
+		chain.accumulator.plus(chain.source);
+	}
+
+	/** Benchmarks the fused version of {@link #sequentialThreeOperations}. */
+	@Benchmark
+	public void fusedThreeOperations(BenchmarkVectorChain chain) {
+		chain.source.expression().scale(FACTOR).translate(VALUE).addTo(chain.accumulator);
+	}
+
+	/** Benchmarks {@code v.scale(f); v.translate(t); v.plus(w); v.minus(w); acc.plus(v)}. */
+	@Benchmark
+	public void sequentialFiveOperations(BenchmarkVectorChain chain) {
+		chain.source.scale(FACTOR);
+		chain.source.translate(VALUE);
+		chain.source.plus(chain.operand);
+		chain.source.minus(chain.operand);
+		chain.accumulator.plus(chain.source);
+	}
+
+	/** Benchmarks the fused version of {@link #sequentialFiveOperations}. */
+	@Benchmark
+	public void fusedFiveOperations(BenchmarkVectorChain chain) {
+		chain.source
+				.expression()
+				.scale(FACTOR)
+				.translate(VALUE)
+				.plus(chain.operand)
+				.minus(chain.operand)
+				.addTo(chain.accumulator);
+	}
+
+	/**
+	 * The vectors of a chain of operations.
+	 */
+	@State(Scope.Benchmark)
+	public static class BenchmarkVectorChain {
+
+		protected IVector source;
+
+		protected IVector operand;
+
+		protected IVector accumulator;
+
+		/**
+		 * Creates the vectors.
+		 */
+		@Setup(Level.Iteration)
+		public void initializeVectors() {
+			this.source = allocate();
+			this.operand = allocate();
+			this.accumulator = allocate();
+		}
+
+		private static IVector allocate() {
+			final IVector vector = VECTOR_ALLOCATOR.allocateNewVector(VECTOR_SIZE);
+			for (int i = 0; i < VECTOR_SIZE; i++) {
+				vector.write(i, computeValue(VECTOR_ALLOCATOR.getComponentType(), VECTOR_CONTENT, cstValue));
+			}
+			return vector;
+		}
+
+		/**
+		 * Destroys the vectors.
+		 */
+		@TearDown(Level.Iteration)
+		public void teardownVectors() {
+			for (final IVector vector : new IVector[] {this.source, this.operand, this.accumulator}) {
+				if (vector instanceof AFixedBlockVector) {
+					((AFixedBlockVector) vector).release();
+				}
+			}
+		}
+
+	}
+
+	@Override
+	protected IChunkAllocator createChunkAllocator() {
+		return new DirectMemoryAllocator();
+	}
+}
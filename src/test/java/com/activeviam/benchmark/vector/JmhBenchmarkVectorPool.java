@@ -0,0 +1,109 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import java.lang.foreign.MemorySession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH Micro Benchmark for an aggregation loop working on transient copies of a vector, with and without pooling.
+ * <p>
+ * To be run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+public class JmhBenchmarkVectorPool extends AJmhBenchmarkUntypedVector {
+
+	/**
+	 * Layout of the tested vector.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected static String VECTOR_LAYOUT;
+
+	protected static MemorySession SESSION;
+
+	protected static IVectorAllocator POOL;
+
+	/**
+	 * Creates the pool allocating the transient copies.
+	 */
+	@Setup(Level.Trial)
+	public void setupPool() {
+		POOL = createChunkAllocator().getPooledVectorAllocator(Types.valueOf(VECTOR_TYPE));
+	}
+
+	/** Benchmarks a copy allocated for each iteration of the loop. */
+	@Benchmark
+	public double freshCopy(BenchmarkVector vector) {
+		final IVector copy = VECTOR_ALLOCATOR.copy(vector.vector);
+		copy.scale(2d);
+		final double sum = copy.sumDouble();
+		if (copy instanceof AFixedBlockVector) {
+			((AFixedBlockVector) copy).release();
+		}
+		return sum;
+	}
+
+	/** Benchmarks a copy recycled from one iteration of the loop to the next. */
+	@Benchmark
+	public double pooledCopy(BenchmarkVector vector) {
+		final IVector copy = POOL.copy(vector.vector);
+		copy.scale(2d);
+		final double sum = copy.sumDouble();
+		POOL.releaseVector(copy);
+		return sum;
+	}
+
+	@Override
+	protected IChunkAllocator createChunkAllocator() {
+		switch (VECTOR_LAYOUT) {
+			case "heap":
+				return new OnHeapAllocator();
+			case "direct":
+				return new DirectMemoryAllocator();
+			case "segment":
+				if (SESSION == null) {
+					SESSION = MemorySession.openShared();
+				}
+				return new SegmentMemoryAllocator(SESSION);
+			default:
+				throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+	}
+
+	/**
+	 * Releases the pooled vectors and the memory of the segment vectors.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownPool() {
+		POOL.release();
+		POOL = null;
+		if (SESSION != null) {
+			SESSION.close();
+			SESSION = null;
+		}
+	}
+}
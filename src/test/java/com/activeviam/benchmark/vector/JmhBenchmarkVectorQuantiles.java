@@ -0,0 +1,85 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import java.lang.foreign.MemorySession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH Micro Benchmark for the computation of several QUANTILES of a vector.
+ */
+@State(Scope.Benchmark)
+public class JmhBenchmarkVectorQuantiles extends AJmhBenchmarkUntypedVector {
+
+	/** The quantiles of a typical risk report. */
+	protected static final double[] RANKS = {0.01, 0.05, 0.5, 0.95, 0.99};
+
+	/**
+	 * Layout of the tested vector.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected static String VECTOR_LAYOUT;
+
+	protected static MemorySession SESSION;
+
+	/** Benchmarks the computation of all the quantiles with a single selection. */
+	@Benchmark
+	public double[] quantilesVector(BenchmarkVector vector) {
+		return vector.vector.quantiles(RANKS);
+	}
+
+	/** Baseline for {@link #quantilesVector}: one call per quantile. */
+	@Benchmark
+	public double[] quantileDoubleVector(BenchmarkVector vector) {
+		final double[] quantiles = new double[RANKS.length];
+		for (int i = 0; i < RANKS.length; i++) {
+			quantiles[i] = vector.vector.quantileDouble(RANKS[i]);
+		}
+		return quantiles;
+	}
+
+	@Override
+	protected IChunkAllocator createChunkAllocator() {
+		switch (VECTOR_LAYOUT) {
+			case "heap":
+				return new OnHeapAllocator();
+			case "direct":
+				return new DirectMemoryAllocator();
+			case "segment":
+				SESSION = MemorySession.openShared();
+				return new SegmentMemoryAllocator(SESSION);
+			default:
+				throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+	}
+
+	/**
+	 * Releases the memory of the segment vectors.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownSession() {
+		if (SESSION != null) {
+			SESSION.close();
+			SESSION = null;
+		}
+	}
+}
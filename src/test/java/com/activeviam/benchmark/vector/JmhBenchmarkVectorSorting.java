@@ -9,10 +9,19 @@ package com.activeviam.benchmark.vector;
 
 import com.activeviam.chunk.DirectMemoryAllocator;
 import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
 import com.activeviam.vector.ITransientVector;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 /**
  * JMH Micro Benchmark for vector SORTING performances.
@@ -20,14 +29,78 @@ import org.openjdk.jmh.annotations.State;
 @State(Scope.Benchmark)
 public class JmhBenchmarkVectorSorting extends AJmhBenchmarkUntypedVector {
 
-	/** Benchmarks the sort operation on a vector. */
+	/**
+	 * Layout of the tested vector.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected static String VECTOR_LAYOUT;
+
+	protected static MemorySession SESSION;
+
+	/** The vector sorted in place, overwritten with the tested vector before each sort */
+	protected static ITransientVector SORTED;
+
+	/**
+	 * Allocates the vector sorted in place.
+	 */
+	@Setup(Level.Trial)
+	public void setupSorted() {
+		SORTED = (ITransientVector) VECTOR_ALLOCATOR.allocateNewVector(VECTOR_SIZE);
+	}
+
+	/** Benchmarks the sort operation on a vector, sorting a heap copy with a radix sort. */
 	@Benchmark
 	public ITransientVector sortVector(BenchmarkVector vector) {
 		return vector.vector.sort();
 	}
 
+	/** Benchmarks the same copy sorted by the comparison sort of the JDK, for reference. */
+	@Benchmark
+	public double[] sortVectorJdk(BenchmarkVector vector) {
+		final double[] a = vector.vector.toDoubleArray();
+		Arrays.sort(a);
+		return a;
+	}
+
+	/** Benchmarks the sort of a vector in place, in its own storage. */
+	@Benchmark
+	public IVector sortVectorInPlace(BenchmarkVector vector) {
+		SORTED.copyFrom(vector.vector);
+		SORTED.sortInPlace();
+		return SORTED;
+	}
+
 	@Override
 	protected IChunkAllocator createChunkAllocator() {
-		return new DirectMemoryAllocator();
+		switch (VECTOR_LAYOUT) {
+			case "heap":
+				return new OnHeapAllocator();
+			case "direct":
+				return new DirectMemoryAllocator();
+			case "segment":
+				if (SESSION == null) {
+					SESSION = MemorySession.openShared();
+				}
+				return new SegmentMemoryAllocator(SESSION);
+			default:
+				throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+	}
+
+	/**
+	 * Releases the memory of the segment vectors.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownSession() {
+		SORTED = null;
+		if (SESSION != null) {
+			SESSION.close();
+			SESSION = null;
+		}
 	}
 }
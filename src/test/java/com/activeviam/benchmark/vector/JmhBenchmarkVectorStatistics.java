@@ -9,9 +9,16 @@ package com.activeviam.benchmark.vector;
 
 import com.activeviam.chunk.DirectMemoryAllocator;
 import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 /**
  * JMH Micro Benchmark for vector STATS performances.
@@ -19,6 +26,25 @@ import org.openjdk.jmh.annotations.State;
 @State(Scope.Benchmark)
 public class JmhBenchmarkVectorStatistics extends AJmhBenchmarkUntypedVector {
 
+	/**
+	 * Layout of the tested vector.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected static String VECTOR_LAYOUT;
+
+	protected static MemorySession SESSION;
+
+	/** Benchmarks the sum computation on a vector. */
+	@Benchmark
+	public double sumVector(BenchmarkVector vector) {
+		return vector.vector.sumDouble();
+	}
+
 	/** Benchmarks the average computation on a vector. */
 	@Benchmark
 	public double averageVector(BenchmarkVector vector) {
@@ -31,8 +57,57 @@ public class JmhBenchmarkVectorStatistics extends AJmhBenchmarkUntypedVector {
 		return vector.vector.variance();
 	}
 
+	/** Baseline for {@link #sumVector}: the element by element loop. */
+	@Benchmark
+	public double scalarSumVector(BenchmarkVector vector) {
+		final IVector v = vector.vector;
+		double sum = 0d;
+		for (int i = 0; i < v.size(); i++) {
+			sum += v.readDouble(i);
+		}
+		return sum;
+	}
+
+	/** Baseline for {@link #varianceVector}: the two pass E[x^2] - E[x]^2 loop. */
+	@Benchmark
+	public double scalarVarianceVector(BenchmarkVector vector) {
+		final IVector v = vector.vector;
+		double sum = 0d;
+		for (int i = 0; i < v.size(); i++) {
+			sum += v.readDouble(i);
+		}
+		final double average = sum / v.size();
+		double squares = 0d;
+		for (int i = 0; i < v.size(); i++) {
+			final double a = v.readDouble(i);
+			squares += a * a;
+		}
+		return squares / v.size() - average * average;
+	}
+
 	@Override
 	protected IChunkAllocator createChunkAllocator() {
-		return new DirectMemoryAllocator();
+		switch (VECTOR_LAYOUT) {
+			case "heap":
+				return new OnHeapAllocator();
+			case "direct":
+				return new DirectMemoryAllocator();
+			case "segment":
+				SESSION = MemorySession.openShared();
+				return new SegmentMemoryAllocator(SESSION);
+			default:
+				throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+	}
+
+	/**
+	 * Releases the memory of the segment vectors.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownSession() {
+		if (SESSION != null) {
+			SESSION.close();
+			SESSION = null;
+		}
 	}
 }
@@ -0,0 +1,113 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.benchmark.vector;
+
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.heap.MaxHeapDouble;
+import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH Micro Benchmark for vector TOP-K performances, on the tail sizes used to compute a VaR.
+ */
+@State(Scope.Benchmark)
+public class JmhBenchmarkVectorTopK extends AJmhBenchmarkUntypedVector {
+
+	/**
+	 * Layout of the tested vector.
+	 * <ul>
+	 * <li>heap: on heap arrays
+	 * <li>direct: direct memory blocks
+	 * <li>segment: memory segment blocks
+	 * </ul>
+	 */
+	@Param({"heap", "direct", "segment"})
+	protected static String VECTOR_LAYOUT;
+
+	/** Percentage of the vector in the extracted tail, 1% for a 99% VaR. */
+	@Param({"1", "5"})
+	protected static int TAIL_PERCENTAGE;
+
+	protected static MemorySession SESSION;
+
+	/** Benchmarks the extraction of the largest values of a vector. */
+	@Benchmark
+	public IPrimitiveIterator topKVector(BenchmarkVector vector) {
+		return vector.vector.topK(tail());
+	}
+
+	/** Benchmarks the extraction of the smallest values of a vector. */
+	@Benchmark
+	public IPrimitiveIterator bottomKVector(BenchmarkVector vector) {
+		return vector.vector.bottomK(tail());
+	}
+
+	/** Benchmarks the extraction of the indices of the smallest values of a vector. */
+	@Benchmark
+	public int[] bottomKIndicesVector(BenchmarkVector vector) {
+		return vector.vector.bottomKIndices(tail());
+	}
+
+	/** Baseline for {@link #bottomKVector}: every value goes through the heap comparison. */
+	@Benchmark
+	public IPrimitiveIterator scalarBottomKVector(BenchmarkVector vector) {
+		final IVector v = vector.vector;
+		final int k = tail();
+		final MaxHeapDouble h = new MaxHeapDouble(k);
+		for (int i = 0; i < v.size(); i++) {
+			final double item = v.readDouble(i);
+			if (h.size() < k) {
+				h.add(item);
+			} else if (item < h.peek()) {
+				h.poll();
+				h.add(item);
+			}
+		}
+		return h;
+	}
+
+	private static int tail() {
+		return Math.max(1, VECTOR_SIZE / 100 * TAIL_PERCENTAGE);
+	}
+
+	@Override
+	protected IChunkAllocator createChunkAllocator() {
+		switch (VECTOR_LAYOUT) {
+			case "heap":
+				return new OnHeapAllocator();
+			case "direct":
+				return new DirectMemoryAllocator();
+			case "segment":
+				SESSION = MemorySession.openShared();
+				return new SegmentMemoryAllocator(SESSION);
+			default:
+				throw new IllegalStateException("Unexpected layout parameter value.");
+		}
+	}
+
+	/**
+	 * Releases the memory of the segment vectors.
+	 */
+	@TearDown(Level.Trial)
+	public void teardownSession() {
+		if (SESSION != null) {
+			SESSION.close();
+			SESSION = null;
+		}
+	}
+}
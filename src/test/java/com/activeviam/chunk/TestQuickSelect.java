@@ -1,5 +1,9 @@
 package com.activeviam.chunk;
 
+import com.activeviam.Types;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.QuantileUtil;
 import org.junit.jupiter.api.Test;
 
 import java.lang.foreign.MemorySession;
@@ -7,6 +11,7 @@ import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestQuickSelect {
 	private void testPartition(int[] arr, int[] expectedArr, int expectedPartition) {
@@ -214,4 +219,119 @@ public class TestQuickSelect {
 	public void testQuickTopKNative3() {
 		testQuickTopKNativeRandom(1000, 100, 2000);
 	}
+	
+	private void testPartitionDouble(int n, int scale) {
+		double[] arr = new double[n];
+		for(int i = 0; i < n; i++) {
+			arr[i] = Math.floor(Math.random() * scale);
+		}
+		double[] sorted = Arrays.copyOf(arr, n);
+		Arrays.sort(sorted);
+		double pivot = arr[n - 1];
+		
+		int partitionIdx = QuantileUtil.partition(arr, 0, n);
+		assertEquals(pivot, arr[partitionIdx]);
+		for(int i = 0; i < n; i++) {
+			assertTrue(i < partitionIdx ? arr[i] < pivot : arr[i] >= pivot);
+		}
+		Arrays.sort(arr);
+		assertArrayEquals(sorted, arr);
+	}
+	
+	@Test
+	public void testPartitionDouble1() {
+		testPartitionDouble(7, 40);
+	}
+	@Test
+	public void testPartitionDouble2() {
+		testPartitionDouble(1000, 5);
+	}
+	@Test
+	public void testPartitionDouble3() {
+		testPartitionDouble(1001, 2000);
+	}
+	
+	private void testPartitionInt(int[] arr, int[] expectedArr, int expectedPartition) {
+		int pivot = arr[arr.length - 1];
+		int partitionIdx = QuantileUtil.partition(arr, 0, arr.length);
+		assertEquals(expectedPartition, partitionIdx);
+		assertEquals(pivot, arr[partitionIdx]);
+		for(int i = 0; i < arr.length; i++) {
+			assertTrue(i < partitionIdx ? arr[i] < pivot : arr[i] >= pivot);
+		}
+		// The partition is done in place, so the order within each side is not kept
+		Arrays.sort(arr);
+		Arrays.sort(expectedArr);
+		assertArrayEquals(expectedArr, arr);
+	}
+	
+	@Test
+	public void testPartitionInt1() {
+		testPartitionInt(
+			new int[] { 7, 1, 9, 4, 3, 0, 8, 2, 6, 5 },
+			new int[] { 1, 4, 3, 0, 2, /**/ 5, 7, 9, 8, 6 },
+			5
+		);
+	}
+	@Test
+	public void testPartitionInt2() {
+		testPartitionInt(
+			new int[] { 7, 1, 9, 4, 4, 0, 12, 3, 8, 4, 2, 11, 5, 6, 10, 13, 4, 1, 0, 5 },
+			new int[] { 1, 4, 4, 0, 3, 4, 2, 4, 1, 0, /**/ 5, 7, 9, 12, 8, 11, 5, 6, 10, 13 },
+			10
+		);
+	}
+	
+	private void testQuantiles(int n, double[] r, int scale) {
+		double[] src = new double[n];
+		for(int i = 0; i < n; i++) {
+			src[i] = Math.floor(Math.random() * scale);
+		}
+		
+		double[] copy = Arrays.copyOf(src, n);
+		Arrays.sort(copy);
+		double[] expectedQuantiles = new double[r.length];
+		for(int i = 0; i < r.length; i++) {
+			expectedQuantiles[i] = copy[(int) Math.ceil(n * r[i]) - 1];
+		}
+		
+		IVector vector = new ArrayDoubleVector(Arrays.copyOf(src, n));
+		assertArrayEquals(expectedQuantiles, vector.quantiles(r));
+		for(int i = 0; i < r.length; i++) {
+			assertEquals(vector.quantileDouble(r[i]), expectedQuantiles[i]);
+		}
+		
+		try(var session = MemorySession.openConfined()) {
+			IVector segmentVector = new SegmentMemoryAllocator(session).getVectorAllocator(Types.DOUBLE).allocateNewVector(n);
+			segmentVector.copyFrom(src);
+			assertArrayEquals(expectedQuantiles, segmentVector.quantiles(r));
+			
+			int[] ints = new int[n];
+			for(int i = 0; i < n; i++) {
+				ints[i] = (int) src[i];
+			}
+			IVector integerVector = new SegmentMemoryAllocator(session).getVectorAllocator(Types.INTEGER).allocateNewVector(n);
+			integerVector.copyFrom(ints);
+			assertArrayEquals(expectedQuantiles, integerVector.quantiles(r));
+		}
+		
+		// The in place variant reorders the content of the vector
+		assertArrayEquals(expectedQuantiles, ((ArrayDoubleVector) vector).quantilesInPlace(r));
+		double[] reordered = ((ArrayDoubleVector) vector).getUnderlying();
+		Arrays.sort(reordered);
+		assertArrayEquals(copy, reordered);
+	}
+	
+	@Test
+	public void testQuantiles1() {
+		testQuantiles(20, new double[] { 0.01, 0.05, 0.5, 0.95, 0.99 }, 40);
+	}
+	@Test
+	public void testQuantiles2() {
+		testQuantiles(250_000, new double[] { 0.99, 0.01, 0.5, 0.05, 0.95, 0.5 }, 5);
+	}
+	@Test
+	public void testQuantiles3() {
+		testQuantiles(100_003, new double[] { 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 1 }, 1_000_000);
+	}
 }
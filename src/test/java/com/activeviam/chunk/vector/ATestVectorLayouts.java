@@ -0,0 +1,98 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.util.Random;
+
+/**
+ * Base of the tests comparing the vector operations across the layouts of the vectors: heap arrays,
+ * direct memory blocks and segments.
+ *
+ * @author ActiveViam
+ */
+public abstract class ATestVectorLayouts {
+
+	/**
+	 * @param session the session of the segments
+	 * @return one allocator per layout: on heap, direct and segment
+	 */
+	protected static IChunkAllocator[] allocators(final MemorySession session) {
+		return new IChunkAllocator[] {
+				new OnHeapAllocator(), new DirectMemoryAllocator(), new SegmentMemoryAllocator(session)};
+	}
+
+	/**
+	 * @return a new vector of doubles holding the given values
+	 */
+	protected static IVector vector(final IChunkAllocator allocator, final double[] values) {
+		final IVector vector = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(values.length);
+		vector.copyFrom(values);
+		return vector;
+	}
+
+	/**
+	 * @return a new vector of floats holding the given values
+	 */
+	protected static IVector vector(final IChunkAllocator allocator, final float[] values) {
+		final IVector vector = allocator.getVectorAllocator(Types.FLOAT).allocateNewVector(values.length);
+		vector.copyFrom(values);
+		return vector;
+	}
+
+	/**
+	 * @return a new vector of doubles or ints whose component {@code i} is {@code factor * i + shift}
+	 */
+	protected static IVector range(
+			final IChunkAllocator allocator,
+			final Types type,
+			final int size,
+			final int factor,
+			final int shift) {
+		final IVector vector = allocator.getVectorAllocator(type).allocateNewVector(size);
+		for (int i = 0; i < size; ++i) {
+			if (type == Types.DOUBLE) {
+				vector.writeDouble(i, (double) factor * i + shift);
+			} else {
+				vector.writeInt(i, factor * i + shift);
+			}
+		}
+		return vector;
+	}
+
+	/**
+	 * @return doubles drawn uniformly between -100 and 100
+	 */
+	protected static double[] randomDoubles(final int size, final long seed) {
+		final Random random = new Random(seed);
+		final double[] values = new double[size];
+		for (int i = 0; i < size; ++i) {
+			values[i] = random.nextDouble() * 200 - 100;
+		}
+		return values;
+	}
+
+	/**
+	 * @return floats drawn uniformly between -100 and 100
+	 */
+	protected static float[] randomFloats(final int size, final long seed) {
+		final Random random = new Random(seed);
+		final float[] values = new float[size];
+		for (int i = 0; i < size; ++i) {
+			values[i] = random.nextFloat() * 200 - 100;
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayIntegerVector;
+import com.activeviam.vector.EmptyVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.RadixSortUtil;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IVector#argsort()}, {@link IVector#rank()} and {@link IVector#gather(IVector, IVector)}.
+ *
+ * @author ActiveViam
+ */
+public class TestArgsort extends ATestVectorLayouts {
+
+	private static final int SIZE = 1000;
+
+	@Test
+	public void testArgsortIsStable() {
+		final IVector doubles = new ArrayDoubleVector(new double[] {3d, -1d, 3d, Double.NaN, -0d, 0d, -1d});
+		assertThat(doubles.argsort().toIntArray()).containsExactly(1, 6, 4, 5, 0, 2, 3);
+		assertThat(doubles.rank().toIntArray()).containsExactly(4, 0, 5, 6, 2, 3, 1);
+
+		final IVector ints = new ArrayIntegerVector(new int[] {2, Integer.MIN_VALUE, 2, Integer.MAX_VALUE, -5});
+		assertThat(ints.argsort().toIntArray()).containsExactly(1, 4, 0, 2, 3);
+		assertThat(ints.rank().toIntArray()).containsExactly(2, 0, 3, 4, 1);
+
+		assertThat(EmptyVector.emptyVector(Types.DOUBLE).argsort().size()).isZero();
+	}
+
+	@Test
+	public void testArgsortAcrossLayouts() {
+		final Random random = new Random(42);
+		final double[] values = new double[SIZE];
+		final int[] ints = new int[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = random.nextInt(100) - 50.5;
+			ints[i] = random.nextInt(100) - 50;
+		}
+		final double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		final int[] sortedInts = ints.clone();
+		Arrays.sort(sortedInts);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				final int[] permutation = vector.argsort().toIntArray();
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(values[permutation[i]]).isEqualTo(sorted[i]);
+					if (i > 0 && values[permutation[i]] == values[permutation[i - 1]]) {
+						assertThat(permutation[i]).isGreaterThan(permutation[i - 1]);
+					}
+				}
+				final int[] ranks = vector.rank().toIntArray();
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(ranks[permutation[i]]).isEqualTo(i);
+				}
+
+				final IVector intVector = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+				intVector.copyFrom(ints);
+				final int[] intPermutation = intVector.argsort().toIntArray();
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(ints[intPermutation[i]]).isEqualTo(sortedInts[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGatherSiblingVectors() {
+		final Random random = new Random(7);
+		final double[] keys = new double[SIZE];
+		final int[] payload = new int[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			keys[i] = random.nextDouble();
+			payload[i] = i;
+		}
+		final IVector permutation = new ArrayDoubleVector(keys).argsort();
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator source : allocators(session)) {
+				for (final IChunkAllocator destination : allocators(session)) {
+					final IVector sourceKeys = source.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					sourceKeys.copyFrom(keys);
+					final IVector sortedKeys = destination.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					sortedKeys.gather(sourceKeys, permutation);
+					final double[] expected = keys.clone();
+					Arrays.sort(expected);
+					assertThat(sortedKeys.toDoubleArray()).isEqualTo(expected);
+
+					// The aligned vector follows the order of the keys
+					final IVector sourcePayload = source.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+					sourcePayload.copyFrom(payload);
+					final IVector sortedPayload = destination.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+					sortedPayload.gather(sourcePayload, permutation);
+					assertThat(sortedPayload.toIntArray()).isEqualTo(permutation.toIntArray());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLargeArgsort() {
+		final int length = RadixSortUtil.PARALLEL_SORT_THRESHOLD + 3;
+		final int[] values = new Random(3).ints(length, -1000, 1000).toArray();
+		final int[] permutation = RadixSortUtil.argsort(values);
+		for (int i = 1; i < length; ++i) {
+			final int previous = values[permutation[i - 1]];
+			final int current = values[permutation[i]];
+			assertThat(previous < current || (previous == current && permutation[i - 1] < permutation[i]))
+					.isTrue();
+		}
+	}
+
+}
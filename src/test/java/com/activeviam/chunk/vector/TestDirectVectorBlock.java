@@ -0,0 +1,144 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.allocator.UnsafeNativeMemoryAllocator;
+import com.activeviam.chunk.DirectDoubleVectorBlock;
+import com.activeviam.chunk.DirectFloatVectorBlock;
+import com.activeviam.chunk.DirectIntegerVectorBlock;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.lang.foreign.ValueLayout;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the direct blocks, read and written through a segment view of their memory, behave like
+ * the blocks allocated as segments.
+ *
+ * @author ActiveViam
+ */
+public class TestDirectVectorBlock {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 1_003;
+
+	@Test
+	public void testRangeOperations() {
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER, Types.FLOAT}) {
+				final IVector direct = apply(new DirectMemoryAllocator(), type);
+				final IVector segment = apply(new SegmentMemoryAllocator(session), type);
+				assertThat(direct.toDoubleArray()).as(type.name()).containsExactly(segment.toDoubleArray());
+				// The operations on the middle range leave the borders untouched
+				assertThat(direct.readDouble(0)).as(type.name()).isEqualTo(1d);
+				assertThat(direct.readDouble(SIZE - 1)).as(type.name()).isEqualTo(SIZE);
+				assertThat(direct.readDouble(1)).as(type.name()).isEqualTo(7d);
+			}
+		}
+	}
+
+	@Test
+	public void testSegmentView() {
+		final DirectDoubleVectorBlock block = new DirectDoubleVectorBlock(new UnsafeNativeMemoryAllocator(), 16);
+		try {
+			block.write(3, new double[] {1d, 2d, 3d});
+			assertThat(block.getSegment().byteSize()).isEqualTo(16 * 8);
+			assertThat(block.getSegment().get(ValueLayout.JAVA_DOUBLE, 4 * 8)).isEqualTo(2d);
+			block.getSegment().set(ValueLayout.JAVA_DOUBLE, 15 * 8, 42d);
+			assertThat(block.readDouble(15)).isEqualTo(42d);
+
+			assertThatThrownBy(() -> block.fillDouble(10, 7, 0d)).isInstanceOf(IndexOutOfBoundsException.class);
+			assertThatThrownBy(() -> block.readDouble(16)).isInstanceOf(IndexOutOfBoundsException.class);
+		} finally {
+			block.close();
+		}
+	}
+
+	@Test
+	public void testClosedBlock() {
+		final DirectDoubleVectorBlock block = new DirectDoubleVectorBlock(new UnsafeNativeMemoryAllocator(), 16);
+		block.close();
+
+		// The view of the freed memory is replaced by an empty one
+		assertThat(block.getSegment().byteSize()).isZero();
+		assertThatThrownBy(() -> block.readDouble(0)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(block::close).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void testTransferWidens() {
+		final DirectIntegerVectorBlock ints = new DirectIntegerVectorBlock(new UnsafeNativeMemoryAllocator(), SIZE + 2);
+		final DirectFloatVectorBlock floats = new DirectFloatVectorBlock(new UnsafeNativeMemoryAllocator(), SIZE + 2);
+		try {
+			for (int i = 0; i < SIZE + 2; ++i) {
+				ints.writeInt(i, i - 500);
+				floats.writeFloat(i, i * 0.25f);
+			}
+			final double[] fromInts = new double[SIZE];
+			final double[] fromFloats = new double[SIZE];
+			ints.transfer(1, fromInts);
+			floats.transfer(1, fromFloats);
+			for (int i = 0; i < SIZE; ++i) {
+				assertThat(fromInts[i]).isEqualTo(i - 499d);
+				assertThat(fromFloats[i]).isEqualTo((i + 1) * 0.25d);
+			}
+			assertThatThrownBy(() -> floats.transfer(3, new double[SIZE]))
+					.isInstanceOf(IndexOutOfBoundsException.class);
+		} finally {
+			ints.close();
+			floats.close();
+		}
+	}
+
+	/**
+	 * Fills, scales and translates the range {@code [1, SIZE - 1)} of a vector whose components are
+	 * {@code 1, 2, ..., SIZE}.
+	 */
+	private static IVector apply(final IChunkAllocator allocator, final Types type) {
+		final IVector vector = allocator.getVectorAllocator(type).allocateNewVector(SIZE);
+		final IVector middle = vector.subVector(1, SIZE - 1);
+		final IVector head = vector.subVector(1, 8);
+		switch (type) {
+			case DOUBLE:
+				for (int i = 0; i < SIZE; ++i) {
+					vector.writeDouble(i, i + 1);
+				}
+				middle.scale(3d);
+				middle.translate(-2d);
+				head.fillDouble(7d);
+				break;
+			case INTEGER:
+				for (int i = 0; i < SIZE; ++i) {
+					vector.writeInt(i, i + 1);
+				}
+				middle.scale(3);
+				middle.translate(-2);
+				head.fillInt(7);
+				break;
+			case FLOAT:
+				for (int i = 0; i < SIZE; ++i) {
+					vector.writeFloat(i, i + 1);
+				}
+				middle.scale(3f);
+				middle.translate(-2f);
+				head.fillFloat(7f);
+				break;
+			default:
+				throw new IllegalStateException("Unexpected type: " + type.name());
+		}
+		return vector;
+	}
+
+}
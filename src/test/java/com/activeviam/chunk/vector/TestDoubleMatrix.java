@@ -0,0 +1,175 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.DoubleVectorArenaChunk;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.DoubleMatrix;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorAggregationUtil;
+import java.lang.foreign.MemorySession;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the products and sums of {@link DoubleMatrix}, against an element by element computation.
+ *
+ * @author ActiveViam
+ */
+public class TestDoubleMatrix extends ATestVectorLayouts {
+
+	private static final int ROWS = 37;
+
+	/** Spans several tiles, and is not a multiple of the tile size nor of the number of lanes */
+	private static final int COLUMNS = 2 * VectorAggregationUtil.TILE_SIZE + 13;
+
+	@Test
+	public void testProducts() {
+		final double[][] values = random(ROWS, COLUMNS, 1);
+		final double[] x = random(1, COLUMNS, 2)[0];
+		final double[] w = random(1, ROWS, 3)[0];
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				try (DoubleMatrix matrix = matrix(allocator, values)) {
+					final String description = allocator.getClass().getSimpleName();
+
+					final IVector product = new ArrayDoubleVector(new double[ROWS]);
+					matrix.multiply(new ArrayDoubleVector(x), product);
+					for (int r = 0; r < ROWS; ++r) {
+						double expected = 0d;
+						for (int c = 0; c < COLUMNS; ++c) {
+							expected += values[r][c] * x[c];
+						}
+						assertThat(product.readDouble(r)).as(description).isCloseTo(expected, within(1e-9));
+					}
+					final IVector allocated = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(ROWS);
+					matrix.multiply(new ArrayDoubleVector(x), allocated);
+					assertThat(allocated.toDoubleArray()).as(description).containsExactly(product.toDoubleArray());
+
+					final IVector weighted = allocator.getVectorAllocator(Types.DOUBLE)
+							.allocateNewVector(COLUMNS);
+					matrix.multiplyTransposed(new ArrayDoubleVector(w), weighted);
+					final IVector sums = matrix.columnSums();
+					for (int c = 0; c < COLUMNS; ++c) {
+						double expectedWeighted = 0d;
+						double expectedSum = 0d;
+						for (int r = 0; r < ROWS; ++r) {
+							expectedWeighted += w[r] * values[r][c];
+							expectedSum += values[r][c];
+						}
+						assertThat(weighted.readDouble(c)).as(description).isCloseTo(expectedWeighted, within(1e-9));
+						assertThat(sums.readDouble(c)).as(description).isCloseTo(expectedSum, within(1e-9));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRowTopK() {
+		final double[][] values = random(ROWS, 100, 4);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				try (DoubleMatrix matrix = matrix(allocator, values)) {
+					final int[][] top = matrix.rowTopKIndices(3);
+					final int[][] bottom = matrix.rowBottomKIndices(3);
+					for (int r = 0; r < ROWS; ++r) {
+						final IVector row = new ArrayDoubleVector(values[r]);
+						assertThat(top[r]).containsExactly(row.topKIndices(3));
+						assertThat(bottom[r]).containsExactly(row.bottomKIndices(3));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testArenaChunkMatrix() {
+		final DoubleVectorArenaChunk chunk = new DoubleVectorArenaChunk(3, 5, new DirectMemoryAllocator());
+		try {
+			chunk.write(0, new double[] {1, 2, 3, 4, 5});
+			chunk.write(2, new double[] {10, 20, 30, 40, 50});
+			final DoubleMatrix matrix = chunk.matrix();
+			assertThat(matrix.rows()).isEqualTo(3);
+			assertThat(matrix.columns()).isEqualTo(5);
+			assertThat(matrix.columnSums().toDoubleArray()).containsExactly(11, 22, 33, 44, 55);
+
+			final IVector result = new ArrayDoubleVector(new double[5]);
+			matrix.multiplyTransposed(ArrayDoubleVector.of(2, 7, -1), result);
+			assertThat(result.toDoubleArray()).containsExactly(-8, -16, -24, -32, -40);
+
+			matrix.write(1, 4, 100);
+			assertThat(chunk.readVector(1).readDouble(4)).isEqualTo(100);
+		} finally {
+			chunk.close();
+		}
+	}
+
+	@Test
+	public void testAliasedOperands() {
+		try (DoubleMatrix matrix = new DoubleMatrix(2, 2, new OnHeapAllocator())) {
+			matrix.writeRow(0, ArrayDoubleVector.of(1, 2));
+			matrix.writeRow(1, ArrayDoubleVector.of(3, 4));
+			// The product overrides a row of the matrix, and is multiplied by another one
+			matrix.multiply(matrix.row(0), matrix.row(1));
+			assertThat(matrix.row(1).toDoubleArray()).containsExactly(5, 11);
+
+			final IVector x = ArrayDoubleVector.of(1, 1);
+			matrix.multiply(x, x);
+			assertThat(x.toDoubleArray()).containsExactly(3, 16);
+			matrix.multiplyTransposed(x, x);
+			assertThat(x.toDoubleArray()).containsExactly(83, 182);
+		}
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		try (DoubleMatrix matrix = new DoubleMatrix(2, 3, new OnHeapAllocator())) {
+			assertThatThrownBy(() -> matrix.multiply(ArrayDoubleVector.of(1, 2), ArrayDoubleVector.of(0, 0)))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> matrix.multiplyTransposed(ArrayDoubleVector.of(1, 2), ArrayDoubleVector.of(0, 0)))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> matrix.read(2, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+			assertThatThrownBy(() -> matrix.read(0, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+		}
+		assertThatThrownBy(() -> new DoubleMatrix(ArrayDoubleVector.of(1, 2, 3), 2, 2))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new DoubleMatrix(-1, 3, new DirectMemoryAllocator()))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new DoubleMatrix(2, 0, new DirectMemoryAllocator()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static DoubleMatrix matrix(final IChunkAllocator allocator, final double[][] values) {
+		final DoubleMatrix matrix = new DoubleMatrix(values.length, values[0].length, allocator);
+		for (int r = 0; r < values.length; ++r) {
+			matrix.writeRow(r, new ArrayDoubleVector(values[r]));
+		}
+		return matrix;
+	}
+
+	private static double[][] random(final int rows, final int columns, final long seed) {
+		final Random random = new Random(seed);
+		final double[][] values = new double[rows][columns];
+		for (int r = 0; r < rows; ++r) {
+			for (int c = 0; c < columns; ++c) {
+				values[r][c] = random.nextDouble() * 200 - 100;
+			}
+		}
+		return values;
+	}
+
+}
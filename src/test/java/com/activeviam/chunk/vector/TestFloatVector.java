@@ -0,0 +1,151 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.ArrayFloatVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorHashUtil;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the vectors of floats of every layout.
+ *
+ * @author ActiveViam
+ */
+public class TestFloatVector extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 10_003;
+
+	@Test
+	public void testReductionsAccumulateInDouble() {
+		// Summing a million times 0.1f in single precision drifts by several percents
+		final int size = (1 << 20) + 3;
+		final double expected = size * (double) 0.1f;
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.FLOAT).allocateNewVector(size);
+				vector.fillFloat(0.1f);
+				final String description = allocator.getClass().getSimpleName();
+				assertThat(vector.sumDouble()).as(description).isCloseTo(expected, within(1e-6));
+				assertThat(vector.sumFloat()).as(description).isEqualTo((float) expected);
+				assertThat(vector.average()).as(description).isCloseTo(0.1f, within(1e-12));
+				assertThat(vector.variance()).as(description).isCloseTo(0d, within(1e-12));
+			}
+		}
+	}
+
+	@Test
+	public void testPlusAcrossLayouts() {
+		final float[] left = randomFloats(SIZE, 1);
+		final float[] right = randomFloats(SIZE, 2);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator destination : allocators(session)) {
+				for (final IChunkAllocator source : allocators(session)) {
+					final IVector l = vector(destination, left);
+					l.plus(vector(source, right));
+					l.minus(vector(source, left));
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(l.readFloat(i)).isEqualTo(left[i] + right[i] - left[i]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCopyAndHashAcrossLayouts() {
+		final float[] values = randomFloats(SIZE, 3);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator destination : allocators(session)) {
+				for (final IChunkAllocator source : allocators(session)) {
+					final IVector original = vector(source, values);
+					final IVector copy = destination.getVectorAllocator(Types.FLOAT).allocateNewVector(SIZE);
+					copy.copyFrom(original);
+					assertThat(copy.getComponentType()).isEqualTo(Types.FLOAT);
+					assertThat(copy.toFloatArray()).containsExactly(values);
+					assertThat(copy).isEqualTo(original);
+					assertThat(copy.hashCode()).isEqualTo(original.hashCode());
+					assertThat(copy.subVector(5, 10).cloneOnHeap()).isEqualTo(original.subVector(5, 10));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTopKAndSort() {
+		final float[] values = randomFloats(SIZE, 4);
+		final float[] sorted = values.clone();
+		Arrays.sort(sorted);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = vector(allocator, values);
+				final String description = allocator.getClass().getSimpleName();
+				assertThat(read(vector.topK(3), 3)).as(description)
+						.containsExactly(sorted[SIZE - 3], sorted[SIZE - 2], sorted[SIZE - 1]);
+				assertThat(read(vector.bottomK(3), 3)).as(description)
+						.containsExactly(sorted[0], sorted[1], sorted[2]);
+				assertThat(vector.readFloat(vector.topKIndices(1)[0])).as(description).isEqualTo(sorted[SIZE - 1]);
+				assertThat(vector.sort().toFloatArray()).as(description).containsExactly(sorted);
+				assertThat(vector.toFloatArray()).as(description).containsExactly(values);
+			}
+		}
+	}
+
+	@Test
+	public void testHashOfWidenedFloats() {
+		final float[] values = randomFloats(SIZE, 5);
+		values[7] = Float.NaN;
+		// Every length up to several vectors, to go through the full, half and scalar parts of the kernel
+		for (int length = 0; length <= 70; ++length) {
+			final double[] widened = new double[length];
+			for (int i = 0; i < length; ++i) {
+				widened[i] = values[i];
+			}
+			assertThat(VectorHashUtil.hashFloats(values, 0, length))
+					.as("length " + length)
+					.isEqualTo(VectorHashUtil.hashDoubles(widened, 0, length));
+		}
+	}
+
+	@Test
+	public void testQuantilesInPlace() {
+		final float[] values = randomFloats(SIZE, 6);
+		final float[] sorted = values.clone();
+		Arrays.sort(sorted);
+		final double[] r = {0.01, 0.5, 0.99, 1};
+		final ArrayFloatVector vector = new ArrayFloatVector(values.clone());
+		final double[] quantiles = vector.quantilesInPlace(r);
+		for (int i = 0; i < r.length; ++i) {
+			assertThat(quantiles[i]).isEqualTo(sorted[(int) Math.ceil(SIZE * r[i]) - 1]);
+		}
+		// The content of the vector is reordered, not copied
+		final float[] reordered = vector.getUnderlying();
+		assertThat(reordered).isNotEqualTo(values);
+		Arrays.sort(reordered);
+		assertThat(reordered).containsExactly(sorted);
+	}
+
+	private static float[] read(final IPrimitiveIterator iterator, final int k) {
+		final float[] values = new float[k];
+		for (int i = 0; i < k; ++i) {
+			values[i] = (float) iterator.nextDouble();
+		}
+		Arrays.sort(values);
+		return values;
+	}
+
+}
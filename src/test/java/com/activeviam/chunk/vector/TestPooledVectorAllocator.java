@@ -0,0 +1,156 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.APooledVectorAllocator;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.ASegmentVector;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ITransientVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the recycling of the vectors of the pooled vector allocators.
+ *
+ * @author ActiveViam
+ */
+public class TestPooledVectorAllocator extends ATestVectorLayouts {
+
+	private static final int SIZE = 100;
+
+	@Test
+	public void testHeapRecycling() {
+		final IVectorAllocator pool = new OnHeapAllocator().getPooledVectorAllocator(Types.DOUBLE);
+		final IVector vector = pool.allocateNewVector(SIZE);
+		assertThat(vector).isInstanceOf(ITransientVector.class);
+		final double[] array = ((ArrayDoubleVector) vector).getUnderlying();
+		vector.fillDouble(3d);
+		((ITransientVector) vector).release();
+
+		// Same length, same array, cleared
+		final IVector recycled = pool.allocateNewVector(SIZE);
+		assertThat(((ArrayDoubleVector) recycled).getUnderlying()).isSameAs(array);
+		assertThat(recycled.toDoubleArray()).containsOnly(0d);
+
+		// Other length, other array
+		final IVector other = pool.allocateNewVector(SIZE + 1);
+		assertThat(((ArrayDoubleVector) other).getUnderlying()).isNotSameAs(array);
+		assertThat(other.size()).isEqualTo(SIZE + 1);
+	}
+
+	@Test
+	public void testCopy() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+					final IVectorAllocator pool = allocator.getPooledVectorAllocator(type);
+					final IVector vector = pool.allocateNewVector(SIZE);
+					pool.releaseVector(vector);
+
+					// The copy reuses the released storage and overwrites it
+					final IVector source = pool.allocateNewVector(SIZE);
+					if (type == Types.DOUBLE) {
+						final double[] values = new double[SIZE];
+						Arrays.fill(values, 7d);
+						source.copyFrom(values);
+					} else {
+						final int[] values = new int[SIZE];
+						Arrays.fill(values, 7);
+						source.copyFrom(values);
+					}
+					final IVector copy = pool.copy(source);
+					assertThat(copy.size()).isEqualTo(SIZE);
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(type == Types.DOUBLE ? copy.readDouble(i) : copy.readInt(i)).isEqualTo(7d);
+					}
+					pool.release();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBlockSizeClasses() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : new IChunkAllocator[] {
+					new DirectMemoryAllocator(), new SegmentMemoryAllocator(session)}) {
+				final IVectorAllocator pool = allocator.getPooledVectorAllocator(Types.DOUBLE);
+				final IVector vector = pool.allocateNewVector(SIZE);
+				vector.fillDouble(1d);
+				pool.releaseVector(vector);
+
+				// A shorter vector of the same power of two class gets the block, with its components cleared
+				final IVector recycled = pool.allocateNewVector(SIZE - 10);
+				assertThat(recycled.size()).isEqualTo(SIZE - 10);
+				for (int i = 0; i < recycled.size(); ++i) {
+					assertThat(recycled.readDouble(i)).isEqualTo(0d);
+				}
+				pool.releaseVector(recycled);
+				assertThatThrownBy(() -> pool.releaseVector(recycled)).isInstanceOf(IllegalStateException.class);
+				pool.release();
+			}
+		}
+	}
+
+	@Test
+	public void testReleaseFromAnotherThread() throws InterruptedException {
+		final IVectorAllocator pool = new OnHeapAllocator().getPooledVectorAllocator(Types.DOUBLE);
+		final IVector[] vectors = new IVector[APooledVectorAllocator.MAX_POOLED_PER_CLASS + 1];
+		for (int i = 0; i < vectors.length; ++i) {
+			vectors[i] = pool.allocateNewVector(SIZE);
+		}
+		final double[] array = ((ArrayDoubleVector) vectors[vectors.length - 1]).getUnderlying();
+		final Thread thread = new Thread(() -> {
+			for (final IVector vector : vectors) {
+				((ITransientVector) vector).release();
+			}
+		});
+		thread.start();
+		thread.join();
+
+		// What overflows the free lists of the releasing thread is shared with the other threads
+		assertThat(((ArrayDoubleVector) pool.allocateNewVector(SIZE)).getUnderlying()).isSameAs(array);
+		assertThat(((ArrayDoubleVector) pool.allocateNewVector(SIZE)).getUnderlying()).isNotIn(
+				Arrays.stream(vectors).map(vector -> ((ArrayDoubleVector) vector).getUnderlying()).toArray());
+	}
+
+	@Test
+	public void testSegmentVectorRelease() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IVectorAllocator pool = new SegmentMemoryAllocator(session).getPooledVectorAllocator(Types.DOUBLE);
+			final IVector vector = pool.allocateNewVector(SIZE);
+			final Object block = ((ASegmentVector) vector).getBlock();
+			((ASegmentVector) vector).release();
+			assertThat(((ASegmentVector) pool.allocateNewVector(SIZE)).getBlock()).isSameAs(block);
+			pool.release();
+		}
+	}
+
+	@Test
+	public void testForeignVectorsAreIgnored() {
+		final OnHeapAllocator allocator = new OnHeapAllocator();
+		final IVectorAllocator pool = allocator.getPooledVectorAllocator(Types.DOUBLE);
+		final double[] array = new double[SIZE];
+		final IVector foreign = new ArrayDoubleVector(array);
+		pool.releaseVector(foreign);
+		((ITransientVector) foreign).release();
+		assertThat(((ArrayDoubleVector) pool.allocateNewVector(SIZE)).getUnderlying()).isNotSameAs(array);
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.SegmentIntegerBlock;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.QuantileSketch;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the rank error of the quantiles computed by {@link QuantileSketch} fed and merged from vectors
+ * of every layout.
+ *
+ * @author ActiveViam
+ */
+public class TestQuantileSketch extends ATestVectorLayouts {
+
+	private static final int VECTOR_SIZE = 10_007;
+
+	private static final int VECTOR_COUNT = 60;
+
+	private static final double[] TAILS = {0.001, 0.01, 0.05, 0.95, 0.99, 0.999};
+
+	@Test
+	public void testMergedSketches() {
+		final Random random = new Random(42);
+		final double[] all = new double[VECTOR_SIZE * VECTOR_COUNT];
+		final QuantileSketch merged = new QuantileSketch();
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (int v = 0; v < VECTOR_COUNT; ++v) {
+				final double[] values = new double[VECTOR_SIZE];
+				for (int i = 0; i < VECTOR_SIZE; ++i) {
+					// Heavy tails, as P&L vectors
+					values[i] = random.nextGaussian() * Math.exp(random.nextGaussian());
+				}
+				System.arraycopy(values, 0, all, v * VECTOR_SIZE, VECTOR_SIZE);
+
+				final IVector vector = allocators[v % allocators.length]
+						.getVectorAllocator(Types.DOUBLE)
+						.allocateNewVector(VECTOR_SIZE);
+				vector.copyFrom(values);
+				// One sketch per chunk, merged afterwards
+				final QuantileSketch sketch = new QuantileSketch();
+				vector.addToQuantileSketch(sketch);
+				merged.merge(sketch);
+			}
+		}
+		Arrays.sort(all);
+
+		assertThat(merged.size()).isEqualTo(all.length);
+		assertThat(merged.min()).isEqualTo(all[0]);
+		assertThat(merged.max()).isEqualTo(all[all.length - 1]);
+		for (final double r : TAILS) {
+			assertThat(rank(all, merged.quantile(r))).as("Quantile " + r).isCloseTo(r, within(r * (1 - r) / 20 + 1e-4));
+		}
+		assertThat(rank(all, merged.quantile(0.5))).isCloseTo(0.5, within(0.01));
+	}
+
+	@Test
+	public void testIntegerVectorsAndBlocks() {
+		final Random random = new Random(42);
+		final int[] values = new int[VECTOR_SIZE];
+		final double[] sorted = new double[VECTOR_SIZE];
+		for (int i = 0; i < VECTOR_SIZE; ++i) {
+			values[i] = random.nextInt(1_000_000);
+			sorted[i] = values[i];
+		}
+		Arrays.sort(sorted);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(VECTOR_SIZE);
+				vector.copyFrom(values);
+				final QuantileSketch sketch = new QuantileSketch();
+				vector.addToQuantileSketch(sketch);
+				final String description = allocator.getClass().getSimpleName();
+				assertThat(sketch.size()).as(description).isEqualTo(VECTOR_SIZE);
+				for (final double r : TAILS) {
+					assertThat(rank(sorted, sketch.quantile(r))).as(description).isCloseTo(r, within(0.002));
+				}
+			}
+
+			// Bulk ingestion of block ranges
+			final SegmentIntegerBlock block = new SegmentIntegerBlock(session, VECTOR_SIZE);
+			block.write(0, values);
+			final QuantileSketch sketch = new QuantileSketch();
+			sketch.add(block, 0, VECTOR_SIZE / 2);
+			sketch.add(block, VECTOR_SIZE / 2, VECTOR_SIZE - VECTOR_SIZE / 2);
+			assertThat(sketch.size()).isEqualTo(VECTOR_SIZE);
+			assertThat(rank(sorted, sketch.quantile(0.99))).isCloseTo(0.99, within(0.002));
+		}
+	}
+
+	@Test
+	public void testSmallInputs() {
+		final QuantileSketch sketch = new QuantileSketch();
+		assertThatThrownBy(() -> sketch.quantile(0.5)).isInstanceOf(IndexOutOfBoundsException.class);
+
+		sketch.add(3d);
+		assertThat(sketch.quantile(0.01)).isEqualTo(3d);
+		assertThat(sketch.quantile(1)).isEqualTo(3d);
+
+		for (int i = 1; i <= 10; ++i) {
+			sketch.add(i);
+		}
+		// The extreme values are kept exactly
+		assertThat(sketch.quantile(0.01)).isEqualTo(1d);
+		assertThat(sketch.quantile(1)).isEqualTo(10d);
+		assertThatThrownBy(() -> sketch.quantile(0)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	/**
+	 * @return the fraction of the sorted values smaller than a value
+	 */
+	private static double rank(final double[] sorted, final double value) {
+		int index = Arrays.binarySearch(sorted, value);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return (double) index / sorted.length;
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ITransientVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.RadixSortUtil;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the radix sorts of {@link RadixSortUtil}, against {@link Arrays#sort(double[])}.
+ *
+ * @author ActiveViam
+ */
+public class TestRadixSort {
+
+	/** Up to a length whose scratch arrays are not kept by the thread */
+	private static final int[] LENGTHS = {
+			0, 1, 10, RadixSortUtil.RADIX_SORT_THRESHOLD, 10_000, RadixSortUtil.MAX_RETAINED_SCRATCH_LENGTH + 1};
+
+	@Test
+	public void testDoubles() {
+		for (final int length : LENGTHS) {
+			final double[] values = randomDoubles(length, 1);
+			final double[] expected = values.clone();
+			Arrays.sort(expected);
+			RadixSortUtil.sort(values, 0, length);
+			assertThat(values).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testInts() {
+		for (final int length : LENGTHS) {
+			final int[] values = new Random(length).ints(length).toArray();
+			final int[] expected = values.clone();
+			Arrays.sort(expected);
+			RadixSortUtil.sort(values, 0, length);
+			assertThat(values).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testSpecialValues() {
+		final double[] values = randomDoubles(2 * RadixSortUtil.RADIX_SORT_THRESHOLD, 2);
+		final double[] specials = {
+				Double.NaN, -0d, 0d, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE,
+				-Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+		System.arraycopy(specials, 0, values, 100, specials.length);
+		final double[] expected = values.clone();
+		Arrays.sort(expected);
+		RadixSortUtil.sort(values, 0, values.length);
+		assertThat(values).isEqualTo(expected);
+	}
+
+	@Test
+	public void testRange() {
+		final double[] values = randomDoubles(3000, 3);
+		final double[] expected = values.clone();
+		Arrays.sort(expected, 1000, 2000);
+		RadixSortUtil.sort(values, 1000, 2000);
+		assertThat(values).isEqualTo(expected);
+	}
+
+	@Test
+	public void testParallel() {
+		final int length = RadixSortUtil.PARALLEL_SORT_THRESHOLD + 17;
+		final double[] doubles = randomDoubles(length, 4);
+		final double[] expectedDoubles = doubles.clone();
+		Arrays.sort(expectedDoubles);
+		RadixSortUtil.sort(doubles, 0, length);
+		assertThat(Arrays.equals(doubles, expectedDoubles)).isTrue();
+
+		final int[] ints = new Random(5).ints(length).toArray();
+		final int[] expectedInts = ints.clone();
+		Arrays.sort(expectedInts);
+		RadixSortUtil.sort(ints, 0, length);
+		assertThat(Arrays.equals(ints, expectedInts)).isTrue();
+	}
+
+	@Test
+	public void testInPlaceOnBlocks() {
+		final int length = 2000;
+		final double[] values = randomDoubles(length, 6);
+		final double[] expected = values.clone();
+		Arrays.sort(expected);
+		final int[] ints = new Random(7).ints(length).toArray();
+		final int[] expectedInts = ints.clone();
+		Arrays.sort(expectedInts);
+
+		final DirectMemoryAllocator directAllocator = new DirectMemoryAllocator();
+		final IVector direct = directAllocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(length);
+		direct.copyFrom(values);
+		((ITransientVector) direct).sortInPlace();
+		assertThat(direct.toDoubleArray()).isEqualTo(expected);
+
+		final IVector directInts = directAllocator.getVectorAllocator(Types.INTEGER).allocateNewVector(length);
+		directInts.copyFrom(ints);
+		((ITransientVector) directInts).sortInPlace();
+		assertThat(directInts.toIntArray()).isEqualTo(expectedInts);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			final SegmentMemoryAllocator allocator = new SegmentMemoryAllocator(session);
+			final IVector segment = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(length);
+			segment.copyFrom(values);
+			((ITransientVector) segment).sortInPlace();
+			assertThat(segment.toDoubleArray()).isEqualTo(expected);
+
+			// Only the view is sorted
+			final IVector segmentInts = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(length);
+			segmentInts.copyFrom(ints);
+			((ITransientVector) segmentInts.subVector(10, length)).sortInPlace();
+			final int[] expectedView = ints.clone();
+			Arrays.sort(expectedView, 10, length);
+			assertThat(segmentInts.toIntArray()).isEqualTo(expectedView);
+
+			((ITransientVector) segmentInts.subVector(10, length)).reverse();
+			for (int i = 10; i < length; ++i) {
+				assertThat(segmentInts.readInt(i)).isEqualTo(expectedView[length - 1 - i + 10]);
+			}
+		}
+
+		((ITransientVector) direct).reverse();
+		for (int i = 0; i < length; ++i) {
+			assertThat(direct.readDouble(i)).isEqualTo(expected[length - 1 - i]);
+		}
+
+		// The sorted copy of the vectors
+		assertThat(new ArrayDoubleVector(values).sort().toDoubleArray()).isEqualTo(expected);
+		assertThat(values).isNotEqualTo(expected);
+	}
+
+	private static double[] randomDoubles(final int length, final long seed) {
+		final Random random = new Random(seed);
+		final double[] values = new double[length];
+		for (int i = 0; i < length; ++i) {
+			values[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.ASmallVector;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayFloatVector;
+import com.activeviam.vector.ArrayIntegerVector;
+import com.activeviam.vector.ITransientVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import com.activeviam.vector.SmallDoubleVector;
+import com.activeviam.vector.SmallFloatVector;
+import com.activeviam.vector.SmallIntegerVector;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ASmallVector small vectors} returned by the on-heap allocator for the tiny lengths,
+ * against the array-based vectors.
+ *
+ * @author ActiveViam
+ */
+public class TestSmallVector {
+
+	@Test
+	public void testAllocator() {
+		final IVectorAllocator allocator = new OnHeapAllocator().getVectorAllocator(Types.DOUBLE);
+		assertThat(allocator.allocateNewVector(1)).isInstanceOf(SmallDoubleVector.class);
+		assertThat(allocator.allocateNewVector(ASmallVector.MAX_SIZE)).isInstanceOf(SmallDoubleVector.class);
+		assertThat(allocator.allocateNewVector(ASmallVector.MAX_SIZE + 1)).isInstanceOf(ArrayDoubleVector.class);
+
+		final IVector copy = allocator.copy(ArrayDoubleVector.of(1, 2, 3));
+		assertThat(copy).isInstanceOf(SmallDoubleVector.class);
+		assertThat(copy.toDoubleArray()).containsExactly(1, 2, 3);
+
+		final IVectorAllocator ints = new OnHeapAllocator().getVectorAllocator(Types.INTEGER);
+		assertThat(ints.allocateNewVector(ASmallVector.MAX_SIZE)).isInstanceOf(SmallIntegerVector.class);
+		assertThat(ints.allocateNewVector(ASmallVector.MAX_SIZE + 1)).isInstanceOf(ArrayIntegerVector.class);
+		assertThat(ints.copy(ArrayIntegerVector.of(1, 2)).toIntArray()).containsExactly(1, 2);
+
+		final IVectorAllocator floats = new OnHeapAllocator().getVectorAllocator(Types.FLOAT);
+		assertThat(floats.allocateNewVector(ASmallVector.MAX_SIZE)).isInstanceOf(SmallFloatVector.class);
+		assertThat(floats.allocateNewVector(ASmallVector.MAX_SIZE + 1)).isInstanceOf(ArrayFloatVector.class);
+		assertThat(floats.copy(ArrayFloatVector.of(1.5f, 2)).toFloatArray()).containsExactly(1.5f, 2);
+	}
+
+	@Test
+	public void testArithmeticsAcrossLayouts() {
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : new IChunkAllocator[] {
+					new OnHeapAllocator(), new DirectMemoryAllocator(), new SegmentMemoryAllocator(session)}) {
+				for (int size = 1; size <= ASmallVector.MAX_SIZE; ++size) {
+					final double[] values = new double[size];
+					for (int i = 0; i < size; ++i) {
+						values[i] = 3 * i - 5;
+					}
+					final IVector other = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(size);
+					other.copyFrom(values);
+
+					final IVector small = new SmallDoubleVector(size);
+					small.fillDouble(1d);
+					small.plus(other);
+					small.scale(2d);
+					small.minusPositiveValues(other);
+					small.translate(0.5d);
+					other.plus(small);
+
+					for (int i = 0; i < size; ++i) {
+						final double expected = 2 * (1 + values[i]) - Math.max(values[i], 0d) + 0.5d;
+						assertThat(small.readDouble(i)).isEqualTo(expected);
+						assertThat(other.readDouble(i)).isEqualTo(values[i] + expected);
+					}
+					assertThat(small.sumDouble()).isEqualTo(new ArrayDoubleVector(small.toDoubleArray()).sumDouble());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerArithmetics() {
+		final int[] values = {7, -3, 0, 12, 5};
+		final IVector small = SmallIntegerVector.of(values);
+		final IVector array = ArrayIntegerVector.of(values);
+		for (final IVector vector : new IVector[] {small, array}) {
+			vector.plus(ArrayIntegerVector.of(1, 2, 3, 4, 5));
+			vector.scale(3);
+			vector.scale(0.5d);
+			vector.translate(-2L);
+			vector.addInt(1, 4);
+			vector.addDouble(2, 1.75d);
+		}
+		assertThat(small.toIntArray()).containsExactly(array.toIntArray());
+		assertThat(small.sumInt()).isEqualTo(array.sumInt());
+		assertThat(small.read(0)).isEqualTo(array.read(0));
+		assertThat(small.sort().toIntArray()).containsExactly(array.sort().toIntArray());
+		assertThat(small.quantileDouble(0.5)).isEqualTo(array.quantileDouble(0.5));
+		assertThat(small.topKIndices(2)).containsExactly(array.topKIndices(2));
+	}
+
+	@Test
+	public void testFloatArithmetics() {
+		final float[] values = {7.5f, -3, 0.25f, 12, 5};
+		final IVector small = SmallFloatVector.of(values);
+		final IVector array = ArrayFloatVector.of(values);
+		for (final IVector vector : new IVector[] {small, array}) {
+			vector.plus(ArrayFloatVector.of(1, 2, 3, 4, 5));
+			vector.scale(0.1d);
+			vector.translate(3);
+			vector.addFloat(1, 0.3f);
+			vector.addDouble(2, 0.7d);
+		}
+		assertThat(small.toFloatArray()).containsExactly(array.toFloatArray());
+		assertThat(small.sumFloat()).isEqualTo(array.sumFloat());
+		assertThat(small.read(0)).isEqualTo(array.read(0));
+		assertThat(small.sort().toFloatArray()).containsExactly(array.sort().toFloatArray());
+		assertThat(small.quantileFloat(0.5)).isEqualTo(array.quantileFloat(0.5));
+	}
+
+	@Test
+	public void testEqualsAndHash() {
+		final IVector small = SmallDoubleVector.of(4, -1, 7, 0.5);
+		final IVector array = ArrayDoubleVector.of(4, -1, 7, 0.5);
+		assertThat(small).isEqualTo(array);
+		assertThat(array).isEqualTo(small);
+		assertThat(small.hashCode()).isEqualTo(array.hashCode());
+		assertThat(small.contentHash()).isEqualTo(array.contentHash());
+		assertThat(small).isNotEqualTo(SmallDoubleVector.of(4, -1, 7));
+
+		// The hash of the fields is the one of the array, on both sides of the lane blocks
+		for (int size = 0; size <= ASmallVector.MAX_SIZE; ++size) {
+			final double[] values = new double[size];
+			for (int i = 0; i < size; ++i) {
+				values[i] = i == 2 ? Double.NaN : 1.5 * i - 2;
+			}
+			assertThat(SmallDoubleVector.of(values).contentHash())
+					.isEqualTo(ArrayDoubleVector.of(values).contentHash());
+			assertThat(SmallDoubleVector.of(values)).isEqualTo(ArrayDoubleVector.of(values));
+
+			final int[] ints = new int[size];
+			final float[] floats = new float[size];
+			for (int i = 0; i < size; ++i) {
+				ints[i] = 5 * i - 7;
+				floats[i] = i == 2 ? Float.NaN : 0.5f * i - 1;
+			}
+			assertThat(SmallIntegerVector.of(ints).contentHash()).isEqualTo(ArrayIntegerVector.of(ints).contentHash());
+			assertThat(SmallIntegerVector.of(ints)).isEqualTo(ArrayIntegerVector.of(ints));
+			assertThat(SmallFloatVector.of(floats).contentHash()).isEqualTo(ArrayFloatVector.of(floats).contentHash());
+			assertThat(SmallFloatVector.of(floats)).isEqualTo(ArrayFloatVector.of(floats));
+		}
+	}
+
+	@Test
+	public void testQuantilesInPlace() {
+		final double[] values = {4, -1, 7, 0.5, 3, 3, -8};
+		final ITransientVector small = SmallDoubleVector.of(values);
+		final ITransientVector array = ArrayDoubleVector.of(values);
+		final double[] r = {0.1, 0.5, 0.9};
+		assertThat(small.quantilesInPlace(r)).containsExactly(array.quantilesInPlace(r));
+
+		// The small vector is reordered like the array vector
+		assertThat(small.toDoubleArray()).containsExactly(array.toDoubleArray());
+	}
+
+	@Test
+	public void testOrderStatistics() {
+		final double[] values = {4, -1, 7, 0.5, 3, 3, -8};
+		final IVector small = SmallDoubleVector.of(values);
+		final IVector array = ArrayDoubleVector.of(values);
+		assertThat(small.sort().toDoubleArray()).containsExactly(array.sort().toDoubleArray());
+		assertThat(small.topKIndices(3)).containsExactly(array.topKIndices(3));
+		assertThat(small.bottomKIndices(2)).containsExactly(array.bottomKIndices(2));
+		assertThat(small.quantileDouble(0.5)).isEqualTo(array.quantileDouble(0.5));
+		assertThat(small.quantileIndex(0.9)).isEqualTo(array.quantileIndex(0.9));
+		assertThat(small.argsort().toIntArray()).containsExactly(array.argsort().toIntArray());
+
+		final ITransientVector sorted = (ITransientVector) small.cloneOnHeap();
+		sorted.sortInPlace();
+		sorted.reverse();
+		assertThat(sorted.toDoubleArray()).containsExactly(7, 4, 3, 3, 0.5, -1, -8);
+		assertThat(small.toDoubleArray()).containsExactly(values);
+	}
+
+	@Test
+	public void testSubVector() {
+		final IVector small = SmallDoubleVector.of(1, 2, 3, 4, 5, 6);
+		final IVector view = small.subVector(1, 5);
+		assertThat(view.size()).isEqualTo(4);
+		view.scale(10);
+		view.subVector(2, 4).fillDouble(0d);
+		assertThat(small.toDoubleArray()).containsExactly(1, 20, 30, 0, 0, 6);
+		assertThatThrownBy(() -> view.readDouble(4)).isInstanceOf(IndexOutOfBoundsException.class);
+
+		// A view is a small vector over the fields of the viewed one
+		assertThat(view).isInstanceOf(SmallDoubleVector.class);
+		assertThat(view).isEqualTo(ArrayDoubleVector.of(20, 30, 0, 0));
+		assertThat(view.contentHash()).isEqualTo(ArrayDoubleVector.of(20, 30, 0, 0).contentHash());
+		assertThat(view.sort().toDoubleArray()).containsExactly(0, 0, 20, 30);
+		assertThat(view.quantileDouble(1)).isEqualTo(30d);
+		assertThat(small.toDoubleArray()).containsExactly(1, 20, 30, 0, 0, 6);
+
+		final IVector ints = SmallIntegerVector.of(1, 2, 3, 4);
+		final ITransientVector intView = (ITransientVector) ints.subVector(1, 4);
+		intView.reverse();
+		intView.subVector(0, 1).translate(10);
+		assertThat(ints.toIntArray()).containsExactly(1, 14, 3, 2);
+		assertThat(intView.cloneOnHeap()).isInstanceOf(SmallIntegerVector.class);
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		assertThatThrownBy(() -> new SmallDoubleVector(ASmallVector.MAX_SIZE + 1))
+				.isInstanceOf(IllegalArgumentException.class);
+		final IVector small = new SmallDoubleVector(3);
+		assertThatThrownBy(() -> small.readDouble(3)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> small.writeDouble(-1, 0d)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> small.plus(ArrayDoubleVector.of(1, 2, 3, 4)))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+}
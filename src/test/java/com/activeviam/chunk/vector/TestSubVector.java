@@ -0,0 +1,211 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.ABlockPackingVectorAllocator;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
+import com.activeviam.vector.AFixedBlockVector;
+import com.activeviam.vector.ASegmentVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.IVectorAllocator;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the sub-vector views and the block packing vector allocators.
+ *
+ * @author ActiveViam
+ */
+public class TestSubVector extends ATestVectorLayouts {
+
+	private static final int SIZE = 10;
+
+	@Test
+	public void testReadWriteThroughView() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+					final IVector vector = range(allocator, type, SIZE, 1, 0);
+					final IVector view = vector.subVector(2, 7);
+					assertThat(view.size()).isEqualTo(5);
+					assertThat(view.getComponentType()).isEqualTo(type);
+					for (int i = 0; i < 5; ++i) {
+						assertThat(read(view, i)).isEqualTo(i + 2d);
+					}
+
+					// Writes go to the viewed vector
+					if (type == Types.DOUBLE) {
+						view.writeDouble(1, -1d);
+					} else {
+						view.writeInt(1, -1);
+					}
+					assertThat(read(vector, 3)).isEqualTo(-1d);
+
+					// Views of views
+					final IVector nested = view.subVector(2, 4);
+					assertThat(nested.size()).isEqualTo(2);
+					assertThat(read(nested, 0)).isEqualTo(4d);
+					assertThat(read(nested, 1)).isEqualTo(5d);
+					assertThatThrownBy(() -> nested.readDouble(2)).isInstanceOf(IndexOutOfBoundsException.class);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBulkOperationsOnView() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+					final IVector vector = range(allocator, type, SIZE, 1, 0);
+					final IVector view = vector.subVector(3, 8);
+
+					// Top-K indices are relative to the view
+					assertThat(view.topKIndices(2)).containsExactlyInAnyOrder(4, 3);
+					assertThat(view.bottomKIndices(1)).containsExactly(0);
+					assertThat(view.sumDouble()).isEqualTo(3d + 4d + 5d + 6d + 7d);
+
+					// Bulk writes stay within the view
+					if (type == Types.DOUBLE) {
+						view.scale(2d);
+						view.translate(1d);
+					} else {
+						view.scale(2);
+						view.translate(1);
+					}
+					for (int i = 0; i < SIZE; ++i) {
+						final double expected = i >= 3 && i < 8 ? 2d * i + 1d : i;
+						assertThat(read(vector, i)).isEqualTo(expected);
+					}
+					if (type == Types.DOUBLE) {
+						view.fillDouble(0d);
+					} else {
+						view.fillInt(0);
+					}
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(read(vector, i)).isEqualTo(i >= 3 && i < 8 ? 0d : i);
+					}
+
+					// Copy of the view only holds the view
+					final double[] copy = new double[2];
+					if (type == Types.DOUBLE) {
+						vector.subVector(8, 10).copyTo(copy);
+					} else {
+						final int[] ints = new int[2];
+						vector.subVector(8, 10).copyTo(ints);
+						copy[0] = ints[0];
+						copy[1] = ints[1];
+					}
+					assertThat(copy).containsExactly(8d, 9d);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRangeErrors() {
+		final IVector vector = range(new OnHeapAllocator(), Types.DOUBLE, SIZE, 1, 0);
+		assertThatThrownBy(() -> vector.subVector(5, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> vector.subVector(-1, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> vector.subVector(0, SIZE + 1)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThat(vector.subVector(4, 4).size()).isZero();
+		assertThat(vector.subVector(0, SIZE).size()).isEqualTo(SIZE);
+	}
+
+	@Test
+	public void testPackedVectorsShareBlocks() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : new IChunkAllocator[] {
+					new DirectMemoryAllocator(), new SegmentMemoryAllocator(session)}) {
+				for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+					final IVectorAllocator packer = allocator.getPackedVectorAllocator(type);
+					assertThat(packer).isInstanceOf(ABlockPackingVectorAllocator.class);
+
+					final IVector[] vectors = new IVector[100];
+					for (int i = 0; i < vectors.length; ++i) {
+						vectors[i] = packer.allocateNewVector(20);
+						if (type == Types.DOUBLE) {
+							vectors[i].fillDouble(i);
+						} else {
+							vectors[i].fillInt(i);
+						}
+					}
+					assertThat(((ABlockPackingVectorAllocator<?>) packer).getBlockCount()).isEqualTo(1);
+					assertThat(block(vectors[99])).isSameAs(block(vectors[0]));
+					for (int i = 0; i < vectors.length; ++i) {
+						assertThat(vectors[i].size()).isEqualTo(20);
+						for (int j = 0; j < 20; ++j) {
+							assertThat(read(vectors[i], j)).isEqualTo(i);
+						}
+					}
+
+					// Large vectors get a block of their own
+					final IVector large = packer.allocateNewVector(ABlockPackingVectorAllocator.DEFAULT_BLOCK_CAPACITY);
+					assertThat(block(large)).isNotSameAs(block(vectors[0]));
+					final IVector next = packer.allocateNewVector(20);
+					assertThat(block(next)).isSameAs(block(vectors[0]));
+					assertThat(((ABlockPackingVectorAllocator<?>) packer).getBlockCount()).isEqualTo(2);
+
+					// Copies are packed too
+					final IVector copy = packer.copy(vectors[42]);
+					assertThat(block(copy)).isSameAs(block(vectors[0]));
+					assertThat(read(copy, 19)).isEqualTo(42d);
+
+					packer.release();
+					assertThat(((ABlockPackingVectorAllocator<?>) packer).getBlockCount()).isZero();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testReleaseSharedBlock() {
+		final IVectorAllocator packer = new DirectMemoryAllocator().getPackedVectorAllocator(Types.DOUBLE);
+		final IVector first = packer.allocateNewVector(20);
+		final IVector second = packer.allocateNewVector(20);
+		first.fillDouble(1d);
+		second.fillDouble(2d);
+		assertThat(block(second)).isSameAs(block(first));
+
+		// Releasing a packed vector leaves its neighbours readable
+		((AFixedBlockVector) first).release();
+		assertThat(second.toDoubleArray()).containsOnly(2d);
+
+		// So does releasing a view of a packed vector
+		((AFixedBlockVector) second.subVector(5, 10)).release();
+		assertThat(second.readDouble(19)).isEqualTo(2d);
+		packer.release();
+
+		// A view does not free the block of the vector it was created from
+		final IVector vector = new DirectMemoryAllocator().getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+		vector.fillDouble(3d);
+		((AFixedBlockVector) vector.subVector(2, 4)).release();
+		assertThat(vector.readDouble(SIZE - 1)).isEqualTo(3d);
+		((AFixedBlockVector) vector).release();
+	}
+
+	private static double read(final IVector vector, final int index) {
+		return vector.getComponentType() == Types.DOUBLE ? vector.readDouble(index) : vector.readInt(index);
+	}
+
+	private static Object block(final IVector vector) {
+		if (vector instanceof AFixedBlockVector) {
+			return ((AFixedBlockVector) vector).getBlock();
+		} else {
+			return ((ASegmentVector) vector).getBlock();
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorAggregationUtil;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IVector#plusAll(IVector[])} and the tiled sums of {@link VectorAggregationUtil}.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorAggregation extends ATestVectorLayouts {
+
+	/** Spans several tiles, and is not a multiple of the tile size nor of the number of lanes */
+	private static final int SIZE = 2 * VectorAggregationUtil.TILE_SIZE + 37;
+
+	@Test
+	public void testPlusAllAcrossLayouts() {
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+				for (final IChunkAllocator destination : allocators(session)) {
+					final IChunkAllocator[] allocators = allocators(session);
+					final IVector[] sources = new IVector[allocators.length];
+					for (int s = 0; s < sources.length; ++s) {
+						sources[s] = range(allocators[s], type, SIZE, s + 1, 0);
+					}
+					final IVector accumulator = range(destination, type, SIZE, 1, 0);
+					accumulator.plusAll(sources);
+					for (int i = 0; i < SIZE; ++i) {
+						// 1 * i + (1 + 2 + 3) * i
+						assertThat(accumulator.readDouble(i)).isEqualTo(7d * i);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPlusAllSmallerSources() {
+		final IChunkAllocator allocator = new OnHeapAllocator();
+		final IVector accumulator = range(allocator, Types.DOUBLE, SIZE, 0, 0);
+		accumulator.plusAll(new IVector[] {
+				range(allocator, Types.DOUBLE, SIZE, 1, 0),
+				range(allocator, Types.DOUBLE, VectorAggregationUtil.TILE_SIZE + 5, 1, 0),
+				range(allocator, Types.DOUBLE, 3, 1, 0)});
+		for (int i = 0; i < SIZE; ++i) {
+			final int count = 1 + (i < VectorAggregationUtil.TILE_SIZE + 5 ? 1 : 0) + (i < 3 ? 1 : 0);
+			assertThat(accumulator.readDouble(i)).isEqualTo((double) count * i);
+		}
+
+		assertThatThrownBy(() -> range(allocator, Types.DOUBLE, 3, 1, 0).plusAll(new IVector[] {accumulator}))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	public void testParallelPlusAll() {
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector[] sources = new IVector[10];
+				for (int s = 0; s < sources.length; ++s) {
+					sources[s] = range(allocator, Types.DOUBLE, SIZE, 1, 0);
+				}
+				final IVector sequential = range(allocator, Types.DOUBLE, SIZE, 0, 0);
+				VectorAggregationUtil.plusAll(sequential, sources, 1);
+				final IVector parallel = range(allocator, Types.DOUBLE, SIZE, 0, 0);
+				VectorAggregationUtil.plusAll(parallel, sources, 3);
+				assertThat(parallel).isEqualTo(sequential);
+				assertThat(parallel.readDouble(SIZE - 1)).isEqualTo(10d * (SIZE - 1));
+			}
+		}
+	}
+
+	@Test
+	public void testPlusAllOfViews() {
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				// The views start at an index that is not a multiple of the number of lanes
+				final IVector vector = range(allocator, Types.DOUBLE, SIZE + 6, 1, 0);
+				final IVector accumulator = vector.subVector(3, SIZE + 3);
+				final IVector source =
+						range(new OnHeapAllocator(), Types.DOUBLE, SIZE + 5, 2, 0).subVector(5, SIZE + 5);
+				accumulator.plusAll(new IVector[] {source, source});
+				for (int i = 0; i < SIZE + 6; ++i) {
+					final double expected = i >= 3 && i < SIZE + 3 ? i + 4d * (i + 2) : i;
+					assertThat(vector.readDouble(i)).isEqualTo(expected);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the arithmetic operations between vectors of every pair of layouts against a scalar
+ * computation.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorArithmetics extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 1027;
+
+	@Test
+	public void testDoubleArithmetics() {
+		final double[] left = new double[SIZE];
+		final double[] right = new double[SIZE];
+		final Random random = new Random(42);
+		for (int i = 0; i < SIZE; ++i) {
+			left[i] = random.nextDouble() * 200 - 100;
+			right[i] = random.nextDouble() * 200 - 100;
+		}
+
+		final double[][] expected = new double[6][SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			expected[0][i] = left[i] + right[i];
+			expected[1][i] = left[i] + Math.max(0, right[i]);
+			expected[2][i] = left[i] + Math.min(0, right[i]);
+			expected[3][i] = left[i] - right[i];
+			expected[4][i] = left[i] - Math.max(0, right[i]);
+			expected[5][i] = left[i] - Math.min(0, right[i]);
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (final IChunkAllocator l : allocators) {
+				for (final IChunkAllocator r : allocators) {
+					for (int op = 0; op < OPERATIONS.length; ++op) {
+						final IVector lv = l.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+						final IVector rv = r.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+						lv.copyFrom(left);
+						rv.copyFrom(right);
+						OPERATIONS[op].accept(lv, rv);
+						for (int i = 0; i < SIZE; ++i) {
+							assertThat(lv.readDouble(i)).as(description(l, r, op)).isEqualTo(expected[op][i]);
+							assertThat(rv.readDouble(i)).isEqualTo(right[i]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerArithmetics() {
+		final int[] left = new int[SIZE];
+		final int[] right = new int[SIZE];
+		final Random random = new Random(42);
+		for (int i = 0; i < SIZE; ++i) {
+			left[i] = random.nextInt(200) - 100;
+			right[i] = random.nextInt(200) - 100;
+		}
+
+		final int[][] expected = new int[6][SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			expected[0][i] = left[i] + right[i];
+			expected[1][i] = left[i] + Math.max(0, right[i]);
+			expected[2][i] = left[i] + Math.min(0, right[i]);
+			expected[3][i] = left[i] - right[i];
+			expected[4][i] = left[i] - Math.max(0, right[i]);
+			expected[5][i] = left[i] - Math.min(0, right[i]);
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (final IChunkAllocator l : allocators) {
+				for (final IChunkAllocator r : allocators) {
+					for (int op = 0; op < OPERATIONS.length; ++op) {
+						final IVector lv = l.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+						final IVector rv = r.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+						lv.copyFrom(left);
+						rv.copyFrom(right);
+						OPERATIONS[op].accept(lv, rv);
+						for (int i = 0; i < SIZE; ++i) {
+							assertThat(lv.readInt(i)).as(description(l, r, op)).isEqualTo(expected[op][i]);
+							assertThat(rv.readInt(i)).isEqualTo(right[i]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSmallerOperand() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (final IChunkAllocator l : allocators) {
+				for (final IChunkAllocator r : allocators) {
+					final IVector lv = l.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					final IVector rv = r.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE / 2);
+					final double[] ones = new double[SIZE];
+					final double[] twos = new double[SIZE / 2];
+					Arrays.fill(ones, 1d);
+					Arrays.fill(twos, 2d);
+					lv.copyFrom(ones);
+					rv.copyFrom(twos);
+					lv.plus(rv);
+					assertThat(lv.readDouble(SIZE / 2 - 1)).isEqualTo(3d);
+					assertThat(lv.readDouble(SIZE / 2)).isEqualTo(1d);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static final BiConsumer<IVector, IVector>[] OPERATIONS = new BiConsumer[] {
+			(BiConsumer<IVector, IVector>) IVector::plus,
+			(BiConsumer<IVector, IVector>) IVector::plusPositiveValues,
+			(BiConsumer<IVector, IVector>) IVector::plusNegativeValues,
+			(BiConsumer<IVector, IVector>) IVector::minus,
+			(BiConsumer<IVector, IVector>) IVector::minusPositiveValues,
+			(BiConsumer<IVector, IVector>) IVector::minusNegativeValues,
+	};
+
+	private static String description(final IChunkAllocator left, final IChunkAllocator right, final int op) {
+		return left.getClass().getSimpleName() + " / " + right.getClass().getSimpleName() + " #" + op;
+	}
+
+}
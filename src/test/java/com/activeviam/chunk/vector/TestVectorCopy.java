@@ -0,0 +1,89 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IVector#copyFrom(IVector)} between every pair of layouts, and the widening of ints into doubles.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorCopy extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail loops */
+	private static final int SIZE = 37;
+
+	@Test
+	public void testCopySameType() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator source : allocators(session)) {
+				for (final IChunkAllocator destination : allocators(session)) {
+					for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+						final IVector from = range(source, type, SIZE, 1, -10);
+						final IVector to = destination.getVectorAllocator(type).allocateNewVector(SIZE + 3);
+						if (type == Types.DOUBLE) {
+							to.fillDouble(0d);
+						} else {
+							to.fillInt(0);
+						}
+						to.copyFrom(from);
+						for (int i = 0; i < SIZE; ++i) {
+							assertThat(to.readDouble(i)).isEqualTo(i - 10d);
+						}
+						assertThat(to.readDouble(SIZE)).isZero();
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWidenIntsIntoDoubles() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator source : allocators(session)) {
+				final IVector ints = range(source, Types.INTEGER, SIZE, 1, -10);
+				final double[] expected = new double[SIZE];
+				for (int i = 0; i < SIZE; ++i) {
+					expected[i] = i - 10d;
+				}
+				assertThat(ints.toDoubleArray()).isEqualTo(expected);
+
+				for (final IChunkAllocator destination : allocators(session)) {
+					final IVector doubles = destination.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					doubles.copyFrom(ints);
+					assertThat(doubles.toDoubleArray()).isEqualTo(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCopyBetweenViews() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator source : allocators(session)) {
+				for (final IChunkAllocator destination : allocators(session)) {
+					final IVector from = range(source, Types.DOUBLE, SIZE, 1, -10);
+					final IVector to = destination.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					to.fillDouble(0d);
+					to.subVector(5, 15).copyFrom(from.subVector(20, 30));
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(to.readDouble(i)).isEqualTo(i >= 5 && i < 15 ? i + 5d : 0d);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.DirectMemoryAllocator;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.IVectorChunk;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.VectorDictionary;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.ArrayIntegerVector;
+import com.activeviam.vector.IVector;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the deduplication and the copy-on-write of the vectors stored in a {@link VectorDictionary}.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorDictionary {
+
+	@Test
+	public void testDeduplication() throws Exception {
+		for (final IChunkAllocator allocator : new IChunkAllocator[] {
+				new OnHeapAllocator(), new DirectMemoryAllocator()}) {
+			final VectorDictionary dictionary = new VectorDictionary(allocator.getVectorAllocator(Types.DOUBLE));
+			final IVectorChunk chunk = allocator.allocateVectorChunk(4, Types.DOUBLE, dictionary);
+			chunk.writeVector(0, new ArrayDoubleVector(new double[] {1, 2, 3}));
+			chunk.writeVector(1, new ArrayDoubleVector(new double[] {1, 2, 3}));
+			chunk.writeVector(2, new ArrayDoubleVector(new double[] {1, 2, 4}));
+			chunk.writeVector(3, chunk.readVector(0));
+
+			final IVector shared = chunk.readVector(0);
+			assertThat(chunk.readVector(1)).isSameAs(shared);
+			assertThat(chunk.readVector(3)).isSameAs(shared);
+			assertThat(chunk.readVector(2)).isNotSameAs(shared);
+			assertThat(dictionary.size()).isEqualTo(2);
+			assertThat(dictionary.getReferenceCount(shared)).isEqualTo(3);
+
+			// Overwriting drops a reference, without freeing the vector still used elsewhere
+			chunk.writeVector(3, null);
+			assertThat(dictionary.getReferenceCount(shared)).isEqualTo(2);
+			assertThat(shared.readDouble(2)).isEqualTo(3d);
+
+			chunk.close();
+			assertThat(dictionary.size()).isZero();
+		}
+	}
+
+	@Test
+	public void testWriteArrays() throws Exception {
+		final IChunkAllocator allocator = new DirectMemoryAllocator();
+		final VectorDictionary dictionary = new VectorDictionary(allocator.getVectorAllocator(Types.DOUBLE));
+		final IVectorChunk chunk = allocator.allocateVectorChunk(2, Types.DOUBLE, dictionary);
+		final double[] values = {1, 2, 3};
+		chunk.write(0, values);
+		chunk.write(1, new double[] {1, 2, 3});
+
+		// The arrays are copied in the dictionary, once
+		assertThat(dictionary.size()).isEqualTo(1);
+		assertThat(chunk.readVector(1)).isSameAs(chunk.readVector(0));
+		values[0] = -1;
+		assertThat(chunk.readVector(0).readDouble(0)).isEqualTo(1d);
+
+		chunk.close();
+		assertThat(dictionary.size()).isZero();
+	}
+
+	@Test
+	public void testCopyOnWrite() throws Exception {
+		final IChunkAllocator allocator = new DirectMemoryAllocator();
+		final VectorDictionary dictionary = new VectorDictionary(allocator.getVectorAllocator(Types.INTEGER));
+
+		// Two versions of the same column share the same vectors
+		final IVectorChunk previous = allocator.allocateVectorChunk(2, Types.INTEGER, dictionary);
+		final IVectorChunk next = allocator.allocateVectorChunk(2, Types.INTEGER, dictionary);
+		for (int i = 0; i < 2; ++i) {
+			previous.writeVector(i, new ArrayIntegerVector(new int[] {i, 10, 20}));
+			next.writeVector(i, previous.readVector(i));
+		}
+		assertThat(dictionary.size()).isEqualTo(2);
+		final IVector shared = previous.readVector(0);
+		assertThat(next.readVector(0)).isSameAs(shared);
+
+		// Updating a shared vector copies it first
+		final IVector updated = next.readVectorForUpdate(0);
+		assertThat(updated).isNotSameAs(shared);
+		updated.writeInt(1, -1);
+		assertThat(next.readVector(0).readInt(1)).isEqualTo(-1);
+		assertThat(previous.readVector(0).readInt(1)).isEqualTo(10);
+		assertThat(dictionary.getReferenceCount(shared)).isEqualTo(1);
+
+		// The last reference is updated in place
+		assertThat(previous.readVectorForUpdate(0)).isSameAs(shared);
+		assertThat(dictionary.size()).isEqualTo(1);
+
+		// Updated vectors are not shared anymore
+		assertThat(next.readVectorForUpdate(0)).isSameAs(updated);
+
+		previous.close();
+		next.close();
+		assertThat(dictionary.size()).isZero();
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorExpression;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the fused evaluation of {@link VectorExpression vector expressions} over vectors of every
+ * layout against a scalar computation.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorExpression extends ATestVectorLayouts {
+
+	/** Spans several blocks and is not a multiple of the number of lanes */
+	private static final int SIZE = 2 * VectorExpression.BLOCK_SIZE + 13;
+
+	private static final double FACTOR = 1.5;
+	private static final double VALUE = -3;
+	private static final double MIN = -50;
+	private static final double MAX = 80;
+
+	@Test
+	public void testAddTo() {
+		final double[] source = randomDoubles(SIZE, 1);
+		final double[] operand = randomDoubles(SIZE, 2);
+		final double[] accumulator = randomDoubles(SIZE, 3);
+		final double[] expected = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			final double x = Math.min(Math.max((source[i] * FACTOR + VALUE) + operand[i], MIN), MAX);
+			expected[i] = accumulator[i] + x;
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (final IChunkAllocator s : allocators) {
+				for (final IChunkAllocator a : allocators) {
+					final IVector sv = vector(s, source);
+					final IVector ov = vector(s, operand);
+					final IVector av = vector(a, accumulator);
+					sv.expression().scale(FACTOR).translate(VALUE).plus(ov).clamp(MIN, MAX).addTo(av);
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(av.readDouble(i)).as(description(s, a)).isEqualTo(expected[i]);
+						assertThat(sv.readDouble(i)).isEqualTo(source[i]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWriteTo() {
+		final double[] source = randomDoubles(SIZE, 1);
+		final double[] operand = randomDoubles(SIZE, 2);
+		final double[] expected = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			expected[i] = (source[i] - operand[i]) * FACTOR;
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			final IChunkAllocator[] allocators = allocators(session);
+			for (final IChunkAllocator s : allocators) {
+				for (final IChunkAllocator d : allocators) {
+					final IVector sv = vector(s, source);
+					final IVector ov = vector(d, operand);
+					final IVector dv = d.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+					sv.expression().minus(ov).scale(FACTOR).writeTo(dv);
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(dv.readDouble(i)).as(description(s, d)).isEqualTo(expected[i]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInPlace() {
+		final double[] source = randomDoubles(SIZE, 1);
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = vector(allocator, source);
+				vector.expression().scale(FACTOR).addTo(vector);
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(vector.readDouble(i)).isEqualTo(source[i] + source[i] * FACTOR);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerVectors() {
+		final int[] source = new int[SIZE];
+		final int[] accumulator = new int[SIZE];
+		final Random random = new Random(42);
+		for (int i = 0; i < SIZE; ++i) {
+			source[i] = random.nextInt(200) - 100;
+			accumulator[i] = random.nextInt(200) - 100;
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector sv = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+				final IVector av = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+				sv.copyFrom(source);
+				av.copyFrom(accumulator);
+				sv.expression().scale(2).translate(1).addTo(av);
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(av.readInt(i)).as(allocator.getClass().getSimpleName())
+							.isEqualTo(accumulator[i] + 2 * source[i] + 1);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSizes() {
+		final IChunkAllocator allocator = new OnHeapAllocator();
+		final IVector large = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+		final IVector small = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE / 2);
+
+		assertThatThrownBy(() -> large.expression().plus(small)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> large.expression().addTo(small)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> large.expression().clamp(1, 0)).isInstanceOf(IllegalArgumentException.class);
+
+		// A larger destination is only updated up to the size of the expression
+		final double[] ones = new double[SIZE];
+		Arrays.fill(ones, 1d);
+		large.copyFrom(ones);
+		small.copyFrom(Arrays.copyOf(ones, SIZE / 2));
+		small.expression().addTo(large);
+		assertThat(large.readDouble(SIZE / 2 - 1)).isEqualTo(2d);
+		assertThat(large.readDouble(SIZE / 2)).isEqualTo(1d);
+	}
+
+	private static String description(final IChunkAllocator source, final IChunkAllocator destination) {
+		return source.getClass().getSimpleName() + " -> " + destination.getClass().getSimpleName();
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.VectorDictionary;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorHashUtil;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the content hash and the content equality of the vectors, across layouts.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorHash extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail loops */
+	private static final int SIZE = 37;
+
+	@Test
+	public void testSameContentAcrossLayouts() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final Types type : new Types[] {Types.DOUBLE, Types.INTEGER}) {
+				final IVector reference = range(new OnHeapAllocator(), type, SIZE, 1, 0);
+				for (final IChunkAllocator allocator : allocators(session)) {
+					final IVector vector = range(allocator, type, SIZE, 1, 0);
+					assertThat(vector).isEqualTo(reference);
+					assertThat(vector.contentHash()).isEqualTo(reference.contentHash());
+					assertThat(vector.hashCode()).isEqualTo(reference.hashCode());
+
+					// Views hash like the vectors with their components
+					final IVector view = vector.subVector(3, SIZE);
+					final IVector shifted = range(allocator, type, SIZE + 3, 1, 0).subVector(6, SIZE + 3);
+					assertThat(view).isEqualTo(shifted);
+					assertThat(view.contentHash()).isEqualTo(shifted.contentHash());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDifferentContent() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector reference = range(allocator, Types.DOUBLE, SIZE, 1, 0);
+				// A difference in the lane blocks, then in the tail
+				for (final int index : new int[] {1, SIZE - 1}) {
+					final IVector other = range(allocator, Types.DOUBLE, SIZE, 1, 0);
+					other.writeDouble(index, -1d);
+					assertThat(other).isNotEqualTo(reference);
+					assertThat(other.contentHash()).isNotEqualTo(reference.contentHash());
+				}
+
+				// Same components, different types
+				assertThat(range(allocator, Types.INTEGER, SIZE, 1, 0)).isNotEqualTo(reference);
+				// Different lengths
+				assertThat(range(allocator, Types.DOUBLE, SIZE - 1, 1, 0)).isNotEqualTo(reference);
+			}
+		}
+	}
+
+	@Test
+	public void testDoubleBits() {
+		final IVector nan = new ArrayDoubleVector(new double[] {Double.NaN, 0d});
+		final IVector otherNan = new ArrayDoubleVector(new double[] {Double.longBitsToDouble(0x7ff0000000000123L), 0d});
+		assertThat(nan).isEqualTo(otherNan);
+		assertThat(nan.contentHash()).isEqualTo(otherNan.contentHash());
+
+		final IVector zero = new ArrayDoubleVector(new double[] {1d, 0d});
+		final IVector negativeZero = new ArrayDoubleVector(new double[] {1d, -0d});
+		assertThat(zero).isNotEqualTo(negativeZero);
+	}
+
+	@Test
+	public void testEmptyVectors() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				// The component type goes into the hash even without any component, in the views as well
+				final IVector doubles = range(allocator, Types.DOUBLE, 0, 1, 0);
+				final IVector ints = range(allocator, Types.INTEGER, 0, 1, 0);
+				final IVector doubleView = range(allocator, Types.DOUBLE, SIZE, 1, 0).subVector(SIZE, SIZE);
+				final IVector intView = range(allocator, Types.INTEGER, SIZE, 1, 0).subVector(SIZE, SIZE);
+				assertThat(ints).isNotEqualTo(doubles);
+				assertThat(ints.contentHash()).isNotEqualTo(doubles.contentHash());
+				assertThat(doubleView.contentHash()).isEqualTo(doubles.contentHash());
+				assertThat(intView.contentHash()).isEqualTo(ints.contentHash());
+				assertThat(doubles.contentHash()).isEqualTo(VectorHashUtil.hashDoubles(new double[0], 0, 0));
+			}
+		}
+	}
+
+	@Test
+	public void testDictionaryAcrossLayouts() {
+		try (MemorySession session = MemorySession.openConfined()) {
+			final VectorDictionary dictionary =
+					new VectorDictionary(new OnHeapAllocator().getVectorAllocator(Types.DOUBLE));
+			for (final IChunkAllocator allocator : allocators(session)) {
+				dictionary.acquire(range(allocator, Types.DOUBLE, SIZE, 1, 0));
+			}
+			assertThat(dictionary.size()).isEqualTo(1);
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.vector.ArrayIntegerVector;
+import com.activeviam.vector.IVector;
+import com.activeviam.vector.VectorComparison;
+import java.lang.foreign.MemorySession;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the conditional and bounding operations of {@link IVector}, against an element by element
+ * computation.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorMask extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 1_003;
+
+	@Test
+	public void testPlusAndMinusWhere() {
+		final double[] target = randomDoubles(SIZE, 1);
+		final double[] source = randomDoubles(SIZE, 2);
+		final double[] condition = randomDoubles(SIZE, 3);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator left : allocators(session)) {
+				for (final IChunkAllocator right : allocators(session)) {
+					for (final VectorComparison comparison : VectorComparison.values()) {
+						final IVector t = vector(left, target);
+						t.plusWhere(vector(right, source), vector(right, condition), comparison, 10d);
+						t.minusWhere(vector(right, condition), vector(left, source), comparison, -10d);
+						for (int i = 0; i < SIZE; ++i) {
+							double expected = target[i];
+							if (comparison.test(condition[i], 10d)) {
+								expected += source[i];
+							}
+							if (comparison.test(source[i], -10d)) {
+								expected -= condition[i];
+							}
+							assertThat(t.readDouble(i)).as(comparison + " at " + i).isEqualTo(expected);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConditionOnItself() {
+		final double[] values = randomDoubles(SIZE, 4);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				// Sum of the losses beyond the threshold, as in an expected shortfall
+				final IVector pnl = vector(allocator, values);
+				final IVector tail = vector(allocator, new double[SIZE]);
+				tail.plusWhere(pnl, pnl, VectorComparison.LE, -50d);
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(tail.readDouble(i)).isEqualTo(values[i] <= -50d ? values[i] : 0d);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSelect() {
+		final double[] condition = randomDoubles(SIZE, 5);
+		final double[] ifTrue = randomDoubles(SIZE, 6);
+		final double[] ifFalse = randomDoubles(SIZE, 7);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator left : allocators(session)) {
+				for (final IChunkAllocator right : allocators(session)) {
+					final IVector t = vector(left, new double[SIZE + 3]);
+					t.select(
+							vector(right, condition), VectorComparison.GT, 0d, vector(left, ifTrue), vector(right, ifFalse));
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(t.readDouble(i)).isEqualTo(condition[i] > 0d ? ifTrue[i] : ifFalse[i]);
+					}
+					assertThat(t.readDouble(SIZE)).isEqualTo(0d);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMaxMinAndClamp() {
+		final double[] values = randomDoubles(SIZE, 8);
+		final double[] floor = randomDoubles(SIZE, 9);
+		final double[] cap = randomDoubles(SIZE, 10);
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator left : allocators(session)) {
+				for (final IChunkAllocator right : allocators(session)) {
+					final IVector t = vector(left, values);
+					t.max(vector(right, floor));
+					t.min(vector(right, cap));
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(t.readDouble(i)).isEqualTo(Math.min(Math.max(values[i], floor[i]), cap[i]));
+					}
+				}
+				final IVector t = vector(left, values);
+				t.clamp(-25d, 30d);
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(t.readDouble(i)).isEqualTo(Math.min(Math.max(values[i], -25d), 30d));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFloatVectors() {
+		final float[] target = randomFloats(SIZE, 11);
+		final float[] source = randomFloats(SIZE, 12);
+		final float[] condition = randomFloats(SIZE, 13);
+		for (int i = 0; i < SIZE; i += 7) {
+			// Above the double threshold once widened, but equal to it rounded to a float
+			condition[i] = 0.1f;
+		}
+		try (MemorySession session = MemorySession.openShared()) {
+			for (final IChunkAllocator left : allocators(session)) {
+				for (final IChunkAllocator right : allocators(session)) {
+					for (final VectorComparison comparison : VectorComparison.values()) {
+						final IVector t = vector(left, target);
+						t.plusWhere(vector(right, source), vector(right, condition), comparison, 0.1d);
+						final IVector s = vector(left, new float[SIZE]);
+						s.select(vector(right, condition), comparison, 0.1d, vector(left, source), t);
+						for (int i = 0; i < SIZE; ++i) {
+							final boolean test = comparison.test(condition[i], 0.1d);
+							final float expected = test ? target[i] + source[i] : target[i];
+							assertThat(t.readFloat(i)).as(comparison + " at " + i).isEqualTo(expected);
+							assertThat(s.readFloat(i)).as(comparison + " at " + i)
+									.isEqualTo(test ? source[i] : expected);
+						}
+					}
+					final IVector t = vector(left, target);
+					t.max(vector(right, source));
+					t.min(vector(right, condition));
+					for (int i = 0; i < SIZE; ++i) {
+						assertThat(t.readFloat(i))
+								.isEqualTo(Math.min(Math.max(target[i], source[i]), condition[i]));
+					}
+				}
+				final IVector t = vector(left, target);
+				t.clamp(-25.3d, 30.7d);
+				for (int i = 0; i < SIZE; ++i) {
+					assertThat(t.readFloat(i)).isEqualTo((float) Math.min(Math.max(target[i], -25.3d), 30.7d));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerVectors() {
+		final IVector t = ArrayIntegerVector.of(1, -2, 3, -4, 5);
+		t.plusWhere(ArrayIntegerVector.of(10, 10, 10, 10, 10), t, VectorComparison.LT, 0d);
+		assertThat(t.toIntArray()).containsExactly(1, 8, 3, 6, 5);
+		t.clamp(2d, 5d);
+		assertThat(t.toIntArray()).containsExactly(2, 5, 3, 5, 5);
+		t.max(ArrayIntegerVector.of(4, 4, 4));
+		assertThat(t.toIntArray()).containsExactly(4, 5, 4, 5, 5);
+		t.select(t, VectorComparison.EQ, 5d, ArrayIntegerVector.of(0, 0, 0, 0, 0), t);
+		assertThat(t.toIntArray()).containsExactly(4, 0, 4, 0, 0);
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		final IChunkAllocator allocator = new OnHeapAllocator();
+		final IVector small = vector(allocator, new double[3]);
+		final IVector large = vector(allocator, new double[5]);
+		assertThatThrownBy(() -> small.max(large)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> large.plusWhere(large, small, VectorComparison.GT, 0d))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> large.select(large, VectorComparison.GT, 0d, large, small))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> large.clamp(1d, 0d)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
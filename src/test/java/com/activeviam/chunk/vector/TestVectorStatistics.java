@@ -0,0 +1,118 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the sum, average and variance of vectors of every layout against an exact computation.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorStatistics extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 10_003;
+
+	@Test
+	public void testDoubleStatistics() {
+		final Random random = new Random(42);
+		final double[] values = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = random.nextGaussian() * 1000;
+		}
+		checkDouble(values, 1e-12);
+	}
+
+	@Test
+	public void testIllConditionedDoubleStatistics() {
+		// A large mean and a small spread: computing the variance as E[x^2] - E[x]^2 loses all the
+		// significant digits
+		final Random random = new Random(42);
+		final double[] values = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = 1e9 + random.nextDouble();
+		}
+		checkDouble(values, 1e-6);
+	}
+
+	@Test
+	public void testIntegerStatistics() {
+		final Random random = new Random(42);
+		final int[] values = new int[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = random.nextInt();
+		}
+		final double[] asDoubles = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			asDoubles[i] = values[i];
+		}
+		final double sum = exactSum(asDoubles);
+		final double variance = exactVariance(asDoubles);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				final String description = allocator.getClass().getSimpleName();
+				assertThat(vector.sumDouble()).as(description).isEqualTo(sum);
+				assertThat(vector.average()).as(description).isEqualTo(sum / SIZE);
+				assertThat(vector.variance()).as(description).isCloseTo(variance, within(variance * 1e-12));
+			}
+		}
+	}
+
+	private static void checkDouble(final double[] values, final double relativeError) {
+		final double sum = exactSum(values);
+		final double variance = exactVariance(values);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				final String description = allocator.getClass().getSimpleName();
+				assertThat(vector.sumDouble()).as(description).isCloseTo(sum, within(Math.abs(sum) * 1e-15));
+				assertThat(vector.average()).as(description).isCloseTo(sum / SIZE, within(Math.abs(sum / SIZE) * 1e-15));
+				assertThat(vector.variance()).as(description).isCloseTo(variance, within(variance * relativeError));
+			}
+		}
+	}
+
+	private static double exactSum(final double[] values) {
+		BigDecimal sum = BigDecimal.ZERO;
+		for (final double value : values) {
+			sum = sum.add(new BigDecimal(value));
+		}
+		return sum.doubleValue();
+	}
+
+	private static double exactVariance(final double[] values) {
+		BigDecimal sum = BigDecimal.ZERO;
+		for (final double value : values) {
+			sum = sum.add(new BigDecimal(value));
+		}
+		final BigDecimal mean = sum.divide(BigDecimal.valueOf(values.length), MathContext.DECIMAL128);
+		BigDecimal squares = BigDecimal.ZERO;
+		for (final double value : values) {
+			final BigDecimal deviation = new BigDecimal(value).subtract(mean);
+			squares = squares.add(deviation.multiply(deviation));
+		}
+		return squares.divide(BigDecimal.valueOf(values.length), MathContext.DECIMAL128).doubleValue();
+	}
+
+}
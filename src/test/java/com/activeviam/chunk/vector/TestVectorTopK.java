@@ -0,0 +1,125 @@
+/*
+ * (C) ActiveViam 2022
+ * ALL RIGHTS RESERVED. This material is the CONFIDENTIAL and PROPRIETARY
+ * property of ActiveViam. Any unauthorized use,
+ * reproduction or transfer of this material is strictly prohibited
+ */
+
+package com.activeviam.chunk.vector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.heap.MaxHeapInteger;
+import com.activeviam.heap.MinHeapInteger;
+import com.activeviam.iterator.IPrimitiveIterator;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the top-k and bottom-k of vectors of every layout against a sorted copy of their content.
+ *
+ * @author ActiveViam
+ */
+public class TestVectorTopK extends ATestVectorLayouts {
+
+	/** Not a multiple of the number of lanes, to go through the tail of the kernels */
+	private static final int SIZE = 10_007;
+
+	private static final int[] KS = {1, 7, 100, 2_500, SIZE};
+
+	@Test
+	public void testDoubleTopK() {
+		final Random random = new Random(42);
+		final double[] values = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			// Few distinct values, to check the ties
+			values[i] = random.nextInt(1000) / 8d;
+		}
+		final double[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				check(vector, sorted, allocator.getClass().getSimpleName());
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerTopK() {
+		final Random random = new Random(42);
+		final int[] values = new int[SIZE];
+		final double[] sorted = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = random.nextInt(2000) - 1000;
+			sorted[i] = values[i];
+		}
+		Arrays.sort(sorted);
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.INTEGER).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				check(vector, sorted, allocator.getClass().getSimpleName());
+			}
+		}
+	}
+
+	@Test
+	public void testSortedInput() {
+		// Increasing values: every value beats the threshold of the top-k heap
+		final double[] values = new double[SIZE];
+		for (int i = 0; i < SIZE; ++i) {
+			values[i] = i;
+		}
+
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : allocators(session)) {
+				final IVector vector = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(SIZE);
+				vector.copyFrom(values);
+				check(vector, values, allocator.getClass().getSimpleName());
+			}
+		}
+	}
+
+	private static void check(final IVector vector, final double[] sorted, final String description) {
+		for (final int k : KS) {
+			final double[] top = Arrays.copyOfRange(sorted, SIZE - k, SIZE);
+			final double[] bottom = Arrays.copyOf(sorted, k);
+			assertThat(values(vector.topK(k), k)).as(description + " top " + k).containsExactly(top);
+			assertThat(values(vector.bottomK(k), k)).as(description + " bottom " + k).containsExactly(bottom);
+			assertThat(read(vector, vector.topKIndices(k))).as(description + " top indices " + k).containsExactly(top);
+			assertThat(read(vector, vector.bottomKIndices(k))).as(description + " bottom indices " + k).containsExactly(bottom);
+		}
+	}
+
+	private static double[] values(final IPrimitiveIterator iterator, final int k) {
+		final boolean integer = iterator instanceof MinHeapInteger || iterator instanceof MaxHeapInteger;
+		final double[] values = new double[k];
+		for (int i = 0; i < k; ++i) {
+			values[i] = integer ? iterator.nextInt() : iterator.nextDouble();
+		}
+		Arrays.sort(values);
+		return values;
+	}
+
+	private static double[] read(final IVector vector, final int[] indices) {
+		assertThat(indices).doesNotHaveDuplicates();
+		final double[] values = new double[indices.length];
+		for (int i = 0; i < indices.length; ++i) {
+			values[i] = vector.getComponentType() == Types.INTEGER
+					? vector.readInt(indices[i])
+					: vector.readDouble(indices[i]);
+		}
+		Arrays.sort(values);
+		return values;
+	}
+
+}
@@ -1,11 +1,13 @@
 package com.activeviam.structures.bitmap.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.activeviam.structures.bitmap.IBitmap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -254,6 +256,161 @@ public abstract class ATestBitmap<B extends IBitmap> {
 		match(bitmap, rowSet);
 	}
 
+	@Test
+	public void testOrWords() {
+		IBitmap bitmap = createBitmap();
+		bitmap.set(3);
+
+		final long[] words = new long[] {42L, 0b101L, -1L, 0L, 1L << 63, 0L};
+		bitmap.orWords(2, words, 1, 4);
+
+		Set<Integer> rowSet = new HashSet<>();
+		rowSet.add(3);
+		rowSet.add(2 * 64);
+		rowSet.add(2 * 64 + 2);
+		for (int i = 3 * 64; i < 4 * 64; ++i) {
+			rowSet.add(i);
+		}
+		rowSet.add(6 * 64 - 1);
+		match(bitmap, rowSet);
+
+		bitmap = createBitmap();
+		bitmap.orWords(0, words, 0, words.length);
+		rowSet = new HashSet<>();
+		rowSet.add(1);
+		rowSet.add(3);
+		rowSet.add(5);
+		rowSet.add(64);
+		rowSet.add(66);
+		for (int i = 2 * 64; i < 3 * 64; ++i) {
+			rowSet.add(i);
+		}
+		rowSet.add(5 * 64 - 1);
+		match(bitmap, rowSet);
+	}
+
+	@Test
+	public void testAndAll() {
+		final int size = 3 * 65536 + 100;
+		final IBitmap multiples2 = createBitmap();
+		final IBitmap multiples3 = createBitmap();
+		final IBitmap range = createBitmap();
+		final IBitmap sparse = createBitmap();
+		for (int i = 0; i < size; ++i) {
+			if (i % 2 == 0) {
+				multiples2.set(i);
+			}
+			if (i % 3 == 0) {
+				multiples3.set(i);
+			}
+			if (i >= 1000 && i < 2 * 65536 + 50) {
+				range.set(i);
+			}
+			if (i % 1001 == 0) {
+				sparse.set(i);
+			}
+		}
+
+		Set<Integer> rowSet = new HashSet<>();
+		for (int i = 1002; i < 2 * 65536 + 50; i += 6) {
+			rowSet.add(i);
+		}
+		match(multiples2.andAll(multiples3, range), rowSet);
+
+		rowSet = new HashSet<>();
+		for (int i = 0; i < 2 * 65536 + 50; i += 6006) {
+			if (i >= 1000) {
+				rowSet.add(i);
+			}
+		}
+		match(multiples2.andAll(multiples3, range, sparse), rowSet);
+
+		// The operands are left untouched
+		assertEquals((size + 1) / 2, multiples2.stream().count());
+		match(multiples2.andAll(createBitmap(), range), new HashSet<>());
+	}
+
+	@Test
+	public void testGetWords() {
+		final IBitmap bitmap = createBitmap();
+		final long[] words = new long[] {42L, 0L, -1L, 1L << 63, 0b101L};
+		// Cross a Roaring block boundary
+		final int wordIndex = 1020;
+		bitmap.orWords(wordIndex, words, 0, words.length);
+		bitmap.set(3);
+
+		final long[] result = new long[words.length + 3];
+		result[0] = 7L;
+		bitmap.getWords(wordIndex - 1, result, 1, words.length + 2);
+		assertEquals(7L, result[0]);
+		assertEquals(0L, result[1]);
+		for (int k = 0; k < words.length; ++k) {
+			assertEquals(words[k], result[k + 2], "Word " + k);
+		}
+		assertEquals(0L, result[words.length + 2]);
+
+		bitmap.getWords(0, result, 0, 1);
+		assertEquals(1L << 3, result[0]);
+	}
+
+	@Test
+	public void testCardinality() {
+		final IBitmap bitmap = createBitmap();
+		assertEquals(0, bitmap.cardinality());
+		for (int i = 0; i < 200_000; i += 3) {
+			bitmap.set(i);
+		}
+		assertEquals(66_667, bitmap.cardinality());
+	}
+
+	@Test
+	public void testRankSelect() {
+		final IBitmap bitmap = createBitmap();
+		final int[] rows = IntStream.concat(
+				IntStream.range(0, 70_000).filter(i -> i % 7 == 0),
+				IntStream.range(130_000, 140_000)).toArray();
+		for (final int row : rows) {
+			bitmap.set(row);
+		}
+
+		assertEquals(rows.length, bitmap.cardinality());
+		assertEquals(0, bitmap.rank(-1));
+		assertEquals(rows.length, bitmap.rank(Integer.MAX_VALUE));
+		for (int k = 0; k < rows.length; k += 97) {
+			assertEquals(rows[k], bitmap.select(k), "select " + k);
+			assertEquals(k + 1, bitmap.rank(rows[k]), "rank " + rows[k]);
+			assertEquals(k, bitmap.rank(rows[k] - 1), "rank " + (rows[k] - 1));
+		}
+		assertEquals(-1, bitmap.select(rows.length));
+		assertEquals(-1, bitmap.select(-1));
+
+		// The summaries follow the modifications
+		bitmap.set(69_999);
+		assertEquals(rows.length + 1, bitmap.cardinality());
+		assertEquals(69_999, bitmap.select(10_000));
+		bitmap.truncate(65_000);
+		assertEquals(65_000 / 7 + 1, bitmap.cardinality());
+	}
+
+	@Test
+	public void testNextSetBit() {
+		final IBitmap bitmap = createBitmap();
+		assertEquals(-1, bitmap.nextSetBit(0));
+		bitmap.set(3);
+		bitmap.set(200);
+		bitmap.set(70_000);
+
+		assertEquals(3, bitmap.nextSetBit(-5));
+		assertEquals(3, bitmap.nextSetBit(3));
+		assertEquals(200, bitmap.nextSetBit(4));
+		assertEquals(70_000, bitmap.nextSetBit(201));
+		assertEquals(-1, bitmap.nextSetBit(70_001));
+		assertEquals(-1, bitmap.nextSetBit(1_000_000));
+
+		final int[] rows = IntStream.iterate(bitmap.nextSetBit(0), i -> i >= 0, i -> bitmap.nextSetBit(i + 1)).toArray();
+		assertArrayEquals(bitmap.stream().toArray(), rows);
+	}
+
 	protected static void match(final IBitmap bitmap, final Set<Integer> rowSet) {
 		long matches = bitmap.stream().peek(row -> {
 			assertTrue(rowSet.contains(row), "Unexpected row: " + row);
@@ -1,5 +1,13 @@
 package com.activeviam.structures.bitmap.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
 /**
  * Tests on {@link BitSetBitmap}.
  *
@@ -12,4 +20,34 @@ public class TestBitSetBitmap extends ATestBitmap<BitSetBitmap> {
 		return new BitSetBitmap();
 	}
 
+	@Test
+	public void testConcurrentReaders() throws Exception {
+		final BitSetBitmap bitmap = createBitmap();
+		final int[] rows = IntStream.range(0, 100_000).filter(i -> i % 5 == 0).toArray();
+		for (final int row : rows) {
+			bitmap.set(row);
+		}
+		// Outdate the summaries, so that the readers race to compute them
+		bitmap.truncate(bitmap.capacity());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Future<?>[] futures = new Future<?>[8];
+			for (int t = 0; t < futures.length; ++t) {
+				final int first = t;
+				futures[t] = executor.submit(() -> {
+					for (int k = first; k < rows.length; k += 101) {
+						assertEquals(rows[k], bitmap.select(k), "select " + k);
+						assertEquals(k + 1, bitmap.rank(rows[k]), "rank " + rows[k]);
+					}
+				});
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
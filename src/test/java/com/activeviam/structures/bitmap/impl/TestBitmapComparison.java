@@ -0,0 +1,86 @@
+package com.activeviam.structures.bitmap.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the memory footprint of the {@link IBitmap} implementations.
+ * <p>
+ * Their speeds are compared by {@code JmhBenchmarkBitmap}.
+ *
+ * @author ActiveViam
+ */
+public class TestBitmapComparison {
+
+	/** Number of rows covered by the bitmaps */
+	protected static final int ROW_COUNT = 100_000_000;
+
+	@Test
+	public void testSparseMemory() {
+		final int cardinality = 10_000;
+		final Random random = new Random(42);
+		final int[] rows = random.ints(cardinality, 0, ROW_COUNT).sorted().toArray();
+
+		final IBitmap bitset = fill(new BitSetBitmap(), rows);
+		final IBitmap roaring = fill(new RoaringBitmap(), rows);
+
+		assertEquals(bitset.stream().count(), roaring.stream().count());
+		// An array container holds a value on 2 bytes
+		assertTrue(roaring.sizeInBytes() < 100 * cardinality, "Roaring bitmap size: " + roaring.sizeInBytes());
+		assertTrue(roaring.sizeInBytes() * 100 < bitset.sizeInBytes());
+	}
+
+	@Test
+	public void testDenseMemory() {
+		final IBitmap bitset = new BitSetBitmap();
+		final RoaringBitmap roaring = new RoaringBitmap();
+		for (int row = 0; row < 10_000_000; row += 2) {
+			bitset.set(row);
+			roaring.set(row);
+		}
+
+		// Bitmap containers cost about as much as the uncompressed bitmap
+		assertTrue(roaring.sizeInBytes() < 2 * bitset.sizeInBytes());
+	}
+
+	@Test
+	public void testRunsMemory() {
+		final IBitmap bitset = new BitSetBitmap();
+		final RoaringBitmap roaring = new RoaringBitmap();
+		for (int row = 0; row < ROW_COUNT; row += 1_000_000) {
+			for (int i = row; i < row + 10_000; ++i) {
+				bitset.set(i);
+			}
+			roaring.setRange(row, row + 10_000);
+		}
+
+		assertTrue(roaring.sizeInBytes() * 100 < bitset.sizeInBytes());
+	}
+
+	@Test
+	public void testSameOperations() {
+		final Random random = new Random(42);
+		final int[] rows1 = random.ints(10_000, 0, 1_000_000).sorted().toArray();
+		final int[] rows2 = random.ints(10_000, 0, 1_000_000).sorted().toArray();
+
+		final IBitmap bitset1 = fill(new BitSetBitmap(), rows1);
+		final IBitmap bitset2 = fill(new BitSetBitmap(), rows2);
+		final IBitmap roaring1 = fill(new RoaringBitmap(), rows1);
+		final IBitmap roaring2 = fill(new RoaringBitmap(), rows2);
+		assertArrayEquals(bitset1.and(bitset2).stream().toArray(), roaring1.and(roaring2).stream().toArray());
+		assertArrayEquals(bitset1.or(bitset2).stream().toArray(), roaring1.or(roaring2).stream().toArray());
+	}
+
+	protected static IBitmap fill(final IBitmap bitmap, final int[] rows) {
+		for (int row : rows) {
+			bitmap.set(row);
+		}
+		return bitmap;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.activeviam.structures.bitmap.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.activeviam.structures.bitmap.IBitmap;
+import com.activeviam.structures.bitmap.IBitmapExpression;
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests on the {@link IBitmapExpression} implementations.
+ *
+ * @author ActiveViam
+ */
+public class TestBitmapExpression {
+
+	/** Spans several blocks, with a partial last word */
+	protected static final int SIZE = 5 * ABitmapExpression.BLOCK_WORDS * Long.SIZE + 33;
+
+	protected static IBitmapExpression leaf(final IntPredicate predicate) {
+		final IBitmap bitmap = new RoaringBitmap();
+		IntStream.range(0, SIZE).filter(predicate).forEach(bitmap::set);
+		return new LeafBitmapExpression(bitmap);
+	}
+
+	protected static void check(final IBitmapExpression expression, final IntPredicate expected) {
+		final int[] rows = IntStream.range(0, SIZE).filter(expected).toArray();
+		assertArrayEquals(rows, expression.stream(SIZE).toArray(), "Streamed rows");
+		assertArrayEquals(
+				rows,
+				expression.evaluate(SIZE, new BitSetBitmap()).stream().toArray(),
+				"Materialized rows");
+	}
+
+	@Test
+	public void testAnd() {
+		final IBitmapExpression even = leaf(i -> i % 2 == 0);
+		final IBitmapExpression multiple3 = leaf(i -> i % 3 == 0);
+		final IBitmapExpression firstBlock = leaf(i -> i < 4096);
+		check(new AndBitmapExpression(even, multiple3, firstBlock), i -> i % 6 == 0 && i < 4096);
+		check(new AndBitmapExpression(even), i -> i % 2 == 0);
+		check(new AndBitmapExpression(), i -> true);
+	}
+
+	@Test
+	public void testOr() {
+		final IBitmapExpression even = leaf(i -> i % 2 == 0);
+		final IBitmapExpression odd = leaf(i -> i % 2 == 1);
+		final IBitmapExpression sparse = leaf(i -> i % 1000 == 1);
+		check(new OrBitmapExpression(even, sparse), i -> i % 2 == 0 || i % 1000 == 1);
+		check(new OrBitmapExpression(even, odd, sparse), i -> true);
+		check(new OrBitmapExpression(), i -> false);
+	}
+
+	@Test
+	public void testNot() {
+		final IBitmapExpression even = leaf(i -> i % 2 == 0);
+		final IBitmapExpression lastBlock = leaf(i -> i >= SIZE - 100);
+		check(new NotBitmapExpression(even, SIZE), i -> i % 2 == 1);
+		check(new NotBitmapExpression(new OrBitmapExpression(), SIZE), i -> true);
+		check(
+				new AndBitmapExpression(lastBlock, new NotBitmapExpression(even, SIZE - 10)),
+				i -> i >= SIZE - 100 && i < SIZE - 10 && i % 2 == 1);
+		check(
+				new OrBitmapExpression(lastBlock, new NotBitmapExpression(leaf(i -> i > 10), SIZE)),
+				i -> i <= 10 || i >= SIZE - 100);
+	}
+
+	@Test
+	public void testOrdering() {
+		final IBitmapExpression dense = leaf(i -> i % 2 == 0);
+		final IBitmapExpression sparse = leaf(i -> i % 1000 == 0);
+		final AndBitmapExpression and = new AndBitmapExpression(dense, sparse);
+		assertEquals(sparse, and.operands[0]);
+		assertEquals(sparse.estimateCardinality(), and.estimateCardinality());
+		final OrBitmapExpression or = new OrBitmapExpression(sparse, dense);
+		assertEquals(dense, or.operands[0]);
+	}
+
+	@Test
+	public void testIterator() {
+		final PrimitiveIterator.OfInt iterator = new AndBitmapExpression(
+				leaf(i -> i == 5000),
+				leaf(i -> i % 1000 == 0)).iterator(SIZE);
+		assertEquals(5000, iterator.nextInt());
+		assertFalse(iterator.hasNext());
+		assertFalse(iterator.hasNext());
+		assertFalse(new OrBitmapExpression().iterator(SIZE).hasNext());
+		assertFalse(new AndBitmapExpression().iterator(0).hasNext());
+	}
+
+}
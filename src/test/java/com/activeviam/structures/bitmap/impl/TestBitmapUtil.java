@@ -0,0 +1,101 @@
+package com.activeviam.structures.bitmap.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests on {@link BitmapUtil}, comparing the vectorized kernels with scalar loops.
+ *
+ * @author ActiveViam
+ */
+public class TestBitmapUtil {
+
+	/** Not a multiple of the number of lanes, to exercise the tail loops */
+	protected static final int LENGTH = 1027;
+
+	protected static long[] randomWords(final Random random) {
+		final long[] words = new long[LENGTH];
+		for (int i = 0; i < LENGTH; ++i) {
+			words[i] = random.nextLong();
+		}
+		return words;
+	}
+
+	@Test
+	public void testBinaryOperations() {
+		final Random random = new Random(42);
+		final long[] a = randomWords(random);
+		final long[] b = randomWords(random);
+		final long[] and = new long[LENGTH];
+		final long[] or = new long[LENGTH];
+		final long[] andNot = new long[LENGTH];
+		final long[] xor = new long[LENGTH];
+		for (int i = 0; i < LENGTH; ++i) {
+			and[i] = a[i] & b[i];
+			or[i] = a[i] | b[i];
+			andNot[i] = a[i] & ~b[i];
+			xor[i] = a[i] ^ b[i];
+		}
+
+		final long[] dest = new long[LENGTH];
+		BitmapUtil.and(a, b, dest, LENGTH);
+		assertArrayEquals(and, dest);
+		BitmapUtil.or(a, b, dest, LENGTH);
+		assertArrayEquals(or, dest);
+		BitmapUtil.andNot(a, b, dest, LENGTH);
+		assertArrayEquals(andNot, dest);
+		BitmapUtil.xor(a, b, dest, LENGTH);
+		assertArrayEquals(xor, dest);
+
+		// In place
+		BitmapUtil.and(a, b, a, LENGTH);
+		assertArrayEquals(and, a);
+	}
+
+	@Test
+	public void testMultiwayAnd() {
+		final Random random = new Random(42);
+		final long[][] operands = new long[5][];
+		for (int k = 0; k < operands.length; ++k) {
+			operands[k] = randomWords(random);
+		}
+		final long[] expected = operands[0].clone();
+		for (int k = 1; k < operands.length; ++k) {
+			for (int i = 0; i < LENGTH; ++i) {
+				expected[i] &= operands[k][i];
+			}
+		}
+
+		final long[] dest = new long[LENGTH];
+		BitmapUtil.and(operands, dest, LENGTH);
+		assertArrayEquals(expected, dest);
+	}
+
+	@Test
+	public void testCardinality() {
+		final long[] words = randomWords(new Random(42));
+		for (final int[] range : new int[][] {{0, LENGTH}, {3, 17}, {5, 5}, {1, LENGTH - 2}}) {
+			int expected = 0;
+			for (int i = range[0]; i < range[1]; ++i) {
+				expected += Long.bitCount(words[i]);
+			}
+			assertEquals(expected, BitmapUtil.cardinality(words, range[0], range[1]));
+		}
+	}
+
+	@Test
+	public void testSelectBlock() {
+		// Blocks 1 and 3 are empty
+		final int[] ranks = {0, 4, 4, 6, 6, 9};
+		assertEquals(0, BitmapUtil.selectBlock(ranks, 5, 0));
+		assertEquals(0, BitmapUtil.selectBlock(ranks, 5, 3));
+		assertEquals(2, BitmapUtil.selectBlock(ranks, 5, 4));
+		assertEquals(2, BitmapUtil.selectBlock(ranks, 5, 5));
+		assertEquals(4, BitmapUtil.selectBlock(ranks, 5, 6));
+		assertEquals(4, BitmapUtil.selectBlock(ranks, 5, 8));
+	}
+
+}
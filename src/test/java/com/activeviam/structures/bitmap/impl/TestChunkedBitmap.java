@@ -1,5 +1,9 @@
 package com.activeviam.structures.bitmap.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
 /**
  * Tests on {@link ChunkedBitmap}.
  *
@@ -12,4 +16,34 @@ public class TestChunkedBitmap extends ATestBitmap<ChunkedBitmap> {
 		return new ChunkedBitmap(128);
 	}
 
+	@Test
+	public void testGetWordsOfUnalignedChunks() {
+		// Chunks smaller than a word and chunks spanning several words, none aligned on words
+		for (final int chunkSize : new int[] {5, 100}) {
+			final ChunkedBitmap bitmap = new ChunkedBitmap(chunkSize);
+			final BitSetBitmap expected = new BitSetBitmap();
+			for (int i = 0; i < 1_000; i += 1 + i % 7) {
+				bitmap.set(i);
+				expected.set(i);
+			}
+			for (int i = 300; i < 420; ++i) {
+				bitmap.set(i);
+				expected.set(i);
+			}
+
+			final long[] words = new long[20];
+			final long[] expectedWords = new long[20];
+			bitmap.getWords(0, words, 0, words.length);
+			expected.getWords(0, expectedWords, 0, expectedWords.length);
+			for (int k = 0; k < words.length; ++k) {
+				assertEquals(expectedWords[k], words[k], "Word " + k + " with chunks of " + chunkSize);
+			}
+
+			bitmap.getWords(3, words, 1, 4);
+			for (int k = 0; k < 4; ++k) {
+				assertEquals(expectedWords[3 + k], words[1 + k], "Word " + (3 + k) + " with chunks of " + chunkSize);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,140 @@
+package com.activeviam.structures.bitmap.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests on {@link RoaringBitmap}.
+ *
+ * @author ActiveViam
+ */
+public class TestRoaringBitmap extends ATestBitmap<RoaringBitmap> {
+
+	@Override
+	protected RoaringBitmap createBitmap() {
+		return new RoaringBitmap();
+	}
+
+	@Test
+	public void testContainerConversions() {
+		final RoaringBitmap bitmap = createBitmap();
+		final Set<Integer> rowSet = new HashSet<>();
+		// Dense block: more than 4096 values turns the array into a bitmap
+		for (int row = 0; row < 65_536; row += 2) {
+			bitmap.set(row);
+			rowSet.add(row);
+		}
+		// Unordered insertions in a sparse block
+		for (int row = 3 * 65_536 + 1_000; row > 3 * 65_536; row -= 10) {
+			bitmap.set(row);
+			rowSet.add(row);
+		}
+		match(bitmap, rowSet);
+		assertEquals(rowSet.size(), bitmap.cardinality());
+
+		// Runs
+		bitmap.setRange(100_000, 300_000);
+		for (int row = 100_000; row < 300_000; ++row) {
+			rowSet.add(row);
+		}
+		match(bitmap, rowSet);
+		bitmap.runOptimize();
+		match(bitmap, rowSet);
+		assertTrue(bitmap.get(299_999));
+		assertFalse(bitmap.get(300_000));
+
+		final RoaringBitmap clone = bitmap.clone();
+		assertEquals(bitmap, clone);
+		match(clone, rowSet);
+	}
+
+	@Test
+	public void testTruncate() {
+		final RoaringBitmap bitmap = createBitmap();
+		bitmap.set(1);
+		bitmap.setRange(65_530, 70_000);
+		bitmap.set(200_000);
+		bitmap.truncate(65_540);
+
+		final Set<Integer> rowSet = new HashSet<>();
+		rowSet.add(1);
+		for (int row = 65_530; row < 65_540; ++row) {
+			rowSet.add(row);
+		}
+		match(bitmap, rowSet);
+
+		bitmap.truncate(0);
+		assertTrue(bitmap.isEmpty());
+	}
+
+	@Test
+	public void testRankSelectOnAllContainers() {
+		final RoaringBitmap bitmap = createBitmap();
+		// Array, bitmap and run containers
+		bitmap.set(5);
+		bitmap.set(60_000);
+		for (int i = 65536; i < 2 * 65536; i += 3) {
+			bitmap.set(i);
+		}
+		bitmap.setRange(3 * 65536 + 10, 3 * 65536 + 20);
+		bitmap.setRange(3 * 65536 + 100, 3 * 65536 + 50_000);
+		bitmap.runOptimize();
+
+		final int[] rows = bitmap.stream().toArray();
+		assertEquals(rows.length, bitmap.cardinality());
+		for (int k = 0; k < rows.length; k += 7) {
+			assertEquals(rows[k], bitmap.select(k), "select " + k);
+			assertEquals(k + 1, bitmap.rank(rows[k]), "rank " + rows[k]);
+			assertEquals(k, bitmap.rank(rows[k] - 1), "rank " + (rows[k] - 1));
+			assertEquals(rows[k], bitmap.nextSetBit(rows[k]), "next " + rows[k]);
+			if (k + 1 < rows.length) {
+				assertEquals(rows[k + 1], bitmap.nextSetBit(rows[k] + 1), "next " + (rows[k] + 1));
+			}
+		}
+		assertEquals(3 * 65536 + 100, bitmap.nextSetBit(3 * 65536 + 20));
+		assertEquals(-1, bitmap.nextSetBit(3 * 65536 + 50_000));
+	}
+
+	@Test
+	public void testMixedContainersOperations() {
+		final RoaringBitmap runs = createBitmap();
+		runs.setRange(0, 10_000);
+		runs.setRange(20_000, 70_000);
+
+		final RoaringBitmap dense = createBitmap();
+		for (int row = 0; row < 131_072; row += 3) {
+			dense.set(row);
+		}
+
+		final RoaringBitmap sparse = createBitmap();
+		for (int row = 0; row < 131_072; row += 1000) {
+			sparse.set(row);
+		}
+
+		for (RoaringBitmap left : new RoaringBitmap[] {runs, dense, sparse}) {
+			for (RoaringBitmap right : new RoaringBitmap[] {runs, dense, sparse}) {
+				final Set<Integer> and = new HashSet<>();
+				final Set<Integer> or = new HashSet<>();
+				left.stream().forEach(or::add);
+				right.stream().forEach(row -> {
+					or.add(row);
+					if (left.get(row)) {
+						and.add(row);
+					}
+				});
+				match(left.and(right), and);
+				match(left.or(right), or);
+
+				final RoaringBitmap result = createBitmap();
+				left.and(right, result);
+				match(result, and);
+			}
+		}
+	}
+
+}
@@ -1,8 +1,10 @@
 package com.activeviam.structures.index;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.activeviam.structures.bitmap.IBitmap;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -85,6 +87,32 @@ public abstract class ATestBitmapIndex<B extends IWritableBitmapIndex> {
 
 	}
 
+	@Test
+	public void testMatchExpression() {
+		final int size = 3 * 4096 + 17;
+		IWritableBitmapIndex index = createBitmapIndex(3);
+		for (int i = 0; i < size; ++i) {
+			index.append(new int[] {i % 4, i < 4096 ? PORTFOLIO_A : PORTFOLIO_B, i % 1000 == 0 ? DATE_2 : DATE_1});
+		}
+
+		// Only the first block matches PORTFOLIO_A, the other ones are skipped
+		int[] expected = IntStream.range(0, 4096).filter(i -> i % 4 == USD && i % 1000 != 0).toArray();
+		rangeMatch(index, new int[] {USD, PORTFOLIO_A, DATE_1}, expected);
+
+		expected = IntStream.range(0, size)
+				.filter(i -> (i % 4 == EUR || i % 4 == GBP) && i >= 4096 && i % 1000 == 0)
+				.toArray();
+		rangeMatch(index, new int[][] {{EUR, GBP}, {PORTFOLIO_B}, {DATE_2}}, expected);
+
+		expected = IntStream.range(0, size).filter(i -> i % 4 != JPY).toArray();
+		rangeMatch(index, new int[][] {{EUR, USD, GBP}, {ANY}, {DATE_1, DATE_2}}, expected);
+
+		// Pagination: the expression is evaluated lazily
+		assertArrayEquals(
+				new int[] {4096, 4100},
+				index.matchExpression(new int[] {EUR, PORTFOLIO_B, ANY}).stream(size).limit(2).toArray());
+	}
+
 	protected void exactMatch(IWritableBitmapIndex index, int[] pattern, int row) {
 		int[] rows = match(index, pattern);
 		assertEquals(1, rows.length, "Exact match should return a single row");
@@ -93,6 +121,10 @@ public abstract class ATestBitmapIndex<B extends IWritableBitmapIndex> {
 
 	protected void rangeMatch(IWritableBitmapIndex index, int[] pattern, int... expected) {
 		int[] rows = match(index, pattern);
+		assertArrayEquals(
+				rows,
+				index.matchExpression(pattern).stream(index.size()).toArray(),
+				"Streamed expression");
 
 		if (expected == null) {
 			expected = new int[0];
@@ -105,6 +137,10 @@ public abstract class ATestBitmapIndex<B extends IWritableBitmapIndex> {
 
 	protected void rangeMatch(IWritableBitmapIndex index, int[][] pattern, int... expected) {
 		int[] rows = match(index, pattern);
+		assertArrayEquals(
+				rows,
+				index.matchExpression(pattern).stream(index.size()).toArray(),
+				"Streamed expression");
 		if (expected == null) {
 			expected = new int[0];
 		}
@@ -0,0 +1,17 @@
+package com.activeviam.structures.index;
+
+import com.activeviam.structures.index.impl.RoaringBitmapIndex;
+
+/**
+ * Tests on {@link RoaringBitmapIndex}.
+ *
+ * @author ActiveViam
+ */
+public class TestRoaringBitmapIndex extends ATestBitmapIndex<RoaringBitmapIndex> {
+
+	@Override
+	protected RoaringBitmapIndex createBitmapIndex(int levels) {
+		return new RoaringBitmapIndex(levels);
+	}
+
+}
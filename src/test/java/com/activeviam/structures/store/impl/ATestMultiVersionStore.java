@@ -156,6 +156,33 @@ public abstract class ATestMultiVersionStore {
 		assertEquals(1, v2.size());
 	}
 
+	@Test
+	public void testScanPage() {
+		final AMultiVersionStore mv = create();
+
+		IStoreTransaction t = mv.getOrCreateTransaction();
+		for (int i = 0; i < 300; ++i) {
+			t.submitRecord(create(i, i % 3, 0, 0, i, 0));
+		}
+		final IStoreVersion v1 = mv.commit(epochSupplier.get());
+
+		// The pages are the ones of the full scans
+		final int[] pattern = new int[] {1, ANY, ANY};
+		final int[] rows = v1.findRows(pattern).stream().toArray();
+		for (final int skip : new int[] {0, 10, Math.max(0, rows.length - 2), rows.length, rows.length + 5}) {
+			assertArrayEquals(
+					IntStream.of(rows).skip(skip).limit(3).toArray(),
+					v1.scan(pattern, skip, 3).mapToInt(r -> r.readInt(0)).toArray(),
+					"skip " + skip);
+		}
+
+		final int[][] compositePattern = new int[][] {{1, 2}, {ANY}, {ANY}};
+		final int[] compositeRows = v1.findRows(compositePattern).stream().toArray();
+		assertArrayEquals(
+				IntStream.of(compositeRows).skip(7).limit(20).toArray(),
+				v1.scan(compositePattern, 7, 20).mapToInt(r -> r.readInt(0)).toArray());
+	}
+
 	@Test
 	public void testConcurrency() {
 		final IMultiVersionStore mv = create();
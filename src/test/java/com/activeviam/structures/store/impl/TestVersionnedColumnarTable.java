@@ -25,6 +25,24 @@ public class TestVersionnedColumnarTable extends TestColumnarTable {
 	}
 
 
+	@Test
+	public void testGetValidRecordCount() {
+		final int chunkSize = 4;
+		final VersionedColumnarTable table = new VersionedColumnarTable(new TableFormat(2, 1, chunkSize));
+		for (int i = 0; i < 3 * chunkSize + 1; i++) {
+			table.append(new Record(new int[] {i, i}, new double[] {i}));
+		}
+		table.commit(0, 1, Collections.emptySet());
+		assertEquals(3 * chunkSize + 1, table.getValidRecordCount(1, 3 * chunkSize + 1));
+		assertEquals(2 * chunkSize, table.getValidRecordCount(1, 2 * chunkSize));
+
+		// Delete one row of the second chunk
+		table.commit(3 * chunkSize + 1, 2, Collections.singleton(chunkSize + 1));
+		assertEquals(3 * chunkSize + 1, table.getValidRecordCount(1, 3 * chunkSize + 1));
+		assertEquals(3 * chunkSize, table.getValidRecordCount(2, 3 * chunkSize + 1));
+		assertEquals(chunkSize + 1, table.getValidRecordCount(2, chunkSize + 2));
+	}
+
 	/**
 	 * Test the {@link VersionedColumnarTable#discardBefore(long)} method
 	 */
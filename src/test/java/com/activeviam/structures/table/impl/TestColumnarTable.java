@@ -1,10 +1,17 @@
 package com.activeviam.structures.table.impl;
 
+import com.activeviam.Types;
+import com.activeviam.chunk.IChunkAllocator;
+import com.activeviam.chunk.OnHeapAllocator;
+import com.activeviam.chunk.SegmentMemoryAllocator;
 import com.activeviam.structures.bitmap.IBitmap;
 import com.activeviam.structures.bitmap.impl.BitSetBitmap;
 import com.activeviam.structures.store.impl.ColumnarTable;
 import com.activeviam.structures.store.impl.ColumnarTable.TableFormat;
 import com.activeviam.structures.store.impl.Record;
+import com.activeviam.vector.ArrayDoubleVector;
+import com.activeviam.vector.IVector;
+import java.lang.foreign.MemorySession;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -30,4 +37,70 @@ public class TestColumnarTable {
 		Assertions.assertEquals(expected, table.findRows(new int[] {-1, -1, 2}));
 	}
 
+	@Test
+	public void testFindRowsOnWordAlignedChunks() {
+		final int chunkSize = 128;
+		final ColumnarTable table = new ColumnarTable(new TableFormat(2, 1, chunkSize));
+		final int size = 3 * chunkSize + 5;
+		for (int i = 0; i < size; i++) {
+			table.append(new Record(new int[] {i % 3, i % 2}, new double[] {i * 1D}));
+		}
+
+		IBitmap expected = new BitSetBitmap();
+		for (int i = 0; i < size; i += 6) {
+			expected.set(i);
+		}
+		Assertions.assertEquals(expected, table.findRows(new int[] {0, 0}));
+
+		expected.clear();
+		for (int i = 0; i < size; i++) {
+			expected.set(i);
+		}
+		Assertions.assertEquals(expected, table.findRows(new int[] {-1, -1}));
+	}
+
+	@Test
+	public void testVectorColumns() {
+		final int chunkSize = 4;
+		final int vectorLength = 20;
+		try (MemorySession session = MemorySession.openConfined()) {
+			for (final IChunkAllocator allocator : new IChunkAllocator[] {
+					new OnHeapAllocator(), new SegmentMemoryAllocator(session)}) {
+				final ColumnarTable table = new ColumnarTable(
+						new TableFormat(1, 0, 2, vectorLength, chunkSize), allocator);
+				final int size = 2 * chunkSize + 1;
+				for (int i = 0; i < size; i++) {
+					table.append(new Record(new int[] {i % 2}, new double[0]));
+					final double[] pnl = new double[vectorLength];
+					for (int j = 0; j < vectorLength; j++) {
+						pnl[j] = i * 100 + j;
+					}
+					table.writeVector(i, 0, new ArrayDoubleVector(pnl));
+				}
+
+				// Rows are views of the arena
+				final IVector row = table.readVector(5, 0);
+				Assertions.assertEquals(vectorLength, row.size());
+				Assertions.assertEquals(503D, row.readDouble(3));
+				row.writeDouble(3, -1D);
+				Assertions.assertEquals(-1D, table.readVector(5, 0).readDouble(3));
+				row.writeDouble(3, 503D);
+
+				// The other vector column is untouched
+				Assertions.assertEquals(0D, table.readVector(5, 1).readDouble(3));
+
+				// Sum of the even rows 0, 2, 4, 6, 8
+				final IVector sum = allocator.getVectorAllocator(Types.DOUBLE).allocateNewVector(vectorLength);
+				sum.fillDouble(0D);
+				table.plusVectors(new int[] {0}, 0, sum);
+				for (int j = 0; j < vectorLength; j++) {
+					Assertions.assertEquals(2000D + 5 * j, sum.readDouble(j));
+				}
+
+				Assertions.assertThrows(IllegalArgumentException.class,
+						() -> table.writeVector(0, 0, new ArrayDoubleVector(new double[vectorLength + 1])));
+			}
+		}
+	}
+
 }